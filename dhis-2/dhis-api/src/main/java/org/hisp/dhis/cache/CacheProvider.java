@@ -48,17 +48,15 @@ public interface CacheProvider
 
     <V> Cache<V> createAnalyticsCache();
 
+    <V> Cache<V> createAnalyticsInFlightCache();
+
     <V> Cache<V> createDefaultObjectCache();
 
     <V> Cache<V> createIsDataApprovedCache();
 
     <V> Cache<V> createAllConstantsCache();
 
-    <V> Cache<V> createInUserOrgUnitHierarchyCache();
-
-    <V> Cache<V> createInUserViewOrgUnitHierarchyCache();
-
-    <V> Cache<V> createInUserSearchOrgUnitHierarchyCache();
+    <V> Cache<V> createExpressionParseTreeCache();
 
     <V> Cache<V> createUserCaptureOrgUnitThresholdCache();
 
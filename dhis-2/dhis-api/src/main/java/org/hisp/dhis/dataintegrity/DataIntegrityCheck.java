@@ -30,6 +30,7 @@ package org.hisp.dhis.dataintegrity;
 import static java.util.stream.Collectors.joining;
 
 import java.io.Serializable;
+import java.util.Set;
 import java.util.function.Function;
 import java.util.stream.Stream;
 
@@ -96,6 +97,19 @@ public final class DataIntegrityCheck implements Serializable
 
     private final String summaryID;
 
+    /**
+     * Names of the database tables the check reads. Empty when the tables are
+     * not known or the result also depends on something else, like the
+     * current time. {@code null} for checks that are not run as SQL.
+     */
+    private final Set<String> tables;
+
+    /**
+     * Statement timeout in seconds for checks run as SQL, zero to use the
+     * configured default.
+     */
+    private final int timeout;
+
     private final transient Function<DataIntegrityCheck, DataIntegritySummary> runSummaryCheck;
 
     private final transient Function<DataIntegrityCheck, DataIntegrityDetails> runDetailsCheck;
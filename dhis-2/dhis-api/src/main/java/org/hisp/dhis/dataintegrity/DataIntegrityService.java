@@ -72,9 +72,35 @@ public interface DataIntegrityService
     @Nonnull
     Map<String, DataIntegrityDetails> getDetails( @Nonnull Set<String> checks, long timeout );
 
-    void runSummaryChecks( @Nonnull Set<String> checks, JobProgress progress );
+    default void runSummaryChecks( @Nonnull Set<String> checks, JobProgress progress )
+    {
+        runSummaryChecks( checks, progress, false );
+    }
+
+    /**
+     * Runs the summary checks and caches their results.
+     *
+     * @param checks names of the checks to run, empty for all default checks
+     * @param progress to track the progress
+     * @param incremental when true, checks that only read tables which did not
+     *        change since the cached result was computed are skipped
+     */
+    void runSummaryChecks( @Nonnull Set<String> checks, JobProgress progress, boolean incremental );
 
-    void runDetailsChecks( @Nonnull Set<String> checks, JobProgress progress );
+    default void runDetailsChecks( @Nonnull Set<String> checks, JobProgress progress )
+    {
+        runDetailsChecks( checks, progress, false );
+    }
+
+    /**
+     * Runs the details checks and caches their results.
+     *
+     * @param checks names of the checks to run, empty for all default checks
+     * @param progress to track the progress
+     * @param incremental when true, checks that only read tables which did not
+     *        change since the cached result was computed are skipped
+     */
+    void runDetailsChecks( @Nonnull Set<String> checks, JobProgress progress, boolean incremental );
 
     @Nonnull
     Set<String> getRunningSummaryChecks();
@@ -27,6 +27,8 @@
  */
 package org.hisp.dhis.dataintegrity;
 
+import java.util.Set;
+
 /**
  * Database support for running data integrity checks.
  * <p>
@@ -53,4 +55,30 @@ public interface DataIntegrityStore
      * @return the mapped details
      */
     DataIntegrityDetails queryDetails( DataIntegrityCheck check, String sql );
+
+    /**
+     * Sums up the number of rows inserted, updated and deleted in the given
+     * tables. Comparing the sum from before two runs of a check tells whether
+     * any of the tables it reads have changed in between.
+     *
+     * @param tables names of the tables
+     * @return the sum, or -1 if it is not known for all of the tables
+     */
+    long getModificationCount( Set<String> tables );
+
+    /**
+     * Tells if the last run of the given check by this store could see all
+     * changes written to the main database before it started. The counts of
+     * {@link #getModificationCount(Set)} are only collected on the main
+     * database, so a check result can only be related to a count when the
+     * check could see all the changes the count includes. This is determined
+     * on the same connection the check ran on, as different connections might
+     * be to different read replicas. Checks which are not run by this store run
+     * on the main database and are always current.
+     *
+     * @param check the check that was run
+     * @return true, if the check saw all changes written before it started,
+     *         false if it might not have or if this is not known
+     */
+    boolean isCheckDatabaseCurrent( DataIntegrityCheck check );
 }
@@ -39,7 +39,6 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 import java.util.Set;
 
 import org.apache.commons.lang3.StringUtils;
@@ -622,10 +621,67 @@ public class OrganisationUnit
             return false;
         }
 
-        return ancestors.stream()
-            .filter( Objects::nonNull )
-            .map( OrganisationUnit::getUid )
-            .anyMatch( uid -> StringUtils.contains( path, uid ) );
+        Set<String> ancestorUids = new HashSet<>();
+        for ( OrganisationUnit ancestor : ancestors )
+        {
+            if ( ancestor != null )
+            {
+                ancestorUids.add( ancestor.getUid() );
+            }
+        }
+
+        return isInHierarchyOf( ancestorUids );
+    }
+
+    /**
+     * Indicates whether this org unit is any of or a descendant of any of the
+     * org units with the given UIDs.
+     * <p>
+     * The materialized path is used as hierarchy index: each of its segments
+     * is probed in the given set so neither the parents nor the database are
+     * accessed. Only if the path is not yet known it is computed from the
+     * parents.
+     *
+     * @param rootUids UIDs of the potential ancestors
+     * @return true if any of the UIDs is on the path of this org unit
+     */
+    public boolean isInHierarchyOf( Set<String> rootUids )
+    {
+        if ( isEmpty( rootUids ) )
+        {
+            return false;
+        }
+
+        String unitPath = hasPath() ? path : getPath();
+        int start = 1;
+
+        while ( start < unitPath.length() )
+        {
+            int end = unitPath.indexOf( PATH_SEP, start );
+
+            if ( end < 0 )
+            {
+                end = unitPath.length();
+            }
+
+            if ( rootUids.contains( unitPath.substring( start, end ) ) )
+            {
+                return true;
+            }
+
+            start = end + 1;
+        }
+
+        return false;
+    }
+
+    /**
+     * @return true if the materialized path is known, which is the case for
+     *         all org units loaded from the database
+     */
+    public boolean hasPath()
+    {
+        return path != null && !path.isEmpty();
     }
 
     public Set<OrganisationUnit> getChildrenThisIfEmpty()
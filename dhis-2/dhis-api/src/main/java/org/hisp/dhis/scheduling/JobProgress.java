@@ -46,7 +46,6 @@ import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.stream.Stream;
 
-import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.Setter;
@@ -121,6 +120,16 @@ public interface JobProgress
      */
     boolean isCancellationRequested();
 
+    /**
+     * @return the pool shared between jobs used to process the items of
+     *         {@link #runStageInParallel(int, Collection, Function, Consumer)},
+     *         or {@code null} to process them in a pool exclusive to the stage
+     */
+    default JobWorkPool getWorkPool()
+    {
+        return null;
+    }
+
     /**
      * Note that this indication resets to false once another stage is started.
      *
@@ -207,6 +216,19 @@ public interface JobProgress
 
     void startingWorkItem( String description, FailurePolicy onFailure );
 
+    /**
+     * Announce start of a work item that had to wait for a worker before it
+     * could start.
+     *
+     * @param description describes the work done
+     * @param onFailure what to do should the item fail
+     * @param queueDuration milliseconds the item waited for a worker
+     */
+    default void startingWorkItem( String description, FailurePolicy onFailure, long queueDuration )
+    {
+        startingWorkItem( description, onFailure );
+    }
+
     default void startingWorkItem( int i )
     {
         startingWorkItem( "#" + (i + 1) );
@@ -463,6 +485,11 @@ public interface JobProgress
      * If the parallelism is smaller or equal to 1 the items are processed
      * sequentially using {@link #runStage(Collection, Function, Consumer)}.
      * <p>
+     * When a shared {@link #getWorkPool()} exists the items are processed by
+     * its workers, longest item first, competing fairly with the items of
+     * other running jobs. The time each item waited for a worker is recorded
+     * with the item.
+     * <p>
      * While the items are processed in parallel this method is synchronous for
      * the caller and will first return when all work is done.
      * <p>
@@ -486,13 +513,14 @@ public interface JobProgress
         }
         AtomicInteger success = new AtomicInteger();
         AtomicInteger failed = new AtomicInteger();
+        long submittedTime = System.currentTimeMillis();
 
-        Callable<Boolean> task = () -> items.parallelStream().map( item -> {
+        JobWorkPool.ItemWork<T> runItem = ( item, queueDuration ) -> {
             if ( isSkipCurrentStage() )
             {
                 return false;
             }
-            startingWorkItem( description.apply( item ) );
+            startingWorkItem( description.apply( item ), FailurePolicy.PARENT, queueDuration );
             try
             {
                 work.accept( item );
@@ -506,23 +534,35 @@ public interface JobProgress
                 failed.incrementAndGet();
                 return false;
             }
-        } ).reduce( Boolean::logicalAnd ).orElse( false );
+        };
 
-        ForkJoinPool pool = new ForkJoinPool( parallelism );
+        JobWorkPool workPool = getWorkPool();
+        ForkJoinPool pool = workPool == null ? new ForkJoinPool( parallelism ) : null;
         try
         {
-            // this might not be obvious but running a parallel stream
-            // as task in a FJP makes the stream use the pool
-            boolean allSuccessful = pool.submit( task ).get();
+            boolean allSuccessful;
+            if ( workPool != null )
+            {
+                allSuccessful = workPool.runAll( parallelism, items, description, runItem );
+            }
+            else
+            {
+                // this might not be obvious but running a parallel stream
+                // as task in a FJP makes the stream use the pool
+                allSuccessful = pool.submit( () -> items.parallelStream()
+                    .map( item -> runItem.process( item, System.currentTimeMillis() - submittedTime ) )
+                    .reduce( Boolean::logicalAnd ).orElse( false ) ).get();
+            }
             if ( allSuccessful )
             {
                 completedStage( null );
             }
-            else
+            else if ( !autoSkipStage(
+                ( s, f ) -> format( "parallel processing aborted after %d successful and %d failed items", s, f ),
+                success.get(), failed.get() ) )
             {
-                autoSkipStage(
-                    ( s, f ) -> format( "parallel processing aborted after %d successful and %d failed items", s, f ),
-                    success.get(), failed.get() );
+                // failed items were skipped as the failure policy allows it
+                completedStage( format( "%d successful and %d failed items", success.get(), failed.get() ) );
             }
         }
         catch ( InterruptedException ex )
@@ -536,7 +576,10 @@ public interface JobProgress
         }
         finally
         {
-            pool.shutdown();
+            if ( pool != null )
+            {
+                pool.shutdown();
+            }
         }
     }
 
@@ -713,7 +756,7 @@ public interface JobProgress
     }
 
     @Getter
-    @AllArgsConstructor
+    @RequiredArgsConstructor
     final class Item extends Node
     {
         private final Date startedTime = new Date();
@@ -723,6 +766,13 @@ public interface JobProgress
 
         @JsonProperty
         private final FailurePolicy onFailure;
+
+        /**
+         * Milliseconds the item waited for a worker before it started
+         */
+        @Setter
+        @JsonProperty
+        private long queueDuration;
     }
 
     static String getMessage( Exception cause )
@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.scheduling;
+
+import java.util.Collection;
+import java.util.function.Function;
+
+/**
+ * A long-lived pool of workers shared by all jobs running on this instance to
+ * process the work items of parallel stages.
+ *
+ * The pool caps the total number of work items processed at the same time
+ * across all jobs. When several jobs compete for the workers, each of them gets
+ * a fair share as the workers take turns between the jobs.
+ *
+ * @see JobProgress#runStageInParallel(int, Collection, Function,
+ *      java.util.function.Consumer)
+ */
+public interface JobWorkPool
+{
+    /**
+     * Processes all items using at most the given parallelism for this caller
+     * and blocks until all items are processed.
+     * <p>
+     * Items are started longest first, as far as durations of items with the
+     * same key have been recorded in earlier runs. Items without any recorded
+     * duration are started first in their given order.
+     *
+     * @param parallelism max number of items of this caller processed at the
+     *        same time, further capped by the pool size
+     * @param items the items to process
+     * @param key function to extract the key used to remember the duration of
+     *        an item, may return {@code null}
+     * @param work function to process a single item
+     * @param <T> type of work item input
+     * @return true, if all items were processed successfully, else false
+     * @throws InterruptedException when the calling thread is interrupted while
+     *         waiting, items not yet started are then dropped
+     * @throws RuntimeException the first exception thrown by the work of an
+     *         item, items not yet started are then dropped
+     */
+    <T> boolean runAll( int parallelism, Collection<T> items, Function<T, String> key, ItemWork<T> work )
+        throws InterruptedException;
+
+    /**
+     * The work of processing a single item.
+     *
+     * @param <T> type of work item input
+     */
+    @FunctionalInterface
+    interface ItemWork<T>
+    {
+        /**
+         * @param item the item to process
+         * @param queueDuration milliseconds the item waited for a worker since
+         *        it was submitted
+         * @return true if the item was processed successfully
+         */
+        boolean process( T item, long queueDuration );
+    }
+}
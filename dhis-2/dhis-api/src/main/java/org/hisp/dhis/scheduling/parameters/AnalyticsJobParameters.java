@@ -63,6 +63,9 @@ public class AnalyticsJobParameters implements JobParameters
     @JsonProperty
     private boolean skipResourceTables = false;
 
+    @JsonProperty
+    private boolean bulkLoad = false;
+
     public AnalyticsJobParameters( Integer lastYears, Set<AnalyticsTableType> skipTableTypes,
         Set<String> skipPrograms, boolean skipResourceTables )
     {
@@ -66,6 +66,13 @@ public class ContinuousAnalyticsJobParameters implements JobParameters
     @JsonProperty
     private Set<AnalyticsTableType> skipTableTypes = new HashSet<>();
 
+    /**
+     * Whether latest updates should merge updated data into the existing
+     * yearly partitions instead of replacing the latest partition.
+     */
+    @JsonProperty
+    private boolean incrementalUpdate = false;
+
     public ContinuousAnalyticsJobParameters( Integer fullUpdateHourOfDay, Integer lastYears,
         Set<AnalyticsTableType> skipTableTypes )
     {
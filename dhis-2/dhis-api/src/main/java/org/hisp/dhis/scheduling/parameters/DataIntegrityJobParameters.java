@@ -60,4 +60,12 @@ public class DataIntegrityJobParameters implements JobParameters
     @JacksonXmlProperty( namespace = DxfNamespaces.DXF_2_0 )
     private DataIntegrityReportType type;
 
+    /**
+     * When true, summary and details checks only reading tables that did not
+     * change since their last cached result are skipped.
+     */
+    @JsonProperty( required = false )
+    @JacksonXmlProperty( namespace = DxfNamespaces.DXF_2_0 )
+    private boolean incremental;
+
 }
@@ -75,6 +75,13 @@ public class PredictorJobParameters implements JobParameters
     @OpenApi.Property( { UID[].class, PredictorGroup.class } )
     private List<String> predictorGroups = new ArrayList<>();
 
+    /**
+     * Maximum number of predictors to run at the same time. Predictors that
+     * depend on each other's output are still run one after the other.
+     */
+    @JsonProperty
+    private int parallelism = 1;
+
     // programmatically used only
 
     /**
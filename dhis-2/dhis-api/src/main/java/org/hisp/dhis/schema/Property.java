@@ -28,7 +28,11 @@
 package org.hisp.dhis.schema;
 
 import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -85,6 +89,18 @@ public class Property implements Ordered, Klass
      */
     private Method setterMethod;
 
+    /**
+     * Accessor for {@link #getterMethod} as {@code (Object)Object}, null when
+     * the getter is not accessible.
+     */
+    private MethodHandle getterHandle;
+
+    /**
+     * Accessor for {@link #setterMethod} as {@code (Object,Object)void}, null
+     * when the setter is not accessible.
+     */
+    private MethodHandle setterHandle;
+
     /**
      * Name for this property, if this class is a collection, it is the name of
      * the items -inside- the collection and not the collection wrapper itself.
@@ -315,8 +331,8 @@ public class Property implements Ordered, Klass
     public Property( Class<?> klass, Method getter, Method setter )
     {
         this( klass );
-        this.getterMethod = getter;
-        this.setterMethod = setter;
+        setGetterMethod( getter );
+        setSetterMethod( setter );
     }
 
     @Override
@@ -379,6 +395,7 @@ public class Property implements Ordered, Klass
     public void setGetterMethod( Method getterMethod )
     {
         this.getterMethod = getterMethod;
+        this.getterHandle = createAccessor( getterMethod, MethodType.methodType( Object.class, Object.class ) );
     }
 
     public Method getSetterMethod()
@@ -389,6 +406,101 @@ public class Property implements Ordered, Klass
     public void setSetterMethod( Method setterMethod )
     {
         this.setterMethod = setterMethod;
+        this.setterHandle = createAccessor( setterMethod,
+            MethodType.methodType( void.class, Object.class, Object.class ) );
+    }
+
+    /**
+     * Reads this property from the given object using the
+     * {@link #getGetterMethod()}. Same as
+     * {@code ReflectionUtils.invokeMethod(target, getGetterMethod())} but
+     * without reflection on each call.
+     *
+     * @param target the object to read from, may be null
+     * @return the property value or null if target is null or the property
+     *         has no getter
+     */
+    @SuppressWarnings( "unchecked" )
+    public <T> T getValue( Object target )
+    {
+        if ( target == null || getterHandle == null )
+        {
+            return null;
+        }
+        try
+        {
+            return (T) getterHandle.invokeExact( target );
+        }
+        catch ( RuntimeException | Error ex )
+        {
+            throw ex;
+        }
+        catch ( Throwable ex )
+        {
+            throw new RuntimeException( ex );
+        }
+    }
+
+    /**
+     * Writes this property of the given object using the
+     * {@link #getSetterMethod()}. Does nothing if target is null or the
+     * property has no setter.
+     *
+     * @param target the object to write to, may be null
+     * @param value the new value
+     */
+    public void setValue( Object target, Object value )
+    {
+        if ( target == null || setterHandle == null )
+        {
+            return;
+        }
+        try
+        {
+            setterHandle.invokeExact( target, value );
+        }
+        catch ( RuntimeException | Error ex )
+        {
+            throw ex;
+        }
+        catch ( Throwable ex )
+        {
+            throw new RuntimeException( ex );
+        }
+    }
+
+    /**
+     * Creates a handle to invoke the given accessor method with the given
+     * type. Accessors which are not public or are declared by a non-public
+     * type are made accessible first, as reflection did for them.
+     */
+    private static MethodHandle createAccessor( Method method, MethodType type )
+    {
+        if ( method == null )
+        {
+            return null;
+        }
+        if ( Modifier.isPublic( method.getModifiers() )
+            && Modifier.isPublic( method.getDeclaringClass().getModifiers() ) )
+        {
+            try
+            {
+                return MethodHandles.publicLookup().unreflect( method ).asType( type );
+            }
+            catch ( IllegalAccessException ex )
+            {
+                // fall through to the private access
+            }
+        }
+        method.setAccessible( true );
+        try
+        {
+            return MethodHandles.lookup().unreflect( method ).asType( type );
+        }
+        catch ( IllegalAccessException ex )
+        {
+            throw new IllegalStateException( ex );
+        }
     }
 
     @JsonProperty
@@ -31,6 +31,7 @@ import java.util.List;
 import java.util.Map;
 
 import org.hisp.dhis.common.Grid;
+import org.hisp.dhis.common.GridWriter;
 import org.hisp.dhis.common.IllegalQueryException;
 
 /**
@@ -90,6 +91,22 @@ public interface SqlViewService
     Grid getSqlViewGrid( SqlView sqlView, Map<String, String> criteria, Map<String, String> variables,
         List<String> filters, List<String> fields );
 
+    /**
+     * Writes the SQL view to the given writer row by row as the rows are read
+     * from the database, without building a grid in memory. Checks if the SQL
+     * query is valid.
+     *
+     * @param writer the writer to receive the headers and rows.
+     * @param sqlView the SQL view to render.
+     * @param criteria the criteria on the format key:value, will be applied as
+     *        criteria on the SQL result set.
+     * @param variables the variables on the format key:value, will be
+     *        substituted with variables inside the SQL view.
+     * @throws {@link IllegalQueryException} if the SQL query is invalid.
+     */
+    void writeSqlViewGrid( GridWriter writer, SqlView sqlView, Map<String, String> criteria,
+        Map<String, String> variables, List<String> filters, List<String> fields );
+
     /**
      * Validates the given SQL view. Checks include:
      *
@@ -28,6 +28,7 @@
 package org.hisp.dhis.sqlview;
 
 import org.hisp.dhis.common.Grid;
+import org.hisp.dhis.common.GridWriter;
 import org.hisp.dhis.common.IdentifiableObjectStore;
 
 /**
@@ -43,5 +44,11 @@ public interface SqlViewStore extends IdentifiableObjectStore<SqlView>
 
     void populateSqlViewGrid( Grid grid, String sql );
 
+    /**
+     * Writes the result of the given SQL to the given writer row by row while
+     * it is read through a database cursor.
+     */
+    void writeSqlViewGrid( GridWriter writer, String sql );
+
     boolean refreshMaterializedView( SqlView sqlView );
 }
@@ -242,6 +242,18 @@ public class TrackedEntityQueryParams
      */
     private boolean skipPaging;
 
+    /**
+     * Indicates whether to page in primary key order, seeking past
+     * {@link #afterId} instead of skipping rows with an offset.
+     */
+    private boolean keysetPaging;
+
+    /**
+     * Primary key of the last tracked entity of the previous page when using
+     * keyset paging, or null for the first page.
+     */
+    private Long afterId;
+
     /**
      * Indicates if there is a maximum tei retrieval limit. 0 no limit.
      */
@@ -778,11 +790,13 @@ public class TrackedEntityQueryParams
     }
 
     /**
-     * Returns the offset based on the page number and page size.
+     * Returns the offset based on the page number and page size. With keyset
+     * paging the previous pages are excluded by {@link #afterId} instead, so
+     * the offset is always 0.
      */
     public int getOffset()
     {
-        return (getPageWithDefault() - 1) * getPageSizeWithDefault();
+        return keysetPaging ? 0 : (getPageWithDefault() - 1) * getPageSizeWithDefault();
     }
 
     // -------------------------------------------------------------------------
@@ -1127,6 +1141,28 @@ public class TrackedEntityQueryParams
         return this;
     }
 
+    public boolean isKeysetPaging()
+    {
+        return keysetPaging;
+    }
+
+    public TrackedEntityQueryParams setKeysetPaging( boolean keysetPaging )
+    {
+        this.keysetPaging = keysetPaging;
+        return this;
+    }
+
+    public Long getAfterId()
+    {
+        return afterId;
+    }
+
+    public TrackedEntityQueryParams setAfterId( Long afterId )
+    {
+        this.afterId = afterId;
+        return this;
+    }
+
     public int getMaxTeiLimit()
     {
         return maxTeiLimit;
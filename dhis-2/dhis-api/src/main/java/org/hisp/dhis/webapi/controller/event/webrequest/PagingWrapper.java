@@ -101,6 +101,12 @@ public class PagingWrapper<T>
         @JsonProperty
         private String prevPage;
 
+        /**
+         * Cursor of the next page when keyset paging, null on the last page.
+         */
+        @JsonProperty
+        private String nextPageToken;
+
         public static Pager fromLegacy( PagingCriteria pagingCriteria, org.hisp.dhis.common.Pager pager )
         {
             return Pager.builder()
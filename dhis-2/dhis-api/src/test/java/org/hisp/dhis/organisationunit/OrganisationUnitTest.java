@@ -178,6 +178,33 @@ class OrganisationUnitTest
         assertFalse( unitB.isDescendant( Set.of( unitC ) ) );
     }
 
+    @Test
+    void testIsInHierarchyOf()
+    {
+        // path only, as loaded from the database without parents
+        unitC.setPath( "/e8iHpRVptzA/e8iHpRVptzB/e8iHpRVptzC" );
+
+        assertTrue( unitC.hasPath() );
+        assertTrue( unitC.isInHierarchyOf( Set.of( "e8iHpRVptzA" ) ) );
+        assertTrue( unitC.isInHierarchyOf( Set.of( "e8iHpRVptzB", "e8iHpRVptzD" ) ) );
+        assertTrue( unitC.isInHierarchyOf( Set.of( "e8iHpRVptzC" ) ) );
+
+        assertFalse( unitC.isInHierarchyOf( Set.of( "e8iHpRVptzD" ) ) );
+        assertFalse( unitC.isInHierarchyOf( Set.of( "8iHpRVptzA" ) ) );
+        assertFalse( unitC.isInHierarchyOf( Set.of() ) );
+    }
+
+    @Test
+    void testIsInHierarchyOf_NoPath()
+    {
+        unitC.setParent( unitB );
+        unitB.setParent( unitA );
+
+        assertFalse( unitC.hasPath() );
+        assertTrue( unitC.isInHierarchyOf( Set.of( "e8iHpRVptzA" ) ) );
+        assertFalse( unitC.isInHierarchyOf( Set.of( "e8iHpRVptzD" ) ) );
+    }
+
     @Test
     void testGetParentNameGraph()
     {
@@ -39,12 +39,14 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.atLeast;
 import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
 import java.util.concurrent.CancellationException;
@@ -52,6 +54,7 @@ import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
@@ -211,6 +214,60 @@ class JobProgressTest
         runStageInParallel_Success( max( 2, Runtime.getRuntime().availableProcessors() / 2 ) );
     }
 
+    @Test
+    void testRunStageInParallel_WorkPoolQueueDuration()
+    {
+        JobProgress progress = newMockJobProgress();
+        doReturn( newWorkPool( 42L, null ) ).when( progress ).getWorkPool();
+
+        progress.runStageInParallel( 2, List.of( 1 ), String::valueOf, item -> {
+        } );
+
+        verify( progress ).startingWorkItem( "1", JobProgress.FailurePolicy.PARENT, 42L );
+        verify( progress ).completedStage( null );
+    }
+
+    @Test
+    void testRunStageInParallel_WorkPoolException()
+    {
+        IllegalStateException failure = new IllegalStateException( "item failed" );
+        JobProgress progress = newMockJobProgress();
+        doReturn( newWorkPool( 0L, failure ) ).when( progress ).getWorkPool();
+
+        progress.runStageInParallel( 2, List.of( 1, 2 ), String::valueOf, item -> {
+        } );
+
+        verify( progress ).failedStage( failure );
+        verify( progress, never() ).completedStage( any() );
+    }
+
+    /**
+     * @param queueDuration the queue duration to pass to the work of each item
+     * @param failure the exception to throw after the work of the first item,
+     *        or null
+     */
+    private static JobWorkPool newWorkPool( long queueDuration, RuntimeException failure )
+    {
+        return new JobWorkPool()
+        {
+            @Override
+            public <T> boolean runAll( int parallelism, Collection<T> items, Function<T, String> key,
+                ItemWork<T> work )
+            {
+                boolean allSuccessful = true;
+                for ( T item : items )
+                {
+                    allSuccessful &= work.process( item, queueDuration );
+                    if ( failure != null )
+                    {
+                        throw failure;
+                    }
+                }
+                return allSuccessful;
+            }
+        };
+    }
+
     private static void runStageInParallel_Success( int parallelism )
     {
         AtomicInteger enterCount = new AtomicInteger();
@@ -217,12 +217,15 @@ public class AccessStringHelper
             return false;
         }
 
-        byte[] bytes = access.getBytes();
+        return isFlag( access.charAt( 0 ), 'r' )
+            && isFlag( access.charAt( 1 ), 'w' )
+            && isFlag( access.charAt( 2 ), 'r' )
+            && isFlag( access.charAt( 3 ), 'w' );
+    }
 
-        return (bytes[0] == '-' || bytes[0] == 'r')
-            && (bytes[1] == '-' || bytes[1] == 'w')
-            && (bytes[2] == '-' || bytes[2] == 'r')
-            && (bytes[3] == '-' || bytes[3] == 'w');
+    private static boolean isFlag( char c, char enabled )
+    {
+        return c == '-' || c == enabled;
     }
 
     public static boolean hasDataSharing( String access )
@@ -365,4 +365,10 @@ public interface AclService
      * @return List of error reports (if any)
      */
     <T extends IdentifiableObject> List<ErrorReport> verifySharing( T object, User user );
+
+    /**
+     * Discards the sharing relevant state compiled for users, so that the next
+     * access check picks up changed users, user groups or user roles.
+     */
+    void invalidateUserAccess();
 }
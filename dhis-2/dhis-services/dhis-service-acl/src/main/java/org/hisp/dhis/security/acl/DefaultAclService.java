@@ -27,19 +27,15 @@
  */
 package org.hisp.dhis.security.acl;
 
-import static org.springframework.util.CollectionUtils.containsAny;
-
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
-import java.util.Set;
 
 import lombok.RequiredArgsConstructor;
 
 import org.hisp.dhis.category.CategoryOption;
 import org.hisp.dhis.category.CategoryOptionCombo;
 import org.hisp.dhis.common.IdentifiableObject;
-import org.hisp.dhis.commons.collection.CollectionUtils;
 import org.hisp.dhis.feedback.ErrorCode;
 import org.hisp.dhis.feedback.ErrorReport;
 import org.hisp.dhis.hibernate.HibernateProxyUtils;
@@ -48,7 +44,6 @@ import org.hisp.dhis.schema.SchemaService;
 import org.hisp.dhis.security.AuthorityType;
 import org.hisp.dhis.security.acl.AccessStringHelper.Permission;
 import org.hisp.dhis.user.User;
-import org.hisp.dhis.user.UserGroup;
 import org.hisp.dhis.user.sharing.Sharing;
 import org.hisp.dhis.user.sharing.UserAccess;
 import org.hisp.dhis.user.sharing.UserGroupAccess;
@@ -68,6 +63,12 @@ public class DefaultAclService implements AclService
 
     private final SchemaService schemaService;
 
+    @Override
+    public void invalidateUserAccess()
+    {
+        UserAccessResolver.invalidateAll();
+    }
+
     @Override
     public boolean isSupported( String type )
     {
@@ -684,7 +685,7 @@ public class DefaultAclService implements AclService
 
     private boolean haveAuthority( User user, Collection<String> anyAuthorities )
     {
-        return containsAny( user.getAllAuthorities(), anyAuthorities );
+        return UserAccessResolver.of( user ).hasAnyAuthority( anyAuthorities );
     }
 
     /**
@@ -765,42 +766,7 @@ public class DefaultAclService implements AclService
      */
     private boolean checkSharingPermission( User user, IdentifiableObject object, Permission permission )
     {
-        Sharing sharing = object.getSharing();
-        if ( AccessStringHelper.isEnabled( sharing.getPublicAccess(), permission ) )
-        {
-            return true;
-        }
-
-        if ( sharing.getUserGroups() != null && !CollectionUtils.isEmpty( user.getGroups() ) )
-        {
-            for ( UserGroupAccess userGroupAccess : sharing.getUserGroups().values() )
-            {
-                // Check if user is allowed to read this object through group
-                // access
-                if ( AccessStringHelper.isEnabled( userGroupAccess.getAccess(), permission )
-                    && hasUserGroupAccess( user.getGroups(), userGroupAccess.getId() ) )
-                {
-                    return true;
-                }
-            }
-        }
-
-        if ( sharing.getUsers() != null )
-        {
-            for ( UserAccess userAccess : sharing.getUsers().values() )
-            {
-                // Check if user is allowed to read to this object through user
-                // access
-
-                if ( AccessStringHelper.isEnabled( userAccess.getAccess(), permission )
-                    && user.getUid().equals( userAccess.getId() ) )
-                {
-                    return true;
-                }
-            }
-        }
-
-        return false;
+        return UserAccessResolver.of( user ).isEnabled( object.getSharing(), permission );
     }
 
     private boolean checkOptionComboSharingPermission( User user, IdentifiableObject object, Permission permission )
@@ -846,17 +812,4 @@ public class DefaultAclService implements AclService
         return checkSharingAccess( user, object, objType )
             && (checkMetadataSharingPermission( user, object, Permission.WRITE ));
     }
-
-    private boolean hasUserGroupAccess( Set<UserGroup> userGroups, String userGroupUid )
-    {
-        for ( UserGroup group : userGroups )
-        {
-            if ( group.getUid().equals( userGroupUid ) )
-            {
-                return true;
-            }
-        }
-
-        return false;
-    }
 }
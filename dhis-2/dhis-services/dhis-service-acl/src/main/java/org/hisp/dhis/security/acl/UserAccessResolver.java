@@ -0,0 +1,192 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.security.acl;
+
+import java.lang.ref.WeakReference;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.hisp.dhis.security.acl.AccessStringHelper.Permission;
+import org.hisp.dhis.user.User;
+import org.hisp.dhis.user.UserGroup;
+import org.hisp.dhis.user.UserRole;
+import org.hisp.dhis.user.sharing.Sharing;
+import org.hisp.dhis.user.sharing.UserAccess;
+import org.hisp.dhis.user.sharing.UserGroupAccess;
+
+/**
+ * The sharing relevant state of a {@link User} (UID, user group UIDs and
+ * authorities) compiled into hash lookups.
+ * <p>
+ * Checking a {@link Sharing} then is a hash probe per entry instead of
+ * comparing each {@link UserGroupAccess} with each of the user's groups, and
+ * the user's authorities are not collected from the roles again for every
+ * object. This matters when ACL filtering long lists of metadata objects.
+ * <p>
+ * The most recently used resolver is kept per thread and reused for the same
+ * {@link User} instance until {@link #invalidateAll()} is called, which happens
+ * whenever a user, user group or user role is changed. Reusing it is an
+ * identity and a generation comparison.
+ */
+final class UserAccessResolver
+{
+    private static final ThreadLocal<UserAccessResolver> LAST_RESOLVER = new ThreadLocal<>();
+
+    /**
+     * Incremented to invalidate all resolvers of all threads
+     */
+    private static final AtomicLong GENERATION = new AtomicLong();
+
+    private final WeakReference<User> user;
+
+    private final long generation;
+
+    private final String userUid;
+
+    private final Set<String> groupUids;
+
+    private final Set<String> authorities;
+
+    private UserAccessResolver( User user, long generation )
+    {
+        this.user = new WeakReference<>( user );
+        this.generation = generation;
+        this.userUid = user.getUid();
+        this.groupUids = new HashSet<>();
+        Set<UserGroup> groups = user.getGroups();
+        if ( groups != null )
+        {
+            groups.forEach( group -> groupUids.add( group.getUid() ) );
+        }
+        this.authorities = new HashSet<>();
+        Set<UserRole> roles = user.getUserRoles();
+        if ( roles != null )
+        {
+            for ( UserRole role : roles )
+            {
+                if ( role.getAuthorities() != null )
+                {
+                    authorities.addAll( role.getAuthorities() );
+                }
+            }
+        }
+    }
+
+    /**
+     * @param user a user, not null
+     * @return a resolver for the given user, the last one used on this thread
+     *         if it was compiled for the same instance and is still valid
+     */
+    static UserAccessResolver of( User user )
+    {
+        long generation = GENERATION.get();
+        UserAccessResolver last = LAST_RESOLVER.get();
+        if ( last != null && last.generation == generation && last.user.get() == user )
+        {
+            return last;
+        }
+        UserAccessResolver resolver = new UserAccessResolver( user, generation );
+        LAST_RESOLVER.set( resolver );
+        return resolver;
+    }
+
+    /**
+     * Makes all resolvers compiled so far stale, so that changes to users, user
+     * groups and user roles are picked up by the next access check.
+     */
+    static void invalidateAll()
+    {
+        GENERATION.incrementAndGet();
+    }
+
+    boolean hasAnyAuthority( Collection<String> anyAuthorities )
+    {
+        for ( String authority : anyAuthorities )
+        {
+            if ( authorities.contains( authority ) )
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return true, if the public access, the user's own access or the access
+     *         of any of the user's groups enables the given permission
+     */
+    boolean isEnabled( Sharing sharing, Permission permission )
+    {
+        if ( AccessStringHelper.isEnabled( sharing.getPublicAccess(), permission ) )
+        {
+            return true;
+        }
+        Map<String, UserGroupAccess> userGroups = sharing.getUserGroups();
+        if ( userGroups != null && !userGroups.isEmpty() && !groupUids.isEmpty()
+            && isAnyUserGroupEnabled( userGroups, permission ) )
+        {
+            return true;
+        }
+        Map<String, UserAccess> users = sharing.getUsers();
+        if ( users == null || users.isEmpty() )
+        {
+            return false;
+        }
+        UserAccess userAccess = users.get( userUid );
+        return userAccess != null && AccessStringHelper.isEnabled( userAccess.getAccess(), permission );
+    }
+
+    private boolean isAnyUserGroupEnabled( Map<String, UserGroupAccess> userGroups, Permission permission )
+    {
+        if ( userGroups.size() <= groupUids.size() )
+        {
+            for ( UserGroupAccess access : userGroups.values() )
+            {
+                if ( groupUids.contains( access.getId() )
+                    && AccessStringHelper.isEnabled( access.getAccess(), permission ) )
+                {
+                    return true;
+                }
+            }
+            return false;
+        }
+        // the map is keyed by user group UID
+        for ( String groupUid : groupUids )
+        {
+            UserGroupAccess access = userGroups.get( groupUid );
+            if ( access != null && AccessStringHelper.isEnabled( access.getAccess(), permission ) )
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+}
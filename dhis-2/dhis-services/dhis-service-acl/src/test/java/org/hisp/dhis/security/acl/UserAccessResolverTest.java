@@ -0,0 +1,200 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.security.acl;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.hisp.dhis.security.acl.AccessStringHelper.Permission;
+import org.hisp.dhis.user.User;
+import org.hisp.dhis.user.UserGroup;
+import org.hisp.dhis.user.UserRole;
+import org.hisp.dhis.user.sharing.Sharing;
+import org.hisp.dhis.user.sharing.UserAccess;
+import org.hisp.dhis.user.sharing.UserGroupAccess;
+import org.junit.jupiter.api.Test;
+
+class UserAccessResolverTest
+{
+    @Test
+    void testIsEnabled_PublicAccess()
+    {
+        UserAccessResolver resolver = UserAccessResolver.of( createUser( "u1" ) );
+
+        assertTrue( resolver.isEnabled( createSharing( "r-------" ), Permission.READ ) );
+        assertFalse( resolver.isEnabled( createSharing( "r-------" ), Permission.WRITE ) );
+    }
+
+    @Test
+    void testIsEnabled_UserAccess()
+    {
+        UserAccessResolver resolver = UserAccessResolver.of( createUser( "u1" ) );
+        Sharing sharing = createSharing( "--------" );
+        sharing.addUserAccess( new UserAccess( "rw------", "u2" ) );
+        assertFalse( resolver.isEnabled( sharing, Permission.READ ) );
+
+        sharing.addUserAccess( new UserAccess( "r-------", "u1" ) );
+        assertTrue( resolver.isEnabled( sharing, Permission.READ ) );
+        assertFalse( resolver.isEnabled( sharing, Permission.WRITE ) );
+    }
+
+    @Test
+    void testIsEnabled_UserGroupAccessFewerGroupsThanSharing()
+    {
+        UserAccessResolver resolver = UserAccessResolver.of( createUser( "u1", "g1" ) );
+        Sharing sharing = createSharing( "--------" );
+        sharing.addUserGroupAccess( new UserGroupAccess( "rw------", "g2" ) );
+        sharing.addUserGroupAccess( new UserGroupAccess( "rw------", "g3" ) );
+        assertFalse( resolver.isEnabled( sharing, Permission.READ ) );
+
+        sharing.addUserGroupAccess( new UserGroupAccess( "r-------", "g1" ) );
+        assertTrue( resolver.isEnabled( sharing, Permission.READ ) );
+        assertFalse( resolver.isEnabled( sharing, Permission.WRITE ) );
+    }
+
+    @Test
+    void testIsEnabled_UserGroupAccessMoreGroupsThanSharing()
+    {
+        UserAccessResolver resolver = UserAccessResolver.of( createUser( "u1", "g1", "g2", "g3" ) );
+        Sharing sharing = createSharing( "--------" );
+        sharing.addUserGroupAccess( new UserGroupAccess( "rw------", "g4" ) );
+        assertFalse( resolver.isEnabled( sharing, Permission.WRITE ) );
+
+        sharing.addUserGroupAccess( new UserGroupAccess( "rw------", "g3" ) );
+        assertTrue( resolver.isEnabled( sharing, Permission.WRITE ) );
+    }
+
+    @Test
+    void testHasAnyAuthority()
+    {
+        User user = createUser( "u1" );
+        UserRole role = new UserRole();
+        role.setAuthorities( Set.of( "F_A", "F_B" ) );
+        user.getUserRoles().add( role );
+        UserAccessResolver resolver = UserAccessResolver.of( user );
+
+        assertTrue( resolver.hasAnyAuthority( List.of( "F_X", "F_B" ) ) );
+        assertFalse( resolver.hasAnyAuthority( List.of( "F_X" ) ) );
+    }
+
+    @Test
+    void testOf_ReusedForSameUser()
+    {
+        User user = createUser( "u1", "g1" );
+        UserAccessResolver resolver = UserAccessResolver.of( user );
+        assertSame( resolver, UserAccessResolver.of( user ) );
+
+        assertNotSame( resolver, UserAccessResolver.of( createUser( "u1", "g1" ) ) );
+    }
+
+    @Test
+    void testOf_NotReusedAfterInvalidation()
+    {
+        User user = createUser( "u1", "g1" );
+        UserAccessResolver resolver = UserAccessResolver.of( user );
+
+        user.getGroups().add( createGroup( "g2" ) );
+        UserAccessResolver.invalidateAll();
+        UserAccessResolver changed = UserAccessResolver.of( user );
+        assertNotSame( resolver, changed );
+        Sharing sharing = createSharing( "--------" );
+        sharing.addUserGroupAccess( new UserGroupAccess( "r-------", "g2" ) );
+        assertTrue( changed.isEnabled( sharing, Permission.READ ) );
+        assertSame( changed, UserAccessResolver.of( user ) );
+    }
+
+    @Test
+    void testOf_NotReusedWhenGroupReplaced()
+    {
+        User user = createUser( "u1", "g1" );
+        UserAccessResolver resolver = UserAccessResolver.of( user );
+
+        user.getGroups().clear();
+        user.getGroups().add( createGroup( "g2" ) );
+        UserAccessResolver.invalidateAll();
+        UserAccessResolver changed = UserAccessResolver.of( user );
+
+        assertNotSame( resolver, changed );
+        Sharing sharing = createSharing( "--------" );
+        sharing.addUserGroupAccess( new UserGroupAccess( "r-------", "g1" ) );
+        assertFalse( changed.isEnabled( sharing, Permission.READ ) );
+    }
+
+    @Test
+    void testOf_NotReusedWhenAuthoritiesChanged()
+    {
+        User user = createUser( "u1" );
+        UserRole role = new UserRole();
+        role.setAuthorities( new HashSet<>( Set.of( "F_A" ) ) );
+        user.getUserRoles().add( role );
+        UserAccessResolver resolver = UserAccessResolver.of( user );
+        assertSame( resolver, UserAccessResolver.of( user ) );
+
+        role.getAuthorities().remove( "F_A" );
+        role.getAuthorities().add( "F_B" );
+        UserAccessResolver.invalidateAll();
+        UserAccessResolver changed = UserAccessResolver.of( user );
+
+        assertNotSame( resolver, changed );
+        assertFalse( changed.hasAnyAuthority( List.of( "F_A" ) ) );
+        assertTrue( changed.hasAnyAuthority( List.of( "F_B" ) ) );
+    }
+
+    private static Sharing createSharing( String publicAccess )
+    {
+        Sharing sharing = new Sharing();
+        sharing.setPublicAccess( publicAccess );
+        return sharing;
+    }
+
+    private static User createUser( String uid, String... groupUids )
+    {
+        User user = new User();
+        user.setUid( uid );
+        Set<UserGroup> groups = new HashSet<>();
+        for ( String groupUid : groupUids )
+        {
+            groups.add( createGroup( groupUid ) );
+        }
+        user.setGroups( groups );
+        return user;
+    }
+
+    private static UserGroup createGroup( String uid )
+    {
+        UserGroup group = new UserGroup( "Group " + uid );
+        group.setUid( uid );
+        return group;
+    }
+}
@@ -27,11 +27,17 @@
  */
 package org.hisp.dhis.dataintegrity;
 
+import static java.util.regex.Pattern.CASE_INSENSITIVE;
+
 import java.nio.file.Path;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.function.BinaryOperator;
 import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -50,6 +56,18 @@ import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
 @Slf4j
 class DataIntegrityYamlReader
 {
+    private static final Pattern TABLE_REFERENCE = Pattern.compile(
+        "\\b(?:from|join)\\s+(?:[a-z_][a-z0-9_]*\\.)?([a-z_][a-z0-9_]*)\\b(?!\\s*\\()", CASE_INSENSITIVE );
+
+    private static final Pattern COMMON_TABLE_EXPRESSION = Pattern.compile(
+        "\\b([a-z_][a-z0-9_]*)\\s+as\\s*\\(", CASE_INSENSITIVE );
+
+    private static final Pattern COMMA_SEPARATED_TABLES = Pattern.compile(
+        "\\bfrom\\s+[a-z_][a-z0-9_.]*(?:\\s+(?:as\\s+)?[a-z_][a-z0-9_]*)?\\s*,", CASE_INSENSITIVE );
+
+    private static final Pattern TIME_DEPENDENT = Pattern.compile(
+        "\\b(?:now\\s*\\(|current_date|current_timestamp|localtimestamp)", CASE_INSENSITIVE );
+
     private DataIntegrityYamlReader()
     {
         throw new UnsupportedOperationException( "util" );
@@ -99,6 +117,9 @@ class DataIntegrityYamlReader
 
         @JsonProperty
         DataIntegritySeverity severity;
+
+        @JsonProperty
+        Integer timeout;
     }
 
     public static void readDataIntegrityYaml( String listFile, Consumer<DataIntegrityCheck> adder,
@@ -140,6 +161,8 @@ class DataIntegrityYamlReader
                     .isSlow( e.isSlow != null && e.isSlow )
                     .detailsID( e.detailsID )
                     .summaryID( e.summaryID )
+                    .tables( readTables( e.summarySql, e.detailsSql ) )
+                    .timeout( e.timeout == null ? 0 : e.timeout )
                     .runSummaryCheck( sqlToSummary.apply( sanitiseSQL( e.summarySql ) ) )
                     .runDetailsCheck( sqlToDetails.apply( sanitiseSQL( e.detailsSql ) ) )
                     .build() );
@@ -151,6 +174,46 @@ class DataIntegrityYamlReader
         }
     }
 
+    /**
+     * Finds the names of the tables read by the given SQL queries.
+     *
+     * The names are those following a {@code from} or {@code join} keyword,
+     * except the names of common table expressions. When the tables cannot be
+     * found reliably, because tables are listed comma separated, or when the
+     * result also depends on the current time, the result is empty.
+     *
+     * @param sqls the SQL queries of a check
+     * @return the names of the tables read, empty if unknown
+     */
+    static Set<String> readTables( String... sqls )
+    {
+        Set<String> tables = new HashSet<>();
+        Set<String> expressions = new HashSet<>();
+        for ( String sql : sqls )
+        {
+            if ( sql == null )
+            {
+                continue;
+            }
+            if ( TIME_DEPENDENT.matcher( sql ).find() || COMMA_SEPARATED_TABLES.matcher( sql ).find() )
+            {
+                return Set.of();
+            }
+            Matcher table = TABLE_REFERENCE.matcher( sql );
+            while ( table.find() )
+            {
+                tables.add( table.group( 1 ).toLowerCase() );
+            }
+            Matcher expression = COMMON_TABLE_EXPRESSION.matcher( sql );
+            while ( expression.find() )
+            {
+                expressions.add( expression.group( 1 ).toLowerCase() );
+            }
+        }
+        tables.removeAll( expressions );
+        return Set.copyOf( tables );
+    }
+
     private static String trim( String str )
     {
         return str == null ? null : str.trim();
@@ -32,11 +32,13 @@ import static java.lang.System.currentTimeMillis;
 import static java.util.Collections.unmodifiableCollection;
 import static java.util.function.Predicate.not;
 import static java.util.stream.Collectors.groupingBy;
+import static java.util.stream.Collectors.partitioningBy;
 import static java.util.stream.Collectors.toList;
 import static java.util.stream.Collectors.toUnmodifiableList;
 import static java.util.stream.Collectors.toUnmodifiableSet;
 import static java.util.stream.StreamSupport.stream;
 import static org.hisp.dhis.commons.collection.ListUtils.getDuplicates;
+import static org.hisp.dhis.commons.util.SystemUtils.getCpuCores;
 import static org.hisp.dhis.dataintegrity.DataIntegrityDetails.DataIntegrityIssue.toIssue;
 import static org.hisp.dhis.dataintegrity.DataIntegrityDetails.DataIntegrityIssue.toRefsList;
 import static org.hisp.dhis.dataintegrity.DataIntegrityYamlReader.readDataIntegrityYaml;
@@ -59,6 +61,7 @@ import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
@@ -172,6 +175,14 @@ public class DefaultDataIntegrityService
 
     private final Set<String> runningDetailsChecks = ConcurrentHashMap.newKeySet();
 
+    /**
+     * Modification count of the tables read by a check as it was before the
+     * check ran for its currently cached result, by check name.
+     */
+    private final Map<String, Long> summaryModificationCounts = new ConcurrentHashMap<>();
+
+    private final Map<String, Long> detailsModificationCounts = new ConcurrentHashMap<>();
+
     @PostConstruct
     public void init()
     {
@@ -893,10 +904,10 @@ public class DefaultDataIntegrityService
     // OBS! We intentionally do not open the transaction here to have each check
     // be independent
     @Override
-    public void runSummaryChecks( @Nonnull Set<String> checks, JobProgress progress )
+    public void runSummaryChecks( @Nonnull Set<String> checks, JobProgress progress, boolean incremental )
     {
-        runDataIntegrityChecks( "Data Integrity summary checks", expandChecks( checks ), progress,
-            summaryCache, runningSummaryChecks,
+        runDataIntegrityChecks( "Data Integrity summary checks", expandChecks( checks ), progress, incremental,
+            summaryCache, runningSummaryChecks, summaryModificationCounts,
             check -> check.getRunSummaryCheck().apply( check ),
             ( check, startTime, ex ) -> new DataIntegritySummary( check, startTime, new Date(),
                 errorMessage( check, ex ), -1, null ) );
@@ -912,10 +923,10 @@ public class DefaultDataIntegrityService
     // OBS! We intentionally do not open the transaction here to have each check
     // be independent
     @Override
-    public void runDetailsChecks( @Nonnull Set<String> checks, JobProgress progress )
+    public void runDetailsChecks( @Nonnull Set<String> checks, JobProgress progress, boolean incremental )
     {
-        runDataIntegrityChecks( "Data Integrity details checks", expandChecks( checks ), progress,
-            detailsCache, runningDetailsChecks,
+        runDataIntegrityChecks( "Data Integrity details checks", expandChecks( checks ), progress, incremental,
+            detailsCache, runningDetailsChecks, detailsModificationCounts,
             check -> check.getRunDetailsCheck().apply( check ),
             ( check, startTime, ex ) -> new DataIntegrityDetails( check, startTime, new Date(),
                 errorMessage( check, ex ), List.of() ) );
@@ -967,38 +978,37 @@ public class DefaultDataIntegrityService
         T createErrorReport( DataIntegrityCheck check, Date startTime, RuntimeException ex );
     }
 
+    /**
+     * Checks not run as SQL run in sequence as they use the services of the
+     * calling thread. Checks run as SQL are independent and run in parallel.
+     */
     private <T> void runDataIntegrityChecks( String stageDesc, Set<String> checks, JobProgress progress,
-        Cache<T> cache, Set<String> running, Function<DataIntegrityCheck, T> runCheck,
-        DataIntegrityCheckErrorHandler<T> createErrorReport )
+        boolean incremental, Cache<T> cache, Set<String> running, Map<String, Long> modificationCounts,
+        Function<DataIntegrityCheck, T> runCheck, DataIntegrityCheckErrorHandler<T> createErrorReport )
     {
         try
         {
             running.addAll( checks );
             progress.startingProcess( "Data Integrity check" );
-            progress.startingStage( stageDesc, checks.size(), SKIP_ITEM );
-            progress.runStage( checks.stream().map( checksByName::get ).filter( Objects::nonNull ),
-                DataIntegrityCheck::getDescription,
-                check -> {
-                    Date startTime = new Date();
-                    T res;
-                    try
-                    {
-                        res = runCheck.apply( check );
-                    }
-                    catch ( RuntimeException ex )
-                    {
-                        cache.put( check.getName(), createErrorReport.createErrorReport( check, startTime, ex ) );
-                        throw ex;
-                    }
-                    finally
-                    {
-                        running.remove( check.getName() );
-                    }
-                    if ( res != null )
-                    {
-                        cache.put( check.getName(), res );
-                    }
-                } );
+            Map<Boolean, List<DataIntegrityCheck>> checksBySql = checks.stream()
+                .map( checksByName::get )
+                .filter( Objects::nonNull )
+                .collect( partitioningBy( check -> check.getTables() != null ) );
+            Consumer<DataIntegrityCheck> work = check -> runDataIntegrityCheck( check, incremental, cache, running,
+                modificationCounts, runCheck, createErrorReport );
+
+            List<DataIntegrityCheck> nonSqlChecks = checksBySql.get( false );
+            if ( !nonSqlChecks.isEmpty() )
+            {
+                progress.startingStage( stageDesc, nonSqlChecks.size(), SKIP_ITEM );
+                progress.runStage( nonSqlChecks, DataIntegrityCheck::getDescription, work );
+            }
+            List<DataIntegrityCheck> sqlChecks = checksBySql.get( true );
+            if ( !sqlChecks.isEmpty() )
+            {
+                progress.startingStage( stageDesc + " (SQL)", sqlChecks.size(), SKIP_ITEM );
+                progress.runStageInParallel( getCpuCores(), sqlChecks, DataIntegrityCheck::getDescription, work );
+            }
             progress.completedProcess( null );
         }
         finally
@@ -1007,6 +1017,60 @@ public class DefaultDataIntegrityService
         }
     }
 
+    private <T> void runDataIntegrityCheck( DataIntegrityCheck check, boolean incremental, Cache<T> cache,
+        Set<String> running, Map<String, Long> modificationCounts, Function<DataIntegrityCheck, T> runCheck,
+        DataIntegrityCheckErrorHandler<T> createErrorReport )
+    {
+        String name = check.getName();
+        // counts are only collected on the main database while the check
+        // might run on a replica, the count is only related to the result if
+        // the replica the check ran on had all changes counted before the
+        // check and no changes were counted while it ran
+        long modificationCount = getModificationCount( check );
+        if ( incremental && modificationCount >= 0
+            && Long.valueOf( modificationCount ).equals( modificationCounts.get( name ) )
+            && cache.get( name ).isPresent() )
+        {
+            running.remove( name );
+            return; // tables did not change since the cached result
+        }
+        Date startTime = new Date();
+        T res;
+        try
+        {
+            res = runCheck.apply( check );
+        }
+        catch ( RuntimeException ex )
+        {
+            modificationCounts.remove( name );
+            cache.put( name, createErrorReport.createErrorReport( check, startTime, ex ) );
+            throw ex;
+        }
+        finally
+        {
+            running.remove( name );
+        }
+        if ( res != null )
+        {
+            cache.put( name, res );
+            boolean current = dataIntegrityStore.isCheckDatabaseCurrent( check );
+            if ( current && modificationCount >= 0 && modificationCount == getModificationCount( check ) )
+            {
+                modificationCounts.put( name, modificationCount );
+            }
+            else
+            {
+                modificationCounts.remove( name );
+            }
+        }
+    }
+
+    private long getModificationCount( DataIntegrityCheck check )
+    {
+        Set<String> tables = check.getTables();
+        return tables == null || tables.isEmpty() ? -1L : dataIntegrityStore.getModificationCount( tables );
+    }
+
     private Set<String> expandChecks( Set<String> names )
     {
         ensureConfigurationsAreLoaded();
@@ -27,81 +27,218 @@
  */
 package org.hisp.dhis.dataintegrity.hibernate;
 
+import static java.util.Collections.nCopies;
 import static java.util.stream.Collectors.toUnmodifiableList;
+import static org.hisp.dhis.external.conf.ConfigurationKey.DATA_INTEGRITY_CHECK_TIMEOUT;
 
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
 
-import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 
-import org.hibernate.SessionFactory;
 import org.hisp.dhis.dataintegrity.DataIntegrityCheck;
 import org.hisp.dhis.dataintegrity.DataIntegrityDetails;
 import org.hisp.dhis.dataintegrity.DataIntegrityDetails.DataIntegrityIssue;
 import org.hisp.dhis.dataintegrity.DataIntegrityStore;
 import org.hisp.dhis.dataintegrity.DataIntegritySummary;
+import org.hisp.dhis.external.conf.DhisConfigurationProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.ResultSetExtractor;
 import org.springframework.stereotype.Repository;
-import org.springframework.transaction.annotation.Transactional;
 
 /**
- * As we want each check to be its own transaction the @{@link Transactional}
- * annotation is used on the store and not the service level in this case.
+ * Runs the SQL of data integrity checks on the read replica, if one exists.
+ * Each check runs in its own statement with a timeout, so checks can run in
+ * parallel and a slow check cannot block the others for long. Before a check
+ * runs, the connection it runs on is asked whether it has replayed all
+ * changes written to the main database so far.
  *
  * @author Jan Bernitt
  */
+@Slf4j
 @Repository
-@RequiredArgsConstructor
 public class HibernateDataIntegrityStore implements DataIntegrityStore
 {
-    private final SessionFactory sessionFactory;
+    private final JdbcTemplate jdbcTemplate;
+
+    private final JdbcTemplate readOnlyJdbcTemplate;
+
+    private final int defaultTimeout;
+
+    private final Map<String, Boolean> currentByCheck = new ConcurrentHashMap<>();
+
+    public HibernateDataIntegrityStore( JdbcTemplate jdbcTemplate,
+        @Qualifier( "readOnlyJdbcTemplate" ) JdbcTemplate readOnlyJdbcTemplate, DhisConfigurationProvider config )
+    {
+        this.jdbcTemplate = jdbcTemplate;
+        this.readOnlyJdbcTemplate = readOnlyJdbcTemplate;
+        this.defaultTimeout = Integer.parseInt( config.getProperty( DATA_INTEGRITY_CHECK_TIMEOUT ) );
+    }
 
     @Override
-    @Transactional( readOnly = true )
     public DataIntegritySummary querySummary( DataIntegrityCheck check, String sql )
     {
         Date startTime = new Date();
-        Object summary = sessionFactory.getCurrentSession()
-            .createNativeQuery( sql ).getSingleResult();
-        return new DataIntegritySummary( check, startTime, new Date(), null, parseCount( summary ),
-            parsePercentage( summary ) );
+        return query( check, sql, rs -> {
+            if ( !rs.next() )
+            {
+                return new DataIntegritySummary( check, startTime, new Date(), null, 0, null );
+            }
+            int columns = rs.getMetaData().getColumnCount();
+            return new DataIntegritySummary( check, startTime, new Date(), null, parseCount( rs.getObject( 1 ) ),
+                columns < 2 ? null : parsePercentage( rs.getObject( 2 ) ) );
+        } );
     }
 
     @Override
-    @Transactional( readOnly = true )
     public DataIntegrityDetails queryDetails( DataIntegrityCheck check, String sql )
     {
         Date startTime = new Date();
-        @SuppressWarnings( "unchecked" )
-        List<Object[]> rows = sessionFactory.getCurrentSession().createNativeQuery( sql )
-            .getResultList();
-        return new DataIntegrityDetails( check, startTime, new Date(), null, rows.stream()
-            .map( row -> new DataIntegrityIssue(
-                getIndex( row, 0 ), getIndex( row, 1 ), getIndex( row, 2 ), getRefs( row, 3 ) ) )
-            .collect( toUnmodifiableList() ) );
+        List<DataIntegrityIssue> issues = query( check, sql, rs -> {
+            int columns = rs.getMetaData().getColumnCount();
+            List<DataIntegrityIssue> rows = new ArrayList<>();
+            while ( rs.next() )
+            {
+                rows.add( new DataIntegrityIssue( getIndex( rs, columns, 1 ), getIndex( rs, columns, 2 ),
+                    getIndex( rs, columns, 3 ), getRefs( rs, columns, 4 ) ) );
+            }
+            return rows;
+        } );
+        return new DataIntegrityDetails( check, startTime, new Date(), null, List.copyOf( issues ) );
     }
 
-    private static String getIndex( Object[] row, int index )
+    @Override
+    public long getModificationCount( Set<String> tables )
     {
-        return row.length <= index ? null : (String) row[index];
+        if ( tables.isEmpty() )
+        {
+            return -1L;
+        }
+        // statistics are collected on the main database only, not on replicas
+        String sql = "select count(distinct relname), coalesce(sum(n_tup_ins + n_tup_upd + n_tup_del), 0) "
+            + "from pg_stat_user_tables where relname in (" + String.join( ",", nCopies( tables.size(), "?" ) )
+            + ")";
+        try
+        {
+            return jdbcTemplate.query( sql, rs -> rs.next() && rs.getInt( 1 ) == tables.size()
+                ? rs.getLong( 2 )
+                : -1L, tables.toArray() );
+        }
+        catch ( DataAccessException ex )
+        {
+            log.debug( "Table statistics not available", ex );
+            return -1L;
+        }
     }
 
-    private static List<String> getRefs( Object[] row, int index )
+    @Override
+    public boolean isCheckDatabaseCurrent( DataIntegrityCheck check )
     {
-        return row.length <= index ? null : List.of( (String[]) row[index] );
+        Boolean current = currentByCheck.remove( check.getName() );
+        return current == null || current;
     }
 
-    private static Double parsePercentage( Object value )
+    /**
+     * Runs the check SQL on a single connection, which first tells whether it
+     * has replayed all changes written to the main database before.
+     */
+    private <T> T query( DataIntegrityCheck check, String sql, ResultSetExtractor<T> extractor )
+    {
+        String location = getMainLocation();
+        return readOnlyJdbcTemplate.execute( (ConnectionCallback<T>) connection -> {
+            currentByCheck.put( check.getName(), location != null && isReplayed( connection, location ) );
+            try ( PreparedStatement statement = statement( check, sql ).createPreparedStatement( connection );
+                ResultSet rs = statement.executeQuery() )
+            {
+                return extractor.extractData( rs );
+            }
+        } );
+    }
+
+    private String getMainLocation()
+    {
+        try
+        {
+            return jdbcTemplate.queryForObject( "select pg_current_wal_lsn()::text", String.class );
+        }
+        catch ( DataAccessException ex )
+        {
+            log.debug( "Replication location not available", ex );
+            return null;
+        }
+    }
+
+    private static boolean isReplayed( Connection connection, String location )
     {
-        if ( !(value instanceof Object[]) )
+        // replay location is null when the read only database is the main
+        // database, which always is current
+        try ( PreparedStatement statement = connection.prepareStatement(
+            "select pg_last_wal_replay_lsn() is null or pg_last_wal_replay_lsn() >= cast(? as pg_lsn)" ) )
+        {
+            statement.setString( 1, location );
+            try ( ResultSet rs = statement.executeQuery() )
+            {
+                return rs.next() && rs.getBoolean( 1 );
+            }
+        }
+        catch ( SQLException ex )
+        {
+            log.debug( "Replay location not available", ex );
+            return false;
+        }
+    }
+
+    private PreparedStatementCreator statement( DataIntegrityCheck check, String sql )
+    {
+        int timeout = check.getTimeout() > 0 ? check.getTimeout() : defaultTimeout;
+        return connection -> {
+            PreparedStatement statement = connection.prepareStatement( sql );
+            statement.setQueryTimeout( timeout );
+            return statement;
+        };
+    }
+
+    private static String getIndex( ResultSet rs, int columns, int index )
+        throws SQLException
+    {
+        return columns < index ? null : rs.getString( index );
+    }
+
+    private static List<String> getRefs( ResultSet rs, int columns, int index )
+        throws SQLException
+    {
+        if ( columns < index )
         {
             return null;
         }
-        Object[] row = (Object[]) value;
-        if ( row.length < 2 || row[1] == null )
+        Array refs = rs.getArray( index );
+        return refs == null
+            ? List.of()
+            : Stream.of( (Object[]) refs.getArray() ).filter( Objects::nonNull ).map( Object::toString )
+                .collect( toUnmodifiableList() );
+    }
+
+    private static Double parsePercentage( Object value )
+    {
+        if ( value == null )
         {
             return null;
         }
-        value = row[1];
         if ( value instanceof String )
         {
             return Double.parseDouble( value.toString().replace( "%", "" ) );
@@ -111,11 +248,6 @@ public class HibernateDataIntegrityStore implements DataIntegrityStore
 
     private static int parseCount( Object value )
     {
-        if ( value instanceof Object[] )
-        {
-            Object[] row = (Object[]) value;
-            return row.length == 0 ? -1 : parseCount( row[0] );
-        }
         if ( value == null )
         {
             return 0;
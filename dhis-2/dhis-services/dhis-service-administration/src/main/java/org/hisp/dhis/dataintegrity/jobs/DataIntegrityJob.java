@@ -70,17 +70,18 @@ public class DataIntegrityJob implements Job
             : parameters.getChecks();
 
         DataIntegrityReportType type = parameters == null ? null : parameters.getType();
+        boolean incremental = parameters != null && parameters.isIncremental();
         if ( type == null || type == DataIntegrityReportType.REPORT )
         {
             runReport( config, progress, checks );
         }
         else if ( type == DataIntegrityReportType.SUMMARY )
         {
-            dataIntegrityService.runSummaryChecks( checks, progress );
+            dataIntegrityService.runSummaryChecks( checks, progress, incremental );
         }
         else
         {
-            dataIntegrityService.runDetailsChecks( checks, progress );
+            dataIntegrityService.runDetailsChecks( checks, progress, incremental );
         }
     }
 
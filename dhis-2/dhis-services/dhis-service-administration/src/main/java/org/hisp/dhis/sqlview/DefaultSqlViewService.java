@@ -43,6 +43,7 @@ import lombok.extern.slf4j.Slf4j;
 
 import org.apache.commons.lang3.ObjectUtils;
 import org.hisp.dhis.common.Grid;
+import org.hisp.dhis.common.GridWriter;
 import org.hisp.dhis.common.IllegalQueryException;
 import org.hisp.dhis.commons.util.SqlHelper;
 import org.hisp.dhis.external.conf.ConfigurationKey;
@@ -194,6 +195,22 @@ public class DefaultSqlViewService
         return grid;
     }
 
+    @Override
+    @Transactional( readOnly = true )
+    public void writeSqlViewGrid( GridWriter writer, SqlView sqlView, Map<String, String> criteria,
+        Map<String, String> variables, List<String> filters, List<String> fields )
+    {
+        canAccess( sqlView );
+        validateSqlView( sqlView, criteria, variables );
+
+        log.info( String.format( "Writing data for SQL view: '%s'", sqlView.getUid() ) );
+
+        String sql = sqlView.isQuery() ? getSqlForQuery( sqlView, criteria, variables, filters, fields )
+            : getSqlForView( sqlView, criteria, filters, fields );
+
+        sqlViewStore.writeSqlViewGrid( writer, sql );
+    }
+
     private void canAccess( SqlView sqlView )
     {
         User currentUser = currentUserService.getCurrentUser();
@@ -31,6 +31,7 @@ import static java.util.stream.Collectors.toList;
 import static java.util.stream.Collectors.toUnmodifiableList;
 import static org.hisp.dhis.common.CodeGenerator.isValidUid;
 import static org.hisp.dhis.dataintegrity.DataIntegrityYamlReader.readDataIntegrityYaml;
+import static org.hisp.dhis.dataintegrity.DataIntegrityYamlReader.readTables;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -123,6 +124,25 @@ class DataIntegrityYamlReaderTest
         assertFalse( check.isSlow() );
         assertTrue( check.getRunDetailsCheck().apply( check ).getIssues().get( 0 ).getComment()
             .startsWith( "SELECT uid,name from dataelementcategory" ) );
+        assertEquals( Set.of( "dataelementcategory", "categories_categoryoptions" ), check.getTables() );
+        assertEquals( 0, check.getTimeout() );
     }
 
+    @Test
+    void testReadTables()
+    {
+        assertEquals( Set.of( "dataelement", "datasetelement" ), readTables(
+            "WITH unused AS (SELECT dataelementid FROM dataelement de "
+                + "LEFT JOIN public.datasetelement dse USING(dataelementid)) SELECT COUNT(*) FROM unused",
+            "SELECT uid FROM dataelement WHERE dataelementid NOT IN (SELECT dataelementid FROM datasetelement)" ) );
+        assertEquals( Set.of( "organisationunit" ),
+            readTables( "SELECT x.uid FROM organisationunit x JOIN LATERAL (SELECT 1) y ON true", null ) );
+    }
+
+    @Test
+    void testReadTables_Unknown()
+    {
+        assertEquals( Set.of(), readTables( "SELECT COUNT(*) FROM period WHERE startdate > now()" ) );
+        assertEquals( Set.of(), readTables( "SELECT COUNT(*) FROM dataelement de, datasetelement dse" ) );
+    }
 }
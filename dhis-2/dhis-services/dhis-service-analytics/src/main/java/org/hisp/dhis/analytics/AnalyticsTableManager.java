@@ -91,11 +91,13 @@ public interface AnalyticsTableManager
     }
 
     /**
-     * Attempts to drop and then create analytics table.
+     * Attempts to drop and then create analytics table. The table and its
+     * partitions are created as unlogged if bulk load is requested.
      *
+     * @param params the {@link AnalyticsTableUpdateParams}.
      * @param table the analytics table.
      */
-    void createTable( AnalyticsTable table );
+    void createTable( AnalyticsTableUpdateParams params, AnalyticsTable table );
 
     /**
      * Creates single indexes on the given columns of the analytics table with
@@ -105,6 +107,15 @@ public interface AnalyticsTableManager
      */
     void createIndex( AnalyticsIndex index );
 
+    /**
+     * Sets the given unlogged table as logged, which writes the table content
+     * to the write-ahead log so that the table becomes crash safe. Does nothing
+     * if analytics tables are configured to always be unlogged.
+     *
+     * @param tableName the table name.
+     */
+    void setTableLogged( String tableName );
+
     /**
      * Attempts to drop the analytics table with partitions and rename the
      * temporary table with partitions as replacement.
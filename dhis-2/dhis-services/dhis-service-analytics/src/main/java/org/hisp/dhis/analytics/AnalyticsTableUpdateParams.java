@@ -62,6 +62,21 @@ public class AnalyticsTableUpdateParams
      */
     boolean skipResourceTables;
 
+    /**
+     * Indicates whether to populate tables in bulk load mode, i.e. create the
+     * tables as unlogged, populate and index them, and set them as logged right
+     * before they are swapped in.
+     */
+    private boolean bulkLoad;
+
+    /**
+     * Indicates whether a "latest" update should be incremental, i.e. only
+     * include data updated since the last update of any kind, and merge that
+     * data into the existing yearly partitions instead of replacing the
+     * "latest" partition.
+     */
+    private boolean incrementalUpdate;
+
     /**
      * Analytics table types to skip.
      */
@@ -123,6 +138,16 @@ public class AnalyticsTableUpdateParams
         return skipResourceTables;
     }
 
+    public boolean isBulkLoad()
+    {
+        return bulkLoad;
+    }
+
+    public boolean isIncrementalUpdate()
+    {
+        return incrementalUpdate;
+    }
+
     public Set<AnalyticsTableType> getSkipTableTypes()
     {
         return skipTableTypes;
@@ -181,6 +206,8 @@ public class AnalyticsTableUpdateParams
         return MoreObjects.toStringHelper( this )
             .add( "last years", lastYears )
             .add( "skip resource tables", skipResourceTables )
+            .add( "bulk load", bulkLoad )
+            .add( "incremental update", incrementalUpdate )
             .add( "skip table types", skipTableTypes )
             .add( "skip programs", skipPrograms )
             .add( "start time", DateUtils.getLongDateString( startTime ) )
@@ -224,6 +251,8 @@ public class AnalyticsTableUpdateParams
 
         params.lastYears = this.lastYears;
         params.skipResourceTables = this.skipResourceTables;
+        params.bulkLoad = this.bulkLoad;
+        params.incrementalUpdate = this.incrementalUpdate;
         params.skipTableTypes = new HashSet<>( this.skipTableTypes );
         params.skipPrograms = new HashSet<>( this.skipPrograms );
         params.jobId = this.jobId;
@@ -278,6 +307,18 @@ public class AnalyticsTableUpdateParams
             return this;
         }
 
+        public Builder withBulkLoad( boolean bulkLoad )
+        {
+            this.params.bulkLoad = bulkLoad;
+            return this;
+        }
+
+        public Builder withIncrementalUpdate( boolean incrementalUpdate )
+        {
+            this.params.incrementalUpdate = incrementalUpdate;
+            return this;
+        }
+
         public Builder withSkipTableTypes( Set<AnalyticsTableType> skipTableTypes )
         {
             this.params.skipTableTypes = skipTableTypes;
@@ -2095,26 +2095,14 @@ public class DataQueryParams
 
         for ( String key : aggregatedDataMap.keySet() )
         {
-            // Remove DimensionalItemObject uid from key
-            List<String> keys = Lists.newArrayList( key.split( DIMENSION_SEP ) );
-            keys.remove( DX_INDEX );
+            // Remove DimensionalItemObject uid, the first segment, from key
 
-            Collection<DimensionItemObjectValue> dimensionItemObjectValues = aggregatedDataMap.get( key );
+            int sepIndex = key.indexOf( DIMENSION_SEP );
 
-            // Generate final permutation key
-            String permKey = StringUtils.join( keys, DIMENSION_SEP );
+            String permKey = sepIndex == -1 ? "" : key.substring( sepIndex + DIMENSION_SEP.length() );
 
-            for ( DimensionItemObjectValue dimWithValue : dimensionItemObjectValues )
-            {
-                if ( !permutationMap.containsKey( permKey ) )
-                {
-                    permutationMap.put( permKey, Lists.newArrayList( dimWithValue ) );
-                }
-                else
-                {
-                    permutationMap.get( permKey ).add( dimWithValue );
-                }
-            }
+            permutationMap.computeIfAbsent( permKey, k -> new ArrayList<>() )
+                .addAll( aggregatedDataMap.get( key ) );
         }
 
         return permutationMap;
@@ -29,21 +29,41 @@ package org.hisp.dhis.analytics.cache;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 import lombok.extern.slf4j.Slf4j;
 
-import org.apache.commons.lang3.SerializationUtils;
 import org.hisp.dhis.analytics.DataQueryParams;
 import org.hisp.dhis.cache.Cache;
 import org.hisp.dhis.cache.CacheProvider;
+import org.hisp.dhis.cache.CacheType;
 import org.hisp.dhis.common.Grid;
+import org.hisp.dhis.system.grid.CopyOnWriteGrid;
+import org.hisp.dhis.system.grid.ListGrid;
 import org.springframework.stereotype.Component;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
 /**
  * This is a wrapper class responsible for keeping and isolating all cache
  * definitions related to the analytics.
+ * <p>
+ * Cached grids are read-only snapshots which are never modified once cached.
+ * Grids are handed out as {@link CopyOnWriteGrid} instances wrapping the
+ * snapshot, which means that a cache hit does not copy the grid unless the
+ * consumer modifies it.
+ * <p>
+ * Concurrent requests for the same query are coalesced, so that only one of
+ * them computes the grid while the others wait for its result. When the cache
+ * is shared between nodes, a marker in a shared cache region coordinates the
+ * computation across nodes as well.
  */
 @Slf4j
 @Component
@@ -51,24 +71,59 @@ public class AnalyticsCache
 {
     private final AnalyticsCacheSettings analyticsCacheSettings;
 
+    /**
+     * Interval for polling the cache while another node computes a grid.
+     */
+    private static final long IN_FLIGHT_POLL_INTERVAL_MILLIS = 100;
+
+    private static final String METRIC_NAME = "analytics.cache.queries";
+
+    private static final String METRIC_TAG = "outcome";
+
     private Cache<Grid> queryCache;
 
+    /**
+     * Markers of queries which are being computed, shared between nodes.
+     */
+    private final Cache<Boolean> inFlightCache;
+
+    /**
+     * Queries which are being computed on this node.
+     */
+    private final Map<String, CompletableFuture<Grid>> inFlight = new ConcurrentHashMap<>();
+
+    private final Counter hitCounter;
+
+    private final Counter executedCounter;
+
+    private final Counter coalescedCounter;
+
     /**
      * Default constructor. Note that a default expiration time is set, as as
      * the TTL will always be overwritten during cache put operations.
      */
-    public AnalyticsCache( CacheProvider cacheProvider, AnalyticsCacheSettings analyticsCacheSettings )
+    public AnalyticsCache( CacheProvider cacheProvider, AnalyticsCacheSettings analyticsCacheSettings,
+        MeterRegistry meterRegistry )
     {
         checkNotNull( cacheProvider );
         checkNotNull( analyticsCacheSettings );
+        checkNotNull( meterRegistry );
 
         this.analyticsCacheSettings = analyticsCacheSettings;
         this.queryCache = cacheProvider.createAnalyticsCache();
+        this.inFlightCache = cacheProvider.createAnalyticsInFlightCache();
+        this.hitCounter = Counter.builder( METRIC_NAME ).tag( METRIC_TAG, "hit" )
+            .description( "Analytics queries served from the cache" ).register( meterRegistry );
+        this.executedCounter = Counter.builder( METRIC_NAME ).tag( METRIC_TAG, "executed" )
+            .description( "Analytics queries computed after a cache miss" ).register( meterRegistry );
+        this.coalescedCounter = Counter.builder( METRIC_NAME ).tag( METRIC_TAG, "coalesced" )
+            .description( "Analytics queries which waited for an identical query in progress" )
+            .register( meterRegistry );
     }
 
     public Optional<Grid> get( String key )
     {
-        return getGridClone( queryCache.get( key ) );
+        return queryCache.get( key ).map( CopyOnWriteGrid::new );
     }
 
     /**
@@ -77,7 +132,11 @@ public class AnalyticsCache
      * will be fetched by the function provided. In this case, the fetched Grid
      * will be cached, so the next consumers can hit the cache only.
      * <p>
-     * f The TTL of the cached object will be set accordingly to the cache
+     * Concurrent invocations for the same DataQueryParams key are coalesced,
+     * meaning that the function is invoked once and all callers receive the
+     * resulting Grid.
+     * <p>
+     * The TTL of the cached object will be set accordingly to the cache
      * settings available at
      * {@link org.hisp.dhis.analytics.cache.AnalyticsCacheSettings}.
      *
@@ -88,19 +147,44 @@ public class AnalyticsCache
      */
     public Grid getOrFetch( DataQueryParams params, Function<DataQueryParams, Grid> function )
     {
-        Optional<Grid> cachedGrid = get( params.getKey() );
+        String key = params.getKey();
+
+        Optional<Grid> cachedGrid = get( key );
 
         if ( cachedGrid.isPresent() )
         {
-            return getGridClone( cachedGrid.get() );
+            hitCounter.increment();
+
+            return cachedGrid.get();
         }
-        else
+
+        CompletableFuture<Grid> future = new CompletableFuture<>();
+        CompletableFuture<Grid> existing = inFlight.putIfAbsent( key, future );
+
+        if ( existing != null )
+        {
+            coalescedCounter.increment();
+
+            return new CopyOnWriteGrid( await( existing ) );
+        }
+
+        try
         {
-            Grid grid = function.apply( params );
+            Grid grid = fetchSingleFlight( params, function );
 
-            put( params, grid );
+            future.complete( grid );
 
-            return getGridClone( grid );
+            return new CopyOnWriteGrid( grid );
+        }
+        catch ( RuntimeException ex )
+        {
+            future.completeExceptionally( ex );
+
+            throw ex;
+        }
+        finally
+        {
+            inFlight.remove( key, future );
         }
     }
 
@@ -116,17 +200,7 @@ public class AnalyticsCache
      */
     public void put( DataQueryParams params, Grid grid )
     {
-        if ( analyticsCacheSettings.isProgressiveCachingEnabled() )
-        {
-            // Uses the progressive TTL
-            put( params.getKey(), grid,
-                analyticsCacheSettings.progressiveExpirationTimeOrDefault( params.getLatestEndDate() ) );
-        }
-        else
-        {
-            // Respects the fixed (predefined) caching TTL
-            put( params.getKey(), grid, analyticsCacheSettings.fixedExpirationTimeOrDefault() );
-        }
+        putSnapshot( params, new ListGrid( grid ) );
     }
 
     /**
@@ -139,7 +213,7 @@ public class AnalyticsCache
      */
     public void put( String key, Grid grid, long ttlInSeconds )
     {
-        queryCache.put( key, getGridClone( grid ), ttlInSeconds );
+        queryCache.put( key, new ListGrid( grid ), ttlInSeconds );
     }
 
     /**
@@ -157,18 +231,132 @@ public class AnalyticsCache
         return analyticsCacheSettings.isCachingEnabled();
     }
 
-    private Grid getGridClone( Grid grid )
+    /**
+     * Fetches and caches the Grid for the given DataQueryParams. When the
+     * cache is shared between nodes, waits for a computation of the same query
+     * in progress on another node instead, if any.
+     *
+     * @param params the DataQueryParams.
+     * @param function that fetches a grid based on the given DataQueryParams.
+     * @return the Grid snapshot, which must not be modified.
+     */
+    private Grid fetchSingleFlight( DataQueryParams params, Function<DataQueryParams, Grid> function )
     {
-        if ( grid != null )
+        String key = params.getKey();
+
+        // Check again as the query might have completed since the last check
+
+        Optional<Grid> cachedGrid = queryCache.get( key );
+
+        if ( cachedGrid.isPresent() )
+        {
+            hitCounter.increment();
+
+            return cachedGrid.get();
+        }
+
+        if ( inFlightCache.getCacheType() != CacheType.REDIS )
         {
-            return SerializationUtils.clone( grid );
+            return fetch( params, function );
         }
 
-        return null;
+        while ( !inFlightCache.putIfAbsent( key, Boolean.TRUE ) )
+        {
+            sleep();
+
+            cachedGrid = queryCache.get( key );
+
+            if ( cachedGrid.isPresent() )
+            {
+                coalescedCounter.increment();
+
+                return cachedGrid.get();
+            }
+        }
+
+        try
+        {
+            return fetch( params, function );
+        }
+        finally
+        {
+            inFlightCache.invalidate( key );
+        }
+    }
+
+    /**
+     * Fetches the Grid for the given DataQueryParams and caches it. The
+     * fetched grid is not referenced elsewhere and can be cached as the
+     * snapshot without copying.
+     *
+     * @param params the DataQueryParams.
+     * @param function that fetches a grid based on the given DataQueryParams.
+     * @return the Grid snapshot, which must not be modified.
+     */
+    private Grid fetch( DataQueryParams params, Function<DataQueryParams, Grid> function )
+    {
+        executedCounter.increment();
+
+        Grid grid = function.apply( params );
+
+        putSnapshot( params, grid );
+
+        return grid;
+    }
+
+    /**
+     * Waits for the given computation to complete, propagating any failure.
+     */
+    private Grid await( CompletableFuture<Grid> future )
+    {
+        try
+        {
+            return future.join();
+        }
+        catch ( CompletionException ex )
+        {
+            if ( ex.getCause() instanceof RuntimeException )
+            {
+                throw (RuntimeException) ex.getCause();
+            }
+
+            throw ex;
+        }
+    }
+
+    private void sleep()
+    {
+        try
+        {
+            TimeUnit.MILLISECONDS.sleep( IN_FLIGHT_POLL_INTERVAL_MILLIS );
+        }
+        catch ( InterruptedException ex )
+        {
+            Thread.currentThread().interrupt();
+
+            throw new IllegalStateException( "Interrupted while waiting for analytics query", ex );
+        }
     }
 
-    private Optional<Grid> getGridClone( Optional<Grid> grid )
+    /**
+     * Caches the given Grid as a snapshot, without copying it. The Grid must
+     * not be modified after this method is invoked.
+     *
+     * @param params the DataQueryParams.
+     * @param grid the Grid snapshot.
+     */
+    private void putSnapshot( DataQueryParams params, Grid grid )
     {
-        return grid.map( SerializationUtils::clone );
+        if ( analyticsCacheSettings.isProgressiveCachingEnabled() )
+        {
+            // Uses the progressive TTL
+            queryCache.put( params.getKey(), grid,
+                analyticsCacheSettings.progressiveExpirationTimeOrDefault( params.getLatestEndDate() ) );
+        }
+        else
+        {
+            // Respects the fixed (predefined) caching TTL
+            queryCache.put( params.getKey(), grid, analyticsCacheSettings.fixedExpirationTimeOrDefault() );
+        }
     }
 }
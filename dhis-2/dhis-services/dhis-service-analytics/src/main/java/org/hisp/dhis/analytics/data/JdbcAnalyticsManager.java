@@ -239,29 +239,35 @@ public class JdbcAnalyticsManager
 
             Set<String> keys = new HashSet<>( dataValueMap.keySet() );
 
+            // Many keys share a period, so parse each ISO period once
+
+            Map<String, List<DimensionalItemObject>> periodCache = new HashMap<>();
+
             for ( String key : keys )
             {
-                String[] keyArray = key.split( DIMENSION_SEP );
+                int start = indexOfSegment( key, periodIndex );
+                int end = key.indexOf( DIMENSION_SEP, start );
+                end = end == -1 ? key.length() : end;
 
-                String periodKey = keyArray[periodIndex];
+                Assert.isTrue( start >= 0 && start < end,
+                    String.format( "Period key cannot be null, key: '%s'", key ) );
 
-                Assert.notNull( periodKey, String.format( "Period key cannot be null, key: '%s'", key ) );
+                String periodKey = key.substring( start, end );
 
-                List<DimensionalItemObject> periods = dataPeriodAggregationPeriodMap
-                    .get( PeriodType.getPeriodFromIsoString( periodKey ) );
+                List<DimensionalItemObject> periods = periodCache.computeIfAbsent( periodKey,
+                    k -> dataPeriodAggregationPeriodMap.get( PeriodType.getPeriodFromIsoString( k ) ) );
 
                 Assert.notNull( periods, String.format( "Period list cannot be null, key: '%s', map: '%s'", key,
                     dataPeriodAggregationPeriodMap.toString() ) );
 
                 Object value = dataValueMap.get( key );
 
+                String prefix = key.substring( 0, start );
+                String suffix = key.substring( end );
+
                 for ( DimensionalItemObject period : periods )
                 {
-                    String[] keyCopy = keyArray.clone();
-
-                    keyCopy[periodIndex] = ((Period) period).getIsoDate();
-
-                    String replacementKey = TextUtils.toString( keyCopy, DIMENSION_SEP );
+                    String replacementKey = prefix + ((Period) period).getIsoDate() + suffix;
 
                     if ( dataValueMap.containsKey( replacementKey )
                         && ((Period) period).getPeriodType().spansMultipleCalendarYears() )
@@ -270,11 +276,11 @@ public class JdbcAnalyticsManager
                             (Double) dataValueMap.get( replacementKey ), (Double) value,
                             AnalyticsUtils.getBaseMonth( ((Period) period).getPeriodType() ) );
 
-                        dataValueMap.put( TextUtils.toString( keyCopy, DIMENSION_SEP ), weightedAverage );
+                        dataValueMap.put( replacementKey, weightedAverage );
                     }
                     else
                     {
-                        dataValueMap.put( TextUtils.toString( keyCopy, DIMENSION_SEP ), value );
+                        dataValueMap.put( replacementKey, value );
                     }
                 }
 
@@ -287,6 +293,32 @@ public class JdbcAnalyticsManager
     // Supportive methods
     // -------------------------------------------------------------------------
 
+    /**
+     * Returns the start index of the segment at the given position in the
+     * given dimension key, or -1 if the key has fewer segments.
+     *
+     * @param key the dimension key.
+     * @param segment the zero-based segment position.
+     */
+    static int indexOfSegment( String key, int segment )
+    {
+        int index = 0;
+
+        for ( int i = 0; i < segment; i++ )
+        {
+            index = key.indexOf( DIMENSION_SEP, index );
+
+            if ( index == -1 )
+            {
+                return -1;
+            }
+
+            index += DIMENSION_SEP.length();
+        }
+
+        return index;
+    }
+
     /**
      * Generates the query SQL.
      *
@@ -888,6 +920,35 @@ public class JdbcAnalyticsManager
 
         SqlRowSet rowSet = jdbcTemplate.queryForRowSet( sql );
 
+        // Resolve the fixed key segments, column indexes and query mods
+        // suffixes once per query rather than once per row
+
+        List<DimensionalObject> dimensions = params.getDimensions();
+        int dimensionCount = dimensions.size();
+        String[] fixedValues = new String[dimensionCount];
+        int[] columnIndexes = new int[dimensionCount];
+        String[] suffixes = new String[dimensionCount];
+
+        for ( int i = 0; i < dimensionCount; i++ )
+        {
+            DimensionalObject dim = dimensions.get( i );
+
+            if ( dim.isFixed() )
+            {
+                fixedValues[i] = dim.getDimensionName();
+            }
+            else
+            {
+                columnIndexes[i] = rowSet.findColumn( dim.getDimensionName() );
+            }
+
+            suffixes[i] = params.getQueryModsId( dim ) + (i < dimensionCount - 1 ? DIMENSION_SEP : "");
+        }
+
+        boolean textType = params.isDataType( TEXT );
+        int valueIndex = rowSet.findColumn( VALUE_ID );
+        StringBuilder key = new StringBuilder( 64 );
+
         int counter = 0;
 
         while ( rowSet.next() )
@@ -899,30 +960,22 @@ public class JdbcAnalyticsManager
                 throwIllegalQueryEx( ErrorCode.E7128, maxLimit );
             }
 
-            StringBuilder key = new StringBuilder();
+            key.setLength( 0 );
 
-            for ( DimensionalObject dim : params.getDimensions() )
+            for ( int i = 0; i < dimensionCount; i++ )
             {
-                String value = dim.isFixed() ? dim.getDimensionName() : rowSet.getString( dim.getDimensionName() );
+                String value = fixedValues[i] != null ? fixedValues[i] : rowSet.getString( columnIndexes[i] );
 
-                String queryModsId = params.getQueryModsId( dim );
-
-                key.append( value ).append( queryModsId ).append( DIMENSION_SEP );
+                key.append( value ).append( suffixes[i] );
             }
 
-            key.deleteCharAt( key.length() - 1 );
-
-            if ( params.isDataType( TEXT ) )
+            if ( textType )
             {
-                String value = rowSet.getString( VALUE_ID );
-
-                map.put( key.toString(), value );
+                map.put( key.toString(), rowSet.getString( valueIndex ) );
             }
             else // NUMERIC
             {
-                Double value = rowSet.getDouble( VALUE_ID );
-
-                map.put( key.toString(), value );
+                map.put( key.toString(), rowSet.getDouble( valueIndex ) );
             }
         }
 
@@ -33,8 +33,6 @@ import static java.util.stream.Collectors.groupingBy;
 import static java.util.stream.Collectors.toList;
 import static org.apache.commons.collections4.CollectionUtils.isEmpty;
 import static org.apache.commons.collections4.CollectionUtils.isNotEmpty;
-import static org.apache.commons.lang3.ArrayUtils.remove;
-import static org.apache.commons.lang3.StringUtils.join;
 import static org.hisp.dhis.analytics.AnalyticsAggregationType.COUNT;
 import static org.hisp.dhis.analytics.AnalyticsAggregationType.SUM;
 import static org.hisp.dhis.analytics.AnalyticsTableType.COMPLETENESS;
@@ -334,12 +332,26 @@ public class DataHandler
 
         handleEmptyDimensionItemPermutations( dimensionItemPermutations );
 
+        // The value map of a permutation is the same for every indicator, so
+        // build it once per permutation rather than once per indicator
+
+        List<Map<DimensionalItemObject, Object>> permutationValueMaps = new ArrayList<>(
+            dimensionItemPermutations.size() );
+
+        for ( List<DimensionItem> dimensionItems : dimensionItemPermutations )
+        {
+            permutationValueMaps.add( convertToDimItemValueMap( permutationDimensionItemValueMap
+                .getOrDefault( asItemKey( dimensionItems ), List.of() ) ) );
+        }
+
         for ( Indicator indicator : indicators )
         {
-            for ( List<DimensionItem> dimensionItems : dimensionItemPermutations )
+            for ( int i = 0; i < dimensionItemPermutations.size(); i++ )
             {
+                List<DimensionItem> dimensionItems = dimensionItemPermutations.get( i );
+
                 IndicatorValue value = getIndicatorValue( filterPeriods, itemMap,
-                    permutationOrgUnitTargetMap, permutationDimensionItemValueMap, indicator, dimensionItems );
+                    permutationOrgUnitTargetMap, permutationValueMaps.get( i ), indicator, dimensionItems );
 
                 addIndicatorValuesToGrid( dataQueryParams, grid, dataSourceParams, indicator, dimensionItems, value );
             }
@@ -355,8 +367,8 @@ public class DataHandler
      * @param permutationOrgUnitTargetMap the org unit permutation map. See
      *        {@link #getOrgUnitTargetMap(DataQueryParams, Collection)}.
      * @param itemMap Every dimensional item to process.
-     * @param permutationDimensionItemValueMap the dimension item permutation
-     *        map. See
+     * @param valueMap the values of the dimensional items of the given
+     *        permutation. See
      *        {@link #getPermutationDimensionItemValueMap(DataQueryParams,
      *        List<DimensionalItemObject>)}.
      * @param indicator the input Indicator where the IndicatorValue will be
@@ -368,14 +380,8 @@ public class DataHandler
     private IndicatorValue getIndicatorValue( List<Period> filterPeriods,
         Map<DimensionalItemId, DimensionalItemObject> itemMap,
         Map<String, Map<String, Integer>> permutationOrgUnitTargetMap,
-        Map<String, List<DimensionItemObjectValue>> permutationDimensionItemValueMap,
-        Indicator indicator, List<DimensionItem> dimensionItems )
+        Map<DimensionalItemObject, Object> valueMap, Indicator indicator, List<DimensionItem> dimensionItems )
     {
-        String permKey = asItemKey( dimensionItems );
-
-        List<DimensionItemObjectValue> values = permutationDimensionItemValueMap
-            .getOrDefault( permKey, new ArrayList<>() );
-
         List<Period> periods = !filterPeriods.isEmpty() ? filterPeriods
             : List.of( (Period) getPeriodItem( dimensionItems ) );
 
@@ -387,8 +393,8 @@ public class DataHandler
             ? permutationOrgUnitTargetMap.get( ou )
             : null;
 
-        return expressionService.getIndicatorValueObject( indicator, periods, itemMap,
-            convertToDimItemValueMap( values ), orgUnitCountMap );
+        return expressionService.getIndicatorValueObject( indicator, periods, itemMap, valueMap,
+            orgUnitCountMap );
     }
 
     /**
@@ -1155,13 +1161,49 @@ public class DataHandler
         if ( adjustedRow.isPresent() )
         {
             List<Object> aRow = adjustedRow.get();
-            String key = join( remove( aRow.toArray( new Object[0] ), valueIndex ), DIMENSION_SEP );
+            String key = getRowKey( aRow, valueIndex );
             Double value = ((Number) aRow.get( valueIndex )).doubleValue();
 
             valueMap.put( key, new DimensionItemObjectValue( dimensionalItem, value ) );
         }
     }
 
+    /**
+     * Joins the values of the given row, except the value at the given index,
+     * into a dimension key.
+     *
+     * @param row the row.
+     * @param valueIndex the index of the value to skip.
+     * @return the dimension key.
+     */
+    static String getRowKey( List<Object> row, int valueIndex )
+    {
+        StringBuilder key = new StringBuilder( 64 );
+        boolean first = true;
+
+        for ( int i = 0; i < row.size(); i++ )
+        {
+            if ( i != valueIndex )
+            {
+                if ( !first )
+                {
+                    key.append( DIMENSION_SEP );
+                }
+
+                Object value = row.get( i );
+
+                if ( value != null )
+                {
+                    key.append( value );
+                }
+
+                first = false;
+            }
+        }
+
+        return key.toString();
+    }
+
     /**
      * Add the given Indicator values to the given grid.
      *
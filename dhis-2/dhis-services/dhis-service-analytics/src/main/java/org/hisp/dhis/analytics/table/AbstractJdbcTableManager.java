@@ -142,6 +142,8 @@ public abstract class AbstractJdbcTableManager
 
     private static final String WITH_AUTOVACUUM_ENABLED_FALSE = "with(autovacuum_enabled = false)";
 
+    private static final String UNLOGGED = "unlogged";
+
     // -------------------------------------------------------------------------
     // Implementation
     // -------------------------------------------------------------------------
@@ -174,10 +176,12 @@ public abstract class AbstractJdbcTableManager
     }
 
     @Override
-    public void createTable( AnalyticsTable table )
+    public void createTable( AnalyticsTableUpdateParams params, AnalyticsTable table )
     {
-        createTempTable( table );
-        createTempTablePartitions( table );
+        String tableType = getTableType( params );
+
+        createTempTable( table, tableType );
+        createTempTablePartitions( table, tableType );
     }
 
     @Override
@@ -193,6 +197,23 @@ public abstract class AbstractJdbcTableManager
         log.debug( "Created index: '{}'", indexName );
     }
 
+    @Override
+    public void setTableLogged( String tableName )
+    {
+        if ( analyticsExportSettings.isUnloggedTables() )
+        {
+            return;
+        }
+
+        String sql = "alter table " + tableName + " set logged";
+
+        log.debug( "Set table logged: '{}' with SQL: '{}'", tableName, sql );
+
+        jdbcTemplate.execute( sql );
+
+        log.debug( "Set table logged: '{}'", tableName );
+    }
+
     @Override
     public void swapTable( AnalyticsTableUpdateParams params, AnalyticsTable table )
     {
@@ -203,6 +224,13 @@ public abstract class AbstractJdbcTableManager
         log.info( "Swapping table, master table exists: '{}', skip master table: '{}'", tableExists,
             skipMasterTable );
 
+        if ( skipMasterTable && isIncrementalUpdate( params ) )
+        {
+            table.getTablePartitions().stream().forEach( p -> mergeTablePartition( table, p ) );
+            dropTempTable( table );
+            return;
+        }
+
         table.getTablePartitions().stream().forEach( p -> swapTable( p.getTempTableName(), p.getTableName() ) );
 
         if ( !skipMasterTable )
@@ -285,6 +313,16 @@ public abstract class AbstractJdbcTableManager
      */
     protected abstract void populateTable( AnalyticsTableUpdateParams params, AnalyticsTablePartition partition );
 
+    /**
+     * Indicates whether this table manager supports incremental updates, where
+     * the "latest" data is merged into the existing yearly partitions. Requires
+     * a "year" column in the table. Override to enable.
+     */
+    protected boolean supportsIncrementalUpdate()
+    {
+        return false;
+    }
+
     /**
      * Indicates whether data was created or updated for the given time range
      * since last successful "latest" table partition update.
@@ -348,8 +386,9 @@ public abstract class AbstractJdbcTableManager
      * Drops and creates the given analytics table.
      *
      * @param table the {@link AnalyticsTable}.
+     * @param tableType the table type, i.e. "unlogged" or empty.
      */
-    protected void createTempTable( AnalyticsTable table )
+    protected void createTempTable( AnalyticsTable table, String tableType )
     {
         validateDimensionColumns( table.getDimensionColumns() );
 
@@ -357,7 +396,7 @@ public abstract class AbstractJdbcTableManager
 
         StringBuilder sqlCreate = new StringBuilder();
 
-        sqlCreate.append( "create " ).append( analyticsExportSettings.getTableType() ).append( " table " )
+        sqlCreate.append( "create " ).append( tableType ).append( " table " )
             .append( tableName ).append( " (" );
 
         for ( AnalyticsTableColumn col : ListUtils.union( table.getDimensionColumns(), table.getValueColumns() ) )
@@ -385,8 +424,9 @@ public abstract class AbstractJdbcTableManager
      * Drops and creates the table partitions for the given analytics table.
      *
      * @param table the {@link AnalyticsTable}.
+     * @param tableType the table type, i.e. "unlogged" or empty.
      */
-    protected void createTempTablePartitions( AnalyticsTable table )
+    protected void createTempTablePartitions( AnalyticsTable table, String tableType )
     {
         for ( AnalyticsTablePartition partition : table.getTablePartitions() )
         {
@@ -395,7 +435,7 @@ public abstract class AbstractJdbcTableManager
 
             StringBuilder sqlCreate = new StringBuilder();
 
-            sqlCreate.append( "create " ).append( analyticsExportSettings.getTableType() ).append( " table " )
+            sqlCreate.append( "create " ).append( tableType ).append( " table " )
                 .append( tableName ).append( "(" );
 
             if ( !checks.isEmpty() )
@@ -415,6 +455,18 @@ public abstract class AbstractJdbcTableManager
         }
     }
 
+    /**
+     * Returns the table type to use when creating tables. Tables are always
+     * created as unlogged in bulk load mode, and are set as logged before
+     * being swapped in.
+     *
+     * @param params the {@link AnalyticsTableUpdateParams}.
+     */
+    private String getTableType( AnalyticsTableUpdateParams params )
+    {
+        return params.isBulkLoad() ? UNLOGGED : analyticsExportSettings.getTableType();
+    }
+
     /**
      * Returns a table options SQL statement.
      */
@@ -475,6 +527,7 @@ public abstract class AbstractJdbcTableManager
         Assert.notNull( lastFullTableUpdate,
             "A full analytics table update process must be run prior to a latest partition update process" );
 
+        Date startDate = isIncrementalUpdate( params ) ? lastAnyTableUpdate : lastFullTableUpdate;
         Date endDate = params.getStartTime();
         boolean hasUpdatedData = hasUpdatedLatestData( lastAnyTableUpdate, endDate );
 
@@ -482,9 +535,9 @@ public abstract class AbstractJdbcTableManager
 
         if ( hasUpdatedData )
         {
-            table.addPartitionTable( AnalyticsTablePartition.LATEST_PARTITION, lastFullTableUpdate, endDate );
+            table.addPartitionTable( AnalyticsTablePartition.LATEST_PARTITION, startDate, endDate );
             log.info( "Added latest analytics partition with start: '{}' and end: '{}'",
-                getLongDateString( lastFullTableUpdate ), getLongDateString( endDate ) );
+                getLongDateString( startDate ), getLongDateString( endDate ) );
         }
         else
         {
@@ -495,6 +548,17 @@ public abstract class AbstractJdbcTableManager
         return table;
     }
 
+    /**
+     * Indicates whether the given parameters represent an incremental update
+     * which is supported by this table manager.
+     *
+     * @param params the {@link AnalyticsTableUpdateParams}.
+     */
+    protected boolean isIncrementalUpdate( AnalyticsTableUpdateParams params )
+    {
+        return params.isLatestUpdate() && params.isIncrementalUpdate() && supportsIncrementalUpdate();
+    }
+
     /**
      * Checks whether the given list of columns are valid.
      *
@@ -642,6 +706,58 @@ public abstract class AbstractJdbcTableManager
         executeSafely( sqlSteps, true );
     }
 
+    /**
+     * Merges the rows of the given temporary "latest" partition into the
+     * existing yearly partitions. Rows for years without an existing partition
+     * are appended to the existing "latest" partition, or the temporary
+     * partition is swapped in as the "latest" partition if none exists.
+     *
+     * @param table the {@link AnalyticsTable}.
+     * @param partition the temporary "latest" {@link AnalyticsTablePartition}.
+     */
+    private void mergeTablePartition( AnalyticsTable table, AnalyticsTablePartition partition )
+    {
+        String tempTableName = partition.getTempTableName();
+        String columns = ListUtils.union( table.getDimensionColumns(), table.getValueColumns() ).stream()
+            .map( AnalyticsTableColumn::getName )
+            .collect( Collectors.joining( "," ) );
+
+        List<Integer> years = jdbcTemplate.queryForList(
+            "select distinct " + quote( "year" ) + " from " + tempTableName, Integer.class );
+
+        for ( Integer year : years )
+        {
+            String yearTableName = table.getTableName() + PartitionUtils.SEP + year;
+
+            if ( partitionManager.tableExists( yearTableName ) )
+            {
+                String sql = "insert into " + yearTableName + " (" + columns + ") " +
+                    "select " + columns + " from " + tempTableName + " where " + quote( "year" ) + " = " + year + ";" +
+                    "delete from " + tempTableName + " where " + quote( "year" ) + " = " + year + ";";
+
+                invokeTimeAndLog( sql, String.format( "Merge latest data into %s", yearTableName ) );
+            }
+        }
+
+        if ( !hasRows( tempTableName ) )
+        {
+            return;
+        }
+
+        if ( partitionManager.tableExists( partition.getTableName() ) )
+        {
+            String sql = "insert into " + partition.getTableName() + " (" + columns + ") " +
+                "select " + columns + " from " + tempTableName;
+
+            invokeTimeAndLog( sql, String.format( "Merge latest data into %s", partition.getTableName() ) );
+        }
+        else
+        {
+            swapTable( tempTableName, partition.getTableName() );
+            swapInheritance( partition.getTableName(), table.getTempTableName(), table.getTableName() );
+        }
+    }
+
     /**
      * Updates table inheritance of a table partition from the temp master table
      * to the real master table.
@@ -33,6 +33,7 @@ import static org.hisp.dhis.scheduling.JobProgress.FailurePolicy.SKIP_ITEM_OUTLI
 import static org.hisp.dhis.scheduling.JobProgress.FailurePolicy.SKIP_STAGE;
 import static org.hisp.dhis.util.DateUtils.getLongDateString;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Set;
@@ -128,7 +129,7 @@ public class DefaultAnalyticsTableService
         clock.logTime( "Dropped temp tables" );
 
         progress.startingStage( "Creating analytics tables " + tableType, tables.size() );
-        createTables( tables, progress );
+        createTables( params, tables, progress );
         clock.logTime( "Created analytics tables" );
 
         List<AnalyticsTablePartition> partitions = PartitionUtils.getTablePartitions( tables );
@@ -160,6 +161,14 @@ public class DefaultAnalyticsTableService
         analyzeTables( partitions, progress );
         clock.logTime( "Analyzed tables" );
 
+        if ( params.isBulkLoad() )
+        {
+            progress.startingStage( "Setting analytics tables logged " + tableType,
+                tables.size() + partitions.size() );
+            setTablesLogged( tables, partitions, progress );
+            clock.logTime( "Set tables logged" );
+        }
+
         if ( params.isLatestUpdate() )
         {
             progress.startingStage( "Removing updated and deleted data " + tableType, SKIP_STAGE );
@@ -208,9 +217,11 @@ public class DefaultAnalyticsTableService
     /**
      * Creates the given analytics tables.
      */
-    private void createTables( List<AnalyticsTable> tables, JobProgress progress )
+    private void createTables( AnalyticsTableUpdateParams params, List<AnalyticsTable> tables,
+        JobProgress progress )
     {
-        progress.runStage( tables, AnalyticsTable::getTableName, tableManager::createTable );
+        progress.runStage( tables, AnalyticsTable::getTableName,
+            table -> tableManager.createTable( params, table ) );
     }
 
     /**
@@ -288,6 +299,22 @@ public class DefaultAnalyticsTableService
             table -> tableManager.analyzeTable( table.getTempTableName() ) );
     }
 
+    /**
+     * Sets the given unlogged analytics tables and partitions as logged. The
+     * partitions are processed in parallel as each is an independent table
+     * rewrite.
+     */
+    private void setTablesLogged( List<AnalyticsTable> tables, List<AnalyticsTablePartition> partitions,
+        JobProgress progress )
+    {
+        List<String> tableNames = new ArrayList<>();
+        tables.forEach( table -> tableNames.add( table.getTempTableName() ) );
+        partitions.forEach( partition -> tableNames.add( partition.getTempTableName() ) );
+
+        progress.runStageInParallel( getProcessNo(), tableNames, tableName -> tableName,
+            tableManager::setTableLogged );
+    }
+
     /**
      * Swaps the given analytics tables.
      *
@@ -177,6 +177,12 @@ public class JdbcAnalyticsTableManager
         return null;
     }
 
+    @Override
+    protected boolean supportsIncrementalUpdate()
+    {
+        return true;
+    }
+
     @Override
     protected boolean hasUpdatedLatestData( Date startDate, Date endDate )
     {
@@ -134,6 +134,12 @@ public class JdbcCompletenessTableManager
         return null;
     }
 
+    @Override
+    protected boolean supportsIncrementalUpdate()
+    {
+        return true;
+    }
+
     @Override
     protected boolean hasUpdatedLatestData( Date startDate, Date endDate )
     {
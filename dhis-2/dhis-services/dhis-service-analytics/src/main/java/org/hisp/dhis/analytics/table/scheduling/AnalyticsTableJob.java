@@ -63,6 +63,7 @@ public class AnalyticsTableJob implements Job
         AnalyticsTableUpdateParams params = AnalyticsTableUpdateParams.newBuilder()
             .withLastYears( parameters.getLastYears() )
             .withSkipResourceTables( parameters.isSkipResourceTables() )
+            .withBulkLoad( parameters.isBulkLoad() )
             .withSkipTableTypes( parameters.getSkipTableTypes() )
             .withSkipPrograms( parameters.getSkipPrograms() )
             .withJobId( jobConfiguration )
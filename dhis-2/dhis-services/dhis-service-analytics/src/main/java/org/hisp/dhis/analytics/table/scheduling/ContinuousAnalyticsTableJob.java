@@ -60,7 +60,9 @@ import com.google.common.base.Preconditions;
  * update time is persisted using a system setting. A full analytics table
  * update is performed when the current time is after the next scheduled full
  * update time. Otherwise, a partial update of the latest analytics partition
- * table is performed.
+ * table is performed. If incremental update is enabled, the latest update only
+ * includes data updated since the last update of any kind and merges it into
+ * the existing yearly partitions.
  *
  * @author Lars Helge Overland
  */
@@ -130,6 +132,7 @@ public class ContinuousAnalyticsTableJob implements Job
 
             AnalyticsTableUpdateParams params = AnalyticsTableUpdateParams.newBuilder()
                 .withLatestPartition()
+                .withIncrementalUpdate( parameters.isIncrementalUpdate() )
                 .withSkipResourceTables( true )
                 .withSkipTableTypes( parameters.getSkipTableTypes() )
                 .withJobId( jobConfiguration )
@@ -31,6 +31,7 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.hasProperty;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hisp.dhis.common.DimensionalObject.DATA_X_DIM_ID;
+import static org.hisp.dhis.common.DimensionalObject.DIMENSION_SEP;
 import static org.hisp.dhis.common.DimensionalObject.ORGUNIT_DIM_ID;
 import static org.hisp.dhis.common.DimensionalObject.PERIOD_DIM_ID;
 import static org.hisp.dhis.utils.Assertions.assertContainsOnly;
@@ -50,6 +51,8 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
 
+import org.apache.commons.collections4.MultiValuedMap;
+import org.apache.commons.collections4.multimap.ArrayListValuedHashMap;
 import org.hamcrest.Matchers;
 import org.hamcrest.collection.IsIterableContainingInAnyOrder;
 import org.hisp.dhis.DhisConvenienceTest;
@@ -59,6 +62,7 @@ import org.hisp.dhis.category.CategoryOption;
 import org.hisp.dhis.category.CategoryOptionCombo;
 import org.hisp.dhis.common.BaseDimensionalObject;
 import org.hisp.dhis.common.DataDimensionItemType;
+import org.hisp.dhis.common.DimensionItemObjectValue;
 import org.hisp.dhis.common.DimensionType;
 import org.hisp.dhis.common.DimensionalItemObject;
 import org.hisp.dhis.common.DimensionalObject;
@@ -748,4 +752,28 @@ class DataQueryParamsTest extends DhisConvenienceTest
                 hasProperty( "isoDate", Matchers.is( peC.getIsoDate() ) ),
                 hasProperty( "isoDate", Matchers.is( peC.getIsoDate() ) ) ) );
     }
+
+    @Test
+    void testGetPermutationDimensionalItemValueMap()
+    {
+        DimensionItemObjectValue valueA = new DimensionItemObjectValue( deA, 1d );
+        DimensionItemObjectValue valueB = new DimensionItemObjectValue( deB, 2d );
+        DimensionItemObjectValue valueC = new DimensionItemObjectValue( deA, 3d );
+
+        String permKey = peA.getIsoDate() + DIMENSION_SEP + ouA.getUid();
+
+        MultiValuedMap<String, DimensionItemObjectValue> aggregatedDataMap = new ArrayListValuedHashMap<>();
+        aggregatedDataMap.put( deA.getUid() + DIMENSION_SEP + permKey, valueA );
+        aggregatedDataMap.put( deB.getUid() + DIMENSION_SEP + permKey, valueB );
+        aggregatedDataMap.put( deA.getUid(), valueC );
+
+        Map<String, List<DimensionItemObjectValue>> permutationMap = DataQueryParams
+            .getPermutationDimensionalItemValueMap( aggregatedDataMap );
+
+        assertEquals( Set.of( permKey, "" ), permutationMap.keySet() );
+        assertEquals( permKey, DimensionItem.asItemKey(
+            List.of( new DimensionItem( PERIOD_DIM_ID, peA ), new DimensionItem( ORGUNIT_DIM_ID, ouA ) ) ) );
+        assertContainsOnly( List.of( valueA, valueB ), permutationMap.get( permKey ) );
+        assertContainsOnly( List.of( valueC ), permutationMap.get( "" ) );
+    }
 }
@@ -32,7 +32,12 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.hisp.dhis.analytics.DataQueryParams;
 import org.hisp.dhis.cache.Cache;
@@ -51,6 +56,9 @@ import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
 /**
  * @author Dusan Bernat
  */
@@ -77,8 +85,10 @@ class AnalyticsCacheTest
 
         Mockito.<Cache<Grid>> when( cacheProvider.createAnalyticsCache() )
             .thenReturn( cache );
+        Mockito.<Cache<Boolean>> when( cacheProvider.createAnalyticsInFlightCache() )
+            .thenReturn( new LocalCache<>( new SimpleCacheBuilder<>() ) );
 
-        AnalyticsCache analyticsCache = new AnalyticsCache( cacheProvider, settings );
+        AnalyticsCache analyticsCache = new AnalyticsCache( cacheProvider, settings, new SimpleMeterRegistry() );
 
         Grid grid = new ListGrid();
         grid.addHeader( new GridHeader( "Header1" ) )
@@ -120,4 +130,127 @@ class AnalyticsCacheTest
 
         assertEquals( 2, optCachedGrid.get().getRows().size() );
     }
+
+    @Test
+    void returnSameObjectAfterModifyFetchedObject()
+    {
+        // arrange
+        AnalyticsCacheSettings settings = new AnalyticsCacheSettings( systemSettingManager );
+
+        CacheBuilder<Grid> cacheBuilder = new SimpleCacheBuilder<>();
+
+        cacheBuilder.expireAfterWrite( 1L, TimeUnit.MINUTES );
+
+        Cache<Grid> cache = new LocalCache<>( cacheBuilder );
+
+        Mockito.<Cache<Grid>> when( cacheProvider.createAnalyticsCache() )
+            .thenReturn( cache );
+        Mockito.<Cache<Boolean>> when( cacheProvider.createAnalyticsInFlightCache() )
+            .thenReturn( new LocalCache<>( new SimpleCacheBuilder<>() ) );
+
+        AnalyticsCache analyticsCache = new AnalyticsCache( cacheProvider, settings, new SimpleMeterRegistry() );
+
+        DataQueryParams params = DataQueryParams.newBuilder()
+            .withDataElements( List.of( new DataElement( "dataElementA" ), new DataElement( "dataElementB" ) ) )
+            .build();
+
+        // act
+        Grid fetchedGrid = analyticsCache.getOrFetch( params, p -> new ListGrid()
+            .addHeader( new GridHeader( "Header1" ) )
+            .addRow()
+            .addValue( "Value11" ) );
+
+        fetchedGrid.addHeader( new GridHeader( "Header2" ) )
+            .addColumn( List.of( "Value12" ) )
+            .addRow()
+            .addValue( "Value21" )
+            .addValue( "Value22" );
+
+        Grid cachedGrid = analyticsCache.getOrFetch( params, p -> new ListGrid() );
+
+        cachedGrid.addMetaData( "key", "value" );
+
+        // assert
+        assertEquals( 2, fetchedGrid.getHeaderWidth() );
+        assertEquals( 2, fetchedGrid.getRows().size() );
+
+        Optional<Grid> optCachedGrid = analyticsCache.get( params.getKey() );
+
+        assertTrue( optCachedGrid.isPresent() );
+        assertEquals( 1, optCachedGrid.get().getHeaderWidth() );
+        assertEquals( 1, optCachedGrid.get().getRows().size() );
+        assertTrue( optCachedGrid.get().getMetaData().isEmpty() );
+    }
+
+    @Test
+    void coalesceConcurrentIdenticalQueries()
+        throws Exception
+    {
+        // arrange
+        AnalyticsCacheSettings settings = new AnalyticsCacheSettings( systemSettingManager );
+
+        CacheBuilder<Grid> cacheBuilder = new SimpleCacheBuilder<>();
+
+        cacheBuilder.expireAfterWrite( 1L, TimeUnit.MINUTES );
+
+        Mockito.<Cache<Grid>> when( cacheProvider.createAnalyticsCache() )
+            .thenReturn( new LocalCache<>( cacheBuilder ) );
+        Mockito.<Cache<Boolean>> when( cacheProvider.createAnalyticsInFlightCache() )
+            .thenReturn( new LocalCache<>( new SimpleCacheBuilder<>() ) );
+
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+        AnalyticsCache analyticsCache = new AnalyticsCache( cacheProvider, settings, meterRegistry );
+
+        DataQueryParams params = DataQueryParams.newBuilder()
+            .withDataElements( List.of( new DataElement( "dataElementA" ) ) )
+            .build();
+
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch( 1 );
+        CountDownLatch release = new CountDownLatch( 1 );
+
+        ExecutorService executor = Executors.newFixedThreadPool( 2 );
+
+        // act
+        Future<Grid> first = executor.submit( () -> analyticsCache.getOrFetch( params, p -> {
+            executions.incrementAndGet();
+            started.countDown();
+            await( release );
+            return new ListGrid().addHeader( new GridHeader( "Header1" ) );
+        } ) );
+
+        started.await( 10, TimeUnit.SECONDS );
+
+        Future<Grid> second = executor.submit( () -> analyticsCache.getOrFetch( params, p -> {
+            executions.incrementAndGet();
+            return new ListGrid();
+        } ) );
+
+        // Give the second query time to join the first one
+        Thread.sleep( 200 );
+
+        release.countDown();
+
+        // assert
+        assertEquals( 1, first.get( 10, TimeUnit.SECONDS ).getHeaderWidth() );
+        assertEquals( 1, second.get( 10, TimeUnit.SECONDS ).getHeaderWidth() );
+        assertEquals( 1, executions.get() );
+        assertEquals( 1.0, meterRegistry.counter( "analytics.cache.queries", "outcome", "executed" ).count() );
+        assertEquals( 1.0, meterRegistry.counter( "analytics.cache.queries", "outcome", "coalesced" ).count() );
+
+        executor.shutdown();
+    }
+
+    private static void await( CountDownLatch latch )
+    {
+        try
+        {
+            latch.await( 10, TimeUnit.SECONDS );
+        }
+        catch ( InterruptedException ex )
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
 }
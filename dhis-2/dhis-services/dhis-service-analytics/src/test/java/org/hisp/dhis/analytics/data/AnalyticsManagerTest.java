@@ -37,6 +37,7 @@ import static org.hisp.dhis.analytics.AggregationType.NONE;
 import static org.hisp.dhis.analytics.AggregationType.SUM;
 import static org.hisp.dhis.analytics.DataType.NUMERIC;
 import static org.hisp.dhis.analytics.DataType.TEXT;
+import static org.hisp.dhis.common.DimensionalObject.DIMENSION_SEP;
 import static org.hisp.dhis.common.DimensionalObjectUtils.getList;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -224,4 +225,61 @@ class AnalyticsManagerTest extends DhisConvenienceTest
         assertTrue( dataValueMap.keySet().contains( BASE_UID + "B-2012Q3-" + BASE_UID + "A" ) );
         assertTrue( dataValueMap.keySet().contains( BASE_UID + "B-2012Q4-" + BASE_UID + "A" ) );
     }
+
+    @Test
+    void testReplaceDataPeriodsWithAggregationPeriodsInLastSegment()
+    {
+        Period y2012 = createPeriod( "2012" );
+
+        AnalyticsAggregationType aggregationType = new AnalyticsAggregationType(
+            AggregationType.SUM, AggregationType.AVERAGE, DataType.NUMERIC, true );
+
+        DataQueryParams params = DataQueryParams.newBuilder()
+            .withDataElements( getList( createDataElement( 'A' ) ) )
+            .withOrganisationUnits( getList( createOrganisationUnit( 'A' ), createOrganisationUnit( 'B' ) ) )
+            .withPeriods( getList( y2012 ) )
+            .withDataPeriodType( new YearlyPeriodType() )
+            .withAggregationType( aggregationType )
+            .build();
+
+        Map<String, Object> dataValueMap = new HashMap<>();
+        dataValueMap.put( BASE_UID + "A-" + BASE_UID + "A-2012", 1d );
+        dataValueMap.put( BASE_UID + "A-" + BASE_UID + "B-2012", 2d );
+
+        ListMap<DimensionalItemObject, DimensionalItemObject> dataPeriodAggregationPeriodMap = new ListMap<>();
+        dataPeriodAggregationPeriodMap.putValue( y2012, createPeriod( "2012Q1" ) );
+        dataPeriodAggregationPeriodMap.putValue( y2012, createPeriod( "2012Q2" ) );
+
+        Map<String, Object> expected = Map.of(
+            BASE_UID + "A-" + BASE_UID + "A-2012Q1", 1d,
+            BASE_UID + "A-" + BASE_UID + "A-2012Q2", 1d,
+            BASE_UID + "A-" + BASE_UID + "B-2012Q1", 2d,
+            BASE_UID + "A-" + BASE_UID + "B-2012Q2", 2d );
+
+        analyticsManager.replaceDataPeriodsWithAggregationPeriods(
+            dataValueMap, params, dataPeriodAggregationPeriodMap );
+
+        assertEquals( expected, dataValueMap );
+    }
+
+    @Test
+    void testIndexOfSegmentMatchesSplit()
+    {
+        List<String> keys = List.of( "a", "ab-cd", "a-bc-def", "dx.mod-202201-ou", "a--c" );
+
+        for ( String key : keys )
+        {
+            String[] segments = key.split( DIMENSION_SEP, -1 );
+
+            for ( int i = 0; i < segments.length; i++ )
+            {
+                int start = JdbcAnalyticsManager.indexOfSegment( key, i );
+                int end = key.indexOf( DIMENSION_SEP, start );
+
+                assertEquals( segments[i], key.substring( start, end == -1 ? key.length() : end ) );
+            }
+
+            assertEquals( -1, JdbcAnalyticsManager.indexOfSegment( key, segments.length ) );
+        }
+    }
 }
@@ -35,8 +35,11 @@ import static org.hisp.dhis.common.DimensionalObject.DATA_X_DIM_ID;
 import static org.hisp.dhis.common.DimensionalObject.ORGUNIT_DIM_ID;
 import static org.hisp.dhis.common.DimensionalObject.PERIOD_DIM_ID;
 import static org.hisp.dhis.common.DimensionalObjectUtils.getList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.when;
 
+import java.util.Map;
+
 import org.hisp.dhis.analytics.AggregationType;
 import org.hisp.dhis.analytics.AnalyticsAggregationType;
 import org.hisp.dhis.analytics.AnalyticsTableType;
@@ -182,6 +185,26 @@ class JdbcAnalyticsManagerTest
         assertExpectedMaxMinSumOrgUnitSql( "min" );
     }
 
+    @Test
+    void verifyKeysJoinDimensionValuesOfEachRow()
+        throws Exception
+    {
+        DataQueryParams params = createParams( AggregationType.SUM );
+
+        when( rowSet.next() ).thenReturn( true, true, false );
+        when( rowSet.findColumn( DATA_X_DIM_ID ) ).thenReturn( 1 );
+        when( rowSet.findColumn( PERIOD_DIM_ID ) ).thenReturn( 2 );
+        when( rowSet.findColumn( "value" ) ).thenReturn( 3 );
+        when( rowSet.getString( 1 ) ).thenReturn( "deabcdefghA", "deabcdefghB" );
+        when( rowSet.getString( 2 ) ).thenReturn( "201501", "201502" );
+        when( rowSet.getDouble( 3 ) ).thenReturn( 1d, 2d );
+
+        Map<String, Object> map = subject.getAggregatedDataValues( params, AnalyticsTableType.DATA_VALUE, 20000 )
+            .get();
+
+        assertEquals( Map.of( "deabcdefghA-201501", 1d, "deabcdefghB-201502", 2d ), map );
+    }
+
     // -------------------------------------------------------------------------
     // Supportive methods
     // -------------------------------------------------------------------------
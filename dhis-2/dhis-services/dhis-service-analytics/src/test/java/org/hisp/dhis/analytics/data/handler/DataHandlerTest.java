@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.analytics.data.handler;
+
+import static org.apache.commons.lang3.ArrayUtils.remove;
+import static org.apache.commons.lang3.StringUtils.join;
+import static org.hisp.dhis.common.DimensionalObject.DIMENSION_SEP;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link DataHandler}.
+ */
+class DataHandlerTest
+{
+    @Test
+    void testGetRowKeyMatchesJoinWithoutValue()
+    {
+        List<List<Object>> rows = List.of(
+            Arrays.asList( "deabcdefghA", "201501", "ouabcdefghA", 12.5d ),
+            Arrays.asList( 12.5d, "deabcdefghA", "201501" ),
+            Arrays.asList( "deabcdefghA", 3, "201501" ),
+            Arrays.asList( "deabcdefghA", null, "201501", 7L ),
+            Arrays.asList( 1d ) );
+
+        List<Integer> valueIndexes = List.of( 3, 0, 1, 3, 0 );
+
+        for ( int i = 0; i < rows.size(); i++ )
+        {
+            List<Object> row = rows.get( i );
+            int valueIndex = valueIndexes.get( i );
+
+            assertEquals( join( remove( row.toArray( new Object[0] ), valueIndex ), DIMENSION_SEP ),
+                DataHandler.getRowKey( row, valueIndex ) );
+        }
+    }
+}
@@ -32,6 +32,8 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.util.ArrayList;
@@ -41,10 +43,13 @@ import java.util.Map;
 
 import org.hisp.dhis.analytics.AnalyticsExportSettings;
 import org.hisp.dhis.analytics.AnalyticsTable;
+import org.hisp.dhis.analytics.AnalyticsTableColumn;
 import org.hisp.dhis.analytics.AnalyticsTableHookService;
 import org.hisp.dhis.analytics.AnalyticsTableManager;
 import org.hisp.dhis.analytics.AnalyticsTablePartition;
+import org.hisp.dhis.analytics.AnalyticsTableType;
 import org.hisp.dhis.analytics.AnalyticsTableUpdateParams;
+import org.hisp.dhis.analytics.ColumnDataType;
 import org.hisp.dhis.analytics.partition.PartitionManager;
 import org.hisp.dhis.category.CategoryService;
 import org.hisp.dhis.common.IdentifiableObjectManager;
@@ -67,6 +72,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.rowset.SqlRowSet;
 
 /**
  * @author Lars Helge Overland
@@ -87,6 +93,9 @@ class JdbcAnalyticsTableManagerTest
     @Mock
     private PeriodDataProvider periodDataProvider;
 
+    @Mock
+    private PartitionManager partitionManager;
+
     private AnalyticsTableManager subject;
 
     @BeforeEach
@@ -96,7 +105,7 @@ class JdbcAnalyticsTableManagerTest
             mock( OrganisationUnitService.class ),
             mock( CategoryService.class ), systemSettingManager, mock( DataApprovalLevelService.class ),
             mock( ResourceTableService.class ), mock( AnalyticsTableHookService.class ), mock( StatementBuilder.class ),
-            mock( PartitionManager.class ), mock( DatabaseInfo.class ), jdbcTemplate, analyticsExportSettings,
+            partitionManager, mock( DatabaseInfo.class ), jdbcTemplate, analyticsExportSettings,
             periodDataProvider );
     }
 
@@ -176,6 +185,107 @@ class JdbcAnalyticsTableManagerTest
         assertEquals( startTime, partition.getEndDate() );
     }
 
+    @Test
+    void testGetLatestAnalyticsTableIncrementalUpdate()
+    {
+        Date lastFullTableUpdate = new DateTime( 2019, 3, 1, 2, 0 ).toDate();
+        Date lastLatestPartitionUpdate = new DateTime( 2019, 3, 1, 9, 0 ).toDate();
+        Date startTime = new DateTime( 2019, 3, 1, 10, 0 ).toDate();
+
+        AnalyticsTableUpdateParams params = AnalyticsTableUpdateParams.newBuilder()
+            .withStartTime( startTime )
+            .withLatestPartition()
+            .withIncrementalUpdate( true )
+            .build();
+
+        List<Map<String, Object>> queryResp = new ArrayList<>();
+        queryResp.add( Map.of( "dataelementid", 1 ) );
+
+        when( systemSettingManager.getDateSetting( SettingKey.LAST_SUCCESSFUL_ANALYTICS_TABLES_UPDATE ) )
+            .thenReturn( lastFullTableUpdate );
+        when( systemSettingManager.getDateSetting( SettingKey.LAST_SUCCESSFUL_LATEST_ANALYTICS_PARTITION_UPDATE ) )
+            .thenReturn( lastLatestPartitionUpdate );
+        when( jdbcTemplate.queryForList( Mockito.anyString() ) ).thenReturn( queryResp );
+
+        List<AnalyticsTable> tables = subject.getAnalyticsTables( params );
+
+        assertEquals( 1, tables.size() );
+
+        AnalyticsTablePartition partition = tables.get( 0 ).getLatestPartition();
+
+        assertNotNull( partition );
+        assertTrue( partition.isLatestPartition() );
+        assertEquals( lastLatestPartitionUpdate, partition.getStartDate() );
+        assertEquals( startTime, partition.getEndDate() );
+    }
+
+    @Test
+    void testSwapTableMergesLatestPartitionIntoYearlyPartitions()
+    {
+        AnalyticsTableUpdateParams params = AnalyticsTableUpdateParams.newBuilder()
+            .withStartTime( new DateTime( 2019, 3, 1, 10, 0 ).toDate() )
+            .withLatestPartition()
+            .withIncrementalUpdate( true )
+            .build();
+
+        AnalyticsTable table = new AnalyticsTable( AnalyticsTableType.DATA_VALUE,
+            List.of( new AnalyticsTableColumn( "dx", ColumnDataType.CHARACTER_11, "dx" ) ),
+            List.of( new AnalyticsTableColumn( "value", ColumnDataType.DOUBLE, "value" ) ) );
+        table.addPartitionTable( AnalyticsTablePartition.LATEST_PARTITION,
+            new DateTime( 2019, 3, 1, 9, 0 ).toDate(), new DateTime( 2019, 3, 1, 10, 0 ).toDate() );
+
+        SqlRowSet remainingRows = mock( SqlRowSet.class );
+        when( remainingRows.next() ).thenReturn( true );
+
+        when( partitionManager.tableExists( "analytics" ) ).thenReturn( true );
+        when( partitionManager.tableExists( "analytics_2018" ) ).thenReturn( true );
+        when( partitionManager.tableExists( "analytics_2019" ) ).thenReturn( false );
+        when( partitionManager.tableExists( "analytics_0" ) ).thenReturn( true );
+        when( jdbcTemplate.queryForList( "select distinct \"year\" from analytics_temp_0", Integer.class ) )
+            .thenReturn( List.of( 2018, 2019 ) );
+        when( jdbcTemplate.queryForRowSet( "select * from analytics_temp_0 limit 1" ) ).thenReturn( remainingRows );
+
+        subject.swapTable( params, table );
+
+        verify( jdbcTemplate ).execute( "insert into analytics_2018 (dx,value) select dx,value from analytics_temp_0 "
+            + "where \"year\" = 2018;delete from analytics_temp_0 where \"year\" = 2018;" );
+        verify( jdbcTemplate ).execute( "insert into analytics_0 (dx,value) select dx,value from analytics_temp_0" );
+        verify( jdbcTemplate, never() ).execute( ArgumentMatchers.contains( "analytics_2019" ) );
+        verify( jdbcTemplate, never() ).execute( ArgumentMatchers.contains( "rename to analytics_0" ) );
+    }
+
+    @Test
+    void testSwapTableMergeSwapsInMissingLatestPartition()
+    {
+        AnalyticsTableUpdateParams params = AnalyticsTableUpdateParams.newBuilder()
+            .withStartTime( new DateTime( 2019, 3, 1, 10, 0 ).toDate() )
+            .withLatestPartition()
+            .withIncrementalUpdate( true )
+            .build();
+
+        AnalyticsTable table = new AnalyticsTable( AnalyticsTableType.DATA_VALUE,
+            List.of( new AnalyticsTableColumn( "dx", ColumnDataType.CHARACTER_11, "dx" ) ),
+            List.of( new AnalyticsTableColumn( "value", ColumnDataType.DOUBLE, "value" ) ) );
+        table.addPartitionTable( AnalyticsTablePartition.LATEST_PARTITION,
+            new DateTime( 2019, 3, 1, 9, 0 ).toDate(), new DateTime( 2019, 3, 1, 10, 0 ).toDate() );
+
+        SqlRowSet remainingRows = mock( SqlRowSet.class );
+        when( remainingRows.next() ).thenReturn( true );
+
+        when( partitionManager.tableExists( "analytics" ) ).thenReturn( true );
+        when( partitionManager.tableExists( "analytics_0" ) ).thenReturn( false );
+        when( jdbcTemplate.queryForList( "select distinct \"year\" from analytics_temp_0", Integer.class ) )
+            .thenReturn( List.of( 2019 ) );
+        when( jdbcTemplate.queryForRowSet( "select * from analytics_temp_0 limit 1" ) ).thenReturn( remainingRows );
+
+        subject.swapTable( params, table );
+
+        verify( jdbcTemplate )
+            .execute( ArgumentMatchers.contains( "alter table analytics_temp_0 rename to analytics_0" ) );
+        verify( jdbcTemplate ).execute( ArgumentMatchers.contains( "alter table analytics_0 inherit analytics" ) );
+        verify( jdbcTemplate, never() ).execute( ArgumentMatchers.startsWith( "insert into" ) );
+    }
+
     @Test
     void testGetLatestAnalyticsTableNoFullTableUpdate()
     {
@@ -195,4 +305,24 @@ class JdbcAnalyticsTableManagerTest
             .thenReturn( lastLatestPartitionUpdate );
         assertThrows( IllegalArgumentException.class, () -> subject.getAnalyticsTables( params ) );
     }
+
+    @Test
+    void testSetTableLogged()
+    {
+        when( analyticsExportSettings.isUnloggedTables() ).thenReturn( false );
+
+        subject.setTableLogged( "analytics_temp_2022" );
+
+        verify( jdbcTemplate ).execute( "alter table analytics_temp_2022 set logged" );
+    }
+
+    @Test
+    void testSetTableLoggedWhenConfiguredUnlogged()
+    {
+        when( analyticsExportSettings.isUnloggedTables() ).thenReturn( true );
+
+        subject.setTableLogged( "analytics_temp_2022" );
+
+        verify( jdbcTemplate, never() ).execute( ArgumentMatchers.anyString() );
+    }
 }
@@ -42,7 +42,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 public abstract class AbstractAuditConsumer
     implements AuditConsumer
 {
-    protected AuditService auditService;
+    protected AuditBatcher auditBatcher;
 
     protected ObjectMapper objectMapper;
 
@@ -71,7 +71,7 @@ public abstract class AbstractAuditConsumer
 
             if ( isAuditDatabaseEnabled )
             {
-                auditService.addAudit( audit );
+                auditBatcher.add( audit );
             }
         }
         catch ( IOException e )
@@ -0,0 +1,218 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.audit;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PreDestroy;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.hisp.dhis.external.conf.ConfigurationKey;
+import org.hisp.dhis.external.conf.DhisConfigurationProvider;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Saves consumed audits to the database. Audits are buffered in memory and
+ * saved in batches of max {@code audit.database.batch_size} audits, at the
+ * latest {@code audit.database.batch_max_delay} milliseconds after they were
+ * added. Buffering is disabled by default and every audit is saved when it is
+ * added. Note that upon a JVM crash, the audits in the buffer will be lost.
+ *
+ * The number of saved audits, the size of the batches and the time from the
+ * creation of an audit until it is saved are recorded as
+ * {@code audit.consumer.saved}, {@code audit.consumer.batch.size} and
+ * {@code audit.consumer.lag}.
+ */
+@Slf4j
+@Component
+public class AuditBatcher
+{
+    private final AuditService auditService;
+
+    private final int batchSize;
+
+    private final List<Audit> buffer = new ArrayList<>();
+
+    private final ScheduledExecutorService scheduler;
+
+    private final Counter savedCounter;
+
+    private final DistributionSummary batchSizeSummary;
+
+    private final Timer lagTimer;
+
+    public AuditBatcher( AuditService auditService, DhisConfigurationProvider dhisConfig,
+        MeterRegistry meterRegistry )
+    {
+        this.auditService = auditService;
+        this.batchSize = Integer.parseInt( dhisConfig.getProperty( ConfigurationKey.AUDIT_DATABASE_BATCH_SIZE ) );
+
+        this.savedCounter = meterRegistry.counter( "audit.consumer.saved" );
+        this.batchSizeSummary = meterRegistry.summary( "audit.consumer.batch.size" );
+        this.lagTimer = meterRegistry.timer( "audit.consumer.lag" );
+        meterRegistry.gauge( "audit.consumer.buffered", buffer, this::size );
+
+        if ( batchSize > 1 )
+        {
+            long maxDelay = Long.parseLong( dhisConfig.getProperty( ConfigurationKey.AUDIT_DATABASE_BATCH_MAX_DELAY ) );
+            this.scheduler = Executors.newSingleThreadScheduledExecutor( runnable -> {
+                Thread thread = new Thread( runnable, "AUDIT-BATCHER" );
+                thread.setDaemon( true );
+                return thread;
+            } );
+            this.scheduler.scheduleWithFixedDelay( this::flush, maxDelay, maxDelay, TimeUnit.MILLISECONDS );
+        }
+        else
+        {
+            this.scheduler = null;
+        }
+    }
+
+    /**
+     * Adds the audit to the buffer and saves the buffered audits if the batch
+     * is full. Saves the audit right away if buffering is disabled.
+     *
+     * @param audit the audit to save
+     */
+    public void add( Audit audit )
+    {
+        if ( scheduler == null )
+        {
+            auditService.addAudit( audit );
+            recordSaved( List.of( audit ) );
+            return;
+        }
+
+        List<Audit> batch = null;
+        synchronized ( buffer )
+        {
+            buffer.add( audit );
+            if ( buffer.size() >= batchSize )
+            {
+                batch = drain();
+            }
+        }
+
+        if ( batch != null )
+        {
+            save( batch );
+        }
+    }
+
+    /**
+     * Saves all buffered audits.
+     */
+    public void flush()
+    {
+        List<Audit> batch;
+        synchronized ( buffer )
+        {
+            batch = drain();
+        }
+
+        if ( !batch.isEmpty() )
+        {
+            save( batch );
+        }
+    }
+
+    @PreDestroy
+    public void shutdown()
+    {
+        if ( scheduler != null )
+        {
+            scheduler.shutdown();
+            flush();
+        }
+    }
+
+    private List<Audit> drain()
+    {
+        List<Audit> batch = new ArrayList<>( buffer );
+        buffer.clear();
+        return batch;
+    }
+
+    private int size( List<Audit> audits )
+    {
+        synchronized ( buffer )
+        {
+            return audits.size();
+        }
+    }
+
+    private void save( List<Audit> batch )
+    {
+        try
+        {
+            auditService.addAudits( batch );
+            recordSaved( batch );
+        }
+        catch ( Exception e )
+        {
+            log.warn( "An error occurred persisting a batch of " + batch.size()
+                + " Audit messages, persisting them one by one", e );
+            batch.forEach( this::saveOne );
+        }
+    }
+
+    private void saveOne( Audit audit )
+    {
+        try
+        {
+            auditService.addAudit( audit );
+            recordSaved( List.of( audit ) );
+        }
+        catch ( Exception e )
+        {
+            log.error( "An error occurred persisting an Audit message", e );
+        }
+    }
+
+    private void recordSaved( List<Audit> audits )
+    {
+        LocalDateTime now = LocalDateTime.now();
+        savedCounter.increment( audits.size() );
+        batchSizeSummary.record( audits.size() );
+        audits.stream()
+            .filter( audit -> audit.getCreatedAt() != null )
+            .forEach( audit -> lagTimer.record( Duration.between( audit.getCreatedAt(), now ) ) );
+    }
+}
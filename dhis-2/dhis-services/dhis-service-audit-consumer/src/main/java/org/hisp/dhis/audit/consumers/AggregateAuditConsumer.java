@@ -31,7 +31,7 @@ import javax.jms.TextMessage;
 
 import org.hisp.dhis.artemis.Topics;
 import org.hisp.dhis.audit.AbstractAuditConsumer;
-import org.hisp.dhis.audit.AuditService;
+import org.hisp.dhis.audit.AuditBatcher;
 import org.hisp.dhis.external.conf.ConfigurationKey;
 import org.hisp.dhis.external.conf.DhisConfigurationProvider;
 import org.springframework.jms.annotation.JmsListener;
@@ -47,11 +47,11 @@ public class AggregateAuditConsumer
     extends AbstractAuditConsumer
 {
     public AggregateAuditConsumer(
-        AuditService auditService,
+        AuditBatcher auditBatcher,
         ObjectMapper objectMapper,
         DhisConfigurationProvider dhisConfig )
     {
-        this.auditService = auditService;
+        this.auditBatcher = auditBatcher;
         this.objectMapper = objectMapper;
 
         this.isAuditLogEnabled = dhisConfig.isEnabled( ConfigurationKey.AUDIT_LOGGER );
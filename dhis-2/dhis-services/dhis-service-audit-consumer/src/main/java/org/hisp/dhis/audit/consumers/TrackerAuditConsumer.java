@@ -33,7 +33,7 @@ import javax.jms.TextMessage;
 
 import org.hisp.dhis.artemis.Topics;
 import org.hisp.dhis.audit.AbstractAuditConsumer;
-import org.hisp.dhis.audit.AuditService;
+import org.hisp.dhis.audit.AuditBatcher;
 import org.hisp.dhis.external.conf.ConfigurationKey;
 import org.hisp.dhis.external.conf.DhisConfigurationProvider;
 import org.springframework.jms.annotation.JmsListener;
@@ -51,11 +51,11 @@ public class TrackerAuditConsumer
     extends AbstractAuditConsumer
 {
     public TrackerAuditConsumer(
-        AuditService auditService,
+        AuditBatcher auditBatcher,
         ObjectMapper objectMapper,
         DhisConfigurationProvider dhisConfig )
     {
-        this.auditService = auditService;
+        this.auditBatcher = auditBatcher;
         this.objectMapper = objectMapper;
 
         // for legacy reasons we are overriding the default here and using "off"
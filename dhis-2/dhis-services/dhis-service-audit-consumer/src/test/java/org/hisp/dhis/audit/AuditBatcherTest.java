@@ -0,0 +1,184 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.audit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.hisp.dhis.external.conf.ConfigurationKey;
+import org.hisp.dhis.external.conf.DhisConfigurationProvider;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith( MockitoExtension.class )
+class AuditBatcherTest
+{
+    @Mock
+    private AuditService auditService;
+
+    @Mock
+    private DhisConfigurationProvider dhisConfig;
+
+    private MeterRegistry meterRegistry;
+
+    private AuditBatcher batcher;
+
+    @BeforeEach
+    void setUp()
+    {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown()
+    {
+        if ( batcher != null )
+        {
+            batcher.shutdown();
+        }
+    }
+
+    @Test
+    void testAddSavesRightAwayWhenBufferingIsDisabled()
+    {
+        batcher = createBatcher( 1, 0 );
+        Audit audit = createAudit( "a" );
+
+        batcher.add( audit );
+
+        verify( auditService ).addAudit( audit );
+        verify( auditService, never() ).addAudits( any() );
+        assertEquals( 1, getSaved() );
+    }
+
+    @Test
+    void testAddSavesBatchWhenBatchIsFull()
+    {
+        batcher = createBatcher( 2, 60_000 );
+        Audit a = createAudit( "a" );
+        Audit b = createAudit( "b" );
+
+        batcher.add( a );
+        verifyNoInteractions( auditService );
+
+        batcher.add( b );
+        verify( auditService ).addAudits( List.of( a, b ) );
+        assertEquals( 2, getSaved() );
+    }
+
+    @Test
+    void testBufferedAuditsAreSavedAfterMaxDelay()
+    {
+        batcher = createBatcher( 10, 20 );
+        Audit a = createAudit( "a" );
+
+        batcher.add( a );
+
+        verify( auditService, timeout( 5_000 ) ).addAudits( List.of( a ) );
+    }
+
+    @Test
+    void testShutdownSavesBufferedAudits()
+    {
+        batcher = createBatcher( 10, 60_000 );
+        Audit a = createAudit( "a" );
+        Audit b = createAudit( "b" );
+        batcher.add( a );
+        batcher.add( b );
+        verifyNoInteractions( auditService );
+
+        batcher.shutdown();
+
+        verify( auditService ).addAudits( List.of( a, b ) );
+        assertEquals( 2, getSaved() );
+    }
+
+    @Test
+    void testFailedBatchIsSavedOneByOne()
+    {
+        batcher = createBatcher( 3, 60_000 );
+        Audit a = createAudit( "a" );
+        Audit b = createAudit( "b" );
+        Audit c = createAudit( "c" );
+        doThrow( new IllegalStateException( "batch" ) ).when( auditService ).addAudits( any() );
+        doThrow( new IllegalStateException( "single" ) ).when( auditService ).addAudit( b );
+
+        batcher.add( a );
+        batcher.add( b );
+        batcher.add( c );
+
+        verify( auditService ).addAudits( List.of( a, b, c ) );
+        verify( auditService ).addAudit( a );
+        verify( auditService ).addAudit( b );
+        verify( auditService ).addAudit( c );
+        assertEquals( 2, getSaved() );
+    }
+
+    private AuditBatcher createBatcher( int batchSize, long maxDelay )
+    {
+        when( dhisConfig.getProperty( ConfigurationKey.AUDIT_DATABASE_BATCH_SIZE ) )
+            .thenReturn( String.valueOf( batchSize ) );
+        if ( batchSize > 1 )
+        {
+            when( dhisConfig.getProperty( ConfigurationKey.AUDIT_DATABASE_BATCH_MAX_DELAY ) )
+                .thenReturn( String.valueOf( maxDelay ) );
+        }
+        return new AuditBatcher( auditService, dhisConfig, meterRegistry );
+    }
+
+    private double getSaved()
+    {
+        return meterRegistry.counter( "audit.consumer.saved" ).count();
+    }
+
+    private static Audit createAudit( String createdBy )
+    {
+        return Audit.builder()
+            .auditType( AuditType.CREATE )
+            .auditScope( AuditScope.METADATA )
+            .createdAt( LocalDateTime.now() )
+            .createdBy( createdBy )
+            .build();
+    }
+}
@@ -58,11 +58,22 @@ public class AnalyticsExportSettings
      */
     public String getTableType()
     {
-        if ( dhisConfigurationProvider.isEnabled( ANALYTICS_TABLE_UNLOGGED ) )
+        if ( isUnloggedTables() )
         {
             return UNLOGGED;
         }
 
         return EMPTY;
     }
+
+    /**
+     * Indicates whether analytics tables are configured to always be created as
+     * unlogged tables.
+     *
+     * @return true if analytics tables are unlogged.
+     */
+    public boolean isUnloggedTables()
+    {
+        return dhisConfigurationProvider.isEnabled( ANALYTICS_TABLE_UNLOGGED );
+    }
 }
@@ -93,6 +93,8 @@ import java.util.stream.Stream;
 
 import lombok.extern.slf4j.Slf4j;
 
+import org.antlr.v4.runtime.ParserRuleContext;
+import org.antlr.v4.runtime.tree.ParseTree;
 import org.apache.commons.lang3.StringUtils;
 import org.hisp.dhis.analytics.DataType;
 import org.hisp.dhis.antlr.Parser;
@@ -136,6 +138,7 @@ import org.hisp.dhis.parser.expression.CommonExpressionVisitor;
 import org.hisp.dhis.parser.expression.ExpressionItem;
 import org.hisp.dhis.parser.expression.ExpressionItemMethod;
 import org.hisp.dhis.parser.expression.ExpressionState;
+import org.hisp.dhis.parser.expression.antlr.ExpressionBaseListener;
 import org.hisp.dhis.parser.expression.function.FunctionAggregationType;
 import org.hisp.dhis.parser.expression.function.FunctionMaxDate;
 import org.hisp.dhis.parser.expression.function.FunctionMinDate;
@@ -282,6 +285,13 @@ public class DefaultExpressionService
      */
     private final Cache<Map<String, Constant>> constantMapCache;
 
+    /**
+     * Cache for expression parse trees, keyed by expression text. Parse trees
+     * only depend on the expression text and not on metadata, and are read-only
+     * when visited, so they can be shared between concurrent evaluations.
+     */
+    private final Cache<ParseTree> parseTreeCache;
+
     // -------------------------------------------------------------------------
     // Constructor
     // -------------------------------------------------------------------------
@@ -306,6 +316,7 @@ public class DefaultExpressionService
         this.statementBuilder = statementBuilder;
         this.i18nManager = i18nManager;
         this.constantMapCache = cacheProvider.createAllConstantsCache();
+        this.parseTreeCache = cacheProvider.createExpressionParseTreeCache();
     }
 
     // -------------------------------------------------------------------------
@@ -784,7 +795,7 @@ public class DefaultExpressionService
     {
         try
         {
-            Object result = Parser.visit( expression, visitor );
+            Object result = visitor.visit( getParseTree( expression ) );
 
             switch ( dataType )
             {
@@ -815,6 +826,40 @@ public class DefaultExpressionService
         return DOUBLE_VALUE_IF_NULL;
     }
 
+    /**
+     * Returns the parse tree of the given expression, parsing the expression
+     * only if it is not already cached.
+     *
+     * @throws ParserException if the expression cannot be parsed.
+     */
+    private ParseTree getParseTree( String expression )
+    {
+        return parseTreeCache.get( expression, key -> {
+            RootContextListener listener = new RootContextListener();
+            Parser.listen( key, listener );
+            return listener.root;
+        } );
+    }
+
+    /**
+     * Listener which captures the root of the parse tree being walked, which is
+     * the first rule entered.
+     */
+    private static class RootContextListener
+        extends ExpressionBaseListener
+    {
+        private ParserRuleContext root;
+
+        @Override
+        public void enterEveryRule( ParserRuleContext ctx )
+        {
+            if ( root == null )
+            {
+                root = ctx;
+            }
+        }
+    }
+
     /**
      * Regenerates an expression from the parse tree, with values substituted
      * for constants and orgUnitCounts.
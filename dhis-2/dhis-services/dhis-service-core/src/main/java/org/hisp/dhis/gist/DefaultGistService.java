@@ -32,6 +32,7 @@ import static org.hisp.dhis.gist.GistBuilder.createCountBuilder;
 import static org.hisp.dhis.gist.GistBuilder.createFetchBuilder;
 
 import java.net.URI;
+import java.util.AbstractList;
 import java.util.Date;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -105,7 +106,13 @@ public class DefaultGistService
         GistBuilder queryBuilder = createFetchBuilder( query, context, access, this );
         List<Object[]> rows = fetchWithParameters( query, queryBuilder,
             getSession().createQuery( queryBuilder.buildFetchHQL(), Object[].class ) );
-        return queryBuilder.transform( rows );
+        int pageSize = Math.max( 1, query.getPageSize() );
+        boolean hasMore = rows.size() > pageSize;
+        List<?> elements = queryBuilder.transform( hasMore ? rows.subList( 0, pageSize ) : rows );
+        String cursor = query.isKeysetPaging() && !elements.isEmpty()
+            ? queryBuilder.getKeysetCursor( elements.get( elements.size() - 1 ) )
+            : null;
+        return new GistPage( elements, hasMore, cursor );
     }
 
     @Override
@@ -113,12 +120,15 @@ public class DefaultGistService
     {
         int page = 1 + (query.getPageOffset() / query.getPageSize());
         Schema schema = schemaService.getDynamicSchema( query.getElementType() );
+        boolean hasMore = rows instanceof GistPage
+            ? ((GistPage) rows).hasMore
+            : query.getPageSize() == rows.size();
         String prev = null;
         String next = null;
         Integer total = null;
         if ( query.isTotal() )
         {
-            if ( rows.size() < query.getPageSize() && !rows.isEmpty() )
+            if ( !hasMore && !rows.isEmpty() && !query.isKeysetPaging() )
             {
                 // NB. only do this when rows are returned as otherwise the page
                 // simply might not exist which leads to zero rows
@@ -126,29 +136,57 @@ public class DefaultGistService
             }
             else
             {
-                GistAccessControl access = createGistAccessControl();
-                RelativePropertyContext context = createPropertyContext( query );
-                GistBuilder countBuilder = createCountBuilder( query, context, access, this );
-                total = countWithParameters( countBuilder,
-                    getSession().createQuery( countBuilder.buildCountHQL(), Long.class ) );
+                total = count( query );
             }
         }
         if ( schema.hasApiEndpoint() )
         {
             URI baseURL = GistPager.computeBaseURL( query, params, schemaService::getDynamicSchema );
-            if ( page > 1 )
+            if ( query.isKeysetPaging() )
             {
-                prev = UriComponentsBuilder.fromUri( baseURL ).replaceQueryParam( "page", page - 1 ).build().toString();
+                // keyset paging only continues forward after the last row
+                page = 1;
+                String cursor = rows instanceof GistPage ? ((GistPage) rows).cursor : null;
+                if ( hasMore && cursor != null )
+                {
+                    next = UriComponentsBuilder.fromUri( baseURL ).replaceQueryParam( "page" )
+                        .replaceQueryParam( "after", cursor ).build().toString();
+                }
             }
-            if ( total != null && query.getPageOffset() + rows.size() < total
-                || total == null && query.getPageSize() == rows.size() )
+            else
             {
-                next = UriComponentsBuilder.fromUri( baseURL ).replaceQueryParam( "page", page + 1 ).build().toString();
+                if ( page > 1 )
+                {
+                    prev = UriComponentsBuilder.fromUri( baseURL ).replaceQueryParam( "page", page - 1 ).build()
+                        .toString();
+                }
+                if ( hasMore )
+                {
+                    next = UriComponentsBuilder.fromUri( baseURL ).replaceQueryParam( "page", page + 1 ).build()
+                        .toString();
+                }
             }
         }
         return new GistPager( page, query.getPageSize(), total, prev, next );
     }
 
+    private int count( GistQuery query )
+    {
+        GistAccessControl access = createGistAccessControl();
+        RelativePropertyContext context = createPropertyContext( query );
+        GistBuilder countBuilder = createCountBuilder( query, context, access, this );
+        if ( query.isEstimateTotal() && countBuilder.isMatchingAllRows() )
+        {
+            Long estimate = estimateWithStatistics( query );
+            if ( estimate != null && estimate >= 0 )
+            {
+                return estimate.intValue();
+            }
+        }
+        return countWithParameters( countBuilder,
+            getSession().createQuery( countBuilder.buildCountHQL(), Long.class ) );
+    }
+
     @Override
     public Map<String, ?> describe( GistQuery unplanned )
     {
@@ -217,11 +255,15 @@ public class DefaultGistService
         return new RelativePropertyContext( query.getElementType(), schemaService::getDynamicSchema );
     }
 
+    /**
+     * Fetches one more row than the page size to find out if there is a next
+     * page without the need to count all matches.
+     */
     private <T> List<T> fetchWithParameters( GistQuery gistQuery, GistBuilder builder, Query<T> query )
     {
         builder.addFetchParameters( query::setParameter, this::parseFilterArgument );
-        query.setMaxResults( Math.max( 1, gistQuery.getPageSize() ) );
-        query.setFirstResult( gistQuery.getPageOffset() );
+        query.setMaxResults( Math.max( 1, gistQuery.getPageSize() ) + 1 );
+        query.setFirstResult( gistQuery.isKeysetPaging() ? 0 : gistQuery.getPageOffset() );
         query.setCacheable( false );
         return query.list();
     }
@@ -233,6 +275,27 @@ public class DefaultGistService
         return query.getSingleResult().intValue();
     }
 
+    /**
+     * Uses the row estimate of the PostgreSQL planner statistics which are
+     * updated by (auto-)vacuum and analyze.
+     *
+     * @return the estimated number of rows in the element table or null if
+     *         unknown
+     */
+    private Long estimateWithStatistics( GistQuery query )
+    {
+        String table = schemaService.getDynamicSchema( query.getElementType() ).getTableName();
+        if ( table == null )
+        {
+            return null;
+        }
+        List<?> estimate = getSession()
+            .createNativeQuery( "select cast(reltuples as bigint) from pg_class where relname = :table" )
+            .setParameter( "table", table )
+            .list();
+        return estimate.isEmpty() || estimate.get( 0 ) == null ? null : ((Number) estimate.get( 0 )).longValue();
+    }
+
     @SuppressWarnings( "unchecked" )
     private <T> T parseFilterArgument( String value, Class<T> type )
     {
@@ -256,6 +319,38 @@ public class DefaultGistService
         }
     }
 
+    /**
+     * The fetched page of elements that also remembers if there are more
+     * matches and the cursor to continue keyset paging.
+     */
+    private static final class GistPage extends AbstractList<Object>
+    {
+        private final List<?> elements;
+
+        private final boolean hasMore;
+
+        private final String cursor;
+
+        GistPage( List<?> elements, boolean hasMore, String cursor )
+        {
+            this.elements = elements;
+            this.hasMore = hasMore;
+            this.cursor = cursor;
+        }
+
+        @Override
+        public Object get( int index )
+        {
+            return elements.get( index );
+        }
+
+        @Override
+        public int size()
+        {
+            return elements.size();
+        }
+    }
+
     @Override
     public List<String> getUserGroupIdsByUserId( String userId )
     {
@@ -175,6 +175,12 @@ final class GistBuilder
         RelativePropertyContext context )
     {
         GistQuery extended = query;
+        // keyset paging? => make sure we have the ID to continue after
+        if ( query.isKeysetPaging()
+            && query.getFields().stream().noneMatch( f -> ID_PROPERTY.equals( f.getPropertyPath() ) ) )
+        {
+            extended = extended.withField( ID_PROPERTY );
+        }
         for ( Field f : query.getFields() )
         {
             extended = addSupportFields( extended, context, f );
@@ -301,6 +307,20 @@ final class GistBuilder
         return rowsObjects;
     }
 
+    /**
+     * @param row a fetched row as returned by {@link #transform(List)}
+     * @return the ID of the element in the row which is used as cursor to
+     *         continue keyset paging after this row
+     */
+    public String getKeysetCursor( Object row )
+    {
+        if ( row == null || row.getClass() != Object[].class )
+        {
+            return (String) row;
+        }
+        return (String) ((Object[]) row)[fieldIndexByPath.get( ID_PROPERTY )];
+    }
+
     private void addTransformer( Consumer<Object[]> transformer )
     {
         fieldResultTransformers.add( transformer );
@@ -372,6 +392,10 @@ final class GistBuilder
         String fields = createFieldsHQL();
         String accessFilters = createAccessFilterHQL( context, "e" );
         String userFilters = createFiltersHQL();
+        if ( hasKeysetCursor() )
+        {
+            userFilters = "(" + userFilters + ") and " + createKeysetHQL();
+        }
         String orders = createOrdersHQL();
         String elementTable = query.getElementType().getSimpleName();
         Owner owner = query.getOwner();
@@ -428,6 +452,15 @@ final class GistBuilder
         return access.createAccessFilterHQL( tableName );
     }
 
+    /**
+     * @return true, if the query matches all rows of the element table so that
+     *         the table statistics describe the number of matches
+     */
+    public boolean isMatchingAllRows()
+    {
+        return query.getOwner() == null && query.getFilters().isEmpty() && !isFilterBySharing( context );
+    }
+
     private boolean isFilterBySharing( RelativePropertyContext context )
     {
         Property sharing = context.resolve( SHARING_PROPERTY );
@@ -810,6 +843,22 @@ final class GistBuilder
         return relativeApiEndpoint == null ? null : query.getEndpointRoot() + relativeApiEndpoint;
     }
 
+    private boolean hasKeysetCursor()
+    {
+        return query.isKeysetPaging() && !query.getAfter().isEmpty();
+    }
+
+    /**
+     * Instead of skipping rows by offset keyset paging continues after the row
+     * with the cursor ID which makes the cost of a page independent of how
+     * deep it is in the list. This relies on the default order by ID.
+     */
+    private String createKeysetHQL()
+    {
+        return String.format( "e.id > (select k.id from %s k where k.uid = :AfterId)",
+            query.getElementType().getSimpleName() );
+    }
+
     private String createFiltersHQL()
     {
         String rootJunction = query.isAnyFilter() ? " or " : " and ";
@@ -1064,6 +1113,10 @@ final class GistBuilder
                 dest.accept( "p_" + field.getPropertyPath(), field.getTransformationArgument() );
             }
         }
+        if ( hasKeysetCursor() )
+        {
+            dest.accept( "AfterId", query.getAfter() );
+        }
         addCountParameters( dest, argumentParser );
     }
 
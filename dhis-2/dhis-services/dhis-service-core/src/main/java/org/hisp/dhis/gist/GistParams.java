@@ -55,6 +55,8 @@ public final class GistParams
 
     boolean total = false;
 
+    boolean estimateTotal = false;
+
     boolean absoluteUrls = false;
 
     boolean headless = false;
@@ -71,6 +73,8 @@ public final class GistParams
 
     String order;
 
+    String after;
+
     public GistAutoType getAuto( GistAutoType defaultValue )
     {
         return auto == null ? defaultValue : auto;
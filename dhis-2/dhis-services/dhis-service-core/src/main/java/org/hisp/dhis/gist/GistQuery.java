@@ -120,6 +120,24 @@ public final class GistQuery
     @JsonProperty
     private final boolean total;
 
+    /**
+     * When {@link #total} is requested use the planner statistics of the
+     * element table instead of counting matches. This is only possible when
+     * the list is neither filtered nor the items of an owner collection.
+     * Default false.
+     */
+    @JsonProperty
+    private final boolean estimateTotal;
+
+    /**
+     * Keyset paging cursor. When non-null the list is paged by continuing
+     * after the element with this ID (in the default ID order) instead of
+     * skipping {@link #pageOffset} rows. An empty cursor starts at the
+     * beginning. Cannot be combined with {@link #orders}.
+     */
+    @JsonProperty
+    private final String after;
+
     private final String contextRoot;
 
     private final Locale translationLocale;
@@ -211,6 +229,11 @@ public final class GistQuery
         return isAbsoluteUrls() ? getContextRoot() : "";
     }
 
+    public boolean isKeysetPaging()
+    {
+        return after != null;
+    }
+
     public boolean hasFilterGroups()
     {
         if ( filters.size() <= 1 )
@@ -229,6 +252,7 @@ public final class GistQuery
             .translate( params.isTranslate() )
             .inverse( params.isInverse() )
             .total( params.isTotal() )
+            .estimateTotal( params.isEstimateTotal() )
             .absoluteUrls( params.isAbsoluteUrls() )
             .headless( params.isHeadless() )
             .describe( params.isDescribe() )
@@ -238,6 +262,7 @@ public final class GistQuery
                 .map( Field::parse ).collect( toList() ) )
             .filters( getStrings( params.getFilter(), FIELD_SPLIT ).stream().map( Filter::parse ).collect( toList() ) )
             .orders( getStrings( params.getOrder(), "," ).stream().map( Order::parse ).collect( toList() ) )
+            .after( params.getAfter() )
             .build();
     }
 
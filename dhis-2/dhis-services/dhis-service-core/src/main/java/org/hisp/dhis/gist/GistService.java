@@ -73,7 +73,9 @@ public interface GistService
      * request params.
      *
      * @param query a query build from params
-     * @param rows the result list of running the query
+     * @param rows the result list of running the query as returned by
+     *        {@link #gist(GistQuery)} which knows if there are more matches
+     *        and how to continue keyset paging
      * @param params The request params used to build the query
      * @return the pager suitable for the provided situation
      */
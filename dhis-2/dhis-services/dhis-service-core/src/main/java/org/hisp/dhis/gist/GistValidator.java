@@ -64,11 +64,24 @@ final class GistValidator
     {
         validateOwnerCollection();
         validateOwnerAccess();
+        validateKeysetPaging();
         query.getFilters().forEach( filter -> validateFilter( filter, context ) );
         query.getOrders().forEach( order -> validateOrder( context.resolveMandatory( order.getPropertyPath() ) ) );
         query.getFields().forEach( field -> validateField( field, context ) );
     }
 
+    /**
+     * Keyset paging continues after the last ID and therefore relies on the
+     * default order by ID.
+     */
+    private void validateKeysetPaging()
+    {
+        if ( query.isKeysetPaging() && !query.getOrders().isEmpty() )
+        {
+            throw new IllegalArgumentException( "Parameter `after` cannot be combined with `order`." );
+        }
+    }
+
     /**
      * Can the current user view the owner object of the collection listed?
      */
@@ -29,7 +29,6 @@ package org.hisp.dhis.organisationunit;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 import static org.apache.commons.collections4.CollectionUtils.isEmpty;
-import static org.hisp.dhis.commons.util.TextUtils.joinHyphen;
 
 import java.awt.geom.Point2D;
 import java.util.ArrayList;
@@ -81,12 +80,6 @@ public class DefaultOrganisationUnitService
 {
     private static final String LEVEL_PREFIX = "Level ";
 
-    private final Cache<Boolean> inUserOrgUnitHierarchyCache;
-
-    private final Cache<Boolean> inUserOrgUnitViewHierarchyCache;
-
-    private final Cache<Boolean> inUserOrgUnitSearchHierarchyCache;
-
     private final Cache<Boolean> userCaptureOrgCountThresholdCache;
 
     // -------------------------------------------------------------------------
@@ -125,10 +118,7 @@ public class DefaultOrganisationUnitService
         this.configurationService = configurationService;
         this.userSettingService = userSettingService;
 
-        this.inUserOrgUnitHierarchyCache = cacheProvider.createInUserOrgUnitHierarchyCache();
-        this.inUserOrgUnitSearchHierarchyCache = cacheProvider.createInUserSearchOrgUnitHierarchyCache();
         this.userCaptureOrgCountThresholdCache = cacheProvider.createUserCaptureOrgUnitThresholdCache();
-        this.inUserOrgUnitViewHierarchyCache = cacheProvider.createInUserViewOrgUnitHierarchyCache();
     }
 
     // -------------------------------------------------------------------------
@@ -479,9 +469,8 @@ public class DefaultOrganisationUnitService
     @Transactional( readOnly = true )
     public boolean isInUserHierarchyCached( User user, OrganisationUnit organisationUnit )
     {
-        String cacheKey = joinHyphen( user.getUsername(), organisationUnit.getUid() );
-
-        return inUserOrgUnitHierarchyCache.get( cacheKey, ou -> isInUserHierarchy( user, organisationUnit ) );
+        // the path based check is cheaper than caching per user and org unit
+        return isInUserHierarchy( user, organisationUnit );
     }
 
     @Override
@@ -507,26 +496,7 @@ public class DefaultOrganisationUnitService
             return false;
         }
 
-        Set<String> ancestorUids = IdentifiableObjectUtils.getUidsAsSet( ancestors );
-
-        OrganisationUnit unit = getOrganisationUnit( organisationUnit.getUid() );
-
-        if ( unit == null )
-        {
-            unit = organisationUnit;
-        }
-
-        while ( unit != null )
-        {
-            if ( ancestorUids.contains( unit.getUid() ) )
-            {
-                return true;
-            }
-
-            unit = unit.getParent();
-        }
-
-        return false;
+        return withPath( organisationUnit ).isInHierarchyOf( IdentifiableObjectUtils.getUidsAsSet( ancestors ) );
     }
 
     @Transactional( readOnly = true )
@@ -538,20 +508,23 @@ public class DefaultOrganisationUnitService
             return false;
         }
 
-        OrganisationUnit unit = getOrganisationUnit( organisationUnit.getUid() );
+        return withPath( organisationUnit ).isInHierarchyOf( Set.of( ancestor.getUid() ) );
+    }
 
-        while ( unit != null )
+    /**
+     * The path is the hierarchy index used for descendant checks. Units loaded
+     * from the database have it, only references and new units are resolved.
+     */
+    private OrganisationUnit withPath( OrganisationUnit organisationUnit )
+    {
+        if ( organisationUnit.hasPath() )
         {
-            if ( ancestor.equals( unit ) )
-            {
-                return true;
-            }
-
-            unit = unit.getParent();
+            return organisationUnit;
         }
 
-        return false;
+        OrganisationUnit unit = getOrganisationUnit( organisationUnit.getUid() );
 
+        return unit == null ? organisationUnit : unit;
     }
 
     @Override
@@ -584,10 +557,7 @@ public class DefaultOrganisationUnitService
     @Transactional( readOnly = true )
     public boolean isInUserDataViewHierarchyCached( User user, OrganisationUnit organisationUnit )
     {
-        String cacheKey = joinHyphen( user.getUsername(), organisationUnit.getUid() );
-
-        return inUserOrgUnitViewHierarchyCache
-            .get( cacheKey, ou -> isInUserDataViewHierarchy( user, organisationUnit ) );
+        return isInUserDataViewHierarchy( user, organisationUnit );
     }
 
     @Override
@@ -608,10 +578,7 @@ public class DefaultOrganisationUnitService
     @Transactional( readOnly = true )
     public boolean isInUserSearchHierarchyCached( User user, OrganisationUnit organisationUnit )
     {
-        String cacheKey = joinHyphen( user.getUsername(), organisationUnit.getUid() );
-
-        return inUserOrgUnitSearchHierarchyCache
-            .get( cacheKey, ou -> isInUserSearchHierarchy( user, organisationUnit ) );
+        return isInUserSearchHierarchy( user, organisationUnit );
     }
 
     @Override
@@ -97,6 +97,8 @@ import com.google.common.collect.Sets;
 @Scope( value = "prototype", proxyMode = ScopedProxyMode.INTERFACES )
 public class DefaultPreheatService implements PreheatService
 {
+    private static final int PARTITION_SIZE = 20000;
+
     private final SchemaService schemaService;
 
     private final QueryService queryService;
@@ -143,78 +145,27 @@ public class DefaultPreheatService implements PreheatService
         Map<Class<? extends IdentifiableObject>, Set<String>> codeMap = references.get( PreheatIdentifier.CODE );
 
         boolean hasOnlyUIDClasses = uidMap.keySet().stream().anyMatch( this::isOnlyUID );
+        boolean byUid = PreheatIdentifier.UID == params.getPreheatIdentifier() || hasOnlyUIDClasses;
+        boolean byCode = codeMap != null && PreheatIdentifier.CODE == params.getPreheatIdentifier();
 
-        if ( PreheatIdentifier.UID == params.getPreheatIdentifier() || hasOnlyUIDClasses )
+        Set<Class<? extends IdentifiableObject>> referencedKlasses = new HashSet<>();
+        if ( byUid )
         {
-            for ( Class<? extends IdentifiableObject> klass : uidMap.keySet() )
-            {
-                List<List<String>> identifiers = Lists.partition( Lists.newArrayList( uidMap.get( klass ) ),
-                    20000 );
-
-                if ( !identifiers.isEmpty() )
-                {
-                    for ( List<String> ids : identifiers )
-                    {
-                        Query query = Query.from( schemaService.getDynamicSchema( klass ) );
-                        query.setUser( preheat.getUser() );
-                        query.add( Restrictions.in( "id", ids ) );
-                        List<? extends IdentifiableObject> objects = queryService.query( query );
-                        preheat.put( PreheatIdentifier.UID, objects );
-                    }
-                }
-            }
+            referencedKlasses.addAll( uidMap.keySet() );
         }
-
-        if ( codeMap != null && (PreheatIdentifier.CODE == params.getPreheatIdentifier()) )
+        if ( byCode )
         {
-            for ( Class<? extends IdentifiableObject> klass : codeMap.keySet() )
-            {
-                List<List<String>> identifiers = Lists.partition( Lists.newArrayList( codeMap.get( klass ) ),
-                    20000 );
-
-                if ( !identifiers.isEmpty() )
-                {
-                    for ( List<String> ids : identifiers )
-                    {
-                        Query query = Query.from( schemaService.getDynamicSchema( klass ) );
-                        query.setUser( preheat.getUser() );
-                        query.add( Restrictions.in( "code", ids ) );
-                        List<? extends IdentifiableObject> objects = queryService.query( query );
-                        preheat.put( PreheatIdentifier.CODE, objects );
-                    }
-                }
-            }
-
-            if ( uidMap.containsKey( User.class ) && !uidMap.get( User.class ).isEmpty() )
-            {
-                List<List<String>> identifiers = Lists.partition( Lists.newArrayList( uidMap.get( User.class ) ),
-                    20000 );
-
-                for ( List<String> ids : identifiers )
-                {
-                    Query query = Query.from( schemaService.getDynamicSchema( User.class ) );
-                    query.setUser( preheat.getUser() );
-                    query.add( Restrictions.in( "id", ids ) );
-                    List<? extends IdentifiableObject> objects = queryService.query( query );
-                    preheat.put( PreheatIdentifier.UID, objects );
-                }
-            }
-
-            if ( uidMap.containsKey( UserRole.class )
-                && !uidMap.get( UserRole.class ).isEmpty() )
-            {
-                List<List<String>> identifiers = Lists
-                    .partition( Lists.newArrayList( uidMap.get( UserRole.class ) ), 20000 );
+            referencedKlasses.addAll( codeMap.keySet() );
+            referencedKlasses.addAll( Sets.intersection( uidMap.keySet(), Set.of( User.class, UserRole.class ) ) );
+        }
 
-                for ( List<String> ids : identifiers )
-                {
-                    Query query = Query.from( schemaService.getDynamicSchema( UserRole.class ) );
-                    query.setUser( preheat.getUser() );
-                    query.add( Restrictions.in( "id", ids ) );
-                    List<? extends IdentifiableObject> objects = queryService.query( query );
-                    preheat.put( PreheatIdentifier.UID, objects );
-                }
-            }
+        for ( Class<? extends IdentifiableObject> klass : referencedKlasses )
+        {
+            Set<String> uids = byUid || User.class == klass || UserRole.class == klass
+                ? uidMap.getOrDefault( klass, Set.of() )
+                : Set.of();
+            Set<String> codes = byCode ? codeMap.getOrDefault( klass, Set.of() ) : Set.of();
+            preheatReferences( preheat, klass, uids, codes );
         }
 
         for ( Class<? extends IdentifiableObject> klass : klasses )
@@ -269,6 +220,68 @@ public class DefaultPreheatService implements PreheatService
         return preheat;
     }
 
+    /**
+     * Loads the referenced objects of a class matched by UID and code. Both
+     * identifiers are matched in the same query so that each class (partition)
+     * takes one round trip.
+     */
+    private void preheatReferences( Preheat preheat, Class<? extends IdentifiableObject> klass,
+        Set<String> uids, Set<String> codes )
+    {
+        if ( uids.isEmpty() && codes.isEmpty() )
+        {
+            return;
+        }
+
+        Timer timer = new SystemTimer().start();
+
+        List<List<String>> uidPartitions = Lists.partition( new ArrayList<>( uids ), PARTITION_SIZE );
+        List<List<String>> codePartitions = Lists.partition( new ArrayList<>( codes ), PARTITION_SIZE );
+        int partitions = Math.max( uidPartitions.size(), codePartitions.size() );
+        int loaded = 0;
+
+        for ( int i = 0; i < partitions; i++ )
+        {
+            List<String> partitionUids = i < uidPartitions.size() ? uidPartitions.get( i ) : List.of();
+            List<String> partitionCodes = i < codePartitions.size() ? codePartitions.get( i ) : List.of();
+
+            Query query = Query.from( schemaService.getDynamicSchema( klass ) );
+            query.setUser( preheat.getUser() );
+
+            if ( partitionCodes.isEmpty() )
+            {
+                query.add( Restrictions.in( "id", partitionUids ) );
+            }
+            else if ( partitionUids.isEmpty() )
+            {
+                query.add( Restrictions.in( "code", partitionCodes ) );
+            }
+            else
+            {
+                query.addDisjunction()
+                    .add( Restrictions.in( "id", partitionUids ) )
+                    .add( Restrictions.in( "code", partitionCodes ) );
+            }
+
+            List<? extends IdentifiableObject> objects = queryService.query( query );
+
+            if ( !partitionUids.isEmpty() )
+            {
+                preheat.put( PreheatIdentifier.UID, objects );
+            }
+
+            if ( !partitionCodes.isEmpty() )
+            {
+                preheat.put( PreheatIdentifier.CODE, objects );
+            }
+
+            loaded += objects.size();
+        }
+
+        log.debug( "(" + preheat.getUsername() + ") Import:Preheat[" + klass.getSimpleName() + "] loaded " + loaded
+            + " of " + (uids.size() + codes.size()) + " references took " + timer.toString() );
+    }
+
     private void handleSharing( PreheatParams params, Preheat preheat )
     {
         params.getObjects().forEach( ( klass, list ) -> list.forEach( object -> {
@@ -501,7 +514,7 @@ public class DefaultPreheatService implements PreheatService
                         if ( !codeMap.containsKey( itemKlass ) )
                             codeMap.put( itemKlass, new HashSet<>() );
 
-                        Object reference = ReflectionUtils.invokeMethod( object, p.getGetterMethod() );
+                        Object reference = p.getValue( object );
 
                         if ( reference != null )
                         {
@@ -511,8 +524,7 @@ public class DefaultPreheatService implements PreheatService
                     }
                     else
                     {
-                        Collection<IdentifiableObject> reference = ReflectionUtils.invokeMethod( object,
-                            p.getGetterMethod() );
+                        Collection<IdentifiableObject> reference = p.getValue( object );
 
                         if ( reference != null )
                         {
@@ -688,7 +700,7 @@ public class DefaultPreheatService implements PreheatService
                 properties.forEach( p -> {
                     if ( !p.isCollection() )
                     {
-                        IdentifiableObject reference = ReflectionUtils.invokeMethod( object, p.getGetterMethod() );
+                        IdentifiableObject reference = p.getValue( object );
 
                         if ( reference != null )
                         {
@@ -707,8 +719,7 @@ public class DefaultPreheatService implements PreheatService
                     {
                         Collection<IdentifiableObject> refObjects = ReflectionUtils
                             .newCollectionInstance( p.getKlass() );
-                        Collection<IdentifiableObject> references = ReflectionUtils.invokeMethod( object,
-                            p.getGetterMethod() );
+                        Collection<IdentifiableObject> references = p.getValue( object );
 
                         if ( references != null )
                         {
@@ -768,7 +779,7 @@ public class DefaultPreheatService implements PreheatService
                     }
 
                     objects
-                        .forEach( o -> list.addAll( ReflectionUtils.invokeMethod( o, property.getGetterMethod() ) ) );
+                        .forEach( o -> list.addAll( property.getValue( o ) ) );
                     targets.put( property.getItemKlass(), list );
                 }
                 else
@@ -780,7 +791,7 @@ public class DefaultPreheatService implements PreheatService
                         list.addAll( targets.get( property.getKlass() ) );
                     }
 
-                    objects.forEach( o -> list.add( ReflectionUtils.invokeMethod( o, property.getGetterMethod() ) ) );
+                    objects.forEach( o -> list.add( property.getValue( o ) ) );
                     targets.put( property.getKlass(), list );
                 }
             }
@@ -834,25 +845,24 @@ public class DefaultPreheatService implements PreheatService
 
             if ( !property.isCollection() )
             {
-                IdentifiableObject refObject = ReflectionUtils.invokeMethod( object, property.getGetterMethod() );
+                IdentifiableObject refObject = property.getValue( object );
                 IdentifiableObject ref = getPersistedObject( preheat, identifier, refObject );
 
                 ref = connectDefaults( preheat, property, object, refObject, ref );
 
                 if ( ref != null && ref.getId() == 0 )
                 {
-                    ReflectionUtils.invokeMethod( object, property.getSetterMethod(), (Object) null );
+                    property.setValue( object, null );
                 }
                 else
                 {
-                    ReflectionUtils.invokeMethod( object, property.getSetterMethod(), ref );
+                    property.setValue( object, ref );
                 }
             }
             else
             {
                 Collection<IdentifiableObject> objects = ReflectionUtils.newCollectionInstance( property.getKlass() );
-                Collection<IdentifiableObject> refObjects = ReflectionUtils.invokeMethod( object,
-                    property.getGetterMethod() );
+                Collection<IdentifiableObject> refObjects = property.getValue( object );
 
                 for ( IdentifiableObject refObject : refObjects )
                 {
@@ -861,7 +871,7 @@ public class DefaultPreheatService implements PreheatService
                         objects.add( ref );
                 }
 
-                ReflectionUtils.invokeMethod( object, property.getSetterMethod(), objects );
+                property.setValue( object, objects );
             }
         }
     }
@@ -949,7 +959,7 @@ public class DefaultPreheatService implements PreheatService
             uniqueProperties.forEach( property -> {
                 if ( !map.containsKey( property.getName() ) )
                     map.put( property.getName(), new HashMap<>() );
-                Object value = ReflectionUtils.invokeMethod( object, property.getGetterMethod() );
+                Object value = property.getValue( object );
                 if ( value != null )
                     map.get( property.getName() ).put( value, identifier.getIdentifier( object ) );
             } );
@@ -127,7 +127,9 @@ public class HibernateEnrollmentStore
 
         if ( !params.isSkipPaging() )
         {
-            query.setFirstResult( params.getOffset() );
+            // With keyset paging the previous pages are excluded by the
+            // afterId condition instead of being skipped by an offset
+            query.setFirstResult( params.isKeysetPaging() ? 0 : params.getOffset() );
             query.setMaxResults( params.getPageSizeWithDefault() );
         }
 
@@ -223,11 +225,22 @@ public class HibernateEnrollmentStore
             hql += hlp.whereAnd() + " pi.deleted is false ";
         }
 
+        if ( params.getAfterId() != null )
+        {
+            hql += hlp.whereAnd() + "pi.id > " + params.getAfterId();
+        }
+
         QueryWithOrderBy query = QueryWithOrderBy.builder()
             .query( hql )
             .build();
 
-        if ( params.isSorting() )
+        if ( params.isKeysetPaging() )
+        {
+            query = query.toBuilder()
+                .orderBy( " order by pi.id asc" )
+                .build();
+        }
+        else if ( params.isSorting() )
         {
             query = query.toBuilder()
                 .orderBy(
@@ -45,7 +45,6 @@ import org.hisp.dhis.schema.Property;
 import org.hisp.dhis.schema.Schema;
 import org.hisp.dhis.schema.SchemaService;
 import org.hisp.dhis.security.acl.AclService;
-import org.hisp.dhis.system.util.ReflectionUtils;
 import org.hisp.dhis.user.CurrentUserService;
 import org.springframework.stereotype.Component;
 
@@ -330,6 +329,6 @@ public class InMemoryQueryEngine<T extends IdentifiableObject>
             return items;
         }
 
-        return ReflectionUtils.invokeMethod( object, property.getGetterMethod() );
+        return property.getValue( object );
     }
 }
@@ -358,7 +358,8 @@ public abstract class AbstractSchedulingManager implements SchedulingManager
         JobProgress tracker = configuration.getJobType().isUsingNotifications()
             ? new NotifierJobProgress( support.getNotifier(), configuration )
             : NoopJobProgress.INSTANCE;
-        return new ControlledJobProgress( support.getMessageService(), configuration, tracker, true );
+        return new ControlledJobProgress( support.getMessageService(), configuration, tracker, true,
+            support.getWorkPool() );
     }
 
     private void whenRunIsDone( JobConfiguration configuration, Clock clock )
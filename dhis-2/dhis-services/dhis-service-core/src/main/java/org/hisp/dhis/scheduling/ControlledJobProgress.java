@@ -65,6 +65,8 @@ public class ControlledJobProgress implements JobProgress
 
     private final boolean abortOnFailure;
 
+    private final JobWorkPool workPool;
+
     private final AtomicBoolean cancellationRequested = new AtomicBoolean();
 
     private final AtomicBoolean abortAfterFailure = new AtomicBoolean();
@@ -90,11 +92,18 @@ public class ControlledJobProgress implements JobProgress
 
     public ControlledJobProgress( MessageService messageService, JobConfiguration configuration,
         JobProgress tracker, boolean abortOnFailure )
+    {
+        this( messageService, configuration, tracker, abortOnFailure, null );
+    }
+
+    public ControlledJobProgress( MessageService messageService, JobConfiguration configuration,
+        JobProgress tracker, boolean abortOnFailure, JobWorkPool workPool )
     {
         this.messageService = messageService;
         this.configuration = configuration;
         this.tracker = tracker;
         this.abortOnFailure = abortOnFailure;
+        this.workPool = workPool;
         this.usingErrorNotification = messageService != null && configuration.getJobType().isUsingErrorNotification();
         this.logInfoAsDebug = configuration.getJobType().isDefaultLogLevelDebug();
     }
@@ -121,6 +130,12 @@ public class ControlledJobProgress implements JobProgress
         return cancellationRequested.get();
     }
 
+    @Override
+    public JobWorkPool getWorkPool()
+    {
+        return workPool;
+    }
+
     @Override
     public boolean isSkipCurrentStage()
     {
@@ -249,9 +264,16 @@ public class ControlledJobProgress implements JobProgress
 
     @Override
     public void startingWorkItem( String description, FailurePolicy onFailure )
+    {
+        startingWorkItem( description, onFailure, 0L );
+    }
+
+    @Override
+    public void startingWorkItem( String description, FailurePolicy onFailure, long queueDuration )
     {
         tracker.startingWorkItem( description, onFailure );
         Item item = addItemRecord( getOrAddLastIncompleteStage(), description, onFailure );
+        item.setQueueDuration( queueDuration );
         logDebug( item, "started", description );
     }
 
@@ -0,0 +1,365 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.scheduling;
+
+import static org.hisp.dhis.commons.util.SystemUtils.getCpuCores;
+import static org.hisp.dhis.external.conf.ConfigurationKey.JOB_PARALLELISM;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.LongPredicate;
+
+import javax.annotation.PreDestroy;
+
+import org.hisp.dhis.external.conf.DhisConfigurationProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * A {@link JobWorkPool} with a fixed number of long-lived worker threads.
+ *
+ * Each call to {@link #runAll(int, Collection, Function, ItemWork)} adds a
+ * run with its own queue of items. Workers take turns between the runs, so
+ * each run gets a fair share of the workers while never using more than its
+ * own parallelism. The number of workers is the global cap of items processed
+ * at the same time.
+ *
+ * The duration of items is remembered by item key to start the longest items
+ * of later runs first. This keeps long items from ending up at the tail of a
+ * stage where they would run alone.
+ *
+ * When the work of an item throws an exception or error the items of its run
+ * that have not started yet are dropped and it is thrown to the caller. A
+ * worker that ends is replaced by a new one. When the pool is shut down all
+ * pending runs fail with an {@link IllegalStateException}.
+ */
+@Component
+public class DefaultJobWorkPool implements JobWorkPool
+{
+    private static final int MAX_RECORDED_DURATIONS = 10_000;
+
+    private final int size;
+
+    private final List<Thread> workers = new ArrayList<>();
+
+    private final Deque<Run> runs = new ArrayDeque<>();
+
+    private final Map<String, Long> durationByKey = new LinkedHashMap<>( 64, 0.75f, true )
+    {
+        @Override
+        protected boolean removeEldestEntry( Map.Entry<String, Long> eldest )
+        {
+            return size() > MAX_RECORDED_DURATIONS;
+        }
+    };
+
+    private boolean shutdown;
+
+    private int startedWorkers;
+
+    @Autowired
+    public DefaultJobWorkPool( DhisConfigurationProvider config )
+    {
+        this( Integer.parseInt( config.getProperty( JOB_PARALLELISM ) ) );
+    }
+
+    DefaultJobWorkPool( int size )
+    {
+        this.size = size > 0 ? size : getCpuCores();
+    }
+
+    @PreDestroy
+    public synchronized void shutdown()
+    {
+        shutdown = true;
+        workers.forEach( Thread::interrupt );
+        workers.clear();
+        for ( Run run : runs )
+        {
+            if ( run.failure == null )
+            {
+                run.failure = new IllegalStateException( "Job work pool has been shut down" );
+            }
+            run.remaining = 0;
+            run.queue.clear();
+        }
+        runs.clear();
+        notifyAll();
+    }
+
+    @Override
+    public <T> boolean runAll( int parallelism, Collection<T> items, Function<T, String> key, ItemWork<T> work )
+        throws InterruptedException
+    {
+        if ( isWorker() )
+        {
+            // a worker must not wait for other workers as this can dead-lock
+            // the pool, nested parallel stages therefore run sequentially on
+            // the worker without waiting for another one
+            boolean allSuccessful = true;
+            for ( T item : items )
+            {
+                allSuccessful &= work.process( item, 0L );
+            }
+            return allSuccessful;
+        }
+        Run run = new Run( parallelism );
+        long submittedTime = System.currentTimeMillis();
+        for ( T item : items )
+        {
+            run.queue.add( new Item( run, key.apply( item ), submittedTime,
+                queueDuration -> work.process( item, queueDuration ) ) );
+        }
+        synchronized ( this )
+        {
+            if ( shutdown )
+            {
+                throw new IllegalStateException( "Job work pool has been shut down" );
+            }
+            run.sortLongestFirst( durationByKey );
+            run.remaining = run.queue.size();
+            if ( run.remaining == 0 )
+            {
+                return true;
+            }
+            startWorkers();
+            runs.addLast( run );
+            notifyAll();
+            try
+            {
+                while ( run.remaining > 0 )
+                {
+                    if ( shutdown )
+                    {
+                        throw new IllegalStateException( "Job work pool has been shut down" );
+                    }
+                    wait();
+                }
+            }
+            catch ( InterruptedException ex )
+            {
+                // items already started are left to complete
+                run.remaining -= run.queue.size();
+                run.queue.clear();
+                if ( run.remaining == 0 )
+                {
+                    runs.remove( run );
+                }
+                throw ex;
+            }
+            if ( run.failure instanceof RuntimeException )
+            {
+                throw (RuntimeException) run.failure;
+            }
+            if ( run.failure instanceof Error )
+            {
+                throw (Error) run.failure;
+            }
+            if ( run.failure != null )
+            {
+                throw new IllegalStateException( run.failure );
+            }
+            return run.allSuccessful;
+        }
+    }
+
+    private synchronized boolean isWorker()
+    {
+        return workers.contains( Thread.currentThread() );
+    }
+
+    private void startWorkers()
+    {
+        while ( workers.size() < size )
+        {
+            Thread worker = new Thread( this::work, "job-worker-" + (++startedWorkers) );
+            worker.setDaemon( true );
+            workers.add( worker );
+            worker.start();
+        }
+    }
+
+    private void work()
+    {
+        try
+        {
+            while ( !Thread.currentThread().isInterrupted() )
+            {
+                Item item = takeItem();
+                boolean successful = false;
+                Throwable failure = null;
+                long startTime = System.currentTimeMillis();
+                try
+                {
+                    successful = item.work.test( startTime - item.submittedTime );
+                }
+                catch ( Throwable ex )
+                {
+                    failure = ex;
+                }
+                finally
+                {
+                    completed( item, successful, failure, System.currentTimeMillis() - startTime );
+                }
+            }
+        }
+        catch ( InterruptedException ex )
+        {
+            Thread.currentThread().interrupt();
+        }
+        finally
+        {
+            workerEnded();
+        }
+    }
+
+    /**
+     * Replaces the ending worker unless the pool has been shut down.
+     */
+    private synchronized void workerEnded()
+    {
+        workers.remove( Thread.currentThread() );
+        if ( !shutdown && !runs.isEmpty() )
+        {
+            startWorkers();
+        }
+    }
+
+    /**
+     * Takes turns between the runs by moving each run that is looked at to the
+     * end of the queue of runs.
+     *
+     * @return the next item to process, the running count of its run already
+     *         incremented
+     */
+    private synchronized Item takeItem()
+        throws InterruptedException
+    {
+        while ( true )
+        {
+            for ( int i = 0; i < runs.size(); i++ )
+            {
+                Run run = runs.pollFirst();
+                runs.addLast( run );
+                if ( run.running < run.parallelism && !run.queue.isEmpty() )
+                {
+                    run.running++;
+                    return run.queue.poll();
+                }
+            }
+            wait();
+        }
+    }
+
+    private synchronized void completed( Item item, boolean successful, Throwable failure, long duration )
+    {
+        Run run = item.run;
+        run.running--;
+        run.remaining--;
+        run.allSuccessful &= successful;
+        if ( failure != null && run.failure == null )
+        {
+            // the caller reports the failure, items not yet started are dropped
+            run.failure = failure;
+            run.remaining -= run.queue.size();
+            run.queue.clear();
+        }
+        if ( run.remaining <= 0 )
+        {
+            runs.remove( run );
+        }
+        if ( item.key != null )
+        {
+            durationByKey.put( item.key, duration );
+        }
+        notifyAll();
+    }
+
+    private static final class Item
+    {
+        final Run run;
+
+        final String key;
+
+        final long submittedTime;
+
+        /**
+         * The work, given the milliseconds the item waited for a worker
+         */
+        final LongPredicate work;
+
+        Item( Run run, String key, long submittedTime, LongPredicate work )
+        {
+            this.run = run;
+            this.key = key;
+            this.submittedTime = submittedTime;
+            this.work = work;
+        }
+    }
+
+    private static final class Run
+    {
+        final int parallelism;
+
+        final Deque<Item> queue = new ArrayDeque<>();
+
+        int running;
+
+        int remaining;
+
+        boolean allSuccessful = true;
+
+        Throwable failure;
+
+        Run( int parallelism )
+        {
+            this.parallelism = Math.max( 1, parallelism );
+        }
+
+        /**
+         * Items without a recorded duration come first as they might be the
+         * longest, otherwise the given order is kept (stable sort).
+         */
+        void sortLongestFirst( Map<String, Long> durationByKey )
+        {
+            List<Item> items = new ArrayList<>( queue );
+            items.sort( Comparator.comparingLong( ( Item item ) -> item.key == null
+                ? Long.MAX_VALUE
+                : durationByKey.getOrDefault( item.key, Long.MAX_VALUE ) ).reversed() );
+            queue.clear();
+            queue.addAll( items );
+        }
+    }
+}
@@ -69,4 +69,6 @@ public class SchedulingManagerSupport
 
     @Qualifier( "taskScheduler" )
     private final TaskScheduler jobScheduler;
+
+    private final JobWorkPool workPool;
 }
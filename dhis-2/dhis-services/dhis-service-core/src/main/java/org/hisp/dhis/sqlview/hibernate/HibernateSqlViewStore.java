@@ -30,10 +30,20 @@ package org.hisp.dhis.sqlview.hibernate;
 import static com.google.common.base.Preconditions.checkNotNull;
 import static java.lang.String.format;
 
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
 import lombok.extern.slf4j.Slf4j;
 
 import org.hibernate.SessionFactory;
 import org.hisp.dhis.common.Grid;
+import org.hisp.dhis.common.GridHeader;
+import org.hisp.dhis.common.GridWriter;
 import org.hisp.dhis.common.hibernate.HibernateIdentifiableObjectStore;
 import org.hisp.dhis.jdbc.StatementBuilder;
 import org.hisp.dhis.security.acl.AclService;
@@ -46,6 +56,7 @@ import org.hisp.dhis.user.CurrentUserService;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.jdbc.BadSqlGrammarException;
+import org.springframework.jdbc.core.ConnectionCallback;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.support.rowset.SqlRowSet;
 import org.springframework.stereotype.Repository;
@@ -140,6 +151,85 @@ public class HibernateSqlViewStore
         grid.addRows( rs, maxLimit );
     }
 
+    @Override
+    public void writeSqlViewGrid( GridWriter writer, String sql )
+    {
+        int maxLimit = systemSettingManager.getIntSetting( SettingKey.SQL_VIEW_MAX_LIMIT );
+
+        log.debug( "Write view SQL: " + sql + ", max limit: " + maxLimit );
+
+        readOnlyJdbcTemplate.execute( (ConnectionCallback<Void>) connection -> {
+            // PostgreSQL only fetches in batches through a cursor when not in
+            // auto-commit mode, otherwise the whole result is buffered
+            boolean autoCommit = connection.getAutoCommit();
+
+            if ( autoCommit )
+            {
+                connection.setAutoCommit( false );
+            }
+
+            try
+            {
+                writeRows( connection, writer, sql, maxLimit );
+            }
+            finally
+            {
+                if ( autoCommit )
+                {
+                    connection.rollback();
+                    connection.setAutoCommit( true );
+                }
+            }
+
+            return null;
+        } );
+    }
+
+    private void writeRows( Connection connection, GridWriter writer, String sql, int maxLimit )
+        throws SQLException
+    {
+        try ( PreparedStatement statement = connection.prepareStatement( sql, ResultSet.TYPE_FORWARD_ONLY,
+            ResultSet.CONCUR_READ_ONLY ) )
+        {
+            statement.setFetchSize( readOnlyJdbcTemplate.getFetchSize() );
+
+            try ( ResultSet rs = statement.executeQuery() )
+            {
+                ResultSetMetaData metaData = rs.getMetaData();
+                int cols = metaData.getColumnCount();
+
+                List<GridHeader> headers = new ArrayList<>();
+
+                for ( int i = 1; i <= cols; i++ )
+                {
+                    headers.add( new GridHeader( metaData.getColumnLabel( i ), false, false ) );
+                }
+
+                writer.writeHeaders( headers );
+
+                int rows = 0;
+
+                while ( rs.next() )
+                {
+                    if ( maxLimit > 0 && ++rows > maxLimit )
+                    {
+                        throw new IllegalStateException(
+                            "Number of rows produced by query is larger than the max limit: " + maxLimit );
+                    }
+
+                    List<Object> row = new ArrayList<>( cols );
+
+                    for ( int i = 1; i <= cols; i++ )
+                    {
+                        row.add( rs.getObject( i ) );
+                    }
+
+                    writer.writeRow( row );
+                }
+            }
+        }
+    }
+
     @Override
     public void dropViewTable( SqlView sqlView )
     {
@@ -377,12 +377,6 @@ public class DefaultTrackerOwnershipManager implements TrackerOwnershipManager
      */
     private OrganisationUnit recursivelyInitializeOrgUnit( OrganisationUnit organisationUnit )
     {
-        // TODO: Modify the {@link
-        // OrganisationUnit#isDescendant(OrganisationUnit)} and {@link
-        // OrganisationUnit#isDescendant(Set)}
-        // methods to use path parameter instead of recursively visiting the
-        // parent OrganisationUnits.
-
         Hibernate.initialize( organisationUnit );
         OrganisationUnit current = organisationUnit;
         while ( current.getParent() != null )
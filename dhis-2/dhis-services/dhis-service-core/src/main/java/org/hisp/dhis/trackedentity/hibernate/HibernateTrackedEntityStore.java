@@ -639,6 +639,15 @@ public class HibernateTrackedEntityStore
                 .append( ") " );
         }
 
+        if ( params.getAfterId() != null )
+        {
+            trackedEntity
+                .append( whereAnd.whereAnd() )
+                .append( "TEI.trackedentityinstanceid > " )
+                .append( params.getAfterId() )
+                .append( SPACE );
+        }
+
         if ( params.hasLastUpdatedDuration() )
         {
             trackedEntity.append( whereAnd.whereAnd() )
@@ -1307,6 +1316,11 @@ public class HibernateTrackedEntityStore
      */
     private String getQueryOrderBy( boolean innerOrder, TrackedEntityQueryParams params, boolean isGridQuery )
     {
+        if ( params.isKeysetPaging() )
+        {
+            return "ORDER BY TEI.trackedentityinstanceid ASC ";
+        }
+
         if ( !isGridQuery || !params.getAttributes().isEmpty() )
         {
             List<String> orderFields = new ArrayList<>();
@@ -1400,10 +1414,12 @@ public class HibernateTrackedEntityStore
         }
         else if ( limit == 0 && params.isPaging() )
         {
+            // With keyset paging one more row than the page size is fetched,
+            // so that a next page can be detected without a count query
             return limitOffset
                 .append( LIMIT )
                 .append( SPACE )
-                .append( params.getPageSizeWithDefault() )
+                .append( params.getPageSizeWithDefault() + (params.isKeysetPaging() ? 1 : 0) )
                 .append( SPACE )
                 .append( OFFSET )
                 .append( SPACE )
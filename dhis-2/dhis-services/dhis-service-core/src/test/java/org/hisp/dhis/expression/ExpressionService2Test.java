@@ -256,6 +256,7 @@ class ExpressionService2Test extends DhisConvenienceTest
     public void setUp()
     {
         when( cacheProvider.createAllConstantsCache() ).thenReturn( new NoOpCache<>() );
+        when( cacheProvider.createExpressionParseTreeCache() ).thenReturn( new NoOpCache<>() );
         target = new DefaultExpressionService( hibernateGenericStore, constantService, dimensionService,
             idObjectManager, statementBuilder, i18nManager, cacheProvider );
 
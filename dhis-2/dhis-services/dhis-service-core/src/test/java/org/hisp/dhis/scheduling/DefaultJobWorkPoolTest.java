@@ -0,0 +1,241 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.scheduling;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the {@link DefaultJobWorkPool}.
+ */
+class DefaultJobWorkPoolTest
+{
+    private final DefaultJobWorkPool pool = new DefaultJobWorkPool( 3 );
+
+    @AfterEach
+    void tearDown()
+    {
+        pool.shutdown();
+    }
+
+    @Test
+    void testRunAll_ConcurrentRunsShareGlobalCap()
+        throws Exception
+    {
+        AtomicInteger active = new AtomicInteger();
+        AtomicInteger maxActive = new AtomicInteger();
+        List<Integer> items = IntStream.range( 0, 20 ).boxed().collect( Collectors.toList() );
+
+        ExecutorService callers = Executors.newFixedThreadPool( 3 );
+        try
+        {
+            List<Future<Boolean>> runs = new ArrayList<>();
+            for ( int i = 0; i < 3; i++ )
+            {
+                runs.add( callers.submit( () -> pool.runAll( 5, items, String::valueOf, ( item, queueDuration ) -> {
+                    maxActive.accumulateAndGet( active.incrementAndGet(), Math::max );
+                    sleep( 2 );
+                    active.decrementAndGet();
+                    return true;
+                } ) ) );
+            }
+            for ( Future<Boolean> run : runs )
+            {
+                assertTrue( run.get() );
+            }
+        }
+        finally
+        {
+            callers.shutdown();
+        }
+        assertTrue( maxActive.get() <= 3, "more items processed in parallel than the pool size" );
+    }
+
+    @Test
+    void testRunAll_LongestFirst()
+        throws InterruptedException
+    {
+        pool.runAll( 1, List.of( 1, 2, 3 ), String::valueOf, ( item, queueDuration ) -> {
+            sleep( item * 20L );
+            return true;
+        } );
+
+        List<Integer> order = Collections.synchronizedList( new ArrayList<>() );
+        pool.runAll( 1, List.of( 1, 2, 3, 4 ), String::valueOf, ( item, queueDuration ) -> order.add( item ) );
+
+        assertEquals( List.of( 4, 3, 2, 1 ), order, "unknown items first, then longest first" );
+    }
+
+    @Test
+    void testRunAll_FailedItem()
+        throws InterruptedException
+    {
+        AtomicInteger processed = new AtomicInteger();
+
+        assertFalse( pool.runAll( 2, List.of( 1, 2, 3 ), String::valueOf, ( item, queueDuration ) -> {
+            processed.incrementAndGet();
+            return item != 2;
+        } ) );
+        assertEquals( 3, processed.get() );
+    }
+
+    @Test
+    void testRunAll_Nested()
+        throws InterruptedException
+    {
+        assertTrue( pool.runAll( 3, List.of( 1, 2, 3 ), item -> null, ( item, queueDuration ) -> {
+            try
+            {
+                return pool.runAll( 3, List.of( 1, 2, 3 ), nested -> null, ( nested, nestedQueueDuration ) -> true );
+            }
+            catch ( InterruptedException ex )
+            {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        } ) );
+    }
+
+    @Test
+    void testRunAll_NoItems()
+        throws InterruptedException
+    {
+        assertTrue( pool.runAll( 2, List.of(), item -> null, ( item, queueDuration ) -> false ) );
+    }
+
+    @Test
+    void testRunAll_ExceptionInItem()
+    {
+        AtomicInteger processed = new AtomicInteger();
+        IllegalStateException failure = new IllegalStateException( "item failed" );
+
+        IllegalStateException ex = assertThrows( IllegalStateException.class,
+            () -> pool.runAll( 1, List.of( 1, 2, 3 ), item -> null, ( item, queueDuration ) -> {
+                processed.incrementAndGet();
+                throw failure;
+            } ) );
+
+        assertSame( failure, ex );
+        assertEquals( 1, processed.get(), "items not yet started should be dropped" );
+    }
+
+    @Test
+    void testRunAll_ErrorInItem()
+        throws InterruptedException
+    {
+        for ( int i = 0; i < 4; i++ )
+        {
+            AssertionError failure = new AssertionError( "item failed" );
+
+            AssertionError ex = assertThrows( AssertionError.class,
+                () -> pool.runAll( 3, List.of( 1, 2, 3 ), item -> null, ( item, queueDuration ) -> {
+                    throw failure;
+                } ) );
+
+            assertSame( failure, ex );
+        }
+        assertTrue( pool.runAll( 3, List.of( 1, 2, 3 ), item -> null, ( item, queueDuration ) -> true ),
+            "workers should still process items after errors" );
+    }
+
+    @Test
+    void testShutdown_FailsPendingRuns()
+        throws Exception
+    {
+        CountDownLatch started = new CountDownLatch( 1 );
+        ExecutorService caller = Executors.newSingleThreadExecutor();
+        try
+        {
+            Future<Boolean> run = caller.submit( () -> pool.runAll( 1, List.of( 1, 2 ), item -> null,
+                ( item, queueDuration ) -> {
+                    started.countDown();
+                    sleep( 10_000 );
+                    return true;
+                } ) );
+            assertTrue( started.await( 5, TimeUnit.SECONDS ) );
+
+            pool.shutdown();
+
+            ExecutionException ex = assertThrows( ExecutionException.class, () -> run.get( 5, TimeUnit.SECONDS ) );
+            assertInstanceOf( IllegalStateException.class, ex.getCause() );
+        }
+        finally
+        {
+            caller.shutdownNow();
+        }
+    }
+
+    @Test
+    void testRunAll_QueueDurationSinceSubmission()
+        throws InterruptedException
+    {
+        List<Long> queueDurations = Collections.synchronizedList( new ArrayList<>() );
+
+        pool.runAll( 1, List.of( 1, 2 ), item -> null, ( item, queueDuration ) -> {
+            queueDurations.add( queueDuration );
+            sleep( 50 );
+            return true;
+        } );
+
+        assertEquals( 2, queueDurations.size() );
+        assertTrue( queueDurations.get( 0 ) < 50, "first item should not wait" );
+        assertTrue( queueDurations.get( 1 ) >= 50, "second item should wait for the first" );
+    }
+
+    private static void sleep( long millis )
+    {
+        try
+        {
+            Thread.sleep( millis );
+        }
+        catch ( InterruptedException ex )
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
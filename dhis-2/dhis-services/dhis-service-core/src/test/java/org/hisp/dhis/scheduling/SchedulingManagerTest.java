@@ -115,7 +115,8 @@ class SchedulingManagerTest
         schedulingManager = new DefaultSchedulingManager( new SchedulingManagerSupport(
             mock( UserService.class ), mock( AuthenticationService.class ), new DefaultJobService( applicationContext ),
             jobConfigurationService, mock( MessageService.class ), mock( LeaderManager.class ), mock( Notifier.class ),
-            mock( EventHookPublisher.class ), cacheProvider, mock( AsyncTaskExecutor.class ), taskScheduler ) );
+            mock( EventHookPublisher.class ), cacheProvider, mock( AsyncTaskExecutor.class ), taskScheduler,
+            new DefaultJobWorkPool( 1 ) ) );
     }
 
     @TestFactory
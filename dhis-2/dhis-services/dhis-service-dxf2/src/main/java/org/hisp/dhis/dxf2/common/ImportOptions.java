@@ -166,6 +166,13 @@ public class ImportOptions
     @JsonProperty( namespace = DxfNamespaces.DXF_2_0 )
     private boolean skipCache = false;
 
+    /**
+     * If true, data values of XML and CSV imports are read and parsed on a
+     * separate thread and handed over to the import through a bounded queue
+     */
+    @JsonProperty( namespace = DxfNamespaces.DXF_2_0 )
+    private boolean pipelined;
+
     /**
      * Optional field to set the data set ID of the imported values using
      * request parameters
@@ -80,6 +80,19 @@ final class CsvDataValueSetWriter implements DataValueSetWriter
         } );
     }
 
+    @Override
+    public void flush()
+    {
+        try
+        {
+            writer.flush();
+        }
+        catch ( IOException ex )
+        {
+            throw new UncheckedIOException( "Failed to flush CSV data", ex );
+        }
+    }
+
     @Override
     public void close()
     {
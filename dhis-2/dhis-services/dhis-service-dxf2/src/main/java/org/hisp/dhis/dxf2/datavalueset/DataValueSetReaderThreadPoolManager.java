@@ -25,64 +25,44 @@
  * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
  * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
  */
-package org.hisp.dhis.datasource;
+package org.hisp.dhis.dxf2.datavalueset;
 
-import java.sql.Connection;
-import java.sql.SQLException;
-import java.util.Collections;
-import java.util.Iterator;
-import java.util.List;
+import static org.hisp.dhis.external.conf.ConfigurationKey.DATAVALUESET_IMPORT_READER_THREAD_POOL_SIZE;
 
-import javax.sql.DataSource;
+import javax.annotation.PreDestroy;
 
-import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.hisp.dhis.external.conf.DhisConfigurationProvider;
+import org.hisp.dhis.system.thread.BoundedExecutor;
+import org.springframework.stereotype.Component;
 
-import com.google.common.collect.Iterators;
+import io.micrometer.core.instrument.MeterRegistry;
 
 /**
- * Data source implementation which routes to the configured target data sources
- * in a circular fashion.
- *
- * @author Lars Helge Overland
+ * Holds the Executor which runs the readers of pipelined data value set
+ * imports. The number of threads is bounded by the
+ * {@code datavalueset.import.reader.thread_pool.size} configuration property.
+ * When all threads are busy the executor runs a reader on the importing thread,
+ * which then reads the input itself.
  */
-public class CircularRoutingDataSource
-    extends AbstractDataSource
+@Component( "org.hisp.dhis.dxf2.datavalueset.DataValueSetReaderThreadPoolManager" )
+public class DataValueSetReaderThreadPoolManager
 {
-    private Iterator<DataSource> dataSourceIterator;
+    private final BoundedExecutor readerThreadPool;
 
-    public CircularRoutingDataSource()
+    public DataValueSetReaderThreadPoolManager( DhisConfigurationProvider config, MeterRegistry meterRegistry )
     {
+        this.readerThreadPool = new BoundedExecutor( "datavalueset.import.reader",
+            Integer.parseInt( config.getProperty( DATAVALUESET_IMPORT_READER_THREAD_POOL_SIZE ) ), meterRegistry );
     }
 
-    public CircularRoutingDataSource( List<DataSource> targetDataSources )
-    {
-        this.dataSourceIterator = Iterators.cycle( Collections.synchronizedList( targetDataSources ) );
-    }
-
-    // -------------------------------------------------------------------------
-    // AbstractDataSource implementation
-    // -------------------------------------------------------------------------
-
-    @Override
-    public Connection getConnection()
-        throws SQLException
+    BoundedExecutor getPool()
     {
-        return getDataSource().getConnection();
+        return readerThreadPool;
     }
 
-    @Override
-    public Connection getConnection( String username, String password )
-        throws SQLException
-    {
-        return getDataSource().getConnection( username, password );
-    }
-
-    // -------------------------------------------------------------------------
-    // Private methods
-    // -------------------------------------------------------------------------
-
-    private synchronized DataSource getDataSource()
+    @PreDestroy
+    public void shutdown()
     {
-        return dataSourceIterator.next();
+        readerThreadPool.shutdown();
     }
 }
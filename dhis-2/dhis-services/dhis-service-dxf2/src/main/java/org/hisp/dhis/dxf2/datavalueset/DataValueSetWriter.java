@@ -35,7 +35,8 @@ package org.hisp.dhis.dxf2.datavalueset;
  * <ol>
  * <li>{@link #writeHeader()} or
  * {@link #writeHeader(String, String, String, String)}</li>
- * <li>0 or more times {@link #writeValue(DataValueEntry)}</li>
+ * <li>0 or more times {@link #writeValue(DataValueEntry)}, optionally
+ * interleaved with {@link #flush()}</li>
  * <li>{@link #close()}</li>
  * </ol>
  *
@@ -68,6 +69,15 @@ public interface DataValueSetWriter extends AutoCloseable
 
     void writeValue( DataValueEntry entry );
 
+    /**
+     * Flushes data written so far to the underlying output, so that large
+     * exports are delivered incrementally. Does nothing by default.
+     */
+    default void flush()
+    {
+        // NOOP by default
+    }
+
     /**
      * Add the document footer to the output and close the document.
      */
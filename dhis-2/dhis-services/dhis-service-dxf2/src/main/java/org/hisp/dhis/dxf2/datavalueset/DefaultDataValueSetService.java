@@ -138,6 +138,12 @@ public class DefaultDataValueSetService
 
     private static final int CACHE_MISS_THRESHOLD = 250;
 
+    /**
+     * Max number of parsed data values waiting to be imported in pipelined
+     * imports.
+     */
+    private static final int PIPELINE_CAPACITY = 10_000;
+
     private final IdentifiableObjectManager identifiableObjectManager;
 
     private final CategoryService categoryService;
@@ -178,6 +184,8 @@ public class DefaultDataValueSetService
 
     private final SchemaService schemaService;
 
+    private final DataValueSetReaderThreadPoolManager readerThreadPoolManager;
+
     // -------------------------------------------------------------------------
     // DataValueSet implementation
     // -------------------------------------------------------------------------
@@ -369,7 +377,7 @@ public class DefaultDataValueSetService
     // -------------------------------------------------------------------------
 
     @Override
-    @Transactional
+    @Transactional( readOnly = true )
     public void exportDataValueSetXml( DataExportParams params, OutputStream out )
     {
         decideAccess( params );
@@ -379,7 +387,7 @@ public class DefaultDataValueSetService
     }
 
     @Override
-    @Transactional
+    @Transactional( readOnly = true )
     public void exportDataValueSetJson( DataExportParams params, OutputStream out )
     {
         decideAccess( params );
@@ -389,14 +397,14 @@ public class DefaultDataValueSetService
     }
 
     @Override
-    @Transactional
+    @Transactional( readOnly = true )
     public void exportDataValueSetJson( Date lastUpdated, OutputStream outputStream, IdSchemes idSchemes )
     {
         dataValueSetStore.exportDataValueSetJson( lastUpdated, outputStream, idSchemes );
     }
 
     @Override
-    @Transactional
+    @Transactional( readOnly = true )
     public void exportDataValueSetJson( Date lastUpdated, OutputStream outputStream, IdSchemes idSchemes, int pageSize,
         int page )
     {
@@ -404,7 +412,7 @@ public class DefaultDataValueSetService
     }
 
     @Override
-    @Transactional
+    @Transactional( readOnly = true )
     public void exportDataValueSetCsv( DataExportParams params, Writer writer )
     {
         decideAccess( params );
@@ -590,8 +598,8 @@ public class DefaultDataValueSetService
     @Transactional
     public ImportSummary importDataValueSetXml( InputStream in, ImportOptions options, JobConfiguration id )
     {
-        return importDataValueSet( options, id, () -> new XmlDataValueSetReader(
-            XMLFactory.getXMLReader( wrapAndCheckCompressionFormat( in ) ) ) );
+        return importDataValueSet( options, id, pipelined( options, () -> new XmlDataValueSetReader(
+            XMLFactory.getXMLReader( wrapAndCheckCompressionFormat( in ) ) ) ) );
     }
 
     @Override
@@ -606,8 +614,8 @@ public class DefaultDataValueSetService
     @Transactional
     public ImportSummary importDataValueSetCsv( InputStream in, ImportOptions options, JobConfiguration id )
     {
-        return importDataValueSet( options, id, () -> new CsvDataValueSetReader(
-            CsvUtils.getReader( wrapAndCheckCompressionFormat( in ) ), options ) );
+        return importDataValueSet( options, id, pipelined( options, () -> new CsvDataValueSetReader(
+            CsvUtils.getReader( wrapAndCheckCompressionFormat( in ) ), options ) ) );
     }
 
     @Override
@@ -617,6 +625,24 @@ public class DefaultDataValueSetService
         return importDataValueSet( options, id, () -> new PdfDataValueSetReader( in ) );
     }
 
+    /**
+     * Wraps the created reader so that the input is read on a separate thread
+     * if the import options ask for a pipelined import. Only readers which
+     * stream their input benefit from this, the JSON reader for example reads
+     * the entire input when reading the header.
+     */
+    private Callable<DataValueSetReader> pipelined( ImportOptions options,
+        Callable<DataValueSetReader> createReader )
+    {
+        if ( options == null || !options.isPipelined() )
+        {
+            return createReader;
+        }
+
+        return () -> new PipelinedDataValueSetReader( createReader.call(), PIPELINE_CAPACITY,
+            readerThreadPoolManager.getPool() );
+    }
+
     @Override
     @Transactional
     public ImportSummary importDataValueSetPdf( InputStream in, ImportOptions options )
@@ -132,6 +132,19 @@ final class JsonDataValueSetWriter implements DataValueSetWriter
         }
     }
 
+    @Override
+    public void flush()
+    {
+        try
+        {
+            generator.flush();
+        }
+        catch ( IOException ex )
+        {
+            throw new UncheckedIOException( ex );
+        }
+    }
+
     @Override
     public void close()
     {
@@ -0,0 +1,308 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.dxf2.datavalueset;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.hisp.dhis.dxf2.datavalue.DataValue;
+
+/**
+ * A {@link DataValueSetReader} which reads and parses the data values of
+ * another reader on a thread of the given executor, and hands them over through
+ * a bounded queue. This allows parsing of the input to proceed while
+ * previously read values are being validated and written by the importing
+ * thread. When the executor rejects the reader or runs it on the importing
+ * thread, for example because all its threads are busy, the values are read on
+ * the importing thread instead.
+ * <p>
+ * Entries returned by the wrapped reader might be backed by the reader state,
+ * so each entry is copied into a detached {@link DataValue} before being
+ * queued. Values are returned in input order. Failures of the reading thread
+ * are rethrown by {@link #readNext()} once all values read before the failure
+ * have been returned.
+ */
+@Slf4j
+public class PipelinedDataValueSetReader implements DataValueSetReader
+{
+    /**
+     * Marker for the end of the input.
+     */
+    private static final DataValue END = new DataValue();
+
+    /**
+     * Default time to wait for the reading thread to stop when closing.
+     */
+    private static final long CLOSE_TIMEOUT_MILLIS = 10_000;
+
+    private final DataValueSetReader reader;
+
+    private final BlockingQueue<DataValue> queue;
+
+    private final Executor executor;
+
+    private final long closeTimeoutMillis;
+
+    private final AtomicBoolean started = new AtomicBoolean();
+
+    private final CountDownLatch stopped = new CountDownLatch( 1 );
+
+    private Thread importer;
+
+    private Thread producer;
+
+    private volatile boolean closed;
+
+    private volatile RuntimeException failure;
+
+    private boolean submitted;
+
+    private boolean direct;
+
+    private boolean done;
+
+    /**
+     * @param reader the {@link DataValueSetReader} to read data values from.
+     * @param capacity the max number of read data values which have not yet
+     *        been consumed.
+     * @param executor the {@link Executor} to read the data values on.
+     */
+    public PipelinedDataValueSetReader( DataValueSetReader reader, int capacity, Executor executor )
+    {
+        this( reader, capacity, executor, CLOSE_TIMEOUT_MILLIS );
+    }
+
+    PipelinedDataValueSetReader( DataValueSetReader reader, int capacity, Executor executor,
+        long closeTimeoutMillis )
+    {
+        this.reader = reader;
+        this.queue = new ArrayBlockingQueue<>( capacity );
+        this.executor = executor;
+        this.closeTimeoutMillis = closeTimeoutMillis;
+    }
+
+    @Override
+    public DataValueSet readHeader()
+    {
+        DataValueSet header = reader.readHeader();
+
+        importer = Thread.currentThread();
+
+        try
+        {
+            executor.execute( this::produce );
+            submitted = !direct;
+        }
+        catch ( RejectedExecutionException ex )
+        {
+            direct = true;
+        }
+
+        if ( direct )
+        {
+            log.debug( "No thread available to read data values, reading on importing thread" );
+        }
+
+        return header;
+    }
+
+    @Override
+    public DataValueEntry readNext()
+    {
+        if ( direct )
+        {
+            return reader.readNext();
+        }
+
+        if ( done )
+        {
+            return null;
+        }
+
+        try
+        {
+            DataValue value = queue.poll( 1, TimeUnit.SECONDS );
+
+            while ( value == null )
+            {
+                if ( stopped.getCount() == 0 && queue.isEmpty() )
+                {
+                    done = true;
+                    throw failure != null ? failure
+                        : new IllegalStateException( "Reading of data values was cancelled" );
+                }
+
+                value = queue.poll( 1, TimeUnit.SECONDS );
+            }
+
+            if ( value == END )
+            {
+                done = true;
+
+                if ( failure != null )
+                {
+                    throw failure;
+                }
+
+                return null;
+            }
+
+            return value;
+        }
+        catch ( InterruptedException ex )
+        {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException( "Interrupted while reading data values", ex );
+        }
+    }
+
+    @Override
+    public void close()
+    {
+        if ( submitted )
+        {
+            closed = true;
+
+            if ( !started.compareAndSet( false, true ) )
+            {
+                interruptProducer();
+                awaitProducer();
+            }
+        }
+
+        reader.close();
+    }
+
+    private synchronized void interruptProducer()
+    {
+        if ( producer != null )
+        {
+            producer.interrupt();
+        }
+    }
+
+    /**
+     * Waits for a started producer to stop, so that the wrapped reader is not
+     * closed while it is still being read from. A producer blocked reading the
+     * input is not stopped by the interrupt, in which case closing the wrapped
+     * reader after the timeout unblocks it.
+     */
+    private void awaitProducer()
+    {
+        try
+        {
+            if ( !stopped.await( closeTimeoutMillis, TimeUnit.MILLISECONDS ) )
+            {
+                log.warn( "Reading of data values did not stop within " + closeTimeoutMillis
+                    + " ms, closing the input" );
+            }
+        }
+        catch ( InterruptedException ex )
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void produce()
+    {
+        if ( Thread.currentThread() == importer )
+        {
+            // the executor is busy and runs the reader on the importing thread
+            // which would block on the full queue, read when values are needed
+            direct = true;
+            return;
+        }
+
+        if ( !started.compareAndSet( false, true ) )
+        {
+            return;
+        }
+
+        synchronized ( this )
+        {
+            producer = Thread.currentThread();
+        }
+        boolean completed = false;
+
+        try
+        {
+            if ( !closed )
+            {
+                read();
+                queue.put( END );
+                completed = true;
+            }
+        }
+        catch ( InterruptedException ex )
+        {
+            log.debug( "Reading of data values was cancelled" );
+            Thread.currentThread().interrupt();
+        }
+        finally
+        {
+            if ( !completed && failure == null && !closed )
+            {
+                failure = new IllegalStateException( "Reading of data values stopped before the end of the input" );
+            }
+
+            synchronized ( this )
+            {
+                // the thread goes back to the executor without a late interrupt
+                producer = null;
+                Thread.interrupted();
+            }
+            stopped.countDown();
+        }
+    }
+
+    private void read()
+        throws InterruptedException
+    {
+        try
+        {
+            DataValueEntry entry = reader.readNext();
+
+            while ( entry != null )
+            {
+                queue.put( new DataValue( entry ) );
+                entry = reader.readNext();
+            }
+        }
+        catch ( RuntimeException ex )
+        {
+            failure = ex;
+        }
+    }
+}
@@ -30,15 +30,19 @@ package org.hisp.dhis.dxf2.datavalueset;
 import static com.google.common.base.Preconditions.checkNotNull;
 import static org.hisp.dhis.common.IdentifiableObjectUtils.getIdentifiers;
 import static org.hisp.dhis.commons.util.TextUtils.getCommaDelimitedString;
+import static org.hisp.dhis.external.conf.ConfigurationKey.DATAVALUESET_EXPORT_FETCH_SIZE;
 import static org.hisp.dhis.util.DateUtils.getLongGmtDateString;
 import static org.hisp.dhis.util.DateUtils.getMediumDateString;
 
 import java.io.OutputStream;
 import java.io.Writer;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Timestamp;
 import java.util.Date;
+import java.util.concurrent.atomic.AtomicLong;
 
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -48,6 +52,7 @@ import org.hisp.dhis.common.IdScheme;
 import org.hisp.dhis.common.IdSchemes;
 import org.hisp.dhis.commons.util.TextUtils;
 import org.hisp.dhis.datavalue.DataExportParams;
+import org.hisp.dhis.external.conf.DhisConfigurationProvider;
 import org.hisp.dhis.organisationunit.OrganisationUnit;
 import org.hisp.dhis.period.PeriodType;
 import org.hisp.dhis.query.JpaQueryUtils;
@@ -56,7 +61,6 @@ import org.hisp.dhis.system.util.CsvUtils;
 import org.hisp.dhis.user.CurrentUserService;
 import org.hisp.dhis.user.User;
 import org.hisp.dhis.util.DateUtils;
-import org.hisp.staxwax.factory.XMLFactory;
 import org.springframework.jdbc.UncategorizedSQLException;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Repository;
@@ -71,17 +75,27 @@ import com.google.common.base.Preconditions;
 public class SpringDataValueSetStore
     implements DataValueSetStore
 {
+    /**
+     * Number of written data values between each flush of the writer.
+     */
+    private static final int FLUSH_INTERVAL = 10_000;
+
     private final CurrentUserService currentUserService;
 
     private final JdbcTemplate jdbcTemplate;
 
-    public SpringDataValueSetStore( CurrentUserService currentUserService, JdbcTemplate jdbcTemplate )
+    private final DhisConfigurationProvider config;
+
+    public SpringDataValueSetStore( CurrentUserService currentUserService, JdbcTemplate jdbcTemplate,
+        DhisConfigurationProvider config )
     {
         checkNotNull( currentUserService );
         checkNotNull( jdbcTemplate );
+        checkNotNull( config );
 
         this.currentUserService = currentUserService;
         this.jdbcTemplate = jdbcTemplate;
+        this.config = config;
     }
 
     // --------------------------------------------------------------------------
@@ -91,7 +105,7 @@ public class SpringDataValueSetStore
     @Override
     public void exportDataValueSetXml( DataExportParams params, Date completeDate, OutputStream out )
     {
-        try ( DataValueSetWriter writer = new XmlDataValueSetWriter( XMLFactory.getXMLWriter( out ) ) )
+        try ( DataValueSetWriter writer = new XmlDataValueSetWriter( out ) )
         {
             exportDataValueSet( getDataValueSql( params ), params, completeDate, writer );
         }
@@ -182,7 +196,37 @@ public class SpringDataValueSetStore
         }
 
         final Calendar calendar = PeriodType.getCalendar();
-        jdbcTemplate.query( sql, ( ResultSet rs ) -> writer.writeValue( new ResultSetDataValueEntry( rs, calendar ) ) );
+        final AtomicLong rows = new AtomicLong();
+
+        jdbcTemplate.query( con -> createStreamingStatement( con, sql ), ( ResultSet rs ) -> {
+            writer.writeValue( new ResultSetDataValueEntry( rs, calendar ) );
+
+            if ( rows.incrementAndGet() % FLUSH_INTERVAL == 0 )
+            {
+                writer.flush();
+            }
+        } );
+
+        log.debug( "Exported data values: {}", rows.get() );
+    }
+
+    /**
+     * Creates a forward-only, read-only statement with a fetch size. Within a
+     * transaction this makes the PostgreSQL driver use a server-side cursor and
+     * fetch rows in batches, instead of buffering the entire result set in
+     * memory before the first data value is written.
+     *
+     * @param con the {@link Connection}.
+     * @param sql the SQL query.
+     * @return a {@link PreparedStatement}.
+     */
+    private PreparedStatement createStreamingStatement( Connection con, String sql )
+        throws SQLException
+    {
+        PreparedStatement statement = con.prepareStatement( sql, ResultSet.TYPE_FORWARD_ONLY,
+            ResultSet.CONCUR_READ_ONLY );
+        statement.setFetchSize( Integer.parseInt( config.getProperty( DATAVALUESET_EXPORT_FETCH_SIZE ) ) );
+        return statement;
     }
 
     // --------------------------------------------------------------------------
@@ -29,65 +29,143 @@ package org.hisp.dhis.dxf2.datavalueset;
 
 import static org.hisp.dhis.commons.util.TextUtils.valueOf;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 
-import lombok.AllArgsConstructor;
-
-import org.hisp.staxwax.writer.XMLWriter;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
 
 /**
  * Write {@link DataValueSet}s as XML data.
+ * <p>
+ * Uses the StAX {@link XMLStreamWriter} directly so that {@link #flush()} can
+ * push the values written so far to the output.
  *
  * @author Jan Bernitt
  */
-@AllArgsConstructor
 final class XmlDataValueSetWriter implements DataValueSetWriter
 {
-    private final XMLWriter writer;
+    private static final XMLOutputFactory XML_OUTPUT_FACTORY = XMLOutputFactory.newInstance();
+
+    private final XMLStreamWriter writer;
+
+    XmlDataValueSetWriter( OutputStream out )
+    {
+        try
+        {
+            this.writer = XML_OUTPUT_FACTORY.createXMLStreamWriter( out, StandardCharsets.UTF_8.name() );
+        }
+        catch ( XMLStreamException ex )
+        {
+            throw toUnchecked( ex );
+        }
+    }
 
     @Override
     public void writeHeader()
     {
-        writer.openDocument();
-        writer.openElement( "dataValueSet" );
-        writer.writeAttribute( "xmlns", "http://dhis2.org/schema/dxf/2.0" );
+        try
+        {
+            writer.writeStartDocument( StandardCharsets.UTF_8.name(), "1.0" );
+            writer.writeStartElement( "dataValueSet" );
+            writer.writeDefaultNamespace( "http://dhis2.org/schema/dxf/2.0" );
+        }
+        catch ( XMLStreamException ex )
+        {
+            throw toUnchecked( ex );
+        }
     }
 
     @Override
     public void writeHeader( String dataSetId, String completeDate, String isoPeriod, String orgUnitId )
     {
         writeHeader();
-        writer.writeAttribute( "dataSet", dataSetId );
-        writer.writeAttribute( "completeDate", completeDate );
-        writer.writeAttribute( "period", isoPeriod );
-        writer.writeAttribute( "orgUnit", orgUnitId );
+        writeAttribute( "dataSet", dataSetId );
+        writeAttribute( "completeDate", completeDate );
+        writeAttribute( "period", isoPeriod );
+        writeAttribute( "orgUnit", orgUnitId );
     }
 
     @Override
     public void writeValue( DataValueEntry entry )
     {
-        writer.openElement( "dataValue" );
-        writer.writeAttribute( "dataElement", entry.getDataElement() );
-        writer.writeAttribute( "period", entry.getPeriod() );
-        writer.writeAttribute( "orgUnit", entry.getOrgUnit() );
-        writer.writeAttribute( "categoryOptionCombo", entry.getCategoryOptionCombo() );
-        writer.writeAttribute( "attributeOptionCombo", entry.getAttributeOptionCombo() );
-        writer.writeAttribute( "value", entry.getValue() );
-        writer.writeAttribute( "storedBy", entry.getStoredBy() );
-        writer.writeAttribute( "created", entry.getCreated() );
-        writer.writeAttribute( "lastUpdated", entry.getLastUpdated() );
-        writer.writeAttribute( "comment", entry.getComment() );
-        writer.writeAttribute( "followUp", valueOf( entry.getFollowup() ) );
-        writer.writeAttribute( "deleted", valueOf( entry.getDeleted() ) );
-        writer.closeElement();
+        try
+        {
+            writer.writeEmptyElement( "dataValue" );
+        }
+        catch ( XMLStreamException ex )
+        {
+            throw toUnchecked( ex );
+        }
+        writeAttribute( "dataElement", entry.getDataElement() );
+        writeAttribute( "period", entry.getPeriod() );
+        writeAttribute( "orgUnit", entry.getOrgUnit() );
+        writeAttribute( "categoryOptionCombo", entry.getCategoryOptionCombo() );
+        writeAttribute( "attributeOptionCombo", entry.getAttributeOptionCombo() );
+        writeAttribute( "value", entry.getValue() );
+        writeAttribute( "storedBy", entry.getStoredBy() );
+        writeAttribute( "created", entry.getCreated() );
+        writeAttribute( "lastUpdated", entry.getLastUpdated() );
+        writeAttribute( "comment", entry.getComment() );
+        writeAttribute( "followUp", valueOf( entry.getFollowup() ) );
+        writeAttribute( "deleted", valueOf( entry.getDeleted() ) );
+    }
+
+    @Override
+    public void flush()
+    {
+        try
+        {
+            writer.flush();
+        }
+        catch ( XMLStreamException ex )
+        {
+            throw toUnchecked( ex );
+        }
     }
 
     @Override
     public void close()
         throws UncheckedIOException
     {
-        writer.closeElement();
-        writer.closeDocument();
-        writer.closeWriter();
+        try
+        {
+            writer.writeEndDocument();
+            writer.flush();
+            writer.close();
+        }
+        catch ( XMLStreamException ex )
+        {
+            throw toUnchecked( ex );
+        }
+    }
+
+    /**
+     * Writes the attribute unless the value is null, like the XML writers of
+     * the other exports do.
+     */
+    private void writeAttribute( String name, String value )
+    {
+        if ( value == null )
+        {
+            return;
+        }
+
+        try
+        {
+            writer.writeAttribute( name, value );
+        }
+        catch ( XMLStreamException ex )
+        {
+            throw toUnchecked( ex );
+        }
+    }
+
+    private static UncheckedIOException toUnchecked( XMLStreamException ex )
+    {
+        return new UncheckedIOException( new IOException( ex ) );
     }
 }
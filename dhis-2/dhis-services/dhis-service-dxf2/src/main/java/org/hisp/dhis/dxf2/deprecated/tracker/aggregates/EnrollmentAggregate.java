@@ -63,6 +63,9 @@ public class EnrollmentAggregate
     extends
     AbstractAggregate
 {
+    @Nonnull
+    private final ThreadPoolManager threadPoolManager;
+
     @Nonnull
     private final EnrollmentStore enrollmentStore;
 
@@ -90,19 +93,19 @@ public class EnrollmentAggregate
             .collect( Collectors.toList() );
 
         final CompletableFuture<Multimap<String, Event>> eventAsync = conditionalAsyncFetch(
-            ctx.getParams().getEnrollmentParams().isIncludeEvents(),
-            () -> eventAggregate.findByEnrollmentIds( enrollmentIds, ctx ), ThreadPoolManager.getPool() );
+            "events", ctx.getParams().getEnrollmentParams().isIncludeEvents(),
+            () -> eventAggregate.findByEnrollmentIds( enrollmentIds, ctx ), threadPoolManager.getPool() );
 
         final CompletableFuture<Multimap<String, Relationship>> relationshipAsync = conditionalAsyncFetch(
-            ctx.getParams().getEnrollmentParams().isIncludeRelationships(),
-            () -> enrollmentStore.getRelationships( enrollmentIds, ctx ), ThreadPoolManager.getPool() );
+            "enrollmentRelationships", ctx.getParams().getEnrollmentParams().isIncludeRelationships(),
+            () -> enrollmentStore.getRelationships( enrollmentIds, ctx ), threadPoolManager.getPool() );
 
         final CompletableFuture<Multimap<String, Note>> notesAsync = asyncFetch(
-            () -> enrollmentStore.getNotes( enrollmentIds ), ThreadPoolManager.getPool() );
+            "enrollmentNotes", () -> enrollmentStore.getNotes( enrollmentIds ), threadPoolManager.getPool() );
 
         final CompletableFuture<Multimap<String, Attribute>> attributesAsync = conditionalAsyncFetch(
-            ctx.getParams().getTeiEnrollmentParams().isIncludeAttributes(),
-            () -> enrollmentStore.getAttributes( enrollmentIds, ctx ), ThreadPoolManager.getPool() );
+            "enrollmentAttributes", ctx.getParams().getTeiEnrollmentParams().isIncludeAttributes(),
+            () -> enrollmentStore.getAttributes( enrollmentIds, ctx ), threadPoolManager.getPool() );
 
         return allOf( eventAsync, notesAsync, relationshipAsync, attributesAsync ).thenApplyAsync( fn -> {
 
@@ -131,6 +134,6 @@ public class EnrollmentAggregate
 
             return enrollments;
 
-        }, ThreadPoolManager.getPool() ).join();
+        }, threadPoolManager.getPool() ).join();
     }
 }
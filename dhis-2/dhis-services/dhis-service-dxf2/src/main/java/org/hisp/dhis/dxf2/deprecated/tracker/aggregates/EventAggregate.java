@@ -28,8 +28,6 @@
 package org.hisp.dhis.dxf2.deprecated.tracker.aggregates;
 
 import static java.util.concurrent.CompletableFuture.allOf;
-import static java.util.concurrent.CompletableFuture.supplyAsync;
-import static org.hisp.dhis.dxf2.deprecated.tracker.aggregates.ThreadPoolManager.getPool;
 
 import java.util.ArrayList;
 import java.util.HashSet;
@@ -65,6 +63,9 @@ public class EventAggregate
     extends
     AbstractAggregate
 {
+    @Nonnull
+    private final ThreadPoolManager threadPoolManager;
+
     @Nonnull
     private final EventStore eventStore;
 
@@ -94,20 +95,20 @@ public class EventAggregate
          * isIncludeRelationships = true)
          */
         final CompletableFuture<Multimap<String, Relationship>> relationshipAsync = conditionalAsyncFetch(
-            ctx.getParams().getEventParams().isIncludeRelationships(),
-            () -> eventStore.getRelationships( eventIds, ctx ), getPool() );
+            "eventRelationships", ctx.getParams().getEventParams().isIncludeRelationships(),
+            () -> eventStore.getRelationships( eventIds, ctx ), threadPoolManager.getPool() );
 
         /*
          * Async fetch Notes for the given Event ids
          */
         final CompletableFuture<Multimap<String, Note>> notesAsync = asyncFetch(
-            () -> eventStore.getNotes( eventIds ), getPool() );
+            "eventNotes", () -> eventStore.getNotes( eventIds ), threadPoolManager.getPool() );
 
         /*
          * Async fetch DataValues for the given Event ids
          */
-        final CompletableFuture<Map<String, List<DataValue>>> dataValuesAsync = supplyAsync(
-            () -> eventStore.getDataValues( eventIds ), getPool() );
+        final CompletableFuture<Map<String, List<DataValue>>> dataValuesAsync = timedAsyncFetch(
+            "eventDataValues", () -> eventStore.getDataValues( eventIds ), threadPoolManager.getPool() );
 
         return allOf( dataValuesAsync, notesAsync, relationshipAsync ).thenApplyAsync( fn -> {
 
@@ -132,6 +133,6 @@ public class EventAggregate
 
             return events;
 
-        }, getPool() ).join();
+        }, threadPoolManager.getPool() ).join();
     }
 }
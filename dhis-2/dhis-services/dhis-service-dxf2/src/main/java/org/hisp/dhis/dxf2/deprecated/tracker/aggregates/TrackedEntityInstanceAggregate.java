@@ -28,8 +28,6 @@
 package org.hisp.dhis.dxf2.deprecated.tracker.aggregates;
 
 import static java.util.concurrent.CompletableFuture.allOf;
-import static java.util.concurrent.CompletableFuture.supplyAsync;
-import static org.hisp.dhis.dxf2.deprecated.tracker.aggregates.ThreadPoolManager.getPool;
 
 import java.util.ArrayList;
 import java.util.Collection;
@@ -84,6 +82,9 @@ public class TrackedEntityInstanceAggregate
     extends
     AbstractAggregate
 {
+    @Nonnull
+    private final ThreadPoolManager threadPoolManager;
+
     @Nonnull
     private final TrackedEntityInstanceStore trackedEntityInstanceStore;
 
@@ -171,43 +172,47 @@ public class TrackedEntityInstanceAggregate
          * isIncludeRelationships = true)
          */
         final CompletableFuture<Multimap<String, Relationship>> relationshipsAsync = conditionalAsyncFetch(
-            ctx.getParams().isIncludeRelationships(), () -> trackedEntityInstanceStore.getRelationships( ids, ctx ),
-            getPool() );
+            "trackedEntityInstanceRelationships", ctx.getParams().isIncludeRelationships(),
+            () -> trackedEntityInstanceStore.getRelationships( ids, ctx ),
+            threadPoolManager.getPool() );
 
         /*
          * Async fetch Enrollments for the given TrackedEntity id (only if
          * isIncludeEnrollments = true)
          */
         final CompletableFuture<Multimap<String, Enrollment>> enrollmentsAsync = conditionalAsyncFetch(
-            ctx.getParams().isIncludeEnrollments(),
-            () -> enrollmentAggregate.findByTrackedEntityInstanceIds( ids, ctx ), getPool() );
+            "enrollments", ctx.getParams().isIncludeEnrollments(),
+            () -> enrollmentAggregate.findByTrackedEntityInstanceIds( ids, ctx ), threadPoolManager.getPool() );
 
         /*
          * Async fetch all ProgramOwner for the given TrackedEntity id
          */
         final CompletableFuture<Multimap<String, ProgramOwner>> programOwnersAsync = conditionalAsyncFetch(
-            ctx.getParams().isIncludeProgramOwners(), () -> trackedEntityInstanceStore.getProgramOwners( ids ),
-            getPool() );
+            "trackedEntityInstanceProgramOwners", ctx.getParams().isIncludeProgramOwners(),
+            () -> trackedEntityInstanceStore.getProgramOwners( ids ),
+            threadPoolManager.getPool() );
 
         /*
          * Async Fetch TrackedEntityInstances by id
          */
-        final CompletableFuture<Map<String, TrackedEntityInstance>> teisAsync = supplyAsync(
-            () -> trackedEntityInstanceStore.getTrackedEntityInstances( ids, ctx ), getPool() );
+        final CompletableFuture<Map<String, TrackedEntityInstance>> teisAsync = timedAsyncFetch(
+            "trackedEntityInstances", () -> trackedEntityInstanceStore.getTrackedEntityInstances( ids, ctx ),
+            threadPoolManager.getPool() );
 
         /*
          * Async fetch TrackedEntity Attributes by TrackedEntity id
          */
-        final CompletableFuture<Multimap<String, Attribute>> attributesAsync = supplyAsync(
-            () -> trackedEntityInstanceStore.getAttributes( ids ), getPool() );
+        final CompletableFuture<Multimap<String, Attribute>> attributesAsync = timedAsyncFetch(
+            "trackedEntityInstanceAttributes", () -> trackedEntityInstanceStore.getAttributes( ids ),
+            threadPoolManager.getPool() );
 
         /*
          * Async fetch Owned Tei mapped to the provided program attributes by
          * TrackedEntity id
          */
         final CompletableFuture<Multimap<String, String>> ownedTeiAsync = conditionalAsyncFetch(
-            user.isPresent(),
-            () -> trackedEntityInstanceStore.getOwnedTeis( ids, ctx ), getPool() );
+            "trackedEntityInstanceOwnedTeis", user.isPresent(),
+            () -> trackedEntityInstanceStore.getOwnedTeis( ids, ctx ), threadPoolManager.getPool() );
 
         /*
          * Execute all queries and merge the results
@@ -247,7 +252,7 @@ public class TrackedEntityInstanceAggregate
                     return tei;
 
                 } ).collect( Collectors.toList() );
-            }, getPool() ).join();
+            }, threadPoolManager.getPool() ).join();
 
     }
 
@@ -335,18 +340,22 @@ public class TrackedEntityInstanceAggregate
      */
     private AggregateContext getSecurityContext( String userUID, List<String> userGroupUIDs )
     {
-        final CompletableFuture<List<Long>> getTeiTypes = supplyAsync(
-            () -> aclStore.getAccessibleTrackedEntityInstanceTypes( userUID, userGroupUIDs ), getPool() );
+        final CompletableFuture<List<Long>> getTeiTypes = timedAsyncFetch(
+            "aclTrackedEntityInstanceTypes",
+            () -> aclStore.getAccessibleTrackedEntityInstanceTypes( userUID, userGroupUIDs ),
+            threadPoolManager.getPool() );
 
-        final CompletableFuture<List<Long>> getPrograms = supplyAsync(
-            () -> aclStore.getAccessiblePrograms( userUID, userGroupUIDs ),
-            getPool() );
+        final CompletableFuture<List<Long>> getPrograms = timedAsyncFetch(
+            "aclPrograms", () -> aclStore.getAccessiblePrograms( userUID, userGroupUIDs ),
+            threadPoolManager.getPool() );
 
-        final CompletableFuture<List<Long>> getProgramStages = supplyAsync(
-            () -> aclStore.getAccessibleProgramStages( userUID, userGroupUIDs ), getPool() );
+        final CompletableFuture<List<Long>> getProgramStages = timedAsyncFetch(
+            "aclProgramStages", () -> aclStore.getAccessibleProgramStages( userUID, userGroupUIDs ),
+            threadPoolManager.getPool() );
 
-        final CompletableFuture<List<Long>> getRelationshipTypes = supplyAsync(
-            () -> aclStore.getAccessibleRelationshipTypes( userUID, userGroupUIDs ), getPool() );
+        final CompletableFuture<List<Long>> getRelationshipTypes = timedAsyncFetch(
+            "aclRelationshipTypes", () -> aclStore.getAccessibleRelationshipTypes( userUID, userGroupUIDs ),
+            threadPoolManager.getPool() );
 
         return allOf( getTeiTypes, getPrograms, getProgramStages, getRelationshipTypes ).thenApplyAsync(
             fn -> AggregateContext.builder()
@@ -355,7 +364,7 @@ public class TrackedEntityInstanceAggregate
                 .programStages( getProgramStages.join() )
                 .relationshipTypes( getRelationshipTypes.join() )
                 .build(),
-            getPool() )
+            threadPoolManager.getPool() )
             .join();
     }
 }
@@ -0,0 +1,301 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.dxf2.datavalueset;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.hisp.dhis.system.thread.BoundedExecutor;
+import org.hisp.dhis.system.util.CsvUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Tests the {@link PipelinedDataValueSetReader}.
+ */
+class PipelinedDataValueSetReaderTest
+{
+    private static final String CSV = "dataelement,period,orgunit,categoryoptioncombo,attributeoptioncombo,value\n" +
+        "de1,202201,ou1,coc1,aoc1,1\n" +
+        "de2,202202,ou2,coc2,aoc2,2\n" +
+        "de3,202203,ou3,coc3,aoc3,3\n";
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp()
+    {
+        executor = Executors.newSingleThreadExecutor();
+    }
+
+    @AfterEach
+    void tearDown()
+    {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void testReadValuesInInputOrder()
+    {
+        List<DataValueEntry> values = readAll( new PipelinedDataValueSetReader( createCsvReader( CSV ), 1, executor ) );
+
+        assertValues( values );
+    }
+
+    @Test
+    void testReadOnImportingThreadWhenExecutorRejectsReader()
+    {
+        executor.shutdown();
+
+        List<DataValueEntry> values = readAll( new PipelinedDataValueSetReader( createCsvReader( CSV ), 1, executor ) );
+
+        assertValues( values );
+    }
+
+    @Test
+    void testReadOnImportingThreadWhenExecutorIsBusy()
+        throws InterruptedException
+    {
+        BoundedExecutor bounded = new BoundedExecutor( "test.reader", 1, new SimpleMeterRegistry() );
+        CountDownLatch started = new CountDownLatch( 1 );
+        CountDownLatch release = new CountDownLatch( 1 );
+        try
+        {
+            bounded.execute( () -> {
+                started.countDown();
+                awaitUninterruptibly( release );
+            } );
+            assertTrue( started.await( 10, TimeUnit.SECONDS ) );
+
+            List<DataValueEntry> values = readAll(
+                new PipelinedDataValueSetReader( createCsvReader( CSV ), 1, bounded ) );
+
+            assertValues( values );
+        }
+        finally
+        {
+            release.countDown();
+            bounded.shutdown();
+        }
+    }
+
+    private static List<DataValueEntry> readAll( DataValueSetReader pipelined )
+    {
+        List<DataValueEntry> values = new ArrayList<>();
+
+        try ( DataValueSetReader reader = pipelined )
+        {
+            assertNotNull( reader.readHeader() );
+
+            DataValueEntry entry = reader.readNext();
+
+            while ( entry != null )
+            {
+                values.add( entry );
+                entry = reader.readNext();
+            }
+
+            assertNull( reader.readNext() );
+        }
+
+        return values;
+    }
+
+    private static void assertValues( List<DataValueEntry> values )
+    {
+        assertEquals( 3, values.size() );
+        assertEquals( "de1", values.get( 0 ).getDataElement() );
+        assertEquals( "202201", values.get( 0 ).getPeriod() );
+        assertEquals( "1", values.get( 0 ).getValue() );
+        assertEquals( "de2", values.get( 1 ).getDataElement() );
+        assertEquals( "ou2", values.get( 1 ).getOrgUnit() );
+        assertEquals( "de3", values.get( 2 ).getDataElement() );
+        assertEquals( "aoc3", values.get( 2 ).getAttributeOptionCombo() );
+    }
+
+    @Test
+    void testReadFailureIsPropagated()
+    {
+        DataValueSetReader csv = createCsvReader( CSV );
+        DataValueSetReader failing = new SimpleDataValueSetReader( new DataValueSet() )
+        {
+            @Override
+            public DataValueSet readHeader()
+            {
+                return csv.readHeader();
+            }
+
+            @Override
+            public DataValueEntry readNext()
+            {
+                DataValueEntry entry = csv.readNext();
+
+                if ( entry == null )
+                {
+                    throw new IllegalStateException( "Broken input" );
+                }
+
+                return entry;
+            }
+        };
+
+        try ( DataValueSetReader reader = new PipelinedDataValueSetReader( failing, 10, executor ) )
+        {
+            reader.readHeader();
+
+            assertEquals( "de1", reader.readNext().getDataElement() );
+            assertEquals( "de2", reader.readNext().getDataElement() );
+            assertEquals( "de3", reader.readNext().getDataElement() );
+
+            IllegalStateException ex = assertThrows( IllegalStateException.class, reader::readNext );
+            assertEquals( "Broken input", ex.getMessage() );
+        }
+    }
+
+    @Test
+    void testReadErrorStopsReading()
+    {
+        DataValueSetReader csv = createCsvReader( CSV );
+        DataValueSetReader failing = new SimpleDataValueSetReader( new DataValueSet() )
+        {
+            @Override
+            public DataValueSet readHeader()
+            {
+                return csv.readHeader();
+            }
+
+            @Override
+            public DataValueEntry readNext()
+            {
+                DataValueEntry entry = csv.readNext();
+
+                if ( "de2".equals( entry.getDataElement() ) )
+                {
+                    throw new AssertionError( "Broken reader" );
+                }
+
+                return entry;
+            }
+        };
+
+        try ( DataValueSetReader reader = new PipelinedDataValueSetReader( failing, 10, executor ) )
+        {
+            reader.readHeader();
+
+            assertEquals( "de1", reader.readNext().getDataElement() );
+
+            IllegalStateException ex = assertThrows( IllegalStateException.class, reader::readNext );
+            assertEquals( "Reading of data values stopped before the end of the input", ex.getMessage() );
+        }
+    }
+
+    @Test
+    void testCloseWhileReadingIsBlocked()
+        throws InterruptedException
+    {
+        CountDownLatch reading = new CountDownLatch( 1 );
+        CountDownLatch closed = new CountDownLatch( 1 );
+        DataValueSetReader blocking = new SimpleDataValueSetReader( new DataValueSet() )
+        {
+            @Override
+            public DataValueEntry readNext()
+            {
+                // like stream I/O this does not respond to interrupts
+                reading.countDown();
+                awaitUninterruptibly( closed );
+                return null;
+            }
+
+            @Override
+            public void close()
+            {
+                closed.countDown();
+            }
+        };
+        DataValueSetReader reader = new PipelinedDataValueSetReader( blocking, 1, executor, 100 );
+
+        reader.readHeader();
+        assertTrue( reading.await( 10, TimeUnit.SECONDS ) );
+        reader.close();
+
+        assertEquals( 0, closed.getCount() );
+    }
+
+    @Test
+    void testCloseBeforeAllValuesAreRead()
+    {
+        DataValueSetReader reader = new PipelinedDataValueSetReader( createCsvReader( CSV ), 1, executor );
+
+        reader.readHeader();
+        assertEquals( "de1", reader.readNext().getDataElement() );
+
+        reader.close();
+    }
+
+    private static void awaitUninterruptibly( CountDownLatch latch )
+    {
+        boolean interrupted = false;
+        while ( true )
+        {
+            try
+            {
+                latch.await();
+                break;
+            }
+            catch ( InterruptedException ex )
+            {
+                interrupted = true;
+            }
+        }
+        if ( interrupted )
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static DataValueSetReader createCsvReader( String csv )
+    {
+        return new CsvDataValueSetReader( CsvUtils.getReader( new ByteArrayInputStream( csv.getBytes( UTF_8 ) ) ),
+            null );
+    }
+}
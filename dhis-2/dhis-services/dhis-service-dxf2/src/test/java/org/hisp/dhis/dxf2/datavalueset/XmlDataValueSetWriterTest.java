@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.dxf2.datavalueset;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+
+import org.hisp.dhis.dxf2.datavalue.DataValue;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the {@link XmlDataValueSetWriter}.
+ */
+class XmlDataValueSetWriterTest
+{
+    @Test
+    void testFlushWritesValuesWrittenSoFar()
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        XmlDataValueSetWriter writer = new XmlDataValueSetWriter( out );
+
+        writer.writeHeader();
+        writer.writeValue( dataValue( "de1", "1" ) );
+        writer.flush();
+
+        assertTrue( out.toString( UTF_8 ).contains( "dataElement=\"de1\"" ) );
+
+        writer.writeValue( dataValue( "de2", "2" ) );
+        writer.close();
+
+        assertEquals( "<?xml version=\"1.0\" encoding=\"UTF-8\"?>"
+            + "<dataValueSet xmlns=\"http://dhis2.org/schema/dxf/2.0\">"
+            + "<dataValue dataElement=\"de1\" period=\"202201\" value=\"1\"/>"
+            + "<dataValue dataElement=\"de2\" period=\"202201\" value=\"2\"/>"
+            + "</dataValueSet>", out.toString( UTF_8 ) );
+    }
+
+    @Test
+    void testWriteHeaderWithDataSet()
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        XmlDataValueSetWriter writer = new XmlDataValueSetWriter( out );
+
+        writer.writeHeader( "ds1", null, "202201", "ou1" );
+        writer.close();
+
+        assertEquals( "<?xml version=\"1.0\" encoding=\"UTF-8\"?>"
+            + "<dataValueSet xmlns=\"http://dhis2.org/schema/dxf/2.0\" "
+            + "dataSet=\"ds1\" period=\"202201\" orgUnit=\"ou1\">"
+            + "</dataValueSet>", out.toString( UTF_8 ) );
+    }
+
+    private static DataValue dataValue( String dataElement, String value )
+    {
+        DataValue dataValue = new DataValue();
+        dataValue.setDataElement( dataElement );
+        dataValue.setPeriod( "202201" );
+        dataValue.setValue( value );
+        return dataValue;
+    }
+}
@@ -28,6 +28,7 @@
 package org.hisp.dhis.programrule.engine;
 
 import java.util.*;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import javax.annotation.Nonnull;
@@ -99,6 +100,76 @@ public class ProgramRuleEngine
             getRuleEvents( events, null ), rules );
     }
 
+    /**
+     * Creates the {@link RuleEngineContext} for the rules of given program and
+     * program stages. The context holds the mapped rules, rule variables,
+     * constants and supplementary data and can be reused to evaluate any
+     * number of enrollments of the program with events in these program
+     * stages.
+     *
+     * @param program program of the rules
+     * @param programStages program stages of the events to evaluate
+     * @return rule engine context or null if it cannot be created
+     */
+    public RuleEngineContext getRuleEngineContext( Program program, List<ProgramStage> programStages )
+    {
+        try
+        {
+            return getRuleEngineContext( program, getProgramRules( program, programStages ) );
+        }
+        catch ( Exception e )
+        {
+            log.error( DebugUtils.getStackTrace( e ) );
+            return null;
+        }
+    }
+
+    /**
+     * Maps given enrollment, events and attributes to the rule engine model
+     * and returns the evaluation of the rules in given context. The mapping
+     * reads the given entities and is done by the calling thread. The returned
+     * evaluation only reads the mapped model so it can be run by any thread.
+     *
+     * @param context context created by
+     *        {@link #getRuleEngineContext(Program, List)}
+     * @param enrollment enrollment to evaluate
+     * @param events events of the enrollment
+     * @param trackedEntityAttributeValues attributes of the enrollment
+     * @return evaluation of the rules
+     */
+    public Supplier<List<RuleEffects>> prepareEnrollmentAndEvents( RuleEngineContext context,
+        Enrollment enrollment, Set<Event> events, List<TrackedEntityAttributeValue> trackedEntityAttributeValues )
+    {
+        if ( context == null )
+        {
+            return Collections::emptyList;
+        }
+
+        RuleEngine ruleEngine;
+        try
+        {
+            ruleEngine = getRuleEngine( context, enrollment, trackedEntityAttributeValues,
+                getRuleEvents( events, null ) );
+        }
+        catch ( Exception e )
+        {
+            log.error( DebugUtils.getStackTrace( e ) );
+            return Collections::emptyList;
+        }
+
+        return () -> {
+            try
+            {
+                return ruleEngine.evaluate().call();
+            }
+            catch ( Exception e )
+            {
+                log.error( DebugUtils.getStackTrace( e ) );
+                return Collections.emptyList();
+            }
+        };
+    }
+
     public List<RuleEffect> evaluateProgramEvent( Event event, Program program, List<ProgramRule> rules )
     {
         return evaluateProgramRules( null, null, program, List.of(), getRuleEvents( Set.of( event ), null ), rules );
@@ -154,11 +225,19 @@ public class ProgramRuleEngine
         Enrollment enrollment,
         List<TrackedEntityAttributeValue> trackedEntityAttributeValues,
         List<RuleEvent> ruleEvents, List<ProgramRule> programRules )
+    {
+        return getRuleEngine( getRuleEngineContext( program, programRules ), enrollment,
+            trackedEntityAttributeValues, ruleEvents );
+    }
+
+    private RuleEngine getRuleEngine( RuleEngineContext context,
+        Enrollment enrollment,
+        List<TrackedEntityAttributeValue> trackedEntityAttributeValues,
+        List<RuleEvent> ruleEvents )
     {
         RuleEnrollment ruleEnrollment = getRuleEnrollment( enrollment, trackedEntityAttributeValues );
 
-        RuleEngine.Builder builder = getRuleEngineContext( program,
-            programRules )
+        RuleEngine.Builder builder = context
             .toEngineBuilder()
             .triggerEnvironment( TriggerEnvironment.SERVER )
             .events( ruleEvents );
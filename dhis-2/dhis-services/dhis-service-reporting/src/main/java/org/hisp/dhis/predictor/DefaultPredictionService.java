@@ -31,6 +31,8 @@ import static com.google.common.base.MoreObjects.firstNonNull;
 import static java.lang.String.format;
 import static java.util.Collections.emptySet;
 import static org.apache.commons.collections4.CollectionUtils.isEmpty;
+import static org.hisp.dhis.common.DimensionItemType.DATA_ELEMENT;
+import static org.hisp.dhis.common.DimensionItemType.DATA_ELEMENT_OPERAND;
 import static org.hisp.dhis.common.OrganisationUnitDescendants.DESCENDANTS;
 import static org.hisp.dhis.expression.MissingValueStrategy.NEVER_SKIP;
 import static org.hisp.dhis.expression.ParseType.PREDICTOR_EXPRESSION;
@@ -51,6 +53,7 @@ import java.util.Set;
 
 import javax.annotation.CheckForNull;
 
+import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -86,9 +89,13 @@ import org.hisp.dhis.user.CurrentUserService;
 import org.hisp.dhis.user.User;
 import org.hisp.quick.BatchHandlerFactory;
 import org.springframework.context.ApplicationContext;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
@@ -127,6 +134,8 @@ public class DefaultPredictionService
 
     private final ApplicationContext applicationContext;
 
+    private final TransactionTemplate transactionTemplate;
+
     // -------------------------------------------------------------------------
     // Prediction business logic
     // -------------------------------------------------------------------------
@@ -144,16 +153,23 @@ public class DefaultPredictionService
         {
             endDate = params.getEndDate();
         }
-        return predictTask( startDate, endDate, params.getPredictors(), params.getPredictorGroups(), progress );
+        return predictTask( startDate, endDate, params.getPredictors(), params.getPredictorGroups(),
+            params.getParallelism(), progress );
     }
 
     @Override
     public PredictionSummary predictTask( Date startDate, Date endDate,
         List<String> predictors, List<String> predictorGroups, JobProgress progress )
+    {
+        return predictTask( startDate, endDate, predictors, predictorGroups, 1, progress );
+    }
+
+    private PredictionSummary predictTask( Date startDate, Date endDate,
+        List<String> predictors, List<String> predictorGroups, int parallelism, JobProgress progress )
     {
         try
         {
-            return predictAll( startDate, endDate, predictors, predictorGroups, progress );
+            return predictAll( startDate, endDate, predictors, predictorGroups, parallelism, progress );
         }
         catch ( RuntimeException ex )
         {
@@ -167,12 +183,26 @@ public class DefaultPredictionService
     @Override
     public PredictionSummary predictAll( Date startDate, Date endDate, List<String> predictors,
         List<String> predictorGroups, JobProgress progress )
+    {
+        return predictAll( startDate, endDate, predictors, predictorGroups, 1, progress );
+    }
+
+    private PredictionSummary predictAll( Date startDate, Date endDate, List<String> predictors,
+        List<String> predictorGroups, int parallelism, JobProgress progress )
     {
         progress.startingStage( "Fetching predictors" );
         List<Predictor> predictorList = progress.runStage( List.of(),
             () -> fetchPredictors( predictors, predictorGroups ) );
 
         PredictionSummary summary = new PredictionSummary();
+
+        if ( parallelism > 1 )
+        {
+            predictInParallel( predictorList, startDate, endDate, parallelism, summary, progress );
+
+            return summary;
+        }
+
         progress.startingStage( format( "Running predictors from %s to %s", startDate, endDate ),
             predictorList.size(), SKIP_ITEM_OUTLIER );
         progress.runStage( predictorList.stream(),
@@ -183,6 +213,201 @@ public class DefaultPredictionService
         return summary;
     }
 
+    /**
+     * Runs up to the given number of predictors at the same time. To get the
+     * same predictions as when running the predictors one after the other,
+     * they are run in waves, where each wave only starts when the previous one
+     * is done. A predictor is put in a later wave than any preceding predictor
+     * it conflicts with, see {@link #isConflicting}.
+     * <p>
+     * The output periods are created up front in a separate transaction, so
+     * that predictors running in parallel do not race to create them and can
+     * all insert predictions with the batch handler.
+     * <p>
+     * Each predictor runs in a new transaction on the thread running it, and
+     * is reloaded in that transaction, so that its associations are not lazily
+     * loaded through the session of the job thread.
+     */
+    private void predictInParallel( List<Predictor> predictorList, Date startDate, Date endDate, int parallelism,
+        PredictionSummary summary, JobProgress progress )
+    {
+        progress.startingStage( "Planning parallel predictor waves" );
+        List<List<PlannedPredictor>> waves = progress.runStage( List.of(), () -> getWaves( predictorList ) );
+
+        progress.startingStage( "Creating output periods" );
+        progress.runStage( () -> createOutputPeriods( predictorList, startDate, endDate ) );
+
+        SecurityContext securityContext = SecurityContextHolder.getContext();
+        TransactionTemplate template = newTransactionTemplate();
+
+        for ( int i = 0; i < waves.size(); i++ )
+        {
+            List<PlannedPredictor> wave = waves.get( i );
+
+            progress.startingStage( format( "Running wave %d of %d with %d predictors from %s to %s",
+                i + 1, waves.size(), wave.size(), startDate, endDate ), wave.size(), SKIP_ITEM_OUTLIER );
+            progress.runStageInParallel( parallelism, wave,
+                planned -> format( "Running predictor %s", planned.getSource().getName() ),
+                planned -> {
+                    SecurityContext previousContext = SecurityContextHolder.getContext();
+                    SecurityContextHolder.setContext( securityContext );
+                    try
+                    {
+                        template.executeWithoutResult( status -> predictSimple( reloadPredictor( planned ),
+                            startDate, endDate, summary ) );
+                    }
+                    finally
+                    {
+                        SecurityContextHolder.setContext( previousContext );
+                    }
+                } );
+        }
+    }
+
+    /**
+     * Splits the (preprocessed) predictors into waves of predictors that can
+     * run in parallel, keeping the order of conflicting predictors.
+     */
+    List<List<PlannedPredictor>> getWaves( List<Predictor> predictorList )
+    {
+        List<PredictorDependencies> planned = new ArrayList<>();
+        List<List<PlannedPredictor>> waves = new ArrayList<>();
+
+        for ( Predictor predictor : predictorList )
+        {
+            for ( Predictor p : preprocessor.preprocess( predictor ) )
+            {
+                PredictorDependencies dependencies = getDependencies( p );
+
+                int wave = 0;
+                for ( PredictorDependencies other : planned )
+                {
+                    if ( other.wave >= wave && isConflicting( dependencies, other ) )
+                    {
+                        wave = other.wave + 1;
+                    }
+                }
+
+                dependencies.wave = wave;
+                planned.add( dependencies );
+
+                if ( wave == waves.size() )
+                {
+                    waves.add( new ArrayList<>() );
+                }
+                waves.get( wave ).add( new PlannedPredictor( predictor, p ) );
+            }
+        }
+
+        return waves;
+    }
+
+    /**
+     * Gets the data elements a predictor reads from and writes to. Only data
+     * elements (and their operands) are fetched from data values, which the
+     * predictors write to. Other items are fetched from analytics, which is
+     * not changed by running predictors.
+     */
+    private PredictorDependencies getDependencies( Predictor predictor )
+    {
+        ExpressionInfo exInfo = new ExpressionInfo();
+
+        expressionService.getExpressionInfo( ExpressionParams.builder()
+            .expression( predictor.getGenerator().getExpression() )
+            .parseType( PREDICTOR_EXPRESSION )
+            .expressionInfo( exInfo )
+            .build() );
+
+        if ( predictor.getSampleSkipTest() != null )
+        {
+            addSampleSkipTestToExInfo( exInfo, predictor.getSampleSkipTest().getExpression() );
+        }
+
+        Set<String> inputs = new HashSet<>();
+
+        for ( DimensionalItemId itemId : exInfo.getAllItemIds() )
+        {
+            if ( itemId.getDimensionItemType() == DATA_ELEMENT
+                || itemId.getDimensionItemType() == DATA_ELEMENT_OPERAND )
+            {
+                inputs.add( itemId.getId0() );
+            }
+        }
+
+        return new PredictorDependencies( predictor.getOutput().getUid(), inputs );
+    }
+
+    /**
+     * Two predictors conflict if one reads the output of the other, or if they
+     * write to the same output data element.
+     */
+    private boolean isConflicting( PredictorDependencies a, PredictorDependencies b )
+    {
+        return a.output.equals( b.output ) || a.inputs.contains( b.output ) || b.inputs.contains( a.output );
+    }
+
+    /**
+     * Reloads a planned predictor in the current transaction. Predictors
+     * expanded from a forEach expression are not persisted themselves, so the
+     * persisted predictor they were expanded from is expanded again.
+     */
+    private Predictor reloadPredictor( PlannedPredictor planned )
+    {
+        Predictor source = predictorService.getPredictor( planned.getSource().getId() );
+
+        if ( source == null )
+        {
+            return planned.getPredictor();
+        }
+
+        String output = planned.getPredictor().getOutput().getUid();
+
+        return preprocessor.preprocess( source ).stream()
+            .filter( p -> output.equals( p.getOutput().getUid() ) )
+            .findFirst()
+            .orElse( planned.getPredictor() );
+    }
+
+    private TransactionTemplate newTransactionTemplate()
+    {
+        TransactionTemplate template = new TransactionTemplate( transactionTemplate.getTransactionManager() );
+        template.setPropagationBehavior( TransactionDefinition.PROPAGATION_REQUIRES_NEW );
+        return template;
+    }
+
+    private void createOutputPeriods( List<Predictor> predictorList, Date startDate, Date endDate )
+    {
+        Set<PeriodType> periodTypes = new HashSet<>();
+
+        predictorList.forEach( predictor -> periodTypes.add( predictor.getPeriodType() ) );
+
+        newTransactionTemplate().executeWithoutResult( status -> periodTypes.forEach(
+            periodType -> periodService.reloadPeriods( getPeriodsBetweenDates( periodType, startDate, endDate ) ) ) );
+    }
+
+    /**
+     * A (preprocessed) predictor planned to run in a wave, together with the
+     * persisted predictor it was preprocessed from.
+     */
+    @Getter
+    @RequiredArgsConstructor
+    static final class PlannedPredictor
+    {
+        private final Predictor source;
+
+        private final Predictor predictor;
+    }
+
+    @RequiredArgsConstructor
+    private static final class PredictorDependencies
+    {
+        private final String output;
+
+        private final Set<String> inputs;
+
+        private int wave;
+    }
+
     private List<Predictor> fetchPredictors( @CheckForNull List<String> predictors,
         @CheckForNull List<String> predictorGroups )
     {
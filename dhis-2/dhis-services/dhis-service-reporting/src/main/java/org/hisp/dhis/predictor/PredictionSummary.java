@@ -64,27 +64,27 @@ public class PredictionSummary extends AbstractWebMessageResponse
         this.description = description;
     }
 
-    public void incrementInserted()
+    public synchronized void incrementInserted()
     {
         inserted += 1;
     }
 
-    public void incrementPredictors()
+    public synchronized void incrementPredictors()
     {
         predictors += 1;
     }
 
-    public void incrementUpdated()
+    public synchronized void incrementUpdated()
     {
         updated += 1;
     }
 
-    public void incrementDeleted()
+    public synchronized void incrementDeleted()
     {
         deleted += 1;
     }
 
-    public void incrementUnchanged()
+    public synchronized void incrementUnchanged()
     {
         unchanged += 1;
     }
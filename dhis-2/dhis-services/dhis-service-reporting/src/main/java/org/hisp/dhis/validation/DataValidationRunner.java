@@ -120,10 +120,26 @@ public class DataValidationRunner
      */
     @Transactional
     public void run( List<OrganisationUnit> orgUnits, ValidationRunContext context )
+    {
+        runPeriodTypes( orgUnits, context.getPeriodTypeXs(), context );
+    }
+
+    /**
+     * Evaluates the validation rules of a single period type for a chunk of
+     * organisation units.
+     */
+    @Transactional
+    public void run( List<OrganisationUnit> orgUnits, PeriodTypeExtended periodTypeX, ValidationRunContext context )
+    {
+        runPeriodTypes( orgUnits, List.of( periodTypeX ), context );
+    }
+
+    private void runPeriodTypes( List<OrganisationUnit> orgUnits, List<PeriodTypeExtended> periodTypeXs,
+        ValidationRunContext context )
     {
         try
         {
-            runInternal( orgUnits, context );
+            runInternal( orgUnits, periodTypeXs, context );
         }
         catch ( Exception ex )
         {
@@ -137,14 +153,15 @@ public class DataValidationRunner
      * Get the data needed for this task, then evaluate each combination of
      * organisation unit / period / validation rule.
      */
-    private void runInternal( List<OrganisationUnit> orgUnits, ValidationRunContext context )
+    private void runInternal( List<OrganisationUnit> orgUnits, List<PeriodTypeExtended> periodTypeXs,
+        ValidationRunContext context )
     {
         if ( context.isAnalysisComplete() )
         {
             return;
         }
 
-        for ( PeriodTypeExtended ptx : context.getPeriodTypeXs() )
+        for ( PeriodTypeExtended ptx : periodTypeXs )
         {
             for ( Period p : ptx.getPeriods() )
             {
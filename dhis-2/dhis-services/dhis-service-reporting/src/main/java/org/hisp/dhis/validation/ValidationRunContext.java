@@ -179,11 +179,6 @@ public class ValidationRunContext
 
     }
 
-    public int getNumberOfTasks()
-    {
-        return (orgUnits.size() + ORG_UNITS_PER_TASK - 1) / ORG_UNITS_PER_TASK;
-    }
-
     public boolean isAnalysisComplete()
     {
         return validationResults.size() >= maxResults;
@@ -52,11 +52,26 @@ import com.google.common.collect.Lists;
  */
 public class Validator
 {
+    /**
+     * Minimum number of organisation units evaluated by a single task, so that
+     * the data fetched per task still covers a reasonable number of units.
+     */
+    private static final int MIN_ORG_UNITS_PER_TASK = 20;
+
+    /**
+     * Number of tasks to aim for per thread, so that threads which finish
+     * their tasks early can steal remaining tasks from busier threads.
+     */
+    private static final int TASKS_PER_THREAD = 8;
+
     /**
      * Evaluates validation rules for a collection of organisation units. This
-     * method breaks the job down by organisation unit. It assigns the
-     * evaluation for each organisation unit to a task that can be evaluated
-     * independently in a multi-threaded environment.
+     * method breaks the job down by period type and organisation unit. It
+     * assigns the evaluation for each period type and chunk of organisation
+     * units to a task that can be evaluated independently in a multi-threaded
+     * environment. The chunks are sized so that there are several tasks per
+     * thread, which lets idle threads pick up remaining tasks instead of
+     * waiting for a thread working through a large chunk.
      * <p/>
      * Return early with no results if there are no organisation units or no
      * validation rules.
@@ -73,13 +88,13 @@ public class Validator
             return new ArrayList<>( context.getValidationResults() );
         }
 
-        int chunkSize = ValidationRunContext.ORG_UNITS_PER_TASK;
-        List<ValidationChunk> orgUnitLists = splitIntoChunks( context, chunkSize );
+        int chunkSize = getChunkSize( context.getOrgUnits().size(), threadPoolSize );
+        List<ValidationTask> tasks = splitIntoTasks( context, chunkSize );
 
-        progress.startingStage( "Evaluating validation rules in chunks of " + chunkSize, orgUnitLists.size(),
-            SKIP_ITEM_OUTLIER );
-        progress.runStageInParallel( threadPoolSize, orgUnitLists, ValidationChunk::toString,
-            chunk -> runner.run( chunk.getOrgUnits(), context ) );
+        progress.startingStage( "Evaluating validation rules in " + tasks.size() + " tasks of up to " + chunkSize
+            + " org units", tasks.size(), SKIP_ITEM_OUTLIER );
+        progress.runStageInParallel( threadPoolSize, tasks, ValidationTask::toString,
+            task -> runner.run( task.getOrgUnits(), task.getPeriodTypeX(), context ) );
 
         progress.startingStage( "Reloading attribute option combos" );
         progress.runStage(
@@ -88,14 +103,36 @@ public class Validator
         return new ArrayList<>( context.getValidationResults() );
     }
 
-    private static List<ValidationChunk> splitIntoChunks( ValidationRunContext context, int chunkSize )
+    static List<ValidationTask> splitIntoTasks( ValidationRunContext context, int chunkSize )
     {
-        List<ValidationChunk> chunks = new ArrayList<>();
-        for ( List<OrganisationUnit> partition : Lists.partition( context.getOrgUnits(), chunkSize ) )
+        List<ValidationTask> tasks = new ArrayList<>();
+        for ( PeriodTypeExtended periodTypeX : context.getPeriodTypeXs() )
         {
-            chunks.add( new ValidationChunk( chunks.size(), chunkSize, partition ) );
+            int chunkNo = 0;
+            for ( List<OrganisationUnit> partition : Lists.partition( context.getOrgUnits(), chunkSize ) )
+            {
+                tasks.add( new ValidationTask( periodTypeX, chunkNo++, chunkSize, partition ) );
+            }
         }
-        return chunks;
+        return tasks;
+    }
+
+    /**
+     * Determines how many organisation units each task should evaluate. This
+     * aims for {@link #TASKS_PER_THREAD} tasks per thread and period type,
+     * bounded by {@link #MIN_ORG_UNITS_PER_TASK} and
+     * {@link ValidationRunContext#ORG_UNITS_PER_TASK}.
+     *
+     * @param orgUnitCount number of organisation units to evaluate
+     * @param threadPoolSize number of threads evaluating the tasks
+     * @return number of organisation units per task
+     */
+    static int getChunkSize( int orgUnitCount, int threadPoolSize )
+    {
+        int targetTasks = threadPoolSize * TASKS_PER_THREAD;
+        int chunkSize = (orgUnitCount + targetTasks - 1) / targetTasks;
+
+        return min( max( MIN_ORG_UNITS_PER_TASK, chunkSize ), ValidationRunContext.ORG_UNITS_PER_TASK );
     }
 
     /**
@@ -106,7 +143,10 @@ public class Validator
      */
     private static int getThreadPoolSize( ValidationRunContext context )
     {
-        return min( max( 2, SystemUtils.getCpuCores() - 1 ), context.getNumberOfTasks() );
+        int maxTasks = (context.getOrgUnits().size() + MIN_ORG_UNITS_PER_TASK - 1) / MIN_ORG_UNITS_PER_TASK
+            * context.getPeriodTypeXs().size();
+
+        return min( max( 2, SystemUtils.getCpuCores() - 1 ), maxTasks );
     }
 
     /**
@@ -124,8 +164,10 @@ public class Validator
 
     @Getter
     @AllArgsConstructor
-    private static class ValidationChunk
+    static class ValidationTask
     {
+        private final PeriodTypeExtended periodTypeX;
+
         private final int chunkNo;
 
         private final int chunkSize;
@@ -136,7 +178,7 @@ public class Validator
         public String toString()
         {
             int offset = chunkNo * chunkSize;
-            return offset + "-" + (offset + orgUnits.size() - 1);
+            return periodTypeX.getPeriodType().getName() + " " + offset + "-" + (offset + orgUnits.size() - 1);
         }
     }
 }
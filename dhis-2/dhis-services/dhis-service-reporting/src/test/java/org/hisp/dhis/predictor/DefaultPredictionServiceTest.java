@@ -0,0 +1,168 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.predictor;
+
+import static java.util.stream.Collectors.toList;
+import static org.hisp.dhis.common.DimensionItemType.DATA_ELEMENT;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.hisp.dhis.DhisConvenienceTest;
+import org.hisp.dhis.common.DimensionalItemId;
+import org.hisp.dhis.dataelement.DataElement;
+import org.hisp.dhis.expression.Expression;
+import org.hisp.dhis.expression.ExpressionParams;
+import org.hisp.dhis.expression.ExpressionService;
+import org.hisp.dhis.predictor.DefaultPredictionService.PlannedPredictor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+/**
+ * Tests the planning of parallel predictor waves in
+ * {@link DefaultPredictionService}.
+ */
+@ExtendWith( MockitoExtension.class )
+class DefaultPredictionServiceTest extends DhisConvenienceTest
+{
+    private static final Pattern DATA_ELEMENT_REF = Pattern.compile( "#\\{(\\w+)}" );
+
+    @Mock
+    private ExpressionService expressionService;
+
+    @Mock
+    private PredictionPreprocessor preprocessor;
+
+    @InjectMocks
+    private DefaultPredictionService service;
+
+    private DataElement deA;
+
+    private DataElement deB;
+
+    private DataElement deC;
+
+    private DataElement deD;
+
+    @BeforeEach
+    void setUp()
+    {
+        deA = createDataElement( 'A' );
+        deB = createDataElement( 'B' );
+        deC = createDataElement( 'C' );
+        deD = createDataElement( 'D' );
+
+        when( preprocessor.preprocess( any() ) ).thenAnswer( invocation -> List.of( invocation.getArgument( 0 ) ) );
+        when( expressionService.getExpressionInfo( any() ) ).thenAnswer( invocation -> {
+            ExpressionParams params = invocation.getArgument( 0 );
+            Matcher matcher = DATA_ELEMENT_REF.matcher( params.getExpression() );
+
+            while ( matcher.find() )
+            {
+                params.getExpressionInfo().getItemIds()
+                    .add( new DimensionalItemId( DATA_ELEMENT, matcher.group( 1 ) ) );
+            }
+
+            return params.getExpressionInfo();
+        } );
+    }
+
+    @Test
+    void testIndependentPredictorsRunInOneWave()
+    {
+        Predictor pB = createPredictor( "pB", deB, deA );
+        Predictor pC = createPredictor( "pC", deC, deA );
+
+        assertEquals( List.of( List.of( pB, pC ) ), getWaves( List.of( pB, pC ) ) );
+    }
+
+    @Test
+    void testPredictorReadingOutputRunsInLaterWave()
+    {
+        Predictor pB = createPredictor( "pB", deB, deA );
+        Predictor pC = createPredictor( "pC", deC, deB );
+        Predictor pD = createPredictor( "pD", deD, deA );
+
+        assertEquals( List.of( List.of( pB, pD ), List.of( pC ) ), getWaves( List.of( pB, pC, pD ) ) );
+    }
+
+    @Test
+    void testPredictorWritingInputRunsInLaterWave()
+    {
+        Predictor pC = createPredictor( "pC", deC, deB );
+        Predictor pB = createPredictor( "pB", deB, deA );
+
+        assertEquals( List.of( List.of( pC ), List.of( pB ) ), getWaves( List.of( pC, pB ) ) );
+    }
+
+    @Test
+    void testPredictorsWritingSameOutputKeepTheirOrder()
+    {
+        Predictor pB1 = createPredictor( "pB1", deB, deA );
+        Predictor pB2 = createPredictor( "pB2", deB, deC );
+        Predictor pD = createPredictor( "pD", deD, deC );
+
+        assertEquals( List.of( List.of( pB1, pD ), List.of( pB2 ) ), getWaves( List.of( pB1, pB2, pD ) ) );
+    }
+
+    @Test
+    void testDependencyChainRunsInConsecutiveWaves()
+    {
+        Predictor pB = createPredictor( "pB", deB, deA );
+        Predictor pC = createPredictor( "pC", deC, deB );
+        Predictor pD = createPredictor( "pD", deD, deC );
+
+        assertEquals( List.of( List.of( pB ), List.of( pC ), List.of( pD ) ),
+            getWaves( List.of( pB, pC, pD ) ) );
+    }
+
+    private List<List<Predictor>> getWaves( List<Predictor> predictors )
+    {
+        return service.getWaves( predictors ).stream()
+            .map( wave -> wave.stream().map( PlannedPredictor::getPredictor ).collect( toList() ) )
+            .collect( toList() );
+    }
+
+    private static Predictor createPredictor( String name, DataElement output, DataElement input )
+    {
+        Predictor predictor = new Predictor();
+        predictor.setName( name );
+        predictor.setOutput( output );
+        predictor.setGenerator( new Expression( "#{" + input.getUid() + "}", name ) );
+
+        return predictor;
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.validation;
+
+import static org.hisp.dhis.DhisConvenienceTest.createCategoryOptionCombo;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.hisp.dhis.organisationunit.OrganisationUnit;
+import org.hisp.dhis.period.MonthlyPeriodType;
+import org.hisp.dhis.period.QuarterlyPeriodType;
+import org.hisp.dhis.scheduling.JobProgress;
+import org.hisp.dhis.validation.Validator.ValidationTask;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+/**
+ * Tests how {@link Validator} splits the analysis into tasks.
+ */
+@ExtendWith( MockitoExtension.class )
+class ValidatorTest
+{
+    @Mock
+    private JobProgress progress;
+
+    @Test
+    void testGetChunkSize_NoOrgUnits()
+    {
+        assertEquals( 20, Validator.getChunkSize( 0, 4 ) );
+    }
+
+    @Test
+    void testGetChunkSize_FewerOrgUnitsThanThreads()
+    {
+        assertEquals( 20, Validator.getChunkSize( 3, 8 ) );
+    }
+
+    @Test
+    void testGetChunkSize_TasksPerThread()
+    {
+        assertEquals( 32, Validator.getChunkSize( 1001, 4 ) );
+    }
+
+    @Test
+    void testGetChunkSize_MaxOrgUnitsPerTask()
+    {
+        assertEquals( ValidationRunContext.ORG_UNITS_PER_TASK, Validator.getChunkSize( 100_000, 2 ) );
+    }
+
+    @Test
+    void testSplitIntoTasks_NoOrgUnits()
+    {
+        assertTrue( Validator.splitIntoTasks( createContext( 0 ), 20 ).isEmpty() );
+    }
+
+    @Test
+    void testSplitIntoTasks_FewerOrgUnitsThanChunkSize()
+    {
+        ValidationRunContext context = createContext( 3 );
+
+        List<ValidationTask> tasks = Validator.splitIntoTasks( context, 20 );
+
+        assertEquals( 2, tasks.size(), "one task per period type" );
+        tasks.forEach( task -> assertEquals( context.getOrgUnits(), task.getOrgUnits() ) );
+        assertEquals( "Monthly 0-2", tasks.get( 0 ).toString() );
+    }
+
+    @Test
+    void testSplitIntoTasks_Remainder()
+    {
+        ValidationRunContext context = createContext( 1001 );
+
+        List<ValidationTask> tasks = Validator.splitIntoTasks( context, 32 );
+
+        assertEquals( 2 * 32, tasks.size() );
+        assertEquals( List.of( 32, 9 ), List.of( tasks.get( 30 ).getOrgUnits().size(),
+            tasks.get( 31 ).getOrgUnits().size() ) );
+        assertEquals( "Monthly 992-1000", tasks.get( 31 ).toString() );
+        assertEquals( context.getPeriodTypeXs().get( 1 ), tasks.get( 32 ).getPeriodTypeX() );
+        assertEquals( 1001, tasks.stream().limit( 32 ).mapToInt( task -> task.getOrgUnits().size() ).sum() );
+    }
+
+    @Test
+    void testValidate_NoOrgUnits()
+    {
+        assertTrue( Validator.validate( createContext( 0 ), null, progress ).isEmpty() );
+
+        verifyNoInteractions( progress );
+    }
+
+    private static ValidationRunContext createContext( int orgUnitCount )
+    {
+        List<OrganisationUnit> orgUnits = IntStream.range( 0, orgUnitCount )
+            .mapToObj( i -> new OrganisationUnit( "OrgUnit" + i ) )
+            .collect( Collectors.toList() );
+        return ValidationRunContext.newBuilder()
+            .withOrgUnits( orgUnits )
+            .withPeriodTypeXs( List.of( new PeriodTypeExtended( new MonthlyPeriodType() ),
+                new PeriodTypeExtended( new QuarterlyPeriodType() ) ) )
+            .withDefaultAttributeCombo( createCategoryOptionCombo( 'A', 'B' ) )
+            .build();
+    }
+}
@@ -108,6 +108,7 @@ public class DefaultEnrollmentService implements org.hisp.dhis.tracker.export.en
         }
 
         Enrollment result = new Enrollment();
+        result.setId( enrollment.getId() );
         result.setUid( enrollment.getUid() );
 
         if ( enrollment.getTrackedEntity() != null )
@@ -224,7 +225,16 @@ public class DefaultEnrollmentService implements org.hisp.dhis.tracker.export.en
             }
             else
             {
-                pager = handleLastPageFlag( queryParams, enrollmentList );
+                SlimPager slimPager = handleLastPageFlag( queryParams, enrollmentList );
+
+                // the next page continues after the last enrollment of the
+                // store, also if access filtering removes it from this page
+                if ( params.isKeysetPaging() && !slimPager.isLastPage() && !enrollmentList.isEmpty() )
+                {
+                    enrollments.setNextPageAfterId( enrollmentList.get( enrollmentList.size() - 1 ).getId() );
+                }
+
+                pager = slimPager;
             }
 
             enrollments.setPager( pager );
@@ -250,7 +260,7 @@ public class DefaultEnrollmentService implements org.hisp.dhis.tracker.export.en
      * @param enrollments the reference to the list of Enrollment
      * @return the populated SlimPager instance
      */
-    private Pager handleLastPageFlag( EnrollmentQueryParams params,
+    private SlimPager handleLastPageFlag( EnrollmentQueryParams params,
         List<Enrollment> enrollments )
     {
         Integer originalPage = defaultIfNull( params.getPage(), FIRST_PAGE );
@@ -134,6 +134,18 @@ public class EnrollmentOperationParams
      */
     private final boolean skipPaging;
 
+    /**
+     * Indicates whether to page in primary key order, seeking past
+     * {@link #afterId} instead of skipping rows with an offset.
+     */
+    private final boolean keysetPaging;
+
+    /**
+     * Primary key of the last enrollment of the previous page when using keyset
+     * paging, or null for the first page.
+     */
+    private final Long afterId;
+
     /**
      * Indicates whether to include soft-deleted enrollments
      */
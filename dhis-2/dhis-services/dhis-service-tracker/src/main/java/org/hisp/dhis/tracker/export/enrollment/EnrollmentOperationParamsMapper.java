@@ -109,6 +109,8 @@ class EnrollmentOperationParamsMapper
             params.setSkipPaging( operationParams.isSkipPaging() );
         }
         params.setTotalPages( operationParams.isTotalPages() );
+        params.setKeysetPaging( operationParams.isKeysetPaging() );
+        params.setAfterId( operationParams.getAfterId() );
         params.setIncludeDeleted( operationParams.isIncludeDeleted() );
         params.setUser( user );
         params.setOrder( operationParams.getOrder() );
@@ -47,6 +47,12 @@ public class Enrollments
 
     private Pager pager;
 
+    /**
+     * Primary key of the last enrollment fetched for this page before access
+     * filtering, or null if keyset paging is not used or no page follows.
+     */
+    private Long nextPageAfterId;
+
     public Enrollments()
     {
     }
@@ -74,6 +80,16 @@ public class Enrollments
         this.pager = pager;
     }
 
+    public Long getNextPageAfterId()
+    {
+        return nextPageAfterId;
+    }
+
+    public void setNextPageAfterId( Long nextPageAfterId )
+    {
+        this.nextPageAfterId = nextPageAfterId;
+    }
+
     @Override
     public boolean equals( Object o )
     {
@@ -160,6 +160,18 @@ public class EventSearchParams
 
     private boolean skipPaging;
 
+    /**
+     * Page in primary key order, seeking past {@link #afterId} instead of
+     * skipping rows with an offset.
+     */
+    private boolean keysetPaging;
+
+    /**
+     * Primary key of the last event of the previous page when using keyset
+     * paging, or null for the first page.
+     */
+    private Long afterId;
+
     private boolean includeRelationships;
 
     private final List<OrderParam> orders = new ArrayList<>();
@@ -621,6 +633,28 @@ public class EventSearchParams
         return this;
     }
 
+    public boolean isKeysetPaging()
+    {
+        return keysetPaging;
+    }
+
+    public EventSearchParams setKeysetPaging( boolean keysetPaging )
+    {
+        this.keysetPaging = keysetPaging;
+        return this;
+    }
+
+    public Long getAfterId()
+    {
+        return afterId;
+    }
+
+    public EventSearchParams setAfterId( Long afterId )
+    {
+        this.afterId = afterId;
+        return this;
+    }
+
     public boolean isIncludeAttributes()
     {
         return includeAttributes;
@@ -297,6 +297,7 @@ public class JdbcEventStore implements EventStore
                 validateIdentifiersPresence( resultSet, params.getIdSchemes() );
 
                 Event event = new Event();
+                event.setId( resultSet.getLong( "psi_id" ) );
 
                 if ( !params.isSkipEventId() )
                 {
@@ -1014,6 +1015,14 @@ public class JdbcEventStore implements EventStore
                 .append( " psi.deleted is false " );
         }
 
+        if ( params.getAfterId() != null )
+        {
+            mapSqlParameterSource.addValue( "afterId", params.getAfterId() );
+
+            fromBuilder.append( hlp.whereAnd() )
+                .append( " psi.programstageinstanceid > :afterId " );
+        }
+
         if ( params.hasSecurityFilter() )
         {
             mapSqlParameterSource.addValue( "program_uid", params.getAccessiblePrograms()
@@ -1513,10 +1522,12 @@ public class JdbcEventStore implements EventStore
 
         if ( !params.isSkipPaging() )
         {
+            // With keyset paging the previous pages are excluded by the
+            // afterId condition instead of being skipped by an offset
             sqlBuilder.append( "limit " )
                 .append( pageSize )
                 .append( " offset " )
-                .append( params.getOffset() )
+                .append( params.isKeysetPaging() ? 0 : params.getOffset() )
                 .append( " " );
         }
 
@@ -1563,6 +1574,11 @@ public class JdbcEventStore implements EventStore
 
     private String getOrderQuery( EventSearchParams params )
     {
+        if ( params.isKeysetPaging() )
+        {
+            return "order by psi_id asc ";
+        }
+
         ArrayList<String> orderFields = new ArrayList<>();
 
         for ( OrderParam order : params.getOrders() )
@@ -315,14 +315,41 @@ public class DefaultTrackedEntityService implements TrackedEntityService
         TrackedEntityParams params )
         throws ForbiddenException,
         NotFoundException
+    {
+        return getTrackedEntityPage( queryParams, params ).getTrackedEntities();
+    }
+
+    @Override
+    public TrackedEntities getTrackedEntityPage( TrackedEntityQueryParams queryParams,
+        TrackedEntityParams params )
+        throws ForbiddenException,
+        NotFoundException
     {
         if ( queryParams == null )
         {
-            return Collections.emptyList();
+            return new TrackedEntities( Collections.emptyList(), null );
         }
 
-        final List<Long> ids = teiService.getTrackedEntityIds( queryParams, false, false );
+        List<Long> ids = teiService.getTrackedEntityIds( queryParams, false, false );
+        Long nextPageAfterId = null;
 
+        // with keyset paging the store fetches one more row than the page
+        // size to tell whether a next page follows
+        if ( queryParams.isKeysetPaging() && queryParams.isPaging()
+            && ids.size() > queryParams.getPageSizeWithDefault() )
+        {
+            ids = ids.subList( 0, queryParams.getPageSizeWithDefault() );
+            nextPageAfterId = ids.get( ids.size() - 1 );
+        }
+
+        return new TrackedEntities( getTrackedEntities( ids, queryParams, params ), nextPageAfterId );
+    }
+
+    private List<TrackedEntity> getTrackedEntities( List<Long> ids, TrackedEntityQueryParams queryParams,
+        TrackedEntityParams params )
+        throws ForbiddenException,
+        NotFoundException
+    {
         if ( ids.isEmpty() )
         {
             return Collections.emptyList();
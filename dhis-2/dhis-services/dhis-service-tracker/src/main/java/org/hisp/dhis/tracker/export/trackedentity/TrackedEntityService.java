@@ -63,6 +63,24 @@ public interface TrackedEntityService
         throws ForbiddenException,
         NotFoundException;
 
+    /**
+     * Fetches a page of {@see TrackedEntity}s based on the specified
+     * parameters. With keyset paging the page also carries the primary key to
+     * continue after, which is taken from the fetched rows before tracked
+     * entities the user does not own are filtered out.
+     *
+     * @param queryParams a {@see TrackedEntityQueryParams} instance with the
+     *        query parameters
+     * @param params a {@see TrackedEntityParams} instance containing the
+     *        directives for how much data should be fetched (e.g. Enrollments,
+     *        Events, Relationships)
+     * @return {@see TrackedEntities}
+     */
+    TrackedEntities getTrackedEntityPage( TrackedEntityQueryParams queryParams,
+        TrackedEntityParams params )
+        throws ForbiddenException,
+        NotFoundException;
+
     int getTrackedEntityCount( TrackedEntityQueryParams params, boolean skipAccessValidation,
         boolean skipSearchScopeValidation );
 }
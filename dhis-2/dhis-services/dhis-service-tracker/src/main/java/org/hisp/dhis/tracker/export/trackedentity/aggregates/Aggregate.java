@@ -27,12 +27,14 @@
  */
 package org.hisp.dhis.tracker.export.trackedentity.aggregates;
 
+import static java.util.concurrent.CompletableFuture.completedFuture;
 import static java.util.concurrent.CompletableFuture.supplyAsync;
 
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.Executor;
 import java.util.function.Supplier;
 
+import org.hisp.dhis.system.thread.BoundedExecutor;
+
 import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.Multimap;
 
@@ -43,33 +45,51 @@ interface Aggregate
 {
     /**
      * Executes the Supplier asynchronously using the thread pool from the
-     * provided {@see Executor}
+     * provided {@see BoundedExecutor}
      *
+     * @param stage the name of the stage, used for timing metrics
      * @param condition A condition that, if true, executes the Supplier, if
      *        false, returns an empty Multimap
      * @param supplier The Supplier to execute
-     * @param executor an Executor instance
+     * @param executor a BoundedExecutor instance
+     *
+     * @return A CompletableFuture with the result of the Supplier
+     */
+    default <T> CompletableFuture<Multimap<String, T>> conditionalAsyncFetch( String stage, boolean condition,
+        Supplier<Multimap<String, T>> supplier, BoundedExecutor executor )
+    {
+        return condition ? timedAsyncFetch( stage, supplier, executor ) : completedFuture( ArrayListMultimap.create() );
+    }
+
+    /**
+     * Executes the Supplier asynchronously using the thread pool from the
+     * provided {@see BoundedExecutor}
+     *
+     * @param stage the name of the stage, used for timing metrics
+     * @param supplier The Supplier to execute
      *
      * @return A CompletableFuture with the result of the Supplier
      */
-    default <T> CompletableFuture<Multimap<String, T>> conditionalAsyncFetch( boolean condition,
-        Supplier<Multimap<String, T>> supplier, Executor executor )
+    default <T> CompletableFuture<Multimap<String, T>> asyncFetch( String stage, Supplier<Multimap<String, T>> supplier,
+        BoundedExecutor executor )
     {
-        return (condition ? supplyAsync( supplier, executor ) : supplyAsync( ArrayListMultimap::create, executor ));
+        return timedAsyncFetch( stage, supplier, executor );
     }
 
     /**
      * Executes the Supplier asynchronously using the thread pool from the
-     * provided {@see Executor}
+     * provided {@see BoundedExecutor}, recording the time spent waiting for a
+     * thread and executing the Supplier for the given stage
      *
+     * @param stage the name of the stage, used for timing metrics
      * @param supplier The Supplier to execute
+     * @param executor a BoundedExecutor instance
      *
      * @return A CompletableFuture with the result of the Supplier
      */
-    default <T> CompletableFuture<Multimap<String, T>> asyncFetch( Supplier<Multimap<String, T>> supplier,
-        Executor executor )
+    default <T> CompletableFuture<T> timedAsyncFetch( String stage, Supplier<T> supplier, BoundedExecutor executor )
     {
-        return supplyAsync( supplier, executor );
+        return supplyAsync( executor.timed( stage, supplier ), executor );
     }
 
 }
@@ -28,7 +28,6 @@
 package org.hisp.dhis.tracker.export.trackedentity.aggregates;
 
 import static java.util.concurrent.CompletableFuture.allOf;
-import static org.hisp.dhis.tracker.export.trackedentity.aggregates.ThreadPoolManager.getPool;
 
 import java.util.ArrayList;
 import java.util.HashSet;
@@ -60,6 +59,9 @@ public class EnrollmentAggregate
     implements
     Aggregate
 {
+    @Nonnull
+    private final ThreadPoolManager threadPoolManager;
+
     @Qualifier( "org.hisp.dhis.tracker.trackedentity.aggregates.EnrollmentStore" )
     @Nonnull
     private final EnrollmentStore enrollmentStore;
@@ -90,19 +92,19 @@ public class EnrollmentAggregate
             .collect( Collectors.toList() );
 
         final CompletableFuture<Multimap<String, Event>> eventAsync = conditionalAsyncFetch(
-            ctx.getParams().getEnrollmentParams().isIncludeEvents(),
-            () -> eventAggregate.findByEnrollmentIds( enrollmentIds, ctx ), getPool() );
+            "events", ctx.getParams().getEnrollmentParams().isIncludeEvents(),
+            () -> eventAggregate.findByEnrollmentIds( enrollmentIds, ctx ), threadPoolManager.getPool() );
 
         final CompletableFuture<Multimap<String, RelationshipItem>> relationshipAsync = conditionalAsyncFetch(
-            ctx.getParams().getEnrollmentParams().isIncludeRelationships(),
-            () -> enrollmentStore.getRelationships( enrollmentIds, ctx ), getPool() );
+            "enrollmentRelationships", ctx.getParams().getEnrollmentParams().isIncludeRelationships(),
+            () -> enrollmentStore.getRelationships( enrollmentIds, ctx ), threadPoolManager.getPool() );
 
         final CompletableFuture<Multimap<String, TrackedEntityComment>> notesAsync = asyncFetch(
-            () -> enrollmentStore.getNotes( enrollmentIds ), getPool() );
+            "enrollmentNotes", () -> enrollmentStore.getNotes( enrollmentIds ), threadPoolManager.getPool() );
 
         final CompletableFuture<Multimap<String, TrackedEntityAttributeValue>> attributesAsync = conditionalAsyncFetch(
-            ctx.getParams().getTeiEnrollmentParams().isIncludeAttributes(),
-            () -> enrollmentStore.getAttributes( enrollmentIds, ctx ), getPool() );
+            "enrollmentAttributes", ctx.getParams().getTeiEnrollmentParams().isIncludeAttributes(),
+            () -> enrollmentStore.getAttributes( enrollmentIds, ctx ), threadPoolManager.getPool() );
 
         return allOf( eventAsync, notesAsync, relationshipAsync, attributesAsync ).thenApplyAsync( fn -> {
 
@@ -133,6 +135,6 @@ public class EnrollmentAggregate
 
             return enrollments;
 
-        }, getPool() ).join();
+        }, threadPoolManager.getPool() ).join();
     }
 }
@@ -28,8 +28,6 @@
 package org.hisp.dhis.tracker.export.trackedentity.aggregates;
 
 import static java.util.concurrent.CompletableFuture.allOf;
-import static java.util.concurrent.CompletableFuture.supplyAsync;
-import static org.hisp.dhis.tracker.export.trackedentity.aggregates.ThreadPoolManager.getPool;
 
 import java.util.ArrayList;
 import java.util.HashSet;
@@ -60,6 +58,9 @@ public class EventAggregate
     implements
     Aggregate
 {
+    @Nonnull
+    private final ThreadPoolManager threadPoolManager;
+
     @Qualifier( "org.hisp.dhis.tracker.trackedentity.aggregates.EventStore" )
     @Nonnull
     private final EventStore eventStore;
@@ -91,20 +92,20 @@ public class EventAggregate
          * isIncludeRelationships = true)
          */
         final CompletableFuture<Multimap<String, RelationshipItem>> relationshipAsync = conditionalAsyncFetch(
-            ctx.getParams().getEventParams().isIncludeRelationships(),
-            () -> eventStore.getRelationships( eventIds, ctx ), getPool() );
+            "eventRelationships", ctx.getParams().getEventParams().isIncludeRelationships(),
+            () -> eventStore.getRelationships( eventIds, ctx ), threadPoolManager.getPool() );
 
         /*
          * Async fetch Notes for the given Event ids
          */
         final CompletableFuture<Multimap<String, TrackedEntityComment>> notesAsync = asyncFetch(
-            () -> eventStore.getNotes( eventIds ), getPool() );
+            "eventNotes", () -> eventStore.getNotes( eventIds ), threadPoolManager.getPool() );
 
         /*
          * Async fetch DataValues for the given Event ids
          */
-        final CompletableFuture<Map<String, List<EventDataValue>>> dataValuesAsync = supplyAsync(
-            () -> eventStore.getDataValues( eventIds ), getPool() );
+        final CompletableFuture<Map<String, List<EventDataValue>>> dataValuesAsync = timedAsyncFetch(
+            "eventDataValues", () -> eventStore.getDataValues( eventIds ), threadPoolManager.getPool() );
 
         return allOf( dataValuesAsync, notesAsync, relationshipAsync ).thenApplyAsync( fn -> {
 
@@ -129,6 +130,6 @@ public class EventAggregate
 
             return events;
 
-        }, getPool() ).join();
+        }, threadPoolManager.getPool() ).join();
     }
 }
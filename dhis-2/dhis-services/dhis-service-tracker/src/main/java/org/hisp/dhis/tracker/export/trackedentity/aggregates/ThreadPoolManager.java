@@ -27,39 +27,42 @@
  */
 package org.hisp.dhis.tracker.export.trackedentity.aggregates;
 
-import java.util.concurrent.Executor;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ThreadFactory;
+import static org.hisp.dhis.external.conf.ConfigurationKey.TRACKER_EXPORT_THREAD_POOL_SIZE;
 
-import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import javax.annotation.PreDestroy;
+
+import org.hisp.dhis.external.conf.DhisConfigurationProvider;
+import org.hisp.dhis.system.thread.BoundedExecutor;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.MeterRegistry;
 
 /**
- * Exposes a static method to fetch an Executor for the Aggregates operations
+ * Holds the Executor for the Aggregates operations. The number of threads is
+ * bounded by the {@code tracker.export.thread_pool.size} configuration
+ * property.
  *
  * @author Luciano Fiandesio
  */
+@Component( "org.hisp.dhis.tracker.trackedentity.aggregates.ThreadPoolManager" )
 public class ThreadPoolManager
 {
-    // Thread factory that sets a user-defined thread name (useful for debugging
-    // purposes)
-    private ThreadPoolManager()
+    private final BoundedExecutor aggregateThreadPool;
+
+    public ThreadPoolManager( DhisConfigurationProvider config, MeterRegistry meterRegistry )
     {
-        throw new IllegalStateException( "only used for its static fields" );
+        this.aggregateThreadPool = new BoundedExecutor( "tracker.export",
+            Integer.parseInt( config.getProperty( TRACKER_EXPORT_THREAD_POOL_SIZE ) ), meterRegistry );
     }
 
-    private static final ThreadFactory threadFactory = new ThreadFactoryBuilder()
-        .setNameFormat( "TRACKER-TEI-FETCH-%d" )
-        .setDaemon( true )
-        .build();
-
-    /**
-     * Cached thread pool: not bound to a size, but can reuse existing threads.
-     */
-    private static final Executor AGGREGATE_THREAD_POOL = Executors.newCachedThreadPool( threadFactory );
-
-    static Executor getPool()
+    BoundedExecutor getPool()
     {
-        return AGGREGATE_THREAD_POOL;
+        return aggregateThreadPool;
     }
 
+    @PreDestroy
+    public void shutdown()
+    {
+        aggregateThreadPool.shutdown();
+    }
 }
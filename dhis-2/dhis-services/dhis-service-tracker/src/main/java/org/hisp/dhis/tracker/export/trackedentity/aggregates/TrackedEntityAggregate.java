@@ -28,8 +28,6 @@
 package org.hisp.dhis.tracker.export.trackedentity.aggregates;
 
 import static java.util.concurrent.CompletableFuture.allOf;
-import static java.util.concurrent.CompletableFuture.supplyAsync;
-import static org.hisp.dhis.tracker.export.trackedentity.aggregates.ThreadPoolManager.*;
 
 import java.util.Collection;
 import java.util.Collections;
@@ -79,6 +77,9 @@ public class TrackedEntityAggregate
     implements
     Aggregate
 {
+    @Nonnull
+    private final ThreadPoolManager threadPoolManager;
+
     @Nonnull
     private final TrackedEntityStore trackedEntityStore;
 
@@ -168,43 +169,45 @@ public class TrackedEntityAggregate
          * isIncludeRelationships = true)
          */
         final CompletableFuture<Multimap<String, RelationshipItem>> relationshipsAsync = conditionalAsyncFetch(
-            ctx.getParams().isIncludeRelationships(), () -> trackedEntityStore.getRelationships( ids, ctx ),
-            getPool() );
+            "trackedEntityRelationships", ctx.getParams().isIncludeRelationships(),
+            () -> trackedEntityStore.getRelationships( ids, ctx ),
+            threadPoolManager.getPool() );
 
         /*
          * Async fetch Enrollments for the given TrackedEntity id (only if
          * isIncludeEnrollments = true)
          */
         final CompletableFuture<Multimap<String, Enrollment>> enrollmentsAsync = conditionalAsyncFetch(
-            ctx.getParams().isIncludeEnrollments(),
-            () -> enrollmentAggregate.findByTrackedEntityIds( ids, ctx ), getPool() );
+            "enrollments", ctx.getParams().isIncludeEnrollments(),
+            () -> enrollmentAggregate.findByTrackedEntityIds( ids, ctx ), threadPoolManager.getPool() );
 
         /*
          * Async fetch all ProgramOwner for the given TrackedEntity id
          */
         final CompletableFuture<Multimap<String, TrackedEntityProgramOwner>> programOwnersAsync = conditionalAsyncFetch(
-            ctx.getParams().isIncludeProgramOwners(), () -> trackedEntityStore.getProgramOwners( ids ),
-            getPool() );
+            "trackedEntityProgramOwners", ctx.getParams().isIncludeProgramOwners(),
+            () -> trackedEntityStore.getProgramOwners( ids ),
+            threadPoolManager.getPool() );
 
         /*
          * Async Fetch TrackedEntities by id
          */
-        final CompletableFuture<Map<String, TrackedEntity>> teisAsync = supplyAsync(
-            () -> trackedEntityStore.getTrackedEntities( ids, ctx ), getPool() );
+        final CompletableFuture<Map<String, TrackedEntity>> teisAsync = timedAsyncFetch(
+            "trackedEntities", () -> trackedEntityStore.getTrackedEntities( ids, ctx ), threadPoolManager.getPool() );
 
         /*
          * Async fetch TrackedEntity Attributes by TrackedEntity id
          */
-        final CompletableFuture<Multimap<String, TrackedEntityAttributeValue>> attributesAsync = supplyAsync(
-            () -> trackedEntityStore.getAttributes( ids ), getPool() );
+        final CompletableFuture<Multimap<String, TrackedEntityAttributeValue>> attributesAsync = timedAsyncFetch(
+            "trackedEntityAttributes", () -> trackedEntityStore.getAttributes( ids ), threadPoolManager.getPool() );
 
         /*
          * Async fetch Owned Tei mapped to the provided program attributes by
          * TrackedEntity id
          */
         final CompletableFuture<Multimap<String, String>> ownedTeiAsync = conditionalAsyncFetch(
-            user.isPresent(),
-            () -> trackedEntityStore.getOwnedTeis( ids, ctx ), getPool() );
+            "trackedEntityOwnedTeis", user.isPresent(),
+            () -> trackedEntityStore.getOwnedTeis( ids, ctx ), threadPoolManager.getPool() );
 
         /*
          * Execute all queries and merge the results
@@ -244,7 +247,7 @@ public class TrackedEntityAggregate
                     return tei;
 
                 } ).collect( Collectors.toList() );
-            }, getPool() ).join();
+            }, threadPoolManager.getPool() ).join();
 
     }
 
@@ -321,19 +324,21 @@ public class TrackedEntityAggregate
      */
     private Context getSecurityContext( String userUID, List<String> userGroupUIDs )
     {
-        final CompletableFuture<List<Long>> getTeiTypes = supplyAsync(
-            () -> aclStore.getAccessibleTrackedEntityTypes( userUID, userGroupUIDs ),
-            getPool() );
+        final CompletableFuture<List<Long>> getTeiTypes = timedAsyncFetch(
+            "aclTrackedEntityTypes", () -> aclStore.getAccessibleTrackedEntityTypes( userUID, userGroupUIDs ),
+            threadPoolManager.getPool() );
 
-        final CompletableFuture<List<Long>> getPrograms = supplyAsync(
-            () -> aclStore.getAccessiblePrograms( userUID, userGroupUIDs ),
-            getPool() );
+        final CompletableFuture<List<Long>> getPrograms = timedAsyncFetch(
+            "aclPrograms", () -> aclStore.getAccessiblePrograms( userUID, userGroupUIDs ),
+            threadPoolManager.getPool() );
 
-        final CompletableFuture<List<Long>> getProgramStages = supplyAsync(
-            () -> aclStore.getAccessibleProgramStages( userUID, userGroupUIDs ), getPool() );
+        final CompletableFuture<List<Long>> getProgramStages = timedAsyncFetch(
+            "aclProgramStages", () -> aclStore.getAccessibleProgramStages( userUID, userGroupUIDs ),
+            threadPoolManager.getPool() );
 
-        final CompletableFuture<List<Long>> getRelationshipTypes = supplyAsync(
-            () -> aclStore.getAccessibleRelationshipTypes( userUID, userGroupUIDs ), getPool() );
+        final CompletableFuture<List<Long>> getRelationshipTypes = timedAsyncFetch(
+            "aclRelationshipTypes", () -> aclStore.getAccessibleRelationshipTypes( userUID, userGroupUIDs ),
+            threadPoolManager.getPool() );
 
         return allOf( getTeiTypes, getPrograms, getProgramStages, getRelationshipTypes ).thenApplyAsync(
             fn -> Context.builder()
@@ -342,7 +347,7 @@ public class TrackedEntityAggregate
                 .programStages( getProgramStages.join() )
                 .relationshipTypes( getRelationshipTypes.join() )
                 .build(),
-            getPool() )
+            threadPoolManager.getPool() )
             .join();
     }
 }
@@ -60,6 +60,7 @@ public class TrackedEntityRowCallbackHandler
     {
 
         TrackedEntity tei = new TrackedEntity();
+        tei.setId( rs.getLong( TrackedEntityQuery.getColumnName( COLUMNS.TRACKEDENTITYINSTANCEID ) ) );
         tei.setUid(
             rs.getString( TrackedEntityQuery.getColumnName( COLUMNS.UID ) ) );
         TrackedEntityType trackedEntityType = new TrackedEntityType();
@@ -44,6 +44,7 @@ public class ParamsConverter
             .skipRuleEngine( params.isSkipRuleEngine() )
             .flushMode( params.getFlushMode() )
             .validationMode( params.getValidationMode() )
+            .parallelValidation( params.isParallelValidation() )
             .trackedEntities( params.getTrackedEntities() )
             .enrollments( params.getEnrollments() )
             .events( params.getEvents() )
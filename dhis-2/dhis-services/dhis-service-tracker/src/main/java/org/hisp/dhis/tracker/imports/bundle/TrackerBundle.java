@@ -65,7 +65,7 @@ import com.fasterxml.jackson.annotation.JsonProperty;
  * @author Morten Olav Hansen <mortenoh@gmail.com>
  */
 @Data
-@Builder
+@Builder( toBuilder = true )
 @AllArgsConstructor
 public class TrackerBundle
 {
@@ -122,6 +122,11 @@ public class TrackerBundle
     @Builder.Default
     private ValidationMode validationMode = ValidationMode.FULL;
 
+    /**
+     * Should independent tracked entity trees be validated in parallel.
+     */
+    private boolean parallelValidation;
+
     /**
      * Preheat bundle for all attached objects (or null if preheat not run yet).
      */
@@ -29,21 +29,32 @@ package org.hisp.dhis.tracker.imports.programrule;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
 
 import org.apache.commons.collections4.ListUtils;
+import org.hisp.dhis.commons.timer.SystemTimer;
+import org.hisp.dhis.commons.timer.Timer;
 import org.hisp.dhis.program.Enrollment;
 import org.hisp.dhis.program.Event;
 import org.hisp.dhis.program.Program;
+import org.hisp.dhis.program.ProgramStage;
 import org.hisp.dhis.programrule.engine.ProgramRuleEngine;
+import org.hisp.dhis.rules.RuleEngineContext;
 import org.hisp.dhis.rules.models.RuleEffects;
+import org.hisp.dhis.system.thread.BoundedExecutor;
 import org.hisp.dhis.trackedentity.TrackedEntity;
 import org.hisp.dhis.trackedentityattributevalue.TrackedEntityAttributeValue;
 import org.hisp.dhis.tracker.imports.bundle.TrackerBundle;
@@ -58,6 +69,7 @@ import org.springframework.transaction.annotation.Transactional;
 /**
  * @author Enrico Colasante
  */
+@Slf4j
 @Service
 @RequiredArgsConstructor
 class DefaultProgramRuleService
@@ -76,6 +88,8 @@ class DefaultProgramRuleService
 
     private final RuleActionEventMapper ruleActionEventMapper;
 
+    private final RuleEngineThreadPoolManager ruleEngineThreadPoolManager;
+
     @Override
     @Transactional( readOnly = true )
     public void calculateRuleEffects( TrackerBundle bundle, TrackerPreheat preheat )
@@ -96,18 +110,18 @@ class DefaultProgramRuleService
 
     private List<RuleEffects> calculateEnrollmentRuleEffects( TrackerBundle bundle, TrackerPreheat preheat )
     {
-        return bundle.getEnrollments()
+        List<EnrollmentRuleInput> inputs = bundle.getEnrollments()
             .stream()
-            .flatMap( e -> {
+            .map( e -> {
                 Enrollment enrollment = enrollmentTrackerConverterService.fromForRuleEngine( preheat, e );
 
-                return programRuleEngine
-                    .evaluateEnrollmentAndEvents( enrollment,
-                        getEventsFromEnrollment( enrollment.getUid(), bundle, preheat ),
-                        getAttributes( e.getEnrollment(), e.getTrackedEntity(), bundle, preheat ) )
-                    .stream();
+                return new EnrollmentRuleInput( enrollment,
+                    getEventsFromEnrollment( enrollment.getUid(), bundle, preheat ),
+                    getAttributes( e.getEnrollment(), e.getTrackedEntity(), bundle, preheat ) );
             } )
             .collect( Collectors.toList() );
+
+        return evaluateEnrollments( inputs );
     }
 
     private List<RuleEffects> calculateTrackerEventRuleEffects( TrackerBundle bundle, TrackerPreheat preheat )
@@ -119,14 +133,59 @@ class DefaultProgramRuleService
             .map( event -> preheat.getEnrollment( event.getEnrollment() ) )
             .collect( Collectors.toSet() );
 
-        return enrollments
+        List<EnrollmentRuleInput> inputs = enrollments
             .stream()
-            .flatMap( enrollment -> programRuleEngine.evaluateEnrollmentAndEvents(
-                enrollment,
+            .map( enrollment -> new EnrollmentRuleInput( enrollment,
                 getEventsFromEnrollment( enrollment.getUid(), bundle, preheat ),
-                getAttributes( enrollment.getUid(), enrollment.getTrackedEntity().getUid(), bundle, preheat ) )
-                .stream() )
+                getAttributes( enrollment.getUid(), enrollment.getTrackedEntity().getUid(), bundle, preheat ) ) )
             .collect( Collectors.toList() );
+
+        return evaluateEnrollments( inputs );
+    }
+
+    /**
+     * Evaluates the program rules of the given enrollments program by program.
+     * The rule engine context is created once per program and set of program
+     * stages the events are in. Enrollments are mapped to the rule engine
+     * model by the calling thread and then evaluated in parallel.
+     */
+    private List<RuleEffects> evaluateEnrollments( List<EnrollmentRuleInput> inputs )
+    {
+        Map<Program, List<EnrollmentRuleInput>> inputsByProgram = inputs.stream()
+            .collect( Collectors.groupingBy( input -> input.getEnrollment().getProgram(), LinkedHashMap::new,
+                Collectors.toList() ) );
+
+        List<RuleEffects> ruleEffects = new ArrayList<>();
+        inputsByProgram.forEach( ( program, programInputs ) -> {
+            Timer timer = new SystemTimer().start();
+
+            Map<Set<ProgramStage>, RuleEngineContext> contexts = new HashMap<>();
+            List<CompletableFuture<List<RuleEffects>>> evaluations = new ArrayList<>();
+            for ( EnrollmentRuleInput input : programInputs )
+            {
+                Set<ProgramStage> programStages = input.getEvents().stream()
+                    .map( Event::getProgramStage )
+                    .collect( Collectors.toSet() );
+                RuleEngineContext context = contexts.computeIfAbsent( programStages,
+                    stages -> programRuleEngine.getRuleEngineContext( program, List.copyOf( stages ) ) );
+
+                evaluations.add( evaluateAsync( programRuleEngine.prepareEnrollmentAndEvents( context,
+                    input.getEnrollment(), input.getEvents(), input.getAttributes() ) ) );
+            }
+            evaluations.forEach( evaluation -> ruleEffects.addAll( evaluation.join() ) );
+
+            timer.stop();
+            log.debug( "Import:RuleEngine[" + program.getUid() + "] evaluated " + programInputs.size()
+                + " enrollments with " + contexts.size() + " rule engine contexts in " + timer );
+        } );
+
+        return ruleEffects;
+    }
+
+    private CompletableFuture<List<RuleEffects>> evaluateAsync( Supplier<List<RuleEffects>> evaluation )
+    {
+        BoundedExecutor executor = ruleEngineThreadPoolManager.getPool();
+        return CompletableFuture.supplyAsync( executor.timed( "evaluation", evaluation ), executor );
     }
 
     private List<RuleEffects> calculateProgramEventRuleEffects( TrackerBundle bundle, TrackerPreheat preheat )
@@ -140,12 +199,19 @@ class DefaultProgramRuleService
             .entrySet()
             .stream()
             .flatMap( entry -> {
+                Timer timer = new SystemTimer().start();
+
                 List<Event> events = eventTrackerConverterService
                     .fromForRuleEngine( preheat, entry.getValue() );
 
-                return programRuleEngine.evaluateProgramEvents( new HashSet<>( events ),
-                    entry.getKey() )
-                    .stream();
+                List<RuleEffects> ruleEffects = programRuleEngine.evaluateProgramEvents( new HashSet<>( events ),
+                    entry.getKey() );
+
+                timer.stop();
+                log.debug( "Import:RuleEngine[" + entry.getKey().getUid() + "] evaluated " + events.size()
+                    + " events in " + timer );
+
+                return ruleEffects.stream();
             } )
             .collect( Collectors.toList() );
     }
@@ -201,4 +267,17 @@ class DefaultProgramRuleService
         return Stream.concat( events, bundleEvents ).collect( Collectors.toSet() );
 
     }
+
+    /**
+     * Enrollment with its events and attributes as input to the rule engine.
+     */
+    @Value
+    private static class EnrollmentRuleInput
+    {
+        Enrollment enrollment;
+
+        Set<Event> events;
+
+        List<TrackedEntityAttributeValue> attributes;
+    }
 }
@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.tracker.imports.programrule;
+
+import static org.hisp.dhis.external.conf.ConfigurationKey.TRACKER_IMPORT_RULE_ENGINE_THREAD_POOL_SIZE;
+
+import javax.annotation.PreDestroy;
+
+import org.hisp.dhis.external.conf.DhisConfigurationProvider;
+import org.hisp.dhis.system.thread.BoundedExecutor;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Holds the Executor for evaluating program rules of tracker imports in
+ * parallel. The number of threads is bounded by the
+ * {@code tracker.import.rule_engine.thread_pool.size} configuration property.
+ */
+@Component( "org.hisp.dhis.tracker.imports.programrule.RuleEngineThreadPoolManager" )
+public class RuleEngineThreadPoolManager
+{
+    private final BoundedExecutor ruleEngineThreadPool;
+
+    public RuleEngineThreadPoolManager( DhisConfigurationProvider config, MeterRegistry meterRegistry )
+    {
+        this.ruleEngineThreadPool = new BoundedExecutor( "tracker.import.rule_engine",
+            Integer.parseInt( config.getProperty( TRACKER_IMPORT_RULE_ENGINE_THREAD_POOL_SIZE ) ), meterRegistry );
+    }
+
+    BoundedExecutor getPool()
+    {
+        return ruleEngineThreadPool;
+    }
+
+    @PreDestroy
+    public void shutdown()
+    {
+        ruleEngineThreadPool.shutdown();
+    }
+}
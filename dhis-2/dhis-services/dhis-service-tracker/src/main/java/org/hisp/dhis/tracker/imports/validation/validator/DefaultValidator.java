@@ -57,6 +57,8 @@ public class DefaultValidator implements Validator<TrackerBundle>
 
     private final RelationshipValidator relationshipValidator;
 
+    private final ValidationThreadPoolManager validationThreadPoolManager;
+
     private Validator<TrackerBundle> bundleValidator()
     {
         // @formatter:off
@@ -70,7 +72,22 @@ public class DefaultValidator implements Validator<TrackerBundle>
 
     @Override
     public void validate(Reporter reporter, TrackerBundle bundle, TrackerBundle input) {
-        bundleValidator().validate(reporter, bundle, input);
+        if (!bundle.isParallelValidation() || reporter.isFailFast()) {
+            bundleValidator().validate(reporter, bundle, input);
+            return;
+        }
+
+        // trees of tracked entities, enrollments and events are independent of each other
+        // relationships can link any of them and are validated once all trees are validated
+        new ParallelTreeValidator(
+                all(
+                        trackedEntityValidator,
+                        enrollmentValidator,
+                        eventValidator
+                ),
+                validationThreadPoolManager.getPool()
+        ).validate(reporter, bundle, input);
+        all(relationshipValidator).validate(reporter, bundle, input);
     }
 
     @Override
@@ -0,0 +1,441 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.tracker.imports.validation.validator;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+import lombok.RequiredArgsConstructor;
+
+import org.hibernate.Hibernate;
+import org.hisp.dhis.category.CategoryOptionCombo;
+import org.hisp.dhis.dataelement.DataElement;
+import org.hisp.dhis.option.OptionSet;
+import org.hisp.dhis.program.Program;
+import org.hisp.dhis.program.ProgramStage;
+import org.hisp.dhis.system.thread.BoundedExecutor;
+import org.hisp.dhis.trackedentity.TrackedEntityAttribute;
+import org.hisp.dhis.trackedentity.TrackedEntityType;
+import org.hisp.dhis.tracker.imports.TrackerType;
+import org.hisp.dhis.tracker.imports.bundle.TrackerBundle;
+import org.hisp.dhis.tracker.imports.domain.Enrollment;
+import org.hisp.dhis.tracker.imports.domain.Event;
+import org.hisp.dhis.tracker.imports.domain.MetadataIdentifier;
+import org.hisp.dhis.tracker.imports.domain.TrackedEntity;
+import org.hisp.dhis.tracker.imports.domain.TrackerDto;
+import org.hisp.dhis.tracker.imports.preheat.TrackerPreheat;
+import org.hisp.dhis.tracker.imports.validation.Error;
+import org.hisp.dhis.tracker.imports.validation.Reporter;
+import org.hisp.dhis.tracker.imports.validation.Validation;
+import org.hisp.dhis.tracker.imports.validation.Validator;
+import org.hisp.dhis.tracker.imports.validation.Warning;
+import org.hisp.dhis.user.User;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+/**
+ * Validates the independent trees of a {@link TrackerBundle} in parallel. A
+ * tree is a tracked entity with its enrollments and their events. Events of
+ * programs without registration are trees of their own.
+ * <p>
+ * Each tree is validated with its own {@link Reporter} and with the tree as
+ * {@link TrackerBundle} so that validators comparing entities within the
+ * payload only see the entities of the same tree. The errors and warnings are
+ * then added to the given {@link Reporter} in the order sequential validation
+ * reports them: those of tracked entities, enrollments and events in this
+ * order, each in the order of the entities in the payload. Errors of the same
+ * entity keep the order they were reported in. The only exception are the
+ * errors of repeated events, which sequential validation reports after those
+ * of all events, while here they follow the other errors of their event.
+ * <p>
+ * The first tree that uses a tracked entity type, program or program stage is
+ * validated by the calling thread before any other tree. This way metadata
+ * shared by the trees is initialized before it is read concurrently. The lazy
+ * associations of the preheated entities and of the user are loaded by the
+ * calling thread as well, as their session must not be used by several threads.
+ * The other trees are validated with the security context of the calling
+ * thread.
+ */
+@RequiredArgsConstructor
+class ParallelTreeValidator implements Validator<TrackerBundle>
+{
+    /**
+     * Minimum number of entities validated by one task.
+     */
+    private static final int MIN_TASK_SIZE = 250;
+
+    private final Validator<TrackerBundle> treeValidator;
+
+    private final BoundedExecutor executor;
+
+    @Override
+    public void validate( Reporter reporter, TrackerBundle bundle, TrackerBundle input )
+    {
+        List<TrackerBundle> trees = partition( input );
+        if ( trees.size() < 2 )
+        {
+            treeValidator.validate( reporter, bundle, input );
+            return;
+        }
+
+        List<Reporter> results = new ArrayList<>();
+        List<TrackerBundle> remaining = new ArrayList<>();
+        Set<MetadataIdentifier> seen = new HashSet<>();
+        for ( TrackerBundle tree : trees )
+        {
+            if ( seen.addAll( getMetadata( tree ) ) )
+            {
+                results.add( validateTree( reporter, tree ) );
+            }
+            else
+            {
+                remaining.add( tree );
+            }
+        }
+
+        initialize( bundle );
+        SecurityContext context = SecurityContextHolder.getContext();
+        List<CompletableFuture<Reporter>> tasks = new ArrayList<>();
+        for ( TrackerBundle chunk : chunk( remaining ) )
+        {
+            tasks.add( CompletableFuture.supplyAsync(
+                executor.timed( "validation", () -> validateTree( reporter, chunk, context ) ), executor ) );
+        }
+        for ( CompletableFuture<Reporter> task : tasks )
+        {
+            results.add( join( task ) );
+        }
+
+        List<Error> errors = new ArrayList<>();
+        List<Warning> warnings = new ArrayList<>();
+        for ( Reporter result : results )
+        {
+            errors.addAll( result.getErrors() );
+            warnings.addAll( result.getWarnings() );
+        }
+        Map<TrackerType, Map<String, Integer>> positions = getPositions( input );
+        errors.sort( inPayloadOrder( positions, Error::getTrackerType ) );
+        warnings.sort( inPayloadOrder( positions, Warning::getTrackerType ) );
+        errors.forEach( reporter::addError );
+        warnings.forEach( reporter::addWarning );
+    }
+
+    private Reporter validateTree( Reporter reporter, TrackerBundle tree )
+    {
+        Reporter treeReporter = new Reporter( reporter.getIdSchemes() );
+        treeValidator.validate( treeReporter, tree, tree );
+        return treeReporter;
+    }
+
+    private Reporter validateTree( Reporter reporter, TrackerBundle tree, SecurityContext context )
+    {
+        SecurityContext previous = SecurityContextHolder.getContext();
+        SecurityContextHolder.setContext( context );
+        try
+        {
+            return validateTree( reporter, tree );
+        }
+        finally
+        {
+            SecurityContextHolder.setContext( previous );
+        }
+    }
+
+    /**
+     * Loads the lazy associations of the user and of the preheated entities
+     * read by the validators.
+     */
+    private static void initialize( TrackerBundle bundle )
+    {
+        initializeUser( bundle.getUser() );
+
+        TrackerPreheat preheat = bundle.getPreheat();
+        preheat.getAll( Program.class ).forEach( ParallelTreeValidator::initializeProgram );
+        preheat.getAll( ProgramStage.class ).forEach( ParallelTreeValidator::initializeProgramStage );
+        preheat.getAll( TrackedEntityType.class ).forEach( ParallelTreeValidator::initializeTrackedEntityType );
+        preheat.getAll( TrackedEntityAttribute.class )
+            .forEach( attribute -> initializeOptionSet( attribute.getOptionSet() ) );
+        preheat.getAll( DataElement.class ).forEach( dataElement -> initializeOptionSet( dataElement.getOptionSet() ) );
+        preheat.getAll( CategoryOptionCombo.class ).forEach( ParallelTreeValidator::initializeCategoryOptionCombo );
+        initializeCategoryOptionCombo( preheat.getDefault( CategoryOptionCombo.class ) );
+
+        preheat.getTrackedEntities().values().forEach( trackedEntity -> {
+            Hibernate.initialize( trackedEntity.getTrackedEntityType() );
+            Hibernate.initialize( trackedEntity.getOrganisationUnit() );
+            Hibernate.initialize( trackedEntity.getTrackedEntityAttributeValues() );
+            trackedEntity.getTrackedEntityAttributeValues()
+                .forEach( value -> Hibernate.initialize( value.getAttribute() ) );
+        } );
+        preheat.getEnrollments().values().forEach( enrollment -> {
+            Hibernate.initialize( enrollment.getProgram() );
+            Hibernate.initialize( enrollment.getTrackedEntity() );
+            Hibernate.initialize( enrollment.getOrganisationUnit() );
+        } );
+        preheat.getEvents().values().forEach( event -> {
+            Hibernate.initialize( event.getEnrollment() );
+            Hibernate.initialize( event.getProgramStage() );
+            Hibernate.initialize( event.getOrganisationUnit() );
+            initializeCategoryOptionCombo( event.getAttributeOptionCombo() );
+        } );
+        preheat.getProgramOwner().values().forEach( owners -> owners.values()
+            .forEach( owner -> Hibernate.initialize( owner.getOrganisationUnit() ) ) );
+    }
+
+    private static void initializeUser( User user )
+    {
+        if ( user == null )
+        {
+            return;
+        }
+        Hibernate.initialize( user.getOrganisationUnits() );
+        Hibernate.initialize( user.getTeiSearchOrganisationUnits() );
+        Hibernate.initialize( user.getDataViewOrganisationUnits() );
+        Hibernate.initialize( user.getGroups() );
+        Hibernate.initialize( user.getUserRoles() );
+        user.getUserRoles().forEach( role -> Hibernate.initialize( role.getAuthorities() ) );
+    }
+
+    private static void initializeProgram( Program program )
+    {
+        Hibernate.initialize( program.getCategoryCombo() );
+        Hibernate.initialize( program.getTrackedEntityType() );
+        Hibernate.initialize( program.getExpiryPeriodType() );
+        Hibernate.initialize( program.getProgramStages() );
+        Hibernate.initialize( program.getProgramAttributes() );
+        program.getProgramAttributes().forEach( programAttribute -> {
+            Hibernate.initialize( programAttribute.getAttribute() );
+            if ( programAttribute.getAttribute() != null )
+            {
+                initializeOptionSet( programAttribute.getAttribute().getOptionSet() );
+            }
+        } );
+    }
+
+    private static void initializeProgramStage( ProgramStage programStage )
+    {
+        Hibernate.initialize( programStage.getProgram() );
+        Hibernate.initialize( programStage.getProgramStageDataElements() );
+        programStage.getProgramStageDataElements().forEach( programStageDataElement -> {
+            Hibernate.initialize( programStageDataElement.getDataElement() );
+            if ( programStageDataElement.getDataElement() != null )
+            {
+                initializeOptionSet( programStageDataElement.getDataElement().getOptionSet() );
+            }
+        } );
+    }
+
+    private static void initializeTrackedEntityType( TrackedEntityType trackedEntityType )
+    {
+        Hibernate.initialize( trackedEntityType.getTrackedEntityTypeAttributes() );
+        trackedEntityType.getTrackedEntityTypeAttributes().forEach( typeAttribute -> {
+            Hibernate.initialize( typeAttribute.getTrackedEntityAttribute() );
+            if ( typeAttribute.getTrackedEntityAttribute() != null )
+            {
+                initializeOptionSet( typeAttribute.getTrackedEntityAttribute().getOptionSet() );
+            }
+        } );
+    }
+
+    private static void initializeOptionSet( OptionSet optionSet )
+    {
+        if ( optionSet != null )
+        {
+            Hibernate.initialize( optionSet );
+            Hibernate.initialize( optionSet.getOptions() );
+        }
+    }
+
+    private static void initializeCategoryOptionCombo( CategoryOptionCombo categoryOptionCombo )
+    {
+        if ( categoryOptionCombo != null )
+        {
+            Hibernate.initialize( categoryOptionCombo );
+            Hibernate.initialize( categoryOptionCombo.getCategoryOptions() );
+            Hibernate.initialize( categoryOptionCombo.getCategoryCombo() );
+        }
+    }
+
+    /**
+     * @return the position of each tracked entity, enrollment and event by UID
+     *         within the entities of its type in the payload
+     */
+    private static Map<TrackerType, Map<String, Integer>> getPositions( TrackerBundle bundle )
+    {
+        Map<TrackerType, Map<String, Integer>> positions = new EnumMap<>( TrackerType.class );
+        positions.put( TrackerType.TRACKED_ENTITY, getPositions( bundle.getTrackedEntities() ) );
+        positions.put( TrackerType.ENROLLMENT, getPositions( bundle.getEnrollments() ) );
+        positions.put( TrackerType.EVENT, getPositions( bundle.getEvents() ) );
+        return positions;
+    }
+
+    private static Map<String, Integer> getPositions( List<? extends TrackerDto> entities )
+    {
+        Map<String, Integer> positions = new HashMap<>();
+        for ( TrackerDto entity : entities )
+        {
+            positions.putIfAbsent( entity.getUid(), positions.size() );
+        }
+        return positions;
+    }
+
+    /**
+     * Orders by tracker type and then by position in the payload. As the sort
+     * is stable validations of the same entity keep their order.
+     */
+    private static <T extends Validation> Comparator<T> inPayloadOrder(
+        Map<TrackerType, Map<String, Integer>> positions, Function<T, TrackerType> type )
+    {
+        return Comparator.<T, TrackerType> comparing( type, Comparator.nullsLast( Comparator.naturalOrder() ) )
+            .thenComparingInt( validation -> getPosition( positions, type.apply( validation ), validation.getUid() ) );
+    }
+
+    private static int getPosition( Map<TrackerType, Map<String, Integer>> positions, TrackerType type, String uid )
+    {
+        Map<String, Integer> positionByUid = positions.get( type );
+        return positionByUid == null ? Integer.MAX_VALUE : positionByUid.getOrDefault( uid, Integer.MAX_VALUE );
+    }
+
+    private static Reporter join( CompletableFuture<Reporter> task )
+    {
+        try
+        {
+            return task.join();
+        }
+        catch ( CompletionException ex )
+        {
+            if ( ex.getCause() instanceof RuntimeException )
+            {
+                throw (RuntimeException) ex.getCause();
+            }
+            throw ex;
+        }
+    }
+
+    /**
+     * Splits the tracked entities, enrollments and events of the bundle into
+     * trees in the order they occur in the payload.
+     */
+    static List<TrackerBundle> partition( TrackerBundle bundle )
+    {
+        Map<String, TrackerBundle> trees = new LinkedHashMap<>();
+        for ( TrackedEntity trackedEntity : bundle.getTrackedEntities() )
+        {
+            getTree( trees, bundle, trackedEntity.getUid() ).getTrackedEntities().add( trackedEntity );
+        }
+        Map<String, String> rootByEnrollment = new HashMap<>();
+        for ( Enrollment enrollment : bundle.getEnrollments() )
+        {
+            String root = Objects.requireNonNullElse( enrollment.getTrackedEntity(), enrollment.getUid() );
+            rootByEnrollment.put( enrollment.getUid(), root );
+            getTree( trees, bundle, root ).getEnrollments().add( enrollment );
+        }
+        for ( Event event : bundle.getEvents() )
+        {
+            String root = event.getEnrollment() == null || !isRegistration( bundle, event )
+                ? event.getUid()
+                : rootByEnrollment.getOrDefault( event.getEnrollment(), event.getEnrollment() );
+            getTree( trees, bundle, root ).getEvents().add( event );
+        }
+        return new ArrayList<>( trees.values() );
+    }
+
+    private static TrackerBundle getTree( Map<String, TrackerBundle> trees, TrackerBundle bundle, String root )
+    {
+        return trees.computeIfAbsent( root, key -> bundle.toBuilder()
+            .trackedEntities( new ArrayList<>() )
+            .enrollments( new ArrayList<>() )
+            .events( new ArrayList<>() )
+            .relationships( new ArrayList<>() )
+            .build() );
+    }
+
+    private static boolean isRegistration( TrackerBundle bundle, Event event )
+    {
+        ProgramStage programStage = bundle.getPreheat().getProgramStage( event.getProgramStage() );
+        return programStage == null || programStage.getProgram() == null
+            || programStage.getProgram().isRegistration();
+    }
+
+    private static Set<MetadataIdentifier> getMetadata( TrackerBundle tree )
+    {
+        Set<MetadataIdentifier> metadata = new HashSet<>();
+        tree.getTrackedEntities().forEach( te -> metadata.add( te.getTrackedEntityType() ) );
+        tree.getEnrollments().forEach( enrollment -> metadata.add( enrollment.getProgram() ) );
+        tree.getEvents().forEach( event -> {
+            metadata.add( event.getProgram() );
+            metadata.add( event.getProgramStage() );
+        } );
+        metadata.remove( null );
+        return metadata;
+    }
+
+    /**
+     * Joins consecutive trees into bundles of at least {@link #MIN_TASK_SIZE}
+     * entities to keep the overhead per task low.
+     */
+    private static List<TrackerBundle> chunk( List<TrackerBundle> trees )
+    {
+        List<TrackerBundle> chunks = new ArrayList<>();
+        TrackerBundle chunk = null;
+        for ( TrackerBundle tree : trees )
+        {
+            if ( chunk == null )
+            {
+                chunk = tree;
+                chunks.add( chunk );
+            }
+            else
+            {
+                chunk.getTrackedEntities().addAll( tree.getTrackedEntities() );
+                chunk.getEnrollments().addAll( tree.getEnrollments() );
+                chunk.getEvents().addAll( tree.getEvents() );
+            }
+            if ( size( chunk ) >= MIN_TASK_SIZE )
+            {
+                chunk = null;
+            }
+        }
+        return chunks;
+    }
+
+    private static int size( TrackerBundle bundle )
+    {
+        return bundle.getTrackedEntities().size() + bundle.getEnrollments().size() + bundle.getEvents().size();
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.tracker.export.enrollment;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.hisp.dhis.common.CodeGenerator;
+import org.hisp.dhis.feedback.BadRequestException;
+import org.hisp.dhis.feedback.ForbiddenException;
+import org.hisp.dhis.program.Enrollment;
+import org.hisp.dhis.program.EnrollmentQueryParams;
+import org.hisp.dhis.program.EnrollmentService;
+import org.hisp.dhis.program.Program;
+import org.hisp.dhis.trackedentity.TrackedEntity;
+import org.hisp.dhis.trackedentity.TrackedEntityAttributeService;
+import org.hisp.dhis.trackedentity.TrackerAccessManager;
+import org.hisp.dhis.trackedentity.TrackerOwnershipManager;
+import org.hisp.dhis.user.CurrentUserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+/**
+ * Tests keyset paging of {@link DefaultEnrollmentService} when enrollments
+ * fetched from the store are filtered out by access checks.
+ */
+@ExtendWith( MockitoExtension.class )
+class DefaultEnrollmentServiceTest
+{
+    @Mock
+    private EnrollmentService enrollmentService;
+
+    @Mock
+    private TrackerOwnershipManager trackerOwnershipAccessManager;
+
+    @Mock
+    private TrackedEntityAttributeService trackedEntityAttributeService;
+
+    @Mock
+    private CurrentUserService currentUserService;
+
+    @Mock
+    private TrackerAccessManager trackerAccessManager;
+
+    @Mock
+    private EnrollmentOperationParamsMapper paramsMapper;
+
+    @InjectMocks
+    private DefaultEnrollmentService service;
+
+    private final Program program = new Program();
+
+    private Enrollment enrollmentA;
+
+    private Enrollment enrollmentB;
+
+    private Enrollment enrollmentC;
+
+    private EnrollmentOperationParams operationParams;
+
+    private EnrollmentQueryParams queryParams;
+
+    @BeforeEach
+    void setUp()
+        throws ForbiddenException,
+        BadRequestException
+    {
+        enrollmentA = enrollment( 1 );
+        enrollmentB = enrollment( 2 );
+        enrollmentC = enrollment( 3 );
+
+        operationParams = EnrollmentOperationParams.builder().keysetPaging( true ).build();
+        queryParams = new EnrollmentQueryParams().setPage( 1 ).setPageSize( 2 ).setKeysetPaging( true );
+        when( paramsMapper.map( operationParams ) ).thenReturn( queryParams );
+    }
+
+    @Test
+    void shouldContinueAfterLastFetchedEnrollmentWhenItIsFilteredOut()
+        throws ForbiddenException,
+        BadRequestException
+    {
+        when( enrollmentService.getEnrollments( queryParams ) )
+            .thenReturn( List.of( enrollmentA, enrollmentB, enrollmentC ) );
+        when( trackerOwnershipAccessManager.hasAccess( null, enrollmentA.getTrackedEntity(), program ) )
+            .thenReturn( true );
+        when( trackerOwnershipAccessManager.hasAccess( null, enrollmentB.getTrackedEntity(), program ) )
+            .thenReturn( false );
+
+        Enrollments enrollments = service.getEnrollments( operationParams );
+
+        assertEquals( List.of( enrollmentA.getUid() ),
+            enrollments.getEnrollments().stream().map( Enrollment::getUid ).collect( Collectors.toList() ) );
+        assertEquals( enrollmentB.getId(), enrollments.getNextPageAfterId() );
+    }
+
+    @Test
+    void shouldNotContinueOnLastPageWhenEnrollmentsAreFilteredOut()
+        throws ForbiddenException,
+        BadRequestException
+    {
+        when( enrollmentService.getEnrollments( queryParams ) )
+            .thenReturn( List.of( enrollmentA, enrollmentB ) );
+        when( trackerOwnershipAccessManager.hasAccess( null, enrollmentA.getTrackedEntity(), program ) )
+            .thenReturn( false );
+        when( trackerOwnershipAccessManager.hasAccess( null, enrollmentB.getTrackedEntity(), program ) )
+            .thenReturn( false );
+
+        Enrollments enrollments = service.getEnrollments( operationParams );
+
+        assertEquals( List.of(), enrollments.getEnrollments() );
+        assertNull( enrollments.getNextPageAfterId() );
+    }
+
+    private Enrollment enrollment( long id )
+    {
+        TrackedEntity trackedEntity = new TrackedEntity();
+        trackedEntity.setUid( CodeGenerator.generateUid() );
+
+        Enrollment enrollment = new Enrollment();
+        enrollment.setId( id );
+        enrollment.setUid( CodeGenerator.generateUid() );
+        enrollment.setTrackedEntity( trackedEntity );
+        enrollment.setProgram( program );
+        return enrollment;
+    }
+}
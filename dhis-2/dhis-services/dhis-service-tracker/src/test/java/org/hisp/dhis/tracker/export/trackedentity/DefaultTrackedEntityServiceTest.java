@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.tracker.export.trackedentity;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.hisp.dhis.feedback.ForbiddenException;
+import org.hisp.dhis.feedback.NotFoundException;
+import org.hisp.dhis.program.ProgramService;
+import org.hisp.dhis.trackedentity.TrackedEntity;
+import org.hisp.dhis.trackedentity.TrackedEntityAttributeService;
+import org.hisp.dhis.trackedentity.TrackedEntityAuditService;
+import org.hisp.dhis.trackedentity.TrackedEntityQueryParams;
+import org.hisp.dhis.trackedentity.TrackedEntityTypeService;
+import org.hisp.dhis.trackedentity.TrackerAccessManager;
+import org.hisp.dhis.tracker.export.enrollment.EnrollmentService;
+import org.hisp.dhis.tracker.export.event.EventService;
+import org.hisp.dhis.tracker.export.trackedentity.aggregates.TrackedEntityAggregate;
+import org.hisp.dhis.user.CurrentUserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+/**
+ * Tests keyset paging of {@link DefaultTrackedEntityService} when tracked
+ * entities fetched from the store are filtered out by ownership.
+ */
+@ExtendWith( MockitoExtension.class )
+class DefaultTrackedEntityServiceTest
+{
+    @Mock
+    private org.hisp.dhis.trackedentity.TrackedEntityService teiService;
+
+    @Mock
+    private TrackedEntityAttributeService trackedEntityAttributeService;
+
+    @Mock
+    private TrackedEntityTypeService trackedEntityTypeService;
+
+    @Mock
+    private TrackedEntityAuditService trackedEntityAuditService;
+
+    @Mock
+    private CurrentUserService currentUserService;
+
+    @Mock
+    private TrackerAccessManager trackerAccessManager;
+
+    @Mock
+    private TrackedEntityAggregate trackedEntityAggregate;
+
+    @Mock
+    private ProgramService programService;
+
+    @Mock
+    private EnrollmentService enrollmentService;
+
+    @Mock
+    private EventService eventService;
+
+    @InjectMocks
+    private DefaultTrackedEntityService service;
+
+    private TrackedEntityQueryParams queryParams;
+
+    @BeforeEach
+    void setUp()
+    {
+        queryParams = new TrackedEntityQueryParams()
+            .setPageSize( 2 )
+            .setKeysetPaging( true );
+    }
+
+    @Test
+    void shouldContinueAfterLastFetchedTrackedEntityWhenItIsFilteredOut()
+        throws ForbiddenException,
+        NotFoundException
+    {
+        TrackedEntity owned = new TrackedEntity();
+        when( teiService.getTrackedEntityIds( queryParams, false, false ) ).thenReturn( List.of( 1L, 2L, 3L ) );
+        when( trackedEntityAggregate.find( List.of( 1L, 2L ), TrackedEntityParams.FALSE, queryParams ) )
+            .thenReturn( List.of( owned ) );
+
+        TrackedEntities page = service.getTrackedEntityPage( queryParams, TrackedEntityParams.FALSE );
+
+        assertEquals( List.of( owned ), page.getTrackedEntities() );
+        assertEquals( 2L, page.getNextPageAfterId() );
+    }
+
+    @Test
+    void shouldNotContinueOnLastPageWhenTrackedEntitiesAreFilteredOut()
+        throws ForbiddenException,
+        NotFoundException
+    {
+        when( teiService.getTrackedEntityIds( queryParams, false, false ) ).thenReturn( List.of( 1L, 2L ) );
+        when( trackedEntityAggregate.find( List.of( 1L, 2L ), TrackedEntityParams.FALSE, queryParams ) )
+            .thenReturn( List.of() );
+
+        TrackedEntities page = service.getTrackedEntityPage( queryParams, TrackedEntityParams.FALSE );
+
+        assertEquals( List.of(), page.getTrackedEntities() );
+        assertNull( page.getNextPageAfterId() );
+    }
+}
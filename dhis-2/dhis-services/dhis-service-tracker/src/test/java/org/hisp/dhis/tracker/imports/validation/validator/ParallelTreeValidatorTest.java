@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.tracker.imports.validation.validator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.hisp.dhis.program.Program;
+import org.hisp.dhis.program.ProgramStage;
+import org.hisp.dhis.program.ProgramType;
+import org.hisp.dhis.system.thread.BoundedExecutor;
+import org.hisp.dhis.tracker.imports.TrackerIdSchemeParams;
+import org.hisp.dhis.tracker.imports.TrackerType;
+import org.hisp.dhis.tracker.imports.bundle.TrackerBundle;
+import org.hisp.dhis.tracker.imports.domain.Enrollment;
+import org.hisp.dhis.tracker.imports.domain.Event;
+import org.hisp.dhis.tracker.imports.domain.MetadataIdentifier;
+import org.hisp.dhis.tracker.imports.domain.TrackedEntity;
+import org.hisp.dhis.tracker.imports.preheat.TrackerPreheat;
+import org.hisp.dhis.tracker.imports.validation.Error;
+import org.hisp.dhis.tracker.imports.validation.Reporter;
+import org.hisp.dhis.tracker.imports.validation.ValidationCode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ParallelTreeValidatorTest
+{
+    private static final MetadataIdentifier EVENT_PROGRAM_STAGE = MetadataIdentifier.ofUid( "eventStage" );
+
+    private Reporter reporter;
+
+    private TrackerPreheat preheat;
+
+    private BoundedExecutor executor;
+
+    @BeforeEach
+    void setUp()
+    {
+        reporter = new Reporter( TrackerIdSchemeParams.builder().build() );
+
+        Program program = new Program();
+        program.setProgramType( ProgramType.WITHOUT_REGISTRATION );
+        ProgramStage programStage = new ProgramStage();
+        programStage.setUid( EVENT_PROGRAM_STAGE.getIdentifier() );
+        programStage.setProgram( program );
+        preheat = new TrackerPreheat();
+        preheat.put( programStage );
+
+        executor = new BoundedExecutor( "test", 4, new SimpleMeterRegistry() );
+    }
+
+    @AfterEach
+    void tearDown()
+    {
+        executor.shutdown();
+    }
+
+    @Test
+    void testPartitionGroupsEntitiesByTrackedEntity()
+    {
+        TrackerBundle bundle = TrackerBundle.builder()
+            .preheat( preheat )
+            .trackedEntities( List.of( trackedEntity( "te1" ), trackedEntity( "te2" ) ) )
+            .enrollments( List.of( enrollment( "en1", "te2" ), enrollment( "en2", "te1" ), enrollment( "en3", null ) ) )
+            .events( List.of( event( "ev1", "en1", null ), event( "ev2", "en3", null ),
+                event( "ev3", null, EVENT_PROGRAM_STAGE ), event( "ev4", "en4", null ) ) )
+            .build();
+
+        List<TrackerBundle> trees = ParallelTreeValidator.partition( bundle );
+
+        assertEquals( List.of( "te1,en2", "te2,en1,ev1", "en3,ev2", "ev3", "ev4" ),
+            trees.stream().map( ParallelTreeValidatorTest::uids ).collect( Collectors.toList() ) );
+    }
+
+    @Test
+    void testValidateReportsErrorsInPayloadOrder()
+    {
+        List<TrackedEntity> trackedEntities = IntStream.range( 0, 1000 )
+            .mapToObj( i -> trackedEntity( "te" + i ) )
+            .collect( Collectors.toList() );
+        TrackerBundle bundle = TrackerBundle.builder()
+            .preheat( preheat )
+            .trackedEntities( trackedEntities )
+            .build();
+
+        new ParallelTreeValidator( ( r, b, tree ) -> tree.getTrackedEntities()
+            .forEach( te -> r.addError(
+                new Error( te.getUid(), ValidationCode.E9999, TrackerType.TRACKED_ENTITY, te.getUid() ) ) ),
+            executor ).validate( reporter, bundle, bundle );
+
+        assertEquals( trackedEntities.stream().map( TrackedEntity::getUid ).collect( Collectors.toList() ),
+            reporter.getErrors().stream().map( Error::getMessage ).collect( Collectors.toList() ) );
+    }
+
+    private static String uids( TrackerBundle tree )
+    {
+        List<String> uids = new ArrayList<>();
+        tree.getTrackedEntities().forEach( te -> uids.add( te.getUid() ) );
+        tree.getEnrollments().forEach( en -> uids.add( en.getUid() ) );
+        tree.getEvents().forEach( ev -> uids.add( ev.getUid() ) );
+        return String.join( ",", uids );
+    }
+
+    private static TrackedEntity trackedEntity( String uid )
+    {
+        return TrackedEntity.builder()
+            .trackedEntity( uid )
+            .trackedEntityType( MetadataIdentifier.ofUid( "teType" ) )
+            .build();
+    }
+
+    private static Enrollment enrollment( String uid, String trackedEntity )
+    {
+        return Enrollment.builder()
+            .enrollment( uid )
+            .trackedEntity( trackedEntity )
+            .build();
+    }
+
+    private static Event event( String uid, String enrollment, MetadataIdentifier programStage )
+    {
+        return Event.builder()
+            .event( uid )
+            .enrollment( enrollment )
+            .programStage( programStage )
+            .build();
+    }
+}
@@ -32,6 +32,7 @@ import java.util.List;
 import lombok.RequiredArgsConstructor;
 
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 /**
  * @author Morten Olav Hansen <mortenoh@gmail.com>
@@ -48,6 +49,13 @@ public class DefaultAuditService implements AuditService
         return auditRepository.save( audit );
     }
 
+    @Override
+    @Transactional
+    public void addAudits( List<Audit> audits )
+    {
+        auditRepository.save( audits );
+    }
+
     @Override
     public int countAudits( AuditQuery query )
     {
@@ -0,0 +1,13 @@
+-- Probe the sharing userGroups object once per group of the user instead of
+-- expanding all user group entries of each row with jsonb_each.
+-- Users are member of few groups while popular objects are shared with many.
+CREATE OR replace FUNCTION jsonb_check_user_groups_access(jsonb, text, text)
+RETURNS bool
+AS $$
+SELECT exists(
+         SELECT 1
+         FROM  unnest($3::text[]) AS ug(uid)
+         WHERE $1->'userGroups'->ug.uid->>'access' LIKE $2
+     );
+$$
+LANGUAGE SQL IMMUTABLE PARALLEL SAFE;
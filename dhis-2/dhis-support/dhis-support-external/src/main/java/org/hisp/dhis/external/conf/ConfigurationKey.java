@@ -341,6 +341,73 @@ public enum ConfigurationKey
 
     PROGRAM_TEMPORARY_OWNERSHIP_TIMEOUT( "tracker.temporary.ownership.timeout", "3", false ),
 
+    /**
+     * Max number of threads used to fetch the parts of tracked entities,
+     * enrollments and events in parallel when exporting tracker data. When
+     * all threads are busy, the requesting thread fetches the data itself.
+     * (default: 20).
+     */
+    TRACKER_EXPORT_THREAD_POOL_SIZE( "tracker.export.thread_pool.size", "20", false ),
+
+    /**
+     * Max number of threads used to validate independent tracked entity trees
+     * of a tracker import in parallel when the import asks for parallel
+     * validation. When all threads are busy, the importing thread validates
+     * the trees itself. (default: 4).
+     */
+    TRACKER_IMPORT_VALIDATION_THREAD_POOL_SIZE( "tracker.import.validation.thread_pool.size", "4", false ),
+
+    /**
+     * Max number of threads used to evaluate program rules of the enrollments
+     * of a tracker import in parallel. When all threads are busy, the
+     * importing thread evaluates the rules itself. (default: 4).
+     */
+    TRACKER_IMPORT_RULE_ENGINE_THREAD_POOL_SIZE( "tracker.import.rule_engine.thread_pool.size", "4", false ),
+
+    /**
+     * Number of rows fetched per database round trip when streaming data value
+     * set exports through a server-side cursor (default: 10000).
+     */
+    DATAVALUESET_EXPORT_FETCH_SIZE( "datavalueset.export.fetch_size", "10000", false ),
+
+    /**
+     * Max number of threads used to read and parse XML and CSV data value set
+     * imports which ask to be pipelined. When all threads are busy, the
+     * importing thread reads the input itself. (default: 4).
+     */
+    DATAVALUESET_IMPORT_READER_THREAD_POOL_SIZE( "datavalueset.import.reader.thread_pool.size", "4", false ),
+
+    /**
+     * Max number of work items of parallel job stages processed at the same
+     * time across all running jobs. Jobs running at the same time share the
+     * workers fairly. Zero means the number of CPU cores (default: 0).
+     */
+    JOB_PARALLELISM( "job.parallelism", "0", false ),
+
+    /**
+     * Max number of threads sending job notifications to clients of
+     * notification streams (default: 4).
+     */
+    NOTIFICATION_STREAM_THREAD_POOL_SIZE( "notification.stream.thread_pool.size", "4", false ),
+
+    /**
+     * Max number of notification streams open at the same time for a single
+     * job (default: 20).
+     */
+    NOTIFICATION_STREAM_MAX_PER_JOB( "notification.stream.max_per_job", "20", false ),
+
+    /**
+     * Max number of notification streams a single user can have open at the
+     * same time (default: 5).
+     */
+    NOTIFICATION_STREAM_MAX_PER_USER( "notification.stream.max_per_user", "5", false ),
+
+    /**
+     * Statement timeout in seconds of data integrity checks run as SQL, unless
+     * a check declares its own timeout (default: 600).
+     */
+    DATA_INTEGRITY_CHECK_TIMEOUT( "data_integrity.check.timeout", "600", false ),
+
     LEADER_TIME_TO_LIVE( "leader.time.to.live.minutes", "2", false ),
 
     /**
@@ -508,6 +575,20 @@ public enum ConfigurationKey
      */
     AUDIT_DATABASE( "audit.database", Constants.OFF, false ),
 
+    /**
+     * Max number of audits saved to the database table "audit" in one batch.
+     * Audits are buffered in memory until the batch is full or the max delay
+     * has passed and are lost upon a JVM crash. 1 saves every audit when it
+     * is consumed. (default: 1).
+     */
+    AUDIT_DATABASE_BATCH_SIZE( "audit.database.batch_size", "1", false ),
+
+    /**
+     * Max time in milliseconds an audit is buffered before it is saved to the
+     * database when audits are saved in batches. (default: 1000).
+     */
+    AUDIT_DATABASE_BATCH_MAX_DELAY( "audit.database.batch_max_delay", "1000", false ),
+
     /**
      * Sets the audit matrix for metadata. (default: none).
      */
@@ -629,6 +710,19 @@ public enum ConfigurationKey
 
     ACTIVE_READ_REPLICAS( "active.read.replicas", "0", false ),
 
+    /**
+     * Max replication lag in seconds of a read replica before read only
+     * queries are routed away from it. When all read replicas lag behind, read
+     * only queries go to the main database (default: 60).
+     */
+    READ_REPLICA_MAX_LAG( "read.replica.max_lag", "60", false ),
+
+    /**
+     * Number of seconds between health checks of the read replicas, measuring
+     * replication lag and connection pool saturation (default: 10).
+     */
+    READ_REPLICA_HEALTH_CHECK_INTERVAL( "read.replica.health_check.interval", "10", false ),
+
     /**
      * Allows enabling/disabling audits system-wide (without configuring the
      * audit matrix). (default: true)
@@ -48,6 +48,7 @@ import org.hisp.dhis.common.CodeGenerator;
 import org.hisp.dhis.commons.util.DebugUtils;
 import org.hisp.dhis.datasource.DatabasePoolUtils;
 import org.hisp.dhis.datasource.DefaultReadOnlyDataSourceManager;
+import org.hisp.dhis.datasource.ReadOnlyDataSourceManager;
 import org.hisp.dhis.external.conf.ConfigurationKey;
 import org.hisp.dhis.external.conf.DhisConfigurationProvider;
 import org.hisp.dhis.hibernate.HibernateConfigurationProvider;
@@ -99,12 +100,18 @@ public class DataSourceConfig
         return jdbcTemplate;
     }
 
-    @Bean( "readOnlyJdbcTemplate" )
+    @Bean( "readOnlyDataSourceManager" )
     @DependsOn( "dataSource" )
-    public JdbcTemplate readOnlyJdbcTemplate( @Qualifier( "dataSource" ) DataSource dataSource )
+    public ReadOnlyDataSourceManager readOnlyDataSourceManager( @Qualifier( "dataSource" ) DataSource dataSource )
     {
-        DefaultReadOnlyDataSourceManager manager = new DefaultReadOnlyDataSourceManager( dhisConfig );
+        return new DefaultReadOnlyDataSourceManager( dhisConfig, dataSource );
+    }
 
+    @Bean( "readOnlyJdbcTemplate" )
+    @DependsOn( "dataSource" )
+    public JdbcTemplate readOnlyJdbcTemplate( @Qualifier( "dataSource" ) DataSource dataSource,
+        ReadOnlyDataSourceManager manager )
+    {
         JdbcTemplate jdbcTemplate = new JdbcTemplate(
             MoreObjects.firstNonNull( manager.getReadOnlyDataSource(), dataSource ) );
         jdbcTemplate.setFetchSize( 1000 );
@@ -34,8 +34,8 @@ import static org.hisp.dhis.external.conf.ConfigurationKey.CONNECTION_USERNAME;
 
 import java.beans.PropertyVetoException;
 import java.sql.SQLException;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Properties;
 
 import javax.sql.DataSource;
@@ -47,6 +47,7 @@ import org.hisp.dhis.commons.util.DebugUtils;
 import org.hisp.dhis.external.conf.ConfigurationKey;
 import org.hisp.dhis.external.conf.DhisConfigurationProvider;
 import org.hisp.dhis.util.ObjectUtils;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.InitializingBean;
 
 /**
@@ -54,7 +55,7 @@ import org.springframework.beans.factory.InitializingBean;
  */
 @Slf4j
 public class DefaultReadOnlyDataSourceManager
-    implements ReadOnlyDataSourceManager, InitializingBean
+    implements ReadOnlyDataSourceManager, InitializingBean, DisposableBean
 {
     private static final String FORMAT_READ_PREFIX = "read%d.";
 
@@ -72,29 +73,51 @@ public class DefaultReadOnlyDataSourceManager
 
     private final DhisConfigurationProvider config;
 
-    public DefaultReadOnlyDataSourceManager( DhisConfigurationProvider config )
+    /**
+     * The main data source, used when no read replica is healthy.
+     */
+    private final DataSource mainDataSource;
+
+    public DefaultReadOnlyDataSourceManager( DhisConfigurationProvider config, DataSource mainDataSource )
     {
         checkNotNull( config );
+        checkNotNull( mainDataSource );
         this.config = config;
+        this.mainDataSource = mainDataSource;
     }
 
     /**
      * State holder for the resolved read only data source.
      */
-    private DataSource internalReadOnlyDataSource;
+    private HealthAwareRoutingDataSource internalReadOnlyDataSource;
 
     /**
-     * State holder for explicitly defined read only data sources.
+     * State holder for explicitly defined read only data sources by name.
      */
-    private List<DataSource> internalReadOnlyInstanceList;
+    private Map<String, DataSource> internalReadOnlyInstances;
 
     @Override
     public void afterPropertiesSet()
     {
-        List<DataSource> ds = getReadOnlyDataSources();
+        Map<String, DataSource> ds = getReadOnlyDataSources();
+
+        long maxLag = Long.parseLong( config.getProperty( ConfigurationKey.READ_REPLICA_MAX_LAG ) );
+        long healthCheckInterval = Long.parseLong(
+            config.getProperty( ConfigurationKey.READ_REPLICA_HEALTH_CHECK_INTERVAL ) );
+
+        this.internalReadOnlyInstances = ds;
+        this.internalReadOnlyDataSource = !ds.isEmpty()
+            ? new HealthAwareRoutingDataSource( ds, mainDataSource, maxLag, healthCheckInterval )
+            : null;
+    }
 
-        this.internalReadOnlyInstanceList = ds;
-        this.internalReadOnlyDataSource = !ds.isEmpty() ? new CircularRoutingDataSource( ds ) : null;
+    @Override
+    public void destroy()
+    {
+        if ( internalReadOnlyDataSource != null )
+        {
+            internalReadOnlyDataSource.close();
+        }
     }
 
     // -------------------------------------------------------------------------
@@ -110,14 +133,14 @@ public class DefaultReadOnlyDataSourceManager
     @Override
     public int getReadReplicaCount()
     {
-        return internalReadOnlyInstanceList != null ? internalReadOnlyInstanceList.size() : 0;
+        return internalReadOnlyInstances != null ? internalReadOnlyInstances.size() : 0;
     }
 
     // -------------------------------------------------------------------------
     // Supportive methods
     // -------------------------------------------------------------------------
 
-    private List<DataSource> getReadOnlyDataSources()
+    private Map<String, DataSource> getReadOnlyDataSources()
     {
         String mainUser = config.getProperty( ConfigurationKey.CONNECTION_USERNAME );
         String mainPassword = config.getProperty( ConfigurationKey.CONNECTION_PASSWORD );
@@ -127,7 +150,7 @@ public class DefaultReadOnlyDataSourceManager
 
         Properties props = config.getProperties();
 
-        List<DataSource> dataSources = new ArrayList<>();
+        Map<String, DataSource> dataSources = new LinkedHashMap<>();
 
         for ( int i = 1; i <= MAX_READ_REPLICAS; i++ )
         {
@@ -152,7 +175,7 @@ public class DefaultReadOnlyDataSourceManager
             {
                 try
                 {
-                    dataSources.add( DatabasePoolUtils.createDbPool( builder.build() ) );
+                    dataSources.put( "read" + i, DatabasePoolUtils.createDbPool( builder.build() ) );
                 }
                 catch ( SQLException | PropertyVetoException e )
                 {
@@ -0,0 +1,409 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.datasource;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.sql.DataSource;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.mchange.v2.c3p0.ComboPooledDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+
+/**
+ * Data source implementation which routes to the least loaded healthy read
+ * replica. A background task periodically measures the replication lag and the
+ * connection pool saturation of every replica. A replica is healthy when it is
+ * reachable, lags behind by no more than the configured max lag and less than
+ * half of the recent connection attempts failed. When no replica is healthy,
+ * connections are taken from the fallback data source, which is the main
+ * database.
+ * <p>
+ * Selecting a replica only reads volatile and atomic state, it never blocks.
+ * Ties are broken by rotating the start replica, so equally loaded replicas
+ * are used in turn.
+ */
+@Slf4j
+public class HealthAwareRoutingDataSource
+    extends AbstractDataSource
+    implements AutoCloseable
+{
+    /**
+     * Replication lag in seconds, zero on a primary and on a replica which has
+     * replayed everything it received.
+     */
+    private static final String LAG_QUERY = "select case when not pg_is_in_recovery() " +
+        "or pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() then 0 " +
+        "else coalesce( extract( epoch from now() - pg_last_xact_replay_timestamp() ), 0 ) end";
+
+    private static final double MAX_ERROR_RATE = 0.5;
+
+    /**
+     * Min number of connection attempts in a health check interval before the
+     * error rate is considered.
+     */
+    private static final int MIN_REQUESTS_FOR_ERROR_RATE = 10;
+
+    private final List<Replica> replicas;
+
+    private final DataSource fallbackDataSource;
+
+    private final AtomicInteger counter = new AtomicInteger();
+
+    private final ScheduledExecutorService healthCheckExecutor;
+
+    /**
+     * @param targetDataSources the read replicas by name.
+     * @param fallbackDataSource the data source to use when no replica is
+     *        healthy.
+     * @param maxLagSeconds the max replication lag of a healthy replica.
+     * @param healthCheckIntervalSeconds the seconds between health checks, no
+     *        health checks are scheduled if zero.
+     */
+    public HealthAwareRoutingDataSource( Map<String, DataSource> targetDataSources, DataSource fallbackDataSource,
+        long maxLagSeconds, long healthCheckIntervalSeconds )
+    {
+        checkArgument( !targetDataSources.isEmpty(), "At least one target data source is required" );
+        checkNotNull( fallbackDataSource );
+
+        List<Replica> list = new ArrayList<>();
+        targetDataSources.forEach( ( name, dataSource ) -> list.add( new Replica( name, dataSource, maxLagSeconds ) ) );
+
+        this.replicas = Collections.unmodifiableList( list );
+        this.fallbackDataSource = fallbackDataSource;
+
+        if ( healthCheckIntervalSeconds > 0 )
+        {
+            this.healthCheckExecutor = Executors.newSingleThreadScheduledExecutor( new ThreadFactoryBuilder()
+                .setNameFormat( "read-replica-health-check-%d" )
+                .setDaemon( true )
+                .build() );
+            this.healthCheckExecutor.scheduleWithFixedDelay( this::checkHealth, 0, healthCheckIntervalSeconds,
+                TimeUnit.SECONDS );
+        }
+        else
+        {
+            this.healthCheckExecutor = null;
+        }
+    }
+
+    public List<Replica> getReplicas()
+    {
+        return replicas;
+    }
+
+    // -------------------------------------------------------------------------
+    // AbstractDataSource implementation
+    // -------------------------------------------------------------------------
+
+    @Override
+    public Connection getConnection()
+        throws SQLException
+    {
+        return getConnection( null, null );
+    }
+
+    @Override
+    public Connection getConnection( String username, String password )
+        throws SQLException
+    {
+        int tried = 0;
+
+        for ( Replica replica = selectReplica( tried ); replica != null; replica = selectReplica( tried ) )
+        {
+            try
+            {
+                return replica.getConnection( username, password );
+            }
+            catch ( SQLException ex )
+            {
+                log.warn( String.format( "Failed to get connection from read replica '%s', trying next: %s",
+                    replica.getName(), ex.getMessage() ) );
+
+                tried |= 1 << replicas.indexOf( replica );
+            }
+        }
+
+        return username == null
+            ? fallbackDataSource.getConnection()
+            : fallbackDataSource.getConnection( username, password );
+    }
+
+    @Override
+    public void close()
+    {
+        if ( healthCheckExecutor != null )
+        {
+            healthCheckExecutor.shutdownNow();
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // Supportive methods
+    // -------------------------------------------------------------------------
+
+    /**
+     * Returns the healthy replica with the lowest load which is not in the
+     * given bit set of replica indexes, or null if there is none.
+     */
+    Replica selectReplica( int excluded )
+    {
+        int size = replicas.size();
+        int start = Math.floorMod( counter.getAndIncrement(), size );
+
+        Replica selected = null;
+        double selectedLoad = Double.MAX_VALUE;
+
+        for ( int i = 0; i < size; i++ )
+        {
+            int index = (start + i) % size;
+            Replica replica = replicas.get( index );
+
+            if ( (excluded & (1 << index)) != 0 || !replica.isHealthy() )
+            {
+                continue;
+            }
+
+            double load = replica.getLoad();
+
+            if ( load < selectedLoad )
+            {
+                selected = replica;
+                selectedLoad = load;
+            }
+        }
+
+        return selected;
+    }
+
+    void checkHealth()
+    {
+        for ( Replica replica : replicas )
+        {
+            try
+            {
+                replica.checkHealth();
+            }
+            catch ( RuntimeException ex )
+            {
+                // an uncaught exception would cancel all further health checks
+                log.error( String.format( "Health check of read replica '%s' failed", replica.getName() ), ex );
+            }
+        }
+    }
+
+    /**
+     * Health and load state of a single read replica. Written by the health
+     * check task and by connection attempts, read lock-free on selection.
+     */
+    public static final class Replica
+    {
+        private final String name;
+
+        private final DataSource dataSource;
+
+        private final long maxLagSeconds;
+
+        private volatile boolean reachable = true;
+
+        private volatile double lagSeconds;
+
+        private volatile double saturation;
+
+        private volatile int maxPoolSize;
+
+        private volatile double errorRate;
+
+        private final AtomicLong requests = new AtomicLong();
+
+        private final AtomicLong errors = new AtomicLong();
+
+        /**
+         * Connections handed out since the pool saturation was last sampled,
+         * which keeps a burst of requests from piling onto one replica.
+         */
+        private final AtomicInteger checkouts = new AtomicInteger();
+
+        Replica( String name, DataSource dataSource, long maxLagSeconds )
+        {
+            this.name = name;
+            this.dataSource = dataSource;
+            this.maxLagSeconds = maxLagSeconds;
+        }
+
+        public String getName()
+        {
+            return name;
+        }
+
+        public DataSource getDataSource()
+        {
+            return dataSource;
+        }
+
+        public double getLagSeconds()
+        {
+            return lagSeconds;
+        }
+
+        public double getSaturation()
+        {
+            return saturation;
+        }
+
+        public double getErrorRate()
+        {
+            return errorRate;
+        }
+
+        public boolean isHealthy()
+        {
+            return reachable && lagSeconds <= maxLagSeconds && getCurrentErrorRate() < MAX_ERROR_RATE;
+        }
+
+        double getLoad()
+        {
+            return saturation + (maxPoolSize > 0 ? checkouts.get() / (double) maxPoolSize : checkouts.get());
+        }
+
+        void update( boolean reachable, double lagSeconds, double saturation )
+        {
+            if ( (this.reachable && !reachable) || (this.lagSeconds <= maxLagSeconds && lagSeconds > maxLagSeconds) )
+            {
+                log.warn( String.format( "Read replica '%s' is unhealthy, reachable: %b, lag: %.1f seconds",
+                    name, reachable, lagSeconds ) );
+            }
+
+            this.reachable = reachable;
+            this.lagSeconds = lagSeconds;
+            this.saturation = saturation;
+            this.errorRate = getCurrentErrorRate();
+            this.requests.set( 0 );
+            this.errors.set( 0 );
+            this.checkouts.set( 0 );
+        }
+
+        private Connection getConnection( String username, String password )
+            throws SQLException
+        {
+            requests.incrementAndGet();
+
+            try
+            {
+                Connection connection = username == null
+                    ? dataSource.getConnection()
+                    : dataSource.getConnection( username, password );
+                checkouts.incrementAndGet();
+                return connection;
+            }
+            catch ( SQLException ex )
+            {
+                errors.incrementAndGet();
+                throw ex;
+            }
+        }
+
+        private double getCurrentErrorRate()
+        {
+            long total = requests.get();
+
+            return total < MIN_REQUESTS_FOR_ERROR_RATE ? 0 : errors.get() / (double) total;
+        }
+
+        private void checkHealth()
+        {
+            boolean isReachable;
+            double lag = lagSeconds;
+
+            try ( Connection connection = dataSource.getConnection();
+                Statement statement = connection.createStatement();
+                ResultSet resultSet = statement.executeQuery( LAG_QUERY ) )
+            {
+                isReachable = resultSet.next();
+                lag = isReachable ? resultSet.getDouble( 1 ) : lag;
+            }
+            catch ( SQLException ex )
+            {
+                log.warn( String.format( "Health check of read replica '%s' failed: %s", name, ex.getMessage() ) );
+                isReachable = false;
+            }
+
+            update( isReachable, lag, getPoolSaturation() );
+        }
+
+        /**
+         * Returns the share of the pool which is in use or waited for, zero if
+         * the pool type is unknown.
+         */
+        private double getPoolSaturation()
+        {
+            try
+            {
+                int busy = 0;
+
+                if ( dataSource instanceof HikariDataSource hikari && hikari.getHikariPoolMXBean() != null )
+                {
+                    HikariPoolMXBean pool = hikari.getHikariPoolMXBean();
+                    maxPoolSize = hikari.getMaximumPoolSize();
+                    busy = pool.getActiveConnections() + pool.getThreadsAwaitingConnection();
+                }
+                else if ( dataSource instanceof ComboPooledDataSource c3p0 )
+                {
+                    maxPoolSize = c3p0.getMaxPoolSize();
+                    busy = c3p0.getNumBusyConnectionsDefaultUser() + c3p0.getNumThreadsAwaitingCheckoutDefaultUser();
+                }
+
+                return maxPoolSize > 0 ? busy / (double) maxPoolSize : 0;
+            }
+            catch ( SQLException ex )
+            {
+                return saturation;
+            }
+        }
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.datasource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.hisp.dhis.datasource.HealthAwareRoutingDataSource.Replica;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+/**
+ * Unit tests for {@link HealthAwareRoutingDataSource}.
+ */
+class HealthAwareRoutingDataSourceTest
+{
+    private StubDataSource main;
+
+    private StubDataSource read1;
+
+    private StubDataSource read2;
+
+    private HealthAwareRoutingDataSource dataSource;
+
+    @BeforeEach
+    void setUp()
+    {
+        main = new StubDataSource();
+        read1 = new StubDataSource();
+        read2 = new StubDataSource();
+
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        replicas.put( "read1", read1 );
+        replicas.put( "read2", read2 );
+
+        dataSource = new HealthAwareRoutingDataSource( replicas, main, 60, 0 );
+    }
+
+    @Test
+    void testSpreadsEvenlyOverEquallyLoadedReplicas()
+        throws SQLException
+    {
+        for ( int i = 0; i < 10; i++ )
+        {
+            dataSource.getConnection();
+        }
+
+        assertEquals( 5, read1.connections );
+        assertEquals( 5, read2.connections );
+        assertEquals( 0, main.connections );
+    }
+
+    @Test
+    void testSelectsLeastSaturatedReplica()
+    {
+        replica( "read1" ).update( true, 0, 0.9 );
+        replica( "read2" ).update( true, 0, 0.1 );
+
+        assertSame( replica( "read2" ), dataSource.selectReplica( 0 ) );
+        assertSame( replica( "read2" ), dataSource.selectReplica( 0 ) );
+    }
+
+    @Test
+    void testSkipsLaggingAndUnreachableReplicas()
+    {
+        replica( "read1" ).update( true, 120, 0 );
+        replica( "read2" ).update( false, 0, 0 );
+
+        assertNull( dataSource.selectReplica( 0 ) );
+    }
+
+    @Test
+    void testFallsBackToMainWhenAllReplicasLag()
+        throws SQLException
+    {
+        replica( "read1" ).update( true, 120, 0 );
+        replica( "read2" ).update( true, 61, 0 );
+
+        dataSource.getConnection();
+
+        assertEquals( 0, read1.connections );
+        assertEquals( 0, read2.connections );
+        assertEquals( 1, main.connections );
+    }
+
+    @Test
+    void testFailsOverToNextReplicaOnConnectionError()
+        throws SQLException
+    {
+        read1.failing = true;
+
+        for ( int i = 0; i < 4; i++ )
+        {
+            dataSource.getConnection();
+        }
+
+        assertEquals( 4, read2.connections );
+        assertEquals( 0, main.connections );
+    }
+
+    private Replica replica( String name )
+    {
+        return dataSource.getReplicas().stream().filter( r -> r.getName().equals( name ) ).findFirst().orElseThrow();
+    }
+
+    private static class StubDataSource
+        extends AbstractDataSource
+    {
+        private int connections;
+
+        private boolean failing;
+
+        @Override
+        public Connection getConnection()
+            throws SQLException
+        {
+            if ( failing )
+            {
+                throw new SQLException( "Connection refused" );
+            }
+
+            connections++;
+            return null;
+        }
+
+        @Override
+        public Connection getConnection( String username, String password )
+            throws SQLException
+        {
+            return getConnection();
+        }
+    }
+}
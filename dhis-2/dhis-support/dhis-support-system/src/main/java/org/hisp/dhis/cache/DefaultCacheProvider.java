@@ -89,12 +89,11 @@ public class DefaultCacheProvider
     private enum Region
     {
         analyticsResponse,
+        analyticsInFlight,
         defaultObjectCache,
         isDataApproved,
         allConstantsCache,
-        inUserOuHierarchy,
-        isUserViewOuHierHierarchy,
-        inUserSearchOuHierarchy,
+        expressionParseTree,
         userCaptureOuCountThreshold,
         periodIdCache,
         userAccountRecoverAttempt,
@@ -188,6 +187,19 @@ public class DefaultCacheProvider
             .withMaximumSize( orZeroInTestRun( getActualSize( SIZE_10K ) ) ) );
     }
 
+    /**
+     * Cache for markers of analytics queries which are currently being
+     * computed, used to coalesce identical queries across nodes. Entries
+     * expire to release markers of nodes which went away mid-computation.
+     */
+    @Override
+    public <V> Cache<V> createAnalyticsInFlightCache()
+    {
+        return registerCache( this.<V> newBuilder()
+            .forRegion( Region.analyticsInFlight.name() )
+            .expireAfterWrite( 10, TimeUnit.MINUTES ) );
+    }
+
     /**
      * Cache for default objects such as default category combination and
      * default category option combination which are permanent and will never
@@ -224,35 +236,16 @@ public class DefaultCacheProvider
             .withMaximumSize( orZeroInTestRun( getActualSize( SIZE_1 ) ) ) );
     }
 
+    /**
+     * Cache for parsed expressions. Parse trees are not serializable, and only
+     * depend on the expression text, so they are always kept in memory.
+     */
     @Override
-    public <V> Cache<V> createInUserOrgUnitHierarchyCache()
-    {
-        return registerCache( this.<V> newBuilder()
-            .forRegion( Region.inUserOuHierarchy.name() )
-            .expireAfterWrite( 1, TimeUnit.HOURS )
-            .withInitialCapacity( (int) getActualSize( SIZE_1K ) )
-            .forceInMemory()
-            .withMaximumSize( orZeroInTestRun( getActualSize( SIZE_10K ) ) ) );
-    }
-
-    @Override
-    public <V> Cache<V> createInUserViewOrgUnitHierarchyCache()
-    {
-        return registerCache( this.<V> newBuilder()
-            .forRegion( Region.isUserViewOuHierHierarchy.name() )
-            .expireAfterWrite( 3, TimeUnit.HOURS )
-            .withInitialCapacity( (int) getActualSize( SIZE_1K ) )
-            .forceInMemory()
-            .withMaximumSize( orZeroInTestRun( getActualSize( SIZE_10K ) ) ) );
-    }
-
-    @Override
-    public <V> Cache<V> createInUserSearchOrgUnitHierarchyCache()
+    public <V> Cache<V> createExpressionParseTreeCache()
     {
         return registerCache( this.<V> newBuilder()
-            .forRegion( Region.inUserSearchOuHierarchy.name() )
-            .expireAfterWrite( 1, TimeUnit.HOURS )
-            .withInitialCapacity( (int) getActualSize( SIZE_1K ) )
+            .forRegion( Region.expressionParseTree.name() )
+            .expireAfterAccess( 12, TimeUnit.HOURS )
             .forceInMemory()
             .withMaximumSize( orZeroInTestRun( getActualSize( SIZE_10K ) ) ) );
     }
@@ -37,6 +37,7 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Conditional;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 
@@ -55,9 +56,20 @@ public class NotifierConfiguration
     @SuppressWarnings( "unchecked" )
     @Bean( "notifier" )
     @Conditional( RedisEnabledCondition.class )
-    public Notifier redisNotifier( ObjectMapper objectMapper )
+    public Notifier redisNotifier( ObjectMapper objectMapper,
+        RedisMessageListenerContainer notificationListenerContainer )
     {
-        return new RedisNotifier( (RedisTemplate<String, String>) redisTemplate, objectMapper );
+        return new RedisNotifier( (RedisTemplate<String, String>) redisTemplate, objectMapper,
+            notificationListenerContainer );
+    }
+
+    @Bean
+    @Conditional( RedisEnabledCondition.class )
+    public RedisMessageListenerContainer notificationListenerContainer()
+    {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory( redisTemplate.getConnectionFactory() );
+        return container;
     }
 
     @Bean( "notifier" )
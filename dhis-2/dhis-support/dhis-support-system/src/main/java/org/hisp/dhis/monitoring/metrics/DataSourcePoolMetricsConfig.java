@@ -36,6 +36,9 @@ import java.util.Map;
 import javax.sql.DataSource;
 
 import org.apache.commons.lang3.StringUtils;
+import org.hisp.dhis.datasource.HealthAwareRoutingDataSource;
+import org.hisp.dhis.datasource.HealthAwareRoutingDataSource.Replica;
+import org.hisp.dhis.datasource.ReadOnlyDataSourceManager;
 import org.hisp.dhis.external.conf.ConfigurationKey;
 import org.hisp.dhis.monitoring.metrics.jdbc.C3p0MetadataProvider;
 import org.hisp.dhis.monitoring.metrics.jdbc.DataSourcePoolMetadataProvider;
@@ -49,6 +52,7 @@ import com.google.common.collect.Lists;
 import com.mchange.v2.c3p0.ComboPooledDataSource;
 
 import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
 
 /**
  * @author Luciano Fiandesio
@@ -80,6 +84,37 @@ public class DataSourcePoolMetricsConfig
             dataSources.forEach( this::bindDataSourceToRegistry );
         }
 
+        /**
+         * Binds the health of each read replica and, for C3P0 pools, its
+         * connection pool metrics tagged with the replica name.
+         */
+        @Autowired( required = false )
+        public void bindReadReplicasToRegistry( ReadOnlyDataSourceManager readOnlyDataSourceManager )
+        {
+            DataSource readOnlyDataSource = readOnlyDataSourceManager.getReadOnlyDataSource();
+
+            if ( !(readOnlyDataSource instanceof HealthAwareRoutingDataSource routingDataSource) )
+            {
+                return;
+            }
+
+            for ( Replica replica : routingDataSource.getReplicas() )
+            {
+                Tags tags = Tags.of( "name", replica.getName() );
+
+                registry.gauge( "jdbc.replica.lag", tags, replica, Replica::getLagSeconds );
+                registry.gauge( "jdbc.replica.saturation", tags, replica, Replica::getSaturation );
+                registry.gauge( "jdbc.replica.errors", tags, replica, Replica::getErrorRate );
+                registry.gauge( "jdbc.replica.healthy", tags, replica, r -> r.isHealthy() ? 1 : 0 );
+
+                if ( replica.getDataSource() instanceof ComboPooledDataSource )
+                {
+                    new DataSourcePoolMetrics( replica.getDataSource(), this.metadataProviders, replica.getName(),
+                        Collections.emptyList() ).bindTo( this.registry );
+                }
+            }
+        }
+
         private void bindDataSourceToRegistry( String beanName, DataSource dataSource )
         {
             String dataSourceName = getDataSourceName( beanName );
@@ -0,0 +1,801 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.system.grid;
+
+import static java.util.Collections.unmodifiableList;
+
+import java.sql.ResultSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import net.sf.jasperreports.engine.JRException;
+import net.sf.jasperreports.engine.JRField;
+
+import org.hisp.dhis.common.ExecutionPlan;
+import org.hisp.dhis.common.Grid;
+import org.hisp.dhis.common.GridHeader;
+import org.hisp.dhis.common.PerformanceMetrics;
+import org.hisp.dhis.common.Reference;
+import org.hisp.dhis.common.adapter.JacksonRowDataSerializer;
+import org.springframework.jdbc.support.rowset.SqlRowSet;
+import org.springframework.jdbc.support.rowset.SqlRowSetMetaData;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.google.common.collect.Lists;
+
+/**
+ * {@link Grid} which wraps a read-only snapshot grid and defers copying it
+ * until the first structural modification. Read operations are served
+ * directly from the snapshot, where rows and headers are exposed as
+ * unmodifiable views. Meta data maps are copied individually on first access
+ * as they are commonly modified after a grid has been produced, which allows
+ * rendering a grid without copying its rows.
+ * <p>
+ * The snapshot must never be modified by anyone else once wrapped. Instances
+ * of this class are not thread-safe, but any number of instances can safely
+ * share the same snapshot.
+ */
+public class CopyOnWriteGrid
+    implements Grid
+{
+    /**
+     * The shared snapshot, never modified.
+     */
+    private final Grid snapshot;
+
+    /**
+     * Private copy of the snapshot, created on the first structural
+     * modification.
+     */
+    private ListGrid copy;
+
+    /**
+     * Private copy of the meta data of the snapshot.
+     */
+    private Map<String, Object> metaData;
+
+    /**
+     * Private copy of the internal meta data of the snapshot.
+     */
+    private Map<String, Object> internalMetaData;
+
+    /**
+     * Private copy of the row context of the snapshot.
+     */
+    private Map<Integer, Map<String, Object>> rowContext;
+
+    /**
+     * @param snapshot the read-only {@link Grid} to wrap.
+     */
+    public CopyOnWriteGrid( Grid snapshot )
+    {
+        this.snapshot = snapshot;
+    }
+
+    /**
+     * Indicates whether this grid has been copied from the snapshot.
+     */
+    public boolean isCopied()
+    {
+        return copy != null;
+    }
+
+    // -------------------------------------------------------------------------
+    // Read operations
+    // -------------------------------------------------------------------------
+
+    @Override
+    @JsonProperty
+    public String getTitle()
+    {
+        return read().getTitle();
+    }
+
+    @Override
+    @JsonProperty
+    public String getSubtitle()
+    {
+        return read().getSubtitle();
+    }
+
+    @Override
+    @JsonProperty
+    public String getTable()
+    {
+        return read().getTable();
+    }
+
+    @Override
+    @JsonProperty
+    public List<GridHeader> getHeaders()
+    {
+        return copy != null ? copy.getHeaders() : unmodifiableList( snapshot.getHeaders() );
+    }
+
+    @Override
+    @JsonProperty
+    public Map<String, Object> getMetaData()
+    {
+        if ( copy != null )
+        {
+            return copy.getMetaData();
+        }
+
+        if ( metaData == null && snapshot.getMetaData() != null )
+        {
+            metaData = new HashMap<>( snapshot.getMetaData() );
+        }
+
+        return metaData;
+    }
+
+    @Override
+    @JsonIgnore
+    public Map<String, Object> getInternalMetaData()
+    {
+        if ( copy != null )
+        {
+            return copy.getInternalMetaData();
+        }
+
+        if ( internalMetaData == null && snapshot.getInternalMetaData() != null )
+        {
+            internalMetaData = new HashMap<>( snapshot.getInternalMetaData() );
+        }
+
+        return internalMetaData;
+    }
+
+    @Override
+    @JsonProperty
+    public Map<Integer, Map<String, Object>> getRowContext()
+    {
+        if ( copy != null )
+        {
+            return copy.getRowContext();
+        }
+
+        if ( rowContext == null && snapshot.getRowContext() != null )
+        {
+            rowContext = new TreeMap<>( snapshot.getRowContext() );
+        }
+
+        return rowContext;
+    }
+
+    @Override
+    @JsonProperty
+    public PerformanceMetrics getPerformanceMetrics()
+    {
+        return read().getPerformanceMetrics();
+    }
+
+    @Override
+    public List<GridHeader> getVisibleHeaders()
+    {
+        return read().getVisibleHeaders();
+    }
+
+    @Override
+    public List<GridHeader> getMetadataHeaders()
+    {
+        return read().getMetadataHeaders();
+    }
+
+    @Override
+    public int getIndexOfHeader( String name )
+    {
+        return read().getIndexOfHeader( name );
+    }
+
+    @Override
+    @JsonProperty
+    public int getHeight()
+    {
+        return read().getHeight();
+    }
+
+    @Override
+    @JsonProperty
+    public int getWidth()
+    {
+        return read().getWidth();
+    }
+
+    @Override
+    @JsonProperty
+    public int getHeaderWidth()
+    {
+        return read().getHeaderWidth();
+    }
+
+    @Override
+    public int getVisibleWidth()
+    {
+        return read().getVisibleWidth();
+    }
+
+    @Override
+    public List<Object> getRow( int rowIndex )
+    {
+        return copy != null ? copy.getRow( rowIndex ) : unmodifiableList( snapshot.getRow( rowIndex ) );
+    }
+
+    @Override
+    @JsonProperty
+    @JsonSerialize( using = JacksonRowDataSerializer.class )
+    public List<List<Object>> getRows()
+    {
+        return copy != null ? copy.getRows()
+            : unmodifiableList(
+                Lists.<List<Object>, List<Object>> transform( snapshot.getRows(), Collections::unmodifiableList ) );
+    }
+
+    @Override
+    @JsonProperty
+    public List<Reference> getRefs()
+    {
+        if ( copy != null )
+        {
+            return copy.getRefs();
+        }
+
+        return snapshot.getRefs() != null ? unmodifiableList( snapshot.getRefs() ) : null;
+    }
+
+    @Override
+    public List<List<Object>> getVisibleRows()
+    {
+        return read().getVisibleRows();
+    }
+
+    @Override
+    public List<Object> getColumn( int columnIndex )
+    {
+        return read().getColumn( columnIndex );
+    }
+
+    @Override
+    public Object getValue( int rowIndex, int columnIndex )
+    {
+        return read().getValue( rowIndex, columnIndex );
+    }
+
+    @Override
+    public boolean columnIsEmpty( int columnIndex )
+    {
+        return read().columnIsEmpty( columnIndex );
+    }
+
+    @Override
+    public boolean hasMetaDataKey( String key )
+    {
+        Map<String, Object> map = getMetaData();
+
+        return map != null && map.containsKey( key );
+    }
+
+    @Override
+    public boolean hasInternalMetaDataKey( String key )
+    {
+        Map<String, Object> map = getInternalMetaData();
+
+        return map != null && map.containsKey( key );
+    }
+
+    @Override
+    public List<Integer> getMetaColumnIndexes()
+    {
+        return read().getMetaColumnIndexes();
+    }
+
+    @Override
+    public Set<Object> getUniqueValues( String columnName )
+    {
+        return read().getUniqueValues( columnName );
+    }
+
+    @Override
+    public <T> Map<String, T> getAsMap( int valueIndex, String keySeparator )
+    {
+        return read().getAsMap( valueIndex, keySeparator );
+    }
+
+    @Override
+    public boolean hasLastDataRow()
+    {
+        return read().hasLastDataRow();
+    }
+
+    // -------------------------------------------------------------------------
+    // Meta data write operations, not requiring a copy of the rows
+    // -------------------------------------------------------------------------
+
+    @Override
+    public Grid setMetaData( Map<String, Object> metaData )
+    {
+        if ( copy != null )
+        {
+            copy.setMetaData( metaData );
+        }
+        else
+        {
+            this.metaData = metaData;
+        }
+
+        return this;
+    }
+
+    @Override
+    public Grid addMetaData( String key, Object value )
+    {
+        if ( copy != null )
+        {
+            copy.addMetaData( key, value );
+            return this;
+        }
+
+        if ( getMetaData() == null )
+        {
+            metaData = new HashMap<>();
+        }
+
+        metaData.put( key, value );
+        return this;
+    }
+
+    @Override
+    public Grid setInternalMetaData( Map<String, Object> internalMetaData )
+    {
+        if ( copy != null )
+        {
+            copy.setInternalMetaData( internalMetaData );
+        }
+        else
+        {
+            this.internalMetaData = internalMetaData;
+        }
+
+        return this;
+    }
+
+    @Override
+    public Grid setRowContext( Map<Integer, Map<String, Object>> rowContext )
+    {
+        if ( copy != null )
+        {
+            copy.setRowContext( rowContext );
+        }
+        else
+        {
+            this.rowContext = rowContext;
+        }
+
+        return this;
+    }
+
+    // -------------------------------------------------------------------------
+    // Write operations
+    // -------------------------------------------------------------------------
+
+    @Override
+    public Grid setTitle( String title )
+    {
+        write().setTitle( title );
+        return this;
+    }
+
+    @Override
+    public Grid setSubtitle( String subtitle )
+    {
+        write().setSubtitle( subtitle );
+        return this;
+    }
+
+    @Override
+    public Grid setTable( String table )
+    {
+        write().setTable( table );
+        return this;
+    }
+
+    @Override
+    public Grid addHeader( GridHeader header )
+    {
+        write().addHeader( header );
+        return this;
+    }
+
+    @Override
+    public Grid addHeader( int headerIndex, GridHeader header )
+    {
+        write().addHeader( headerIndex, header );
+        return this;
+    }
+
+    @Override
+    public Grid addHeaders( int headerIndex, List<GridHeader> headers )
+    {
+        write().addHeaders( headerIndex, headers );
+        return this;
+    }
+
+    @Override
+    public Grid addEmptyHeaders( int number )
+    {
+        write().addEmptyHeaders( number );
+        return this;
+    }
+
+    @Override
+    public Grid replaceHeaders( List<GridHeader> headers )
+    {
+        write().replaceHeaders( headers );
+        return this;
+    }
+
+    @Override
+    public Grid addRow()
+    {
+        write().addRow();
+        return this;
+    }
+
+    @Override
+    public Grid addRows( Grid grid )
+    {
+        write().addRows( grid );
+        return this;
+    }
+
+    @Override
+    public Grid addValue( Object value )
+    {
+        write().addValue( value );
+        return this;
+    }
+
+    @Override
+    public Grid addValues( Object[] values )
+    {
+        write().addValues( values );
+        return this;
+    }
+
+    @Override
+    public Grid addValuesVar( Object... values )
+    {
+        write().addValuesVar( values );
+        return this;
+    }
+
+    @Override
+    public Grid addValuesAsList( List<Object> values )
+    {
+        write().addValuesAsList( values );
+        return this;
+    }
+
+    @Override
+    public Grid addEmptyValue()
+    {
+        write().addEmptyValue();
+        return this;
+    }
+
+    @Override
+    public Grid addEmptyValues( int number )
+    {
+        write().addEmptyValues( number );
+        return this;
+    }
+
+    @Override
+    public Grid addNullValues( int number )
+    {
+        write().addNullValues( number );
+        return this;
+    }
+
+    @Override
+    public Grid addColumn( List<Object> columnValues )
+    {
+        write().addColumn( columnValues );
+        return this;
+    }
+
+    @Override
+    public Grid addColumn( int columnIndex, List<Object> columnValues )
+    {
+        write().addColumn( columnIndex, columnValues );
+        return this;
+    }
+
+    @Override
+    public Grid addAndPopulateColumnsBefore( int referenceColumnIndex, Map<Object, List<?>> valueMap,
+        int newColumns )
+    {
+        write().addAndPopulateColumnsBefore( referenceColumnIndex, valueMap, newColumns );
+        return this;
+    }
+
+    @Override
+    public Grid removeColumn( int columnIndex )
+    {
+        write().removeColumn( columnIndex );
+        return this;
+    }
+
+    @Override
+    public Grid removeEmptyColumns()
+    {
+        write().removeEmptyColumns();
+        return this;
+    }
+
+    @Override
+    public Grid removeColumn( GridHeader header )
+    {
+        write().removeColumn( header );
+        return this;
+    }
+
+    @Override
+    public Grid removeCurrentWriteRow()
+    {
+        write().removeCurrentWriteRow();
+        return this;
+    }
+
+    @Override
+    public Grid limitGrid( int limit )
+    {
+        write().limitGrid( limit );
+        return this;
+    }
+
+    @Override
+    public Grid limitGrid( int startPos, int endPos )
+    {
+        write().limitGrid( startPos, endPos );
+        return this;
+    }
+
+    @Override
+    public Grid sortGrid( int columnIndex, int order )
+    {
+        write().sortGrid( columnIndex, order );
+        return this;
+    }
+
+    @Override
+    public Grid addRegressionColumn( int columnIndex, boolean addHeader )
+    {
+        write().addRegressionColumn( columnIndex, addHeader );
+        return this;
+    }
+
+    @Override
+    public Grid addRegressionToGrid( int startColumnIndex, int numberOfColumns )
+    {
+        write().addRegressionToGrid( startColumnIndex, numberOfColumns );
+        return this;
+    }
+
+    @Override
+    public Grid addCumulativeColumn( int columnIndex, boolean addHeader )
+    {
+        write().addCumulativeColumn( columnIndex, addHeader );
+        return this;
+    }
+
+    @Override
+    public Grid addCumulativesToGrid( int startColumnIndex, int numberOfColumns )
+    {
+        write().addCumulativesToGrid( startColumnIndex, numberOfColumns );
+        return this;
+    }
+
+    @Override
+    public Grid substituteMetaData( Map<?, ?> metaDataMap )
+    {
+        write().substituteMetaData( metaDataMap );
+        return this;
+    }
+
+    @Override
+    public Grid substituteMetaData( int sourceColumnIndex, int targetColumnIndex, Map<?, ?> metaDataMap )
+    {
+        write().substituteMetaData( sourceColumnIndex, targetColumnIndex, metaDataMap );
+        return this;
+    }
+
+    @Override
+    public Grid addHeaders( ResultSet rs )
+    {
+        write().addHeaders( rs );
+        return this;
+    }
+
+    @Override
+    public Grid addHeaders( SqlRowSet rs )
+    {
+        write().addHeaders( rs );
+        return this;
+    }
+
+    @Override
+    public Grid addHeaders( SqlRowSetMetaData rowSetMetaData, boolean withTypes )
+    {
+        write().addHeaders( rowSetMetaData, withTypes );
+        return this;
+    }
+
+    @Override
+    public Grid addRows( ResultSet rs )
+    {
+        write().addRows( rs );
+        return this;
+    }
+
+    @Override
+    public Grid addRows( SqlRowSet rs )
+    {
+        write().addRows( rs );
+        return this;
+    }
+
+    @Override
+    public Grid addNamedRows( SqlRowSet rs )
+    {
+        write().addNamedRows( rs );
+        return this;
+    }
+
+    @Override
+    public Grid addRows( SqlRowSet rs, int maxLimit )
+    {
+        write().addRows( rs, maxLimit );
+        return this;
+    }
+
+    @Override
+    public Grid addPerformanceMetrics( List<ExecutionPlan> plans )
+    {
+        write().addPerformanceMetrics( plans );
+        return this;
+    }
+
+    @Override
+    public Grid addReference( Reference reference )
+    {
+        write().addReference( reference );
+        return this;
+    }
+
+    @Override
+    public void retainColumns( Set<String> columns )
+    {
+        write().retainColumns( columns );
+    }
+
+    @Override
+    public List<Integer> repositionHeaders( List<String> headers )
+    {
+        return write().repositionHeaders( headers );
+    }
+
+    @Override
+    public void repositionColumns( List<Integer> columnIndexes )
+    {
+        write().repositionColumns( columnIndexes );
+    }
+
+    @Override
+    public void setLastDataRow( boolean lastDataRow )
+    {
+        write().setLastDataRow( lastDataRow );
+    }
+
+    // -------------------------------------------------------------------------
+    // JRDataSource implementation, keeps a read cursor and hence requires a
+    // private copy
+    // -------------------------------------------------------------------------
+
+    @Override
+    public boolean next()
+        throws JRException
+    {
+        return write().next();
+    }
+
+    @Override
+    public Object getFieldValue( JRField field )
+        throws JRException
+    {
+        return write().getFieldValue( field );
+    }
+
+    // -------------------------------------------------------------------------
+    // Supportive methods
+    // -------------------------------------------------------------------------
+
+    /**
+     * Returns the grid to read from, which is the private copy if present and
+     * the snapshot otherwise.
+     */
+    private Grid read()
+    {
+        return copy != null ? copy : snapshot;
+    }
+
+    /**
+     * Returns the private copy of the snapshot, creating it if necessary.
+     * Meta data maps which have already been copied are carried over.
+     */
+    private ListGrid write()
+    {
+        if ( copy == null )
+        {
+            copy = new ListGrid( snapshot );
+
+            if ( metaData != null )
+            {
+                copy.setMetaData( metaData );
+            }
+
+            if ( internalMetaData != null )
+            {
+                copy.setInternalMetaData( internalMetaData );
+            }
+
+            if ( rowContext != null )
+            {
+                copy.setRowContext( rowContext );
+            }
+
+            metaData = null;
+            internalMetaData = null;
+            rowContext = null;
+        }
+
+        return copy;
+    }
+
+    @Override
+    public String toString()
+    {
+        return read().toString();
+    }
+}
@@ -287,6 +287,56 @@ public class GridUtils
         workbook.close();
     }
 
+    /**
+     * Writes a XLSX (Office Open XML workbook) representation of the given list
+     * of Grids to the given OutputStream.
+     */
+    public static void toXlsx( List<Grid> grids, OutputStream out )
+        throws IOException
+    {
+        try ( XlsxGridWriter writer = new XlsxGridWriter( out ) )
+        {
+            for ( int i = 0; i < grids.size(); i++ )
+            {
+                toXlsxInternal( grids.get( i ), writer, i + 1 );
+            }
+
+            writer.write();
+        }
+    }
+
+    /**
+     * Writes a XLSX (Office Open XML workbook) representation of the given Grid
+     * to the given OutputStream. Unlike XLS, there is no limit of 65536 rows
+     * and only a window of rows is held in memory while writing.
+     */
+    public static void toXlsx( Grid grid, OutputStream out )
+        throws IOException
+    {
+        try ( XlsxGridWriter writer = new XlsxGridWriter( out ) )
+        {
+            toXlsxInternal( grid, writer, 1 );
+            writer.write();
+        }
+    }
+
+    private static void toXlsxInternal( Grid grid, XlsxGridWriter writer, int sheetNo )
+    {
+        if ( grid == null )
+        {
+            return;
+        }
+
+        writer.startSheet( StringUtils.defaultIfEmpty( grid.getTitle(), XLS_SHEET_PREFIX + sheetNo ),
+            grid.getTitle(), grid.getSubtitle() );
+        writer.writeHeaders( grid.getVisibleHeaders() );
+
+        for ( List<Object> row : grid.getVisibleRows() )
+        {
+            writer.writeRow( row );
+        }
+    }
+
     /**
      * Writes a XLS (Excel workbook) representation of the given Grid to the
      * given OutputStream.
@@ -353,7 +403,7 @@ public class GridUtils
 
         rowNumber++;
 
-        CellStyle numberCellStyle = getNumberCellStyle( sheet );
+        CellStyle numberCellStyle = getNumberCellStyle( sheet.getWorkbook() );
 
         for ( List<Object> row : grid.getVisibleRows() )
         {
@@ -385,12 +435,11 @@ public class GridUtils
     /**
      * Returns a {@CellStyle} object with a default number format/mask.
      *
-     * @param sheet the {@link Sheet}
+     * @param wb the {@link Workbook}
      * @return the cell style object
      */
-    private static CellStyle getNumberCellStyle( Sheet sheet )
+    static CellStyle getNumberCellStyle( Workbook wb )
     {
-        Workbook wb = sheet.getWorkbook();
         DataFormat format = wb.createDataFormat();
 
         CellStyle cs = wb.createCellStyle();
@@ -885,7 +934,7 @@ public class GridUtils
         return grid != null && grid.getVisibleWidth() > 0;
     }
 
-    private static CellStyle createHeaderCellStyle( Workbook workbook )
+    static CellStyle createHeaderCellStyle( Workbook workbook )
     {
         CellStyle headerCellStyle = workbook.createCellStyle();
         Font headerFont = workbook.createFont();
@@ -896,7 +945,7 @@ public class GridUtils
         return headerCellStyle;
     }
 
-    private static CellStyle createCellStyle( Workbook workbook )
+    static CellStyle createCellStyle( Workbook workbook )
     {
         CellStyle cellStyle = workbook.createCellStyle();
         Font cellFont = workbook.createFont();
@@ -178,6 +178,39 @@ public class ListGrid
         this.grid = new ArrayList<>();
     }
 
+    /**
+     * Copy constructor. Creates a structural copy of the given grid, where the
+     * headers, rows and meta data containers are copied but the cell values
+     * and meta data values are shared, as they are treated as immutable.
+     *
+     * @param source the {@link Grid} to copy.
+     */
+    public ListGrid( Grid source )
+    {
+        this.title = source.getTitle();
+        this.subtitle = source.getSubtitle();
+        this.table = source.getTable();
+        this.headers = new ArrayList<>( source.getHeaders() );
+        this.metaData = source.getMetaData() != null ? new HashMap<>( source.getMetaData() ) : null;
+        this.internalMetaData = source.getInternalMetaData() != null
+            ? new HashMap<>( source.getInternalMetaData() )
+            : null;
+        this.rowContext = source.getRowContext() != null ? new TreeMap<>( source.getRowContext() ) : null;
+        this.performanceMetrics = source.getPerformanceMetrics();
+        this.refs = source.getRefs() != null ? new ArrayList<>( source.getRefs() ) : null;
+        this.lastDataRow = source.hasLastDataRow();
+        this.grid = new ArrayList<>( source.getHeight() );
+
+        for ( List<Object> row : source.getRows() )
+        {
+            this.grid.add( new ArrayList<>( row ) );
+        }
+
+        this.currentRowWriteIndex = this.grid.size() - 1;
+
+        updateColumnIndexMap();
+    }
+
     // ---------------------------------------------------------------------
     // Public methods
     // ---------------------------------------------------------------------
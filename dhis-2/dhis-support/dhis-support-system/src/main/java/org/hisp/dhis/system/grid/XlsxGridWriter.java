@@ -0,0 +1,189 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.system.grid;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.poi.ss.SpreadsheetVersion;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.util.WorkbookUtil;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.hisp.dhis.common.GridHeader;
+import org.hisp.dhis.common.GridWriter;
+import org.hisp.dhis.commons.collection.ListUtils;
+
+/**
+ * Writes grids as a XLSX (Office Open XML workbook) row by row. Only a window
+ * of the most recent rows is held in memory, older rows are flushed to a
+ * compressed temporary file, so memory use does not grow with the number of
+ * rows. The workbook is written to the output stream on {@link #write()}.
+ */
+public class XlsxGridWriter
+    implements GridWriter, Closeable
+{
+    private static final int ROW_WINDOW_SIZE = 100;
+
+    private static final String DEFAULT_SHEET_NAME = "Sheet 1";
+
+    private static final int MAX_COLS = SpreadsheetVersion.EXCEL2007.getMaxColumns();
+
+    private static final int MAX_ROWS = SpreadsheetVersion.EXCEL2007.getMaxRows();
+
+    private final OutputStream out;
+
+    private final SXSSFWorkbook workbook;
+
+    private final CellStyle headerCellStyle;
+
+    private final CellStyle cellStyle;
+
+    private final CellStyle numberCellStyle;
+
+    private SXSSFSheet sheet;
+
+    private int rowNumber;
+
+    public XlsxGridWriter( OutputStream out )
+    {
+        this.out = out;
+        this.workbook = new SXSSFWorkbook( ROW_WINDOW_SIZE );
+        this.workbook.setCompressTempFiles( true );
+        this.headerCellStyle = GridUtils.createHeaderCellStyle( workbook );
+        this.cellStyle = GridUtils.createCellStyle( workbook );
+        this.numberCellStyle = GridUtils.getNumberCellStyle( workbook );
+    }
+
+    /**
+     * Starts a new sheet. Title and subtitle are written above the headers
+     * unless empty.
+     *
+     * @param name the sheet name.
+     * @param title the title, can be null.
+     * @param subtitle the subtitle, can be null.
+     */
+    public void startSheet( String name, String title, String subtitle )
+    {
+        sheet = workbook.createSheet( WorkbookUtil.createSafeSheetName( name ) );
+        rowNumber = 0;
+
+        if ( StringUtils.isNotEmpty( title ) )
+        {
+            writeHeaderCell( sheet.createRow( rowNumber++ ), 0, title );
+        }
+
+        if ( StringUtils.isNotEmpty( subtitle ) )
+        {
+            writeHeaderCell( sheet.createRow( ++rowNumber ), 0, subtitle );
+            rowNumber++;
+        }
+    }
+
+    @Override
+    public void writeHeaders( List<GridHeader> headers )
+    {
+        if ( sheet == null )
+        {
+            startSheet( DEFAULT_SHEET_NAME, null, null );
+        }
+
+        Row headerRow = sheet.createRow( ++rowNumber );
+        int columnIndex = 0;
+
+        for ( GridHeader header : ListUtils.subList( headers, 0, MAX_COLS ) )
+        {
+            writeHeaderCell( headerRow, columnIndex++, header.getColumn() );
+        }
+
+        rowNumber++;
+    }
+
+    @Override
+    public void writeRow( List<Object> row )
+    {
+        if ( rowNumber >= MAX_ROWS )
+        {
+            throw new IllegalStateException( "Number of rows is larger than the max of a XLSX sheet: " + MAX_ROWS );
+        }
+
+        Row xlsRow = sheet.createRow( rowNumber++ );
+        xlsRow.setRowStyle( cellStyle );
+        int columnIndex = 0;
+
+        for ( Object column : ListUtils.subList( row, 0, MAX_COLS ) )
+        {
+            if ( column instanceof Number number )
+            {
+                Cell cell = xlsRow.createCell( columnIndex++, CellType.NUMERIC );
+                cell.setCellStyle( numberCellStyle );
+                cell.setCellValue( number.doubleValue() );
+            }
+            else
+            {
+                xlsRow.createCell( columnIndex++, CellType.STRING )
+                    .setCellValue( column != null ? String.valueOf( column ) : StringUtils.EMPTY );
+            }
+        }
+    }
+
+    /**
+     * Writes the workbook to the output stream, which is not closed. Nothing
+     * is written to the output stream before, so that a failure while adding
+     * rows does not leave a truncated workbook behind.
+     */
+    public void write()
+        throws IOException
+    {
+        workbook.write( out );
+    }
+
+    /**
+     * Deletes the temporary files holding the rows.
+     */
+    @Override
+    public void close()
+        throws IOException
+    {
+        workbook.dispose();
+        workbook.close();
+    }
+
+    private void writeHeaderCell( Row row, int columnIndex, String value )
+    {
+        Cell cell = row.createCell( columnIndex, CellType.STRING );
+        cell.setCellStyle( headerCellStyle );
+        cell.setCellValue( value );
+    }
+}
@@ -30,6 +30,7 @@ package org.hisp.dhis.system.notification;
 import java.util.Date;
 import java.util.Deque;
 import java.util.Map;
+import java.util.function.Consumer;
 
 import javax.annotation.Nonnull;
 
@@ -51,6 +52,8 @@ public class InMemoryNotifier implements Notifier
 
     private final NotificationMap notificationMap = new NotificationMap( MAX_POOL_TYPE_SIZE );
 
+    private final NotificationSubscribers subscribers = new NotificationSubscribers();
+
     @Override
     public Notifier notify( JobConfiguration id, @Nonnull NotificationLevel level, String message,
         boolean completed, NotificationDataType dataType, JsonNode data )
@@ -66,6 +69,7 @@ public class InMemoryNotifier implements Notifier
             }
 
             notificationMap.add( id, notification );
+            subscribers.publish( id.getJobType(), id.getUid(), notification );
 
             NotificationLoggerUtil.log( log, level, message );
         }
@@ -85,6 +89,18 @@ public class InMemoryNotifier implements Notifier
         return notificationMap.getNotificationsByJobId( jobType, jobId );
     }
 
+    @Override
+    public Deque<Notification> getNotificationsByJobId( JobType jobType, String jobId, long afterSeq )
+    {
+        return notificationMap.getNotificationsByJobId( jobType, jobId, afterSeq );
+    }
+
+    @Override
+    public Runnable subscribe( JobType jobType, String jobId, Consumer<Notification> listener )
+    {
+        return subscribers.subscribe( jobType, jobId, listener );
+    }
+
     @Override
     public Map<String, Deque<Notification>> getNotificationsByJobType( JobType jobType )
     {
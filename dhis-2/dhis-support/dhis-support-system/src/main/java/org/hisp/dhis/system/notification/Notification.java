@@ -74,6 +74,12 @@ public class Notification implements Comparable<Notification>
 
     private JsonNode data;
 
+    /**
+     * Sequence number of the notification, strictly increasing within a job
+     * so clients can ask for all notifications after the last one seen.
+     */
+    private long seq;
+
     // -------------------------------------------------------------------------
     // Constructors
     // -------------------------------------------------------------------------
@@ -163,6 +169,13 @@ public class Notification implements Comparable<Notification>
         return data;
     }
 
+    @JsonProperty
+    @JacksonXmlProperty( namespace = DxfNamespaces.DXF_2_0 )
+    public long getSeq()
+    {
+        return seq;
+    }
+
     @Override
     public int compareTo( @Nonnull Notification other )
     {
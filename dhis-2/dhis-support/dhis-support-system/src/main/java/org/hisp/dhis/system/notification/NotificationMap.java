@@ -29,15 +29,17 @@ package org.hisp.dhis.system.notification;
 
 import static java.util.Arrays.stream;
 import static java.util.Collections.unmodifiableMap;
+import static java.util.function.Function.identity;
 import static java.util.stream.Collectors.toMap;
 
 import java.util.Deque;
 import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.Map;
-import java.util.Map.Entry;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.ToIntFunction;
 import java.util.function.UnaryOperator;
 
@@ -57,16 +59,26 @@ import org.hisp.dhis.scheduling.JobType;
  * {@link JobType}'s {@link Pool} the overall oldest entry is removed and the
  * new one added. This means entries of another {@link JobConfiguration} can be
  * removed as long as they belong to the same {@link JobType}.
+ * <p>
+ * The {@link Notification}s of each job are kept in a {@link NotificationRing}
+ * so that adding does not allocate once the ring has reached its full size.
+ * Reading always returns a copy, newest first.
  *
  * @author Henning Håkonsen
  * @author Jan Bernitt (thread-safety)
  */
 public class NotificationMap
 {
-    private final Map<JobType, Pool<Deque<Notification>>> notificationsByJobType = new EnumMap<>( JobType.class );
+    private final Map<JobType, Pool<NotificationRing>> notificationsByJobType = new EnumMap<>( JobType.class );
 
     private final Map<JobType, Pool<Object>> summariesByJobType = new EnumMap<>( JobType.class );
 
+    /**
+     * Source of the {@link Notification#getSeq()} numbers. It is shared by all
+     * jobs so that numbers never restart when a job is cleared and run again.
+     */
+    private final AtomicLong sequence = new AtomicLong();
+
     @RequiredArgsConstructor
     static final class Pool<T>
     {
@@ -113,20 +125,28 @@ public class NotificationMap
 
     public Map<JobType, Map<String, Deque<Notification>>> getNotifications()
     {
-        return notificationsByJobType.entrySet().stream()
-            .collect( toMap( Entry::getKey, e -> e.getValue().valuesByJobId ) );
+        return notificationsByJobType.keySet().stream()
+            .collect( toMap( identity(), this::getNotificationsWithType ) );
     }
 
     public Deque<Notification> getNotificationsByJobId( JobType jobType, String jobId )
     {
-        Deque<Notification> res = notificationsByJobType.get( jobType ).valuesByJobId.get( jobId );
+        return getNotificationsByJobId( jobType, jobId, 0L );
+    }
+
+    public Deque<Notification> getNotificationsByJobId( JobType jobType, String jobId, long afterSeq )
+    {
+        NotificationRing res = notificationsByJobType.get( jobType ).valuesByJobId.get( jobId );
         // return a defensive copy
-        return res == null ? new LinkedList<>() : new LinkedList<>( res );
+        return res == null ? new LinkedList<>() : res.toDeque( afterSeq );
     }
 
     public Map<String, Deque<Notification>> getNotificationsWithType( JobType jobType )
     {
-        return unmodifiableMap( notificationsByJobType.get( jobType ).valuesByJobId );
+        Map<String, Deque<Notification>> res = new HashMap<>();
+        notificationsByJobType.get( jobType ).valuesByJobId
+            .forEach( ( jobId, notifications ) -> res.put( jobId, notifications.toDeque( 0L ) ) );
+        return unmodifiableMap( res );
     }
 
     public void add( JobConfiguration configuration, Notification notification )
@@ -136,10 +156,16 @@ public class NotificationMap
         {
             return;
         }
-        notificationsByJobType.get( configuration.getJobType() ).add( jobId,
-            NotificationMap::withLimit,
+        Pool<NotificationRing> pool = notificationsByJobType.get( configuration.getJobType() );
+        pool.add( jobId,
+            notifications -> notifications == null || notifications.removeOne() ? null : notifications,
             notifications -> notifications == null ? 0 : notifications.size(),
-            notifications -> withAdded( notifications, notification ) );
+            notifications -> {
+                NotificationRing ring = notifications == null ? new NotificationRing( pool.capacity ) : notifications;
+                notification.setSeq( sequence.incrementAndGet() );
+                ring.add( notification );
+                return ring;
+            } );
     }
 
     public void addSummary( JobConfiguration configuration, Object summary )
@@ -172,40 +198,4 @@ public class NotificationMap
         notificationsByJobType.get( jobType ).remove( jobId );
         summariesByJobType.get( jobType ).remove( jobId );
     }
-
-    private static Deque<Notification> withAdded( Deque<Notification> notifications, Notification item )
-    {
-        if ( notifications == null )
-        {
-            notifications = new ConcurrentLinkedDeque<>();
-        }
-        Notification mostRecent = notifications.peekFirst();
-        if ( mostRecent != null && mostRecent.getLevel() == NotificationLevel.LOOP )
-        {
-            notifications.pollFirst();
-        }
-        notifications.addFirst( item );
-        return notifications;
-    }
-
-    private static Deque<Notification> withLimit( Deque<Notification> notifications )
-    {
-        if ( notifications != null )
-        {
-            Notification mostRecent = notifications.peekFirst();
-            if ( mostRecent != null && mostRecent.getLevel() == NotificationLevel.LOOP )
-            {
-                notifications.pollFirst();
-            }
-            else
-            {
-                notifications.pollLast();
-            }
-            if ( notifications.isEmpty() )
-            {
-                return null;
-            }
-        }
-        return notifications;
-    }
 }
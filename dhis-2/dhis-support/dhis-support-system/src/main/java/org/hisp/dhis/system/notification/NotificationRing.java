@@ -0,0 +1,159 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.system.notification;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * A fixed capacity ring buffer of the {@link Notification}s of a single job.
+ * <p>
+ * The backing array starts small and grows up to the capacity. Once it has
+ * reached full size adding a {@link Notification} overwrites a slot instead of
+ * allocating a new node. The most recent {@link NotificationLevel#LOOP}
+ * notification is replaced by the next one added, same as before.
+ * <p>
+ * Each {@link Notification} carries a sequence number
+ * ({@link Notification#getSeq()}) which is strictly increasing within the ring
+ * so that clients can ask for all notifications after the last one they have
+ * seen.
+ */
+final class NotificationRing
+{
+    private static final int INITIAL_SIZE = 16;
+
+    private final int capacity;
+
+    private Notification[] slots;
+
+    /**
+     * Index of the most recent entry
+     */
+    private int head = -1;
+
+    private int size;
+
+    NotificationRing( int capacity )
+    {
+        this.capacity = capacity;
+        this.slots = new Notification[Math.min( INITIAL_SIZE, capacity )];
+    }
+
+    synchronized int size()
+    {
+        return size;
+    }
+
+    /**
+     * Adds a {@link Notification}. If the ring is full the oldest entry is
+     * overwritten.
+     */
+    synchronized void add( Notification notification )
+    {
+        if ( size > 0 && slots[head].getLevel() == NotificationLevel.LOOP )
+        {
+            slots[head] = notification;
+            return;
+        }
+        if ( size == slots.length && size < capacity )
+        {
+            grow();
+        }
+        head = (head + 1) % slots.length;
+        slots[head] = notification;
+        if ( size < slots.length )
+        {
+            size++;
+        }
+    }
+
+    /**
+     * Removes one entry to free capacity. A {@link NotificationLevel#LOOP}
+     * notification at the head is dropped first, otherwise the oldest entry
+     * is removed.
+     *
+     * @return true if the ring is empty after the removal
+     */
+    synchronized boolean removeOne()
+    {
+        if ( size == 0 )
+        {
+            return true;
+        }
+        if ( slots[head].getLevel() == NotificationLevel.LOOP )
+        {
+            slots[head] = null;
+            head = (head - 1 + slots.length) % slots.length;
+        }
+        else
+        {
+            slots[indexOf( size - 1 )] = null;
+        }
+        size--;
+        return size == 0;
+    }
+
+    /**
+     * @param afterSeq only {@link Notification}s with a sequence number larger
+     *        than this are included, use 0 for all
+     * @return a copy of the {@link Notification}s newest first
+     */
+    synchronized Deque<Notification> toDeque( long afterSeq )
+    {
+        Deque<Notification> res = new ArrayDeque<>( size );
+        for ( int i = 0; i < size; i++ )
+        {
+            Notification n = slots[indexOf( i )];
+            if ( n.getSeq() <= afterSeq )
+            {
+                break;
+            }
+            res.addLast( n );
+        }
+        return res;
+    }
+
+    /**
+     * @param age 0 for the newest entry, size-1 for the oldest
+     */
+    private int indexOf( int age )
+    {
+        return (head - age + slots.length) % slots.length;
+    }
+
+    private void grow()
+    {
+        Notification[] grown = new Notification[Math.min( capacity, slots.length * 2 )];
+        for ( int i = 0; i < size; i++ )
+        {
+            grown[size - 1 - i] = slots[indexOf( i )];
+        }
+        slots = grown;
+        head = size - 1;
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.system.notification;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.function.Consumer;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.hisp.dhis.scheduling.JobType;
+
+/**
+ * Keeps track of the listeners that want to be pushed {@link Notification}s of
+ * a particular job as they are added.
+ * <p>
+ * Listeners are called on the thread that adds the {@link Notification} and
+ * therefore should only hand the notification over to do any work elsewhere.
+ */
+@Slf4j
+final class NotificationSubscribers
+{
+    private final Map<String, Set<Consumer<Notification>>> listenersByJob = new ConcurrentHashMap<>();
+
+    Runnable subscribe( JobType jobType, String jobId, Consumer<Notification> listener )
+    {
+        String key = jobType.name() + ":" + jobId;
+        listenersByJob.compute( key, ( k, listeners ) -> {
+            Set<Consumer<Notification>> res = listeners == null ? new CopyOnWriteArraySet<>() : listeners;
+            res.add( listener );
+            return res;
+        } );
+        return () -> listenersByJob.computeIfPresent( key, ( k, listeners ) -> {
+            listeners.remove( listener );
+            return listeners.isEmpty() ? null : listeners;
+        } );
+    }
+
+    boolean isEmpty()
+    {
+        return listenersByJob.isEmpty();
+    }
+
+    void publish( JobType jobType, String jobId, Notification notification )
+    {
+        if ( listenersByJob.isEmpty() )
+        {
+            return;
+        }
+        Set<Consumer<Notification>> listeners = listenersByJob.get( jobType.name() + ":" + jobId );
+        if ( listeners == null )
+        {
+            return;
+        }
+        for ( Consumer<Notification> listener : listeners )
+        {
+            try
+            {
+                listener.accept( notification );
+            }
+            catch ( RuntimeException ex )
+            {
+                log.warn( "Notification listener failed: " + ex.getMessage() );
+            }
+        }
+    }
+}
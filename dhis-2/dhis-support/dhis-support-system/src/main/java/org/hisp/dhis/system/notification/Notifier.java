@@ -29,6 +29,7 @@ package org.hisp.dhis.system.notification;
 
 import java.util.Deque;
 import java.util.Map;
+import java.util.function.Consumer;
 
 import javax.annotation.Nonnull;
 
@@ -94,6 +95,28 @@ public interface Notifier
 
     Deque<Notification> getNotificationsByJobId( JobType jobType, String jobId );
 
+    /**
+     * @param afterSeq the {@link Notification#getSeq()} of the most recent
+     *        notification the client has already seen, 0 for all
+     * @return the {@link Notification}s of the job that are newer than the
+     *         given sequence number, newest first
+     */
+    default Deque<Notification> getNotificationsByJobId( JobType jobType, String jobId, long afterSeq )
+    {
+        Deque<Notification> res = getNotificationsByJobId( jobType, jobId );
+        res.removeIf( n -> n.getSeq() <= afterSeq );
+        return res;
+    }
+
+    /**
+     * Registers a listener that is called with each {@link Notification} added
+     * for the given job from now on. The listener is called on the thread that
+     * adds the notification and must not block.
+     *
+     * @return an action that removes the listener again
+     */
+    Runnable subscribe( JobType jobType, String jobId, Consumer<Notification> listener );
+
     Map<String, Deque<Notification>> getNotificationsByJobType( JobType jobType );
 
     Notifier clear( JobConfiguration id );
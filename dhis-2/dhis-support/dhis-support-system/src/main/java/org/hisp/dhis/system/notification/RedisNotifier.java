@@ -35,6 +35,7 @@ import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Consumer;
 
 import javax.annotation.Nonnull;
 
@@ -43,7 +44,10 @@ import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.hisp.dhis.scheduling.JobConfiguration;
 import org.hisp.dhis.scheduling.JobType;
+import org.springframework.data.redis.connection.Message;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
@@ -55,6 +59,11 @@ import com.fasterxml.jackson.databind.ObjectMapper;
  * are important, (to limit the maximum number of objects held), we use a
  * combination of "Sorted Sets" , "HashMaps" and "Values" (data structures in
  * redis) to have a similar behaviour as InMemoryNotifier.
+ * <p>
+ * Notifications are scored by their sequence number which is drawn from a
+ * cluster wide counter. New notifications are published on a redis channel so
+ * that listeners on any node of the cluster are pushed the notifications of all
+ * nodes.
  *
  * @author Ameen Mohamed
  */
@@ -75,18 +84,42 @@ public class RedisNotifier implements Notifier
 
     private static final String SUMMARY_TYPE_PREFIX = "summary:type:";
 
+    private static final String NOTIFICATION_SEQUENCE_KEY = "notification:seq";
+
+    private static final String NOTIFICATION_CHANNEL = "notification:events";
+
     private static final String COLON = ":";
 
     private static final int MAX_POOL_TYPE_SIZE = 500;
 
     private final ObjectMapper jsonMapper;
 
+    private final NotificationSubscribers subscribers = new NotificationSubscribers();
+
+    /**
+     * When null notifications are only pushed to listeners of this node
+     */
+    private final RedisMessageListenerContainer listenerContainer;
+
     public RedisNotifier(
         RedisTemplate<String, String> redisTemplate,
         ObjectMapper jsonMapper )
+    {
+        this( redisTemplate, jsonMapper, null );
+    }
+
+    public RedisNotifier(
+        RedisTemplate<String, String> redisTemplate,
+        ObjectMapper jsonMapper,
+        RedisMessageListenerContainer listenerContainer )
     {
         this.redisTemplate = redisTemplate;
         this.jsonMapper = jsonMapper;
+        this.listenerContainer = listenerContainer;
+        if ( listenerContainer != null )
+        {
+            listenerContainer.addMessageListener( this::onMessage, new ChannelTopic( NOTIFICATION_CHANNEL ) );
+        }
     }
 
     // -------------------------------------------------------------------------
@@ -114,6 +147,9 @@ public class RedisNotifier implements Notifier
 
             try
             {
+                Long seq = redisTemplate.boundValueOps( NOTIFICATION_SEQUENCE_KEY ).increment();
+                notification.setSeq( seq == null ? now.getTime() : seq );
+
                 Long zCard = redisTemplate.boundZSetOps( notificationOrderKey ).zCard();
                 if ( zCard != null && zCard >= MAX_POOL_TYPE_SIZE )
                 {
@@ -125,9 +161,12 @@ public class RedisNotifier implements Notifier
                     redisTemplate.boundZSetOps( notificationOrderKey ).removeRange( 0, 0 );
                 }
 
-                redisTemplate.boundZSetOps( notificationKey ).add( jsonMapper.writeValueAsString( notification ),
-                    now.getTime() );
+                String json = jsonMapper.writeValueAsString( notification );
+                redisTemplate.boundZSetOps( notificationKey ).add( json, notification.getSeq() );
+                // keep the newest entries only, the set acts as ring buffer
+                redisTemplate.boundZSetOps( notificationKey ).removeRange( 0, -(MAX_POOL_TYPE_SIZE + 1L) );
                 redisTemplate.boundZSetOps( notificationOrderKey ).add( id.getUid(), now.getTime() );
+                publish( id.getJobType(), id.getUid(), notification, json );
             }
             catch ( JsonProcessingException ex )
             {
@@ -153,16 +192,28 @@ public class RedisNotifier implements Notifier
     @Override
     public Deque<Notification> getNotificationsByJobId( JobType jobType, String jobId )
     {
-        Set<String> notifications = redisTemplate.boundZSetOps( generateNotificationKey( jobType, jobId ) ).range( 0,
-            -1 );
+        return getNotificationsByJobId( jobType, jobId, 0L );
+    }
+
+    @Override
+    public Deque<Notification> getNotificationsByJobId( JobType jobType, String jobId, long afterSeq )
+    {
+        Set<String> notifications = redisTemplate.boundZSetOps( generateNotificationKey( jobType, jobId ) )
+            .reverseRangeByScore( afterSeq + 1d, Double.MAX_VALUE );
         if ( notifications == null )
             return new LinkedList<>();
         Deque<Notification> res = new LinkedList<>();
-        notifications.stream().sorted().forEach( notification -> executeLogErrors(
+        notifications.forEach( notification -> executeLogErrors(
             () -> res.add( jsonMapper.readValue( notification, Notification.class ) ) ) );
         return res;
     }
 
+    @Override
+    public Runnable subscribe( JobType jobType, String jobId, Consumer<Notification> listener )
+    {
+        return subscribers.subscribe( jobType, jobId, listener );
+    }
+
     @Override
     public Map<String, Deque<Notification>> getNotificationsByJobType( JobType jobType )
     {
@@ -291,6 +342,45 @@ public class RedisNotifier implements Notifier
         return null;
     }
 
+    /**
+     * With a listener container the notification is sent to all nodes of the
+     * cluster (including this one) which then push it to their local
+     * listeners.
+     */
+    private void publish( JobType jobType, String jobId, Notification notification, String json )
+    {
+        if ( listenerContainer == null )
+        {
+            subscribers.publish( jobType, jobId, notification );
+            return;
+        }
+        redisTemplate.convertAndSend( NOTIFICATION_CHANNEL, jobType.name() + COLON + jobId + COLON + json );
+    }
+
+    private void onMessage( Message message, byte[] pattern )
+    {
+        if ( subscribers.isEmpty() )
+        {
+            return;
+        }
+        Object body = redisTemplate.getValueSerializer().deserialize( message.getBody() );
+        if ( !(body instanceof String) )
+        {
+            return;
+        }
+        String event = (String) body;
+        int typeEnd = event.indexOf( COLON );
+        int jobIdEnd = event.indexOf( COLON, typeEnd + 1 );
+        if ( typeEnd < 0 || jobIdEnd < 0 )
+        {
+            return;
+        }
+        executeLogErrors( () -> subscribers.publish(
+            JobType.valueOf( event.substring( 0, typeEnd ) ),
+            event.substring( typeEnd + 1, jobIdEnd ),
+            jsonMapper.readValue( event.substring( jobIdEnd + 1 ), Notification.class ) ) );
+    }
+
     private static String generateNotificationKey( JobType jobType, String jobUid )
     {
         return NOTIFICATIONS_KEY_PREFIX + jobType.toString() + COLON + jobUid;
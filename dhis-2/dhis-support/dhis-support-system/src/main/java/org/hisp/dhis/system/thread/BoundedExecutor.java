@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.system.thread;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.springframework.util.Assert;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * {@link Executor} with an upper bound on the number of threads. When all
+ * threads are busy, tasks are run by the submitting thread instead of being
+ * queued, which slows down the submitter and hence applies back-pressure.
+ * Not queueing tasks also means that tasks can safely block on the completion
+ * of other tasks submitted to the same executor.
+ * <p>
+ * Tasks can be wrapped with {@link #timed(String, Supplier)} to record the
+ * time from submission to start and the execution time per stage as
+ * {@code <name>.wait} and {@code <name>.execution} timers tagged with the
+ * stage name.
+ */
+public class BoundedExecutor
+    implements Executor
+{
+    private static final String TAG_STAGE = "stage";
+
+    private final String name;
+
+    private final ThreadPoolExecutor executor;
+
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * @param name the name of the executor, used for thread and metric names.
+     * @param maxThreads the maximum number of threads.
+     * @param meterRegistry the {@link MeterRegistry} to register metrics with.
+     */
+    public BoundedExecutor( String name, int maxThreads, MeterRegistry meterRegistry )
+    {
+        Assert.hasText( name, "Name must be specified" );
+        Assert.isTrue( maxThreads > 0, "Max threads must be greater than zero" );
+        Assert.notNull( meterRegistry, "MeterRegistry must not be null" );
+
+        this.name = name;
+        this.meterRegistry = meterRegistry;
+        this.executor = new ThreadPoolExecutor( maxThreads, maxThreads, 60L, TimeUnit.SECONDS,
+            new SynchronousQueue<>(),
+            new ThreadFactoryBuilder()
+                .setNameFormat( name.replace( '.', '-' ).toUpperCase() + "-%d" )
+                .setDaemon( true )
+                .build(),
+            new CallerRunsUnlessShutdownPolicy( meterRegistry.counter( name + ".caller.runs" ) ) );
+        this.executor.allowCoreThreadTimeOut( true );
+
+        meterRegistry.gauge( name + ".threads.active", executor, ThreadPoolExecutor::getActiveCount );
+        meterRegistry.gauge( name + ".threads.max", executor, ThreadPoolExecutor::getMaximumPoolSize );
+    }
+
+    @Override
+    public void execute( Runnable command )
+    {
+        executor.execute( command );
+    }
+
+    /**
+     * Wraps the given supplier so that the time from invocation of this method
+     * until the supplier starts and the execution time of the supplier are
+     * recorded for the given stage. The supplier is expected to be submitted
+     * right after it has been wrapped.
+     *
+     * @param stage the name of the stage.
+     * @param supplier the {@link Supplier}.
+     * @return a timed {@link Supplier}.
+     */
+    public <T> Supplier<T> timed( String stage, Supplier<T> supplier )
+    {
+        Timer waitTimer = Timer.builder( name + ".wait" ).tag( TAG_STAGE, stage ).register( meterRegistry );
+        Timer executionTimer = Timer.builder( name + ".execution" ).tag( TAG_STAGE, stage )
+            .register( meterRegistry );
+
+        long submitted = System.nanoTime();
+
+        return () -> {
+            long started = System.nanoTime();
+            waitTimer.record( started - submitted, TimeUnit.NANOSECONDS );
+
+            try
+            {
+                return supplier.get();
+            }
+            finally
+            {
+                executionTimer.record( System.nanoTime() - started, TimeUnit.NANOSECONDS );
+            }
+        };
+    }
+
+    /**
+     * Initiates an orderly shutdown of the executor.
+     */
+    public void shutdown()
+    {
+        executor.shutdown();
+    }
+
+    /**
+     * Runs rejected tasks on the submitting thread while the executor is
+     * running. {@link ThreadPoolExecutor.CallerRunsPolicy} silently discards
+     * tasks after shutdown, which leaves futures of these tasks incomplete
+     * forever. This policy rejects them instead.
+     */
+    private static class CallerRunsUnlessShutdownPolicy
+        implements RejectedExecutionHandler
+    {
+        private final Counter callerRuns;
+
+        CallerRunsUnlessShutdownPolicy( Counter callerRuns )
+        {
+            this.callerRuns = callerRuns;
+        }
+
+        @Override
+        public void rejectedExecution( Runnable task, ThreadPoolExecutor executor )
+        {
+            if ( executor.isShutdown() )
+            {
+                throw new RejectedExecutionException( "Executor has been shut down" );
+            }
+
+            callerRuns.increment();
+            task.run();
+        }
+    }
+}
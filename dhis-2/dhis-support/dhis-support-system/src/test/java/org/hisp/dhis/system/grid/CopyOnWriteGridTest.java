@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.system.grid;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.hisp.dhis.common.Grid;
+import org.hisp.dhis.common.GridHeader;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link CopyOnWriteGrid}.
+ */
+class CopyOnWriteGridTest
+{
+    private Grid snapshot;
+
+    @BeforeEach
+    void setUp()
+    {
+        snapshot = new ListGrid();
+        snapshot.addHeader( new GridHeader( "colA" ) )
+            .addHeader( new GridHeader( "colB" ) )
+            .addRow().addValue( "A1" ).addValue( 1 )
+            .addRow().addValue( "A2" ).addValue( 2 );
+        snapshot.addMetaData( "keyA", "valueA" );
+    }
+
+    @Test
+    void testReadDoesNotCopy()
+    {
+        CopyOnWriteGrid grid = new CopyOnWriteGrid( snapshot );
+
+        assertEquals( 2, grid.getHeight() );
+        assertEquals( 2, grid.getWidth() );
+        assertEquals( "A2", grid.getValue( 1, 0 ) );
+        assertEquals( 2, grid.getRows().size() );
+        assertEquals( 1, grid.getIndexOfHeader( "colB" ) );
+        assertEquals( "valueA", grid.getMetaData().get( "keyA" ) );
+        assertFalse( grid.isCopied() );
+    }
+
+    @Test
+    void testRowsAreUnmodifiable()
+    {
+        CopyOnWriteGrid grid = new CopyOnWriteGrid( snapshot );
+
+        List<List<Object>> rows = grid.getRows();
+
+        assertThrows( UnsupportedOperationException.class, () -> rows.add( List.of() ) );
+        assertThrows( UnsupportedOperationException.class, () -> rows.get( 0 ).set( 0, "X" ) );
+        assertThrows( UnsupportedOperationException.class, () -> grid.getHeaders().clear() );
+    }
+
+    @Test
+    void testMetaDataModificationDoesNotCopyRows()
+    {
+        CopyOnWriteGrid grid = new CopyOnWriteGrid( snapshot );
+
+        grid.addMetaData( "keyB", "valueB" );
+        grid.getMetaData().put( "keyC", "valueC" );
+
+        assertEquals( 3, grid.getMetaData().size() );
+        assertEquals( 1, snapshot.getMetaData().size() );
+        assertFalse( grid.isCopied() );
+    }
+
+    @Test
+    void testAddMetaDataWithoutSnapshotMetaData()
+    {
+        snapshot.setMetaData( null );
+        CopyOnWriteGrid grid = new CopyOnWriteGrid( snapshot );
+
+        grid.addMetaData( "keyB", "valueB" );
+
+        assertEquals( "valueB", grid.getMetaData().get( "keyB" ) );
+        assertNull( snapshot.getMetaData() );
+        assertFalse( grid.isCopied() );
+    }
+
+    @Test
+    void testWriteCopiesSnapshot()
+    {
+        CopyOnWriteGrid grid = new CopyOnWriteGrid( snapshot );
+
+        grid.addMetaData( "keyB", "valueB" );
+        grid.addHeader( new GridHeader( "colC" ) );
+        grid.addColumn( List.of( "C1", "C2" ) );
+        grid.addRow().addValue( "A3" ).addValue( 3 ).addValue( "C3" );
+
+        assertTrue( grid.isCopied() );
+        assertEquals( 3, grid.getHeight() );
+        assertEquals( 3, grid.getWidth() );
+        assertEquals( "C3", grid.getValue( 2, 2 ) );
+        assertEquals( "valueB", grid.getMetaData().get( "keyB" ) );
+
+        assertEquals( 2, snapshot.getHeight() );
+        assertEquals( 2, snapshot.getWidth() );
+        assertEquals( 2, snapshot.getHeaderWidth() );
+        assertEquals( 1, snapshot.getMetaData().size() );
+    }
+
+    @Test
+    void testSortDoesNotAffectSnapshot()
+    {
+        Grid gridA = new CopyOnWriteGrid( snapshot );
+        Grid gridB = new CopyOnWriteGrid( snapshot );
+
+        gridA.sortGrid( 2, 1 );
+
+        assertEquals( "A2", gridA.getValue( 0, 0 ) );
+        assertEquals( "A1", gridB.getValue( 0, 0 ) );
+        assertEquals( "A1", snapshot.getValue( 0, 0 ) );
+    }
+}
@@ -29,14 +29,20 @@ package org.hisp.dhis.system.grid;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
 
 import org.apache.commons.io.IOUtils;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.hisp.dhis.common.CodeGenerator;
 import org.hisp.dhis.common.DimensionalItemObject;
 import org.hisp.dhis.common.Grid;
+import org.hisp.dhis.common.GridHeader;
 import org.hisp.dhis.period.Period;
 import org.hisp.dhis.period.PeriodType;
 import org.junit.jupiter.api.Test;
@@ -62,6 +68,36 @@ class GridUtilsTest
         assertEquals( "TitleA", grids.get( 0 ).getTitle() );
     }
 
+    @Test
+    void testToXlsxBeyondXlsRowLimit()
+        throws Exception
+    {
+        Grid grid = new ListGrid();
+        grid.setTitle( "TitleA" );
+        grid.addHeader( new GridHeader( "name", "Name" ) );
+        grid.addHeader( new GridHeader( "value", "Value" ) );
+
+        int rows = 70_000;
+
+        for ( int i = 0; i < rows; i++ )
+        {
+            grid.addRow().addValue( "Row " + i ).addValue( i );
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        GridUtils.toXlsx( grid, out );
+
+        try ( Workbook workbook = new XSSFWorkbook( new ByteArrayInputStream( out.toByteArray() ) ) )
+        {
+            Sheet sheet = workbook.getSheet( "TitleA" );
+            assertEquals( "TitleA", sheet.getRow( 0 ).getCell( 0 ).getStringCellValue() );
+            assertEquals( "Name", sheet.getRow( 2 ).getCell( 0 ).getStringCellValue() );
+            assertEquals( "Row 0", sheet.getRow( 3 ).getCell( 0 ).getStringCellValue() );
+            assertEquals( "Row 69999", sheet.getRow( rows + 2 ).getCell( 0 ).getStringCellValue() );
+            assertEquals( 69999d, sheet.getRow( rows + 2 ).getCell( 1 ).getNumericCellValue() );
+        }
+    }
+
     @Test
     void testGetGridIndexByDimensionItem()
     {
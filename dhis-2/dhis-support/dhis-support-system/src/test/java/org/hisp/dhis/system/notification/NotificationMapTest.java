@@ -27,6 +27,7 @@
  */
 package org.hisp.dhis.system.notification;
 
+import static java.util.stream.Collectors.toList;
 import static org.hisp.dhis.scheduling.JobType.DATAVALUE_IMPORT;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
@@ -35,6 +36,7 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.util.Date;
 import java.util.Deque;
+import java.util.List;
 import java.util.Map;
 
 import org.hisp.dhis.scheduling.JobConfiguration;
@@ -79,18 +81,89 @@ class NotificationMapTest
         assertEquals( maxSize, jobNotifications.size() );
         // Add one more
         notifications.add( config, newNotification( config, maxSize ) );
+        jobNotifications = notifications.getNotificationsByJobId( config.getJobType(), config.getUid() );
         // Check that oldest job is not in the map anymore
         assertFalse( jobNotifications.stream().anyMatch( n -> "0".equals( n.getMessage() ) ) );
         assertTrue( jobNotifications.stream().anyMatch( n -> (maxSize + "").equals( n.getMessage() ) ) );
         assertEquals( maxSize, jobNotifications.size() );
         // Add one more
         notifications.add( config, newNotification( config, maxSize + 1 ) );
+        jobNotifications = notifications.getNotificationsByJobId( config.getJobType(), config.getUid() );
         // Check that oldest job is not in the map anymore
         assertFalse( jobNotifications.stream().anyMatch( n -> "1".equals( n.getMessage() ) ) );
         assertTrue( jobNotifications.stream().anyMatch( n -> ((maxSize + 1) + "").equals( n.getMessage() ) ) );
         assertEquals( maxSize, jobNotifications.size() );
     }
 
+    @Test
+    void testGetNotificationsByJobIdAfterSeq()
+    {
+        JobConfiguration config = new JobConfiguration( null, DATAVALUE_IMPORT, "userId", false );
+        config.setUid( "1" );
+        addNotificationEntries( config, 5 );
+
+        Deque<Notification> all = notifications.getNotificationsByJobId( config.getJobType(), config.getUid() );
+        assertEquals( List.of( "4", "3", "2", "1", "0" ), toMessages( all ) );
+        long seq = all.getFirst().getSeq();
+        assertTrue( seq > all.getLast().getSeq() );
+
+        notifications.add( config, newNotification( config, 5 ) );
+        notifications.add( config, newNotification( config, 6 ) );
+        Deque<Notification> newer = notifications.getNotificationsByJobId( config.getJobType(), config.getUid(),
+            seq );
+        assertEquals( List.of( "6", "5" ), toMessages( newer ) );
+    }
+
+    @Test
+    void testSeqDoesNotRestartAfterClear()
+    {
+        JobConfiguration config = new JobConfiguration( null, DATAVALUE_IMPORT, "userId", false );
+        config.setUid( "1" );
+        addNotificationEntries( config, 3 );
+        long seq = notifications.getNotificationsByJobId( config.getJobType(), config.getUid() ).getFirst()
+            .getSeq();
+
+        notifications.clear( config );
+        notifications.add( config, newNotification( config, 3 ) );
+        assertEquals( List.of( "3" ), toMessages(
+            notifications.getNotificationsByJobId( config.getJobType(), config.getUid(), seq ) ) );
+    }
+
+    @Test
+    void testLoopNotificationIsReplaced()
+    {
+        JobConfiguration config = new JobConfiguration( null, DATAVALUE_IMPORT, "userId", false );
+        config.setUid( "1" );
+        notifications.add( config, newNotification( config, 0 ) );
+        for ( int i = 1; i <= 3; i++ )
+        {
+            notifications.add( config, new Notification( NotificationLevel.LOOP, config.getJobType(), new Date(),
+                "" + i, false, null, null ) );
+        }
+        assertEquals( List.of( "3", "0" ),
+            toMessages( notifications.getNotificationsByJobId( config.getJobType(), config.getUid() ) ) );
+    }
+
+    @Test
+    void testRingKeepsNewestWhenCapacityIsExceeded()
+    {
+        JobConfiguration config = new JobConfiguration( null, DATAVALUE_IMPORT, "userId", false );
+        config.setUid( "1" );
+        // grows the ring past its initial size and wraps around twice
+        addNotificationEntries( config, 120 );
+
+        Deque<Notification> jobNotifications = notifications.getNotificationsByJobId( config.getJobType(),
+            config.getUid() );
+        assertEquals( 50, jobNotifications.size() );
+        assertEquals( "119", jobNotifications.getFirst().getMessage() );
+        assertEquals( "70", jobNotifications.getLast().getMessage() );
+    }
+
+    private static List<String> toMessages( Deque<Notification> notifications )
+    {
+        return notifications.stream().map( Notification::getMessage ).collect( toList() );
+    }
+
     private void addSummaryEntries( JobConfiguration config, int n )
     {
         for ( int i = 0; i < n; i++ )
@@ -34,7 +34,9 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.ArrayList;
 import java.util.Deque;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -224,6 +226,20 @@ class NotifierTest extends DhisConvenienceTest
         assertTrue( delta <= 5, "delta should not be larger than number of workers but was: " + delta );
     }
 
+    @Test
+    void testSubscribe()
+    {
+        List<String> received = new ArrayList<>();
+        Runnable unsubscribe = notifier.subscribe( DATAVALUE_IMPORT, dataValueImportJobConfig.getUid(),
+            notification -> received.add( notification.getMessage() ) );
+        notifier.notify( dataValueImportJobConfig, "one" );
+        notifier.notify( dataValueImportSecondJobConfig, "other job" );
+        notifier.notify( dataValueImportJobConfig, "two" );
+        unsubscribe.run();
+        notifier.notify( dataValueImportJobConfig, "three" );
+        assertEquals( List.of( "one", "two" ), received );
+    }
+
     private JobConfiguration createJobConfig( int i )
     {
         JobConfiguration jobConfig = new JobConfiguration( null, METADATA_IMPORT, user.getUid(), false );
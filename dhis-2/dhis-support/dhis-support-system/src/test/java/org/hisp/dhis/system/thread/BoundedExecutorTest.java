@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.system.thread;
+
+import static java.util.concurrent.CompletableFuture.supplyAsync;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Unit tests for {@link BoundedExecutor}.
+ */
+class BoundedExecutorTest
+{
+    private MeterRegistry meterRegistry;
+
+    private BoundedExecutor executor;
+
+    @BeforeEach
+    void setUp()
+    {
+        meterRegistry = new SimpleMeterRegistry();
+        executor = new BoundedExecutor( "test.pool", 1, meterRegistry );
+    }
+
+    @AfterEach
+    void tearDown()
+    {
+        executor.shutdown();
+    }
+
+    @Test
+    void testRunsOnCallerWhenSaturated()
+        throws Exception
+    {
+        CountDownLatch started = new CountDownLatch( 1 );
+        CountDownLatch release = new CountDownLatch( 1 );
+
+        CompletableFuture<String> blocking = supplyAsync( () -> {
+            started.countDown();
+            await( release );
+            return Thread.currentThread().getName();
+        }, executor );
+
+        assertTrue( started.await( 10, TimeUnit.SECONDS ) );
+
+        String caller = Thread.currentThread().getName();
+        String overflow = supplyAsync( () -> Thread.currentThread().getName(), executor ).get( 10, TimeUnit.SECONDS );
+
+        release.countDown();
+
+        assertEquals( caller, overflow );
+        assertEquals( 1, meterRegistry.counter( "test.pool.caller.runs" ).count() );
+        assertTrue( blocking.get( 10, TimeUnit.SECONDS ).startsWith( "TEST-POOL-" ) );
+    }
+
+    @Test
+    void testTimedRecordsStage()
+        throws Exception
+    {
+        String result = supplyAsync( executor.timed( "stageA", () -> "A" ), executor ).get( 10, TimeUnit.SECONDS );
+
+        assertEquals( "A", result );
+        assertEquals( 1, meterRegistry.timer( "test.pool.wait", "stage", "stageA" ).count() );
+        assertEquals( 1, meterRegistry.timer( "test.pool.execution", "stage", "stageA" ).count() );
+    }
+
+    @Test
+    void testTimedRecordsWaitUntilStart()
+        throws Exception
+    {
+        CountDownLatch started = new CountDownLatch( 1 );
+        CountDownLatch release = new CountDownLatch( 1 );
+        CompletableFuture<String> blocking = supplyAsync( executor.timed( "stageA", () -> {
+            started.countDown();
+            await( release );
+            return "A";
+        } ), executor );
+        assertTrue( started.await( 10, TimeUnit.SECONDS ) );
+
+        Supplier<String> waiting = executor.timed( "stageB", () -> "B" );
+        Thread.sleep( 50 );
+        release.countDown();
+        blocking.get( 10, TimeUnit.SECONDS );
+
+        assertEquals( "B", supplyAsync( waiting, executor ).get( 10, TimeUnit.SECONDS ) );
+        assertTrue( meterRegistry.timer( "test.pool.wait", "stage", "stageB" )
+            .totalTime( TimeUnit.MILLISECONDS ) >= 50 );
+    }
+
+    @Test
+    void testRejectsTasksAfterShutdown()
+    {
+        executor.shutdown();
+
+        assertThrows( RejectedExecutionException.class, () -> supplyAsync( () -> "A", executor ) );
+    }
+
+    private static void await( CountDownLatch latch )
+    {
+        try
+        {
+            latch.await( 10, TimeUnit.SECONDS );
+        }
+        catch ( InterruptedException ex )
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -77,6 +77,7 @@ import org.hisp.dhis.programrule.ProgramRuleService;
 import org.hisp.dhis.programrule.ProgramRuleVariable;
 import org.hisp.dhis.programrule.ProgramRuleVariableService;
 import org.hisp.dhis.programrule.ProgramRuleVariableSourceType;
+import org.hisp.dhis.rules.RuleEngineContext;
 import org.hisp.dhis.rules.models.*;
 import org.hisp.dhis.test.integration.TransactionalIntegrationTest;
 import org.hisp.dhis.trackedentity.TrackedEntity;
@@ -401,6 +402,24 @@ class ProgramRuleEngineTest extends TransactionalIntegrationTest
         assertEquals( "message_template", template.getMessageTemplate() );
     }
 
+    @Test
+    void testSendMessageForEnrollmentAndEventWithReusedContext()
+    {
+        setUpSendMessageForEnrollment();
+        Event event = eventService.getEvent( "UID-PS1" );
+        RuleEngineContext context = programRuleEngine.getRuleEngineContext( event.getEnrollment().getProgram(),
+            List.of( event.getProgramStage() ) );
+        for ( int i = 0; i < 2; i++ )
+        {
+            List<RuleEffects> ruleEffects = programRuleEngine.prepareEnrollmentAndEvents( context,
+                event.getEnrollment(), Sets.newHashSet( event ), Lists.newArrayList() ).get();
+            assertEquals( 2, ruleEffects.size() );
+            RuleEffects eventRuleEffects = ruleEffects.stream().filter( RuleEffects::isEvent ).findFirst().get();
+            assertEquals( "UID-PS1", eventRuleEffects.getTrackerObjectUid() );
+            assertInstanceOf( RuleActionSendMessage.class, eventRuleEffects.getRuleEffects().get( 0 ).ruleAction() );
+        }
+    }
+
     @Test
     void testSchedulingByProgramRule()
     {
@@ -404,6 +404,25 @@ class TrackedEntityStoreTest extends TransactionalIntegrationTest
         assertEquals( teiB.getUid(), teis.get( 1 ).getUid() );
     }
 
+    @Test
+    void testKeysetPagingFetchesOneMoreRowAndContinuesAfterId()
+    {
+        teiStore.save( teiA );
+        teiStore.save( teiB );
+        teiStore.save( teiC );
+        teiStore.save( teiD );
+
+        TrackedEntityQueryParams params = new TrackedEntityQueryParams()
+            .setPageSize( 2 )
+            .setKeysetPaging( true );
+        List<Long> ids = teiStore.getTrackedEntityIds( params );
+        assertEquals( List.of( teiA.getId(), teiB.getId(), teiC.getId() ), ids );
+
+        params.setAfterId( teiB.getId() );
+        ids = teiStore.getTrackedEntityIds( params );
+        assertEquals( List.of( teiC.getId(), teiD.getId() ), ids );
+    }
+
     @Test
     void testPotentialDuplicateInGridQuery()
     {
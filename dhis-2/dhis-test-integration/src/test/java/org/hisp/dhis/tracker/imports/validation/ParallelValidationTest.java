@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.tracker.imports.validation;
+
+import static org.hisp.dhis.tracker.Assertions.assertNoErrors;
+import static org.hisp.dhis.tracker.imports.validation.Users.USER_2;
+import static org.hisp.dhis.tracker.imports.validation.Users.USER_6;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.io.IOException;
+import org.hisp.dhis.tracker.TrackerTest;
+import org.hisp.dhis.tracker.imports.TrackerImportParams;
+import org.hisp.dhis.tracker.imports.TrackerImportService;
+import org.hisp.dhis.tracker.imports.bundle.TrackerBundle;
+import org.hisp.dhis.tracker.imports.bundle.TrackerBundleService;
+import org.hisp.dhis.tracker.imports.preprocess.TrackerPreprocessService;
+import org.hisp.dhis.user.UserService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+
+/**
+ * Tests that validating the trees of a bundle in parallel reports the same
+ * errors and warnings in the same order as validating the bundle sequentially.
+ */
+class ParallelValidationTest extends TrackerTest
+{
+    @Autowired
+    private TrackerImportService trackerImportService;
+
+    @Autowired
+    private TrackerBundleService trackerBundleService;
+
+    @Autowired
+    private TrackerPreprocessService trackerPreprocessService;
+
+    @Autowired
+    @Qualifier( "org.hisp.dhis.tracker.imports.validation.validator.DefaultValidator" )
+    private Validator<TrackerBundle> validator;
+
+    @Autowired
+    private UserService _userService;
+
+    @Override
+    protected void initTest()
+        throws IOException
+    {
+        userService = _userService;
+        setUpMetadata( "tracker/tracker_basic_metadata.json" );
+        injectAdminUser();
+        assertNoErrors( trackerImportService.importTracker( fromJson(
+            "tracker/validations/enrollments_te_te-data.json" ) ) );
+        assertNoErrors( trackerImportService
+            .importTracker( fromJson( "tracker/validations/enrollments_te_enrollments-data.json" ) ) );
+    }
+
+    @ParameterizedTest
+    @ValueSource( strings = {
+        "tracker/validations/enrollments_te_enrollments-data.json",
+        "tracker/validations/events-with-registration.json",
+        "tracker/validations/events-with_invalid_option_value.json",
+        "tracker/validations/invalid_enrollment_with_valid_event.json",
+        "tracker/validations/program_and_tracker_events.json",
+        "tracker/validations/events_cant-find-cat-opt-combo.json",
+        "tracker/validations/events-aoc-not-in-program-cc.json" } )
+    void shouldReportSameValidationsInParallelAsSequentially( String path )
+        throws IOException
+    {
+        assertSameValidations( fromJson( path ) );
+    }
+
+    @Test
+    void shouldReportSameOwnershipValidationsInParallelAsSequentially()
+        throws IOException
+    {
+        TrackerImportParams params = fromJson( "tracker/validations/events-with-registration.json" );
+        params.setUser( userService.getUser( USER_2 ) );
+
+        assertFalse( assertSameValidations( params ).getErrors().isEmpty() );
+    }
+
+    @Test
+    void shouldReportSameCategoryOptionValidationsInParallelAsSequentially()
+        throws IOException
+    {
+        TrackerImportParams params = fromJson( "tracker/validations/events-cat-write-access.json" );
+        params.setUser( userService.getUser( USER_6 ) );
+
+        assertFalse( assertSameValidations( params ).getErrors().isEmpty() );
+    }
+
+    private Reporter assertSameValidations( TrackerImportParams params )
+    {
+        Reporter sequential = validate( params, false );
+        Reporter parallel = validate( params, true );
+
+        assertEquals( sequential.getErrors(), parallel.getErrors() );
+        assertEquals( sequential.getWarnings(), parallel.getWarnings() );
+        return parallel;
+    }
+
+    private Reporter validate( TrackerImportParams params, boolean parallelValidation )
+    {
+        TrackerBundle bundle = trackerBundleService.create( params );
+        bundle.setParallelValidation( parallelValidation );
+        trackerPreprocessService.preprocess( bundle );
+
+        Reporter reporter = new Reporter( bundle.getPreheat().getIdSchemes() );
+        validator.validate( reporter, bundle, bundle );
+        return reporter;
+    }
+}
@@ -28,9 +28,11 @@
 package org.hisp.dhis.webapi.controller;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 
 import org.hisp.dhis.jsontree.JsonArray;
 import org.hisp.dhis.jsontree.JsonObject;
+import org.hisp.dhis.web.HttpStatus;
 import org.junit.jupiter.api.Test;
 
 /**
@@ -82,4 +84,40 @@ class GistPagerControllerTest extends AbstractGistControllerTest
         assertEquals( "extra4", dataSets.getObject( 1 ).getString( "name" ).string() );
         assertEquals( "extra5", dataSets.getObject( 2 ).getString( "name" ).string() );
     }
+
+    @Test
+    void testPager_NextPage_ProbeWithoutTotal()
+    {
+        createDataSetsForOrganisationUnit( 6, orgUnitId, "extra" );
+        String url = "/dataSets/gist?fields=name&pageSize=3&filter=name:startsWith:extra";
+        JsonObject gist = GET( url ).content();
+        assertEquals( url + "&page=2", gist.getObject( "pager" ).getString( "nextPage" ).string() );
+        gist = GET( url + "&page=2" ).content();
+        assertEquals( 3, gist.getArray( "dataSets" ).size() );
+        assertFalse( gist.getObject( "pager" ).getString( "nextPage" ).exists() );
+    }
+
+    @Test
+    void testPager_Keyset()
+    {
+        createDataSetsForOrganisationUnit( 5, orgUnitId, "extra" );
+        JsonObject gist = GET( "/dataSets/gist?fields=name&pageSize=3&filter=name:startsWith:extra&after=" )
+            .content();
+        assertHasPager( gist, 1, 3 );
+        assertEquals( 3, gist.getArray( "dataSets" ).size() );
+        String next = gist.getObject( "pager" ).getString( "nextPage" ).string();
+        gist = GET( next ).content();
+        JsonArray dataSets = gist.getArray( "dataSets" );
+        assertEquals( 2, dataSets.size() );
+        assertEquals( "extra3", dataSets.getObject( 0 ).getString( "name" ).string() );
+        assertEquals( "extra4", dataSets.getObject( 1 ).getString( "name" ).string() );
+        assertFalse( gist.getObject( "pager" ).getString( "nextPage" ).exists() );
+    }
+
+    @Test
+    void testPager_Keyset_CannotBeOrdered()
+    {
+        assertEquals( "Parameter `after` cannot be combined with `order`.",
+            GET( "/dataSets/gist?order=name&after=" ).error( HttpStatus.BAD_REQUEST ).getMessage() );
+    }
 }
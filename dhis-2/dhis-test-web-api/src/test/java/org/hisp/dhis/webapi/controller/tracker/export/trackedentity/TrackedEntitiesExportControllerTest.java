@@ -36,6 +36,8 @@ import static org.hisp.dhis.webapi.controller.tracker.JsonAssertions.assertHasOn
 import static org.junit.jupiter.api.Assertions.assertAll;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.util.Date;
@@ -48,6 +50,7 @@ import org.hisp.dhis.common.ValueType;
 import org.hisp.dhis.dataelement.DataElement;
 import org.hisp.dhis.eventdatavalue.EventDataValue;
 import org.hisp.dhis.jsontree.JsonList;
+import org.hisp.dhis.jsontree.JsonObject;
 import org.hisp.dhis.organisationunit.OrganisationUnit;
 import org.hisp.dhis.program.Enrollment;
 import org.hisp.dhis.program.EnrollmentService;
@@ -208,6 +211,32 @@ class TrackedEntitiesExportControllerTest extends DhisControllerConvenienceTest
                 .getMessage() );
     }
 
+    @Test
+    void getTrackedEntitiesWithKeysetPagingContinuesWithPageToken()
+    {
+        TrackedEntity first = trackedEntity();
+        TrackedEntity second = trackedEntity();
+        TrackedEntity third = trackedEntity();
+        this.switchContextToUser( user );
+
+        JsonObject page = GET( "/tracker/trackedEntities?trackedEntityType={type}&orgUnit={ou}&pageSize=2"
+            + "&keysetPaging=true&fields=trackedEntity", trackedEntityType.getUid(), orgUnit.getUid() )
+            .content( HttpStatus.OK );
+
+        assertEquals( List.of( first.getUid(), second.getUid() ),
+            page.getList( "instances", JsonTrackedEntity.class ).toList( JsonTrackedEntity::getTrackedEntity ) );
+        String nextPageToken = page.getString( "nextPageToken" ).string();
+        assertNotNull( nextPageToken );
+
+        page = GET( "/tracker/trackedEntities?trackedEntityType={type}&orgUnit={ou}&pageSize=2&pageToken={token}"
+            + "&fields=trackedEntity", trackedEntityType.getUid(), orgUnit.getUid(), nextPageToken )
+            .content( HttpStatus.OK );
+
+        assertEquals( List.of( third.getUid() ),
+            page.getList( "instances", JsonTrackedEntity.class ).toList( JsonTrackedEntity::getTrackedEntity ) );
+        assertNull( page.getString( "nextPageToken" ).string() );
+    }
+
     @Test
     void getTrackedEntityById()
     {
@@ -184,6 +184,18 @@ public class EventAnalyticsController
             ContextUtils.CONTENT_TYPE_EXCEL, "events.xls", response ), response.getOutputStream() );
     }
 
+    @GetMapping( value = RESOURCE_PATH + "/aggregate/{program}.xlsx" )
+    public void getAggregateXlsx(
+        @PathVariable String program,
+        EventsAnalyticsQueryCriteria criteria,
+        DhisApiVersion apiVersion,
+        HttpServletResponse response )
+        throws Exception
+    {
+        GridUtils.toXlsx( getAggregatedGridWithAttachment( criteria, program, apiVersion,
+            ContextUtils.CONTENT_TYPE_EXCEL_XLSX, "events.xlsx", response ), response.getOutputStream() );
+    }
+
     @GetMapping( value = RESOURCE_PATH + "/aggregate/{program}.csv" )
     public void getAggregateCsv(
         @PathVariable String program,
@@ -353,6 +365,18 @@ public class EventAnalyticsController
             "events.xls", true, response ), response.getOutputStream() );
     }
 
+    @GetMapping( value = RESOURCE_PATH + "/query/{program}.xlsx" )
+    public void getQueryXlsx(
+        @PathVariable String program,
+        EventsAnalyticsQueryCriteria criteria,
+        DhisApiVersion apiVersion,
+        HttpServletResponse response )
+        throws Exception
+    {
+        GridUtils.toXlsx( getListGridWithAttachment( criteria, program, apiVersion,
+            ContextUtils.CONTENT_TYPE_EXCEL_XLSX, "events.xlsx", true, response ), response.getOutputStream() );
+    }
+
     @GetMapping( value = RESOURCE_PATH + "/query/{program}.csv" )
     public void getQueryCsv(
         @PathVariable String program,
@@ -55,6 +55,7 @@ import org.hisp.dhis.sqlview.SqlView;
 import org.hisp.dhis.sqlview.SqlViewQuery;
 import org.hisp.dhis.sqlview.SqlViewService;
 import org.hisp.dhis.system.grid.GridUtils;
+import org.hisp.dhis.system.grid.XlsxGridWriter;
 import org.hisp.dhis.system.util.CodecUtils;
 import org.hisp.dhis.webapi.utils.ContextUtils;
 import org.springframework.stereotype.Controller;
@@ -138,6 +139,32 @@ public class SqlViewController
         GridUtils.toXls( grid, response.getOutputStream() );
     }
 
+    @GetMapping( "/{uid}/data.xlsx" )
+    public void getViewXlsx( @PathVariable( "uid" ) String uid,
+        @RequestParam( required = false ) Set<String> criteria,
+        @RequestParam( name = "var", required = false ) Set<String> vars,
+        HttpServletResponse response )
+        throws NotFoundException,
+        IOException
+    {
+        SqlView sqlView = getExistingSQLView( uid );
+
+        List<String> filters = Lists.newArrayList( contextService.getParameterValues( "filter" ) );
+        List<String> fields = Lists.newArrayList( contextService.getParameterValues( "fields" ) );
+
+        String filename = CodecUtils.filenameEncode( sqlView.getName() ) + ".xlsx";
+        contextUtils.configureResponse( response, ContextUtils.CONTENT_TYPE_EXCEL_XLSX, sqlView.getCacheStrategy(),
+            filename, true );
+
+        try ( XlsxGridWriter writer = new XlsxGridWriter( response.getOutputStream() ) )
+        {
+            writer.startSheet( sqlView.getName(), sqlView.getName(), sqlView.getDescription() );
+            sqlViewService.writeSqlViewGrid( writer, sqlView, getCriteria( criteria ), getCriteria( vars ), filters,
+                fields );
+            writer.write();
+        }
+    }
+
     @GetMapping( "/{uid}/data.html" )
     public void getViewHtml( @PathVariable( "uid" ) String uid,
         @RequestParam( required = false ) Set<String> criteria,
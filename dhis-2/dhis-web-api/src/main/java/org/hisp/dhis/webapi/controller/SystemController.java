@@ -48,6 +48,7 @@ import javax.servlet.http.HttpServletResponse;
 import org.hisp.dhis.common.CodeGenerator;
 import org.hisp.dhis.common.DhisApiVersion;
 import org.hisp.dhis.common.OpenApi;
+import org.hisp.dhis.feedback.ConflictException;
 import org.hisp.dhis.fieldfiltering.FieldFilterParams;
 import org.hisp.dhis.fieldfiltering.FieldFilterService;
 import org.hisp.dhis.i18n.I18n;
@@ -73,10 +74,12 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.fasterxml.jackson.dataformat.csv.CsvFactory;
@@ -113,6 +116,9 @@ public class SystemController
     @Autowired
     private I18nManager i18nManager;
 
+    @Autowired
+    private TaskNotificationStreamManager taskNotificationStreamManager;
+
     @Autowired
     private StatisticsProvider statisticsProvider;
 
@@ -197,15 +203,31 @@ public class SystemController
 
     @GetMapping( value = "/tasks/{jobType}/{jobId}", produces = APPLICATION_JSON_VALUE )
     public ResponseEntity<Collection<Notification>> getTaskJsonByUid( @PathVariable( "jobType" ) String jobType,
-        @PathVariable( "jobId" ) String jobId )
+        @PathVariable( "jobId" ) String jobId,
+        @RequestParam( required = false, defaultValue = "0" ) long after )
     {
         Collection<Notification> notifications = jobType == null
             ? emptyList()
-            : notifier.getNotificationsByJobId( JobType.valueOf( jobType.toUpperCase() ), jobId );
+            : notifier.getNotificationsByJobId( JobType.valueOf( jobType.toUpperCase() ), jobId, after );
 
         return ResponseEntity.ok().cacheControl( noStore() ).body( notifications );
     }
 
+    @OpenApi.Response( Notification.class )
+    @GetMapping( value = "/tasks/{jobType}/{jobId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE )
+    public SseEmitter getTaskStreamByUid( @PathVariable( "jobType" ) String jobType,
+        @PathVariable( "jobId" ) String jobId,
+        @RequestParam( required = false, defaultValue = "0" ) long after,
+        @RequestHeader( value = "Last-Event-ID", required = false ) Long lastEventId,
+        HttpServletResponse response )
+        throws ConflictException
+    {
+        setNoStore( response );
+        long afterSeq = lastEventId != null ? lastEventId : after;
+        return taskNotificationStreamManager.open( JobType.valueOf( jobType.toUpperCase() ), jobId, afterSeq,
+            currentUserService.getCurrentUsername() );
+    }
+
     // -------------------------------------------------------------------------
     // Tasks summary
     // -------------------------------------------------------------------------
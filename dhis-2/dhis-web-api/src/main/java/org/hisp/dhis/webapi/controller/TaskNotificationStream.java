@@ -0,0 +1,223 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.webapi.controller;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.hisp.dhis.scheduling.JobType;
+import org.hisp.dhis.system.notification.Notification;
+import org.hisp.dhis.system.notification.Notifier;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Pushes the {@link Notification}s of a single job to a client as server-sent
+ * events.
+ * <p>
+ * The {@link Notifier} only signals that there is something new, the stream
+ * then sends everything after the last {@link Notification#getSeq()} it has
+ * sent on a thread of the given {@link Executor}. A stream has at most one send
+ * waiting for the executor, so a burst of notifications results in a few
+ * writes and a slow client never blocks the job itself. When the executor runs
+ * a send on the submitting thread because all its threads are busy, the send is
+ * skipped and left to the next notification or heartbeat. The
+ * {@link TaskScheduler} only triggers heartbeats, it never sends. The event ID
+ * is the sequence number so that a reconnecting client continues where it left
+ * off using the {@code Last-Event-ID} header.
+ * <p>
+ * The stream completes once a {@link Notification#isCompleted()} notification
+ * was sent.
+ */
+final class TaskNotificationStream
+{
+    private static final Duration HEARTBEAT_INTERVAL = Duration.ofSeconds( 20 );
+
+    private static final long TIMEOUT_MILLIS = Duration.ofMinutes( 30 ).toMillis();
+
+    private final Notifier notifier;
+
+    private final TaskScheduler scheduler;
+
+    private final Executor sender;
+
+    private final JobType jobType;
+
+    private final String jobId;
+
+    private final SseEmitter emitter;
+
+    private final Runnable onClose;
+
+    private final AtomicBoolean sendScheduled = new AtomicBoolean();
+
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    private long lastSeq;
+
+    private volatile boolean heartbeatDue;
+
+    private Runnable unsubscribe;
+
+    private ScheduledFuture<?> heartbeat;
+
+    TaskNotificationStream( Notifier notifier, TaskScheduler scheduler, Executor sender, JobType jobType,
+        String jobId, long afterSeq, Runnable onClose )
+    {
+        this( notifier, scheduler, sender, jobType, jobId, afterSeq, onClose, new SseEmitter( TIMEOUT_MILLIS ) );
+    }
+
+    TaskNotificationStream( Notifier notifier, TaskScheduler scheduler, Executor sender, JobType jobType,
+        String jobId, long afterSeq, Runnable onClose, SseEmitter emitter )
+    {
+        this.notifier = notifier;
+        this.scheduler = scheduler;
+        this.sender = sender;
+        this.jobType = jobType;
+        this.jobId = jobId;
+        this.lastSeq = afterSeq;
+        this.onClose = onClose;
+        this.emitter = emitter;
+    }
+
+    SseEmitter start()
+    {
+        emitter.onCompletion( this::close );
+        emitter.onTimeout( this::close );
+        emitter.onError( ex -> close() );
+        // subscribe before sending what exists already so nothing is missed
+        unsubscribe = notifier.subscribe( jobType, jobId, notification -> scheduleSend() );
+        heartbeat = scheduler.scheduleAtFixedRate( this::scheduleHeartbeat, HEARTBEAT_INTERVAL );
+        if ( closed.get() )
+        {
+            // closed before the heartbeat was assigned, cancel it
+            heartbeat.cancel( false );
+            unsubscribe.run();
+        }
+        scheduleSend();
+        return emitter;
+    }
+
+    private void scheduleHeartbeat()
+    {
+        heartbeatDue = true;
+        scheduleSend();
+    }
+
+    private void scheduleSend()
+    {
+        if ( !closed.get() && sendScheduled.compareAndSet( false, true ) )
+        {
+            Thread caller = Thread.currentThread();
+            try
+            {
+                sender.execute( () -> {
+                    if ( Thread.currentThread() == caller )
+                    {
+                        // all send threads are busy and the sender runs the send on the
+                        // calling thread, which may be the job or the scheduler, leave it
+                        // to the next notification or heartbeat instead
+                        sendScheduled.set( false );
+                        return;
+                    }
+                    send();
+                } );
+            }
+            catch ( RejectedExecutionException ex )
+            {
+                close();
+                emitter.completeWithError( ex );
+            }
+        }
+    }
+
+    private synchronized void send()
+    {
+        // reset first so that notifications added while sending trigger another send
+        sendScheduled.set( false );
+        if ( closed.get() )
+        {
+            return;
+        }
+        Deque<Notification> newer = notifier.getNotificationsByJobId( jobType, jobId, lastSeq );
+        Iterator<Notification> oldestFirst = newer.descendingIterator();
+        try
+        {
+            while ( oldestFirst.hasNext() )
+            {
+                Notification notification = oldestFirst.next();
+                emitter.send( SseEmitter.event()
+                    .id( String.valueOf( notification.getSeq() ) )
+                    .name( "notification" )
+                    .data( notification, MediaType.APPLICATION_JSON ) );
+                lastSeq = notification.getSeq();
+                heartbeatDue = false;
+                if ( notification.isCompleted() )
+                {
+                    close();
+                    emitter.complete();
+                    return;
+                }
+            }
+            if ( heartbeatDue )
+            {
+                heartbeatDue = false;
+                emitter.send( SseEmitter.event().comment( "" ) );
+            }
+        }
+        catch ( IOException | IllegalStateException ex )
+        {
+            close();
+            emitter.completeWithError( ex );
+        }
+    }
+
+    private void close()
+    {
+        if ( !closed.compareAndSet( false, true ) )
+        {
+            return;
+        }
+        if ( unsubscribe != null )
+        {
+            unsubscribe.run();
+        }
+        if ( heartbeat != null )
+        {
+            heartbeat.cancel( false );
+        }
+        onClose.run();
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.webapi.controller;
+
+import static org.hisp.dhis.external.conf.ConfigurationKey.NOTIFICATION_STREAM_MAX_PER_JOB;
+import static org.hisp.dhis.external.conf.ConfigurationKey.NOTIFICATION_STREAM_MAX_PER_USER;
+import static org.hisp.dhis.external.conf.ConfigurationKey.NOTIFICATION_STREAM_THREAD_POOL_SIZE;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.annotation.PreDestroy;
+
+import org.hisp.dhis.external.conf.DhisConfigurationProvider;
+import org.hisp.dhis.feedback.ConflictException;
+import org.hisp.dhis.scheduling.JobType;
+import org.hisp.dhis.system.notification.Notifier;
+import org.hisp.dhis.system.thread.BoundedExecutor;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Opens {@link TaskNotificationStream}s and holds the Executor which sends
+ * their events. Sending blocks while a client is slow to read, so it must not
+ * run on the shared {@link TaskScheduler}. The number of threads is bounded
+ * by the {@code notification.stream.thread_pool.size} configuration property.
+ * Sends are not queued, when all threads are busy a stream sends with its next
+ * notification or heartbeat.
+ * <p>
+ * The number of open streams is capped per job and per user, as each open
+ * stream holds a connection.
+ */
+@Component
+class TaskNotificationStreamManager
+{
+    private final Notifier notifier;
+
+    private final TaskScheduler scheduler;
+
+    private final BoundedExecutor sendThreadPool;
+
+    private final int maxPerJob;
+
+    private final int maxPerUser;
+
+    private final Map<String, Integer> streamsByJob = new HashMap<>();
+
+    private final Map<String, Integer> streamsByUser = new HashMap<>();
+
+    public TaskNotificationStreamManager( Notifier notifier, TaskScheduler scheduler,
+        DhisConfigurationProvider config, MeterRegistry meterRegistry )
+    {
+        this( notifier, scheduler, new BoundedExecutor( "notification.stream",
+            Integer.parseInt( config.getProperty( NOTIFICATION_STREAM_THREAD_POOL_SIZE ) ), meterRegistry ),
+            Integer.parseInt( config.getProperty( NOTIFICATION_STREAM_MAX_PER_JOB ) ),
+            Integer.parseInt( config.getProperty( NOTIFICATION_STREAM_MAX_PER_USER ) ) );
+    }
+
+    TaskNotificationStreamManager( Notifier notifier, TaskScheduler scheduler, BoundedExecutor sendThreadPool,
+        int maxPerJob, int maxPerUser )
+    {
+        this.notifier = notifier;
+        this.scheduler = scheduler;
+        this.sendThreadPool = sendThreadPool;
+        this.maxPerJob = maxPerJob;
+        this.maxPerUser = maxPerUser;
+    }
+
+    /**
+     * Opens a stream of the notifications of the given job.
+     *
+     * @param jobType type of the job
+     * @param jobId ID of the job
+     * @param afterSeq only notifications with a larger sequence number are
+     *        sent
+     * @param username the user opening the stream
+     * @return the emitter of the opened stream
+     * @throws ConflictException when the job or the user has too many open
+     *         streams already
+     */
+    SseEmitter open( JobType jobType, String jobId, long afterSeq, String username )
+        throws ConflictException
+    {
+        String jobKey = jobType.name() + ":" + jobId;
+        synchronized ( this )
+        {
+            if ( streamsByJob.getOrDefault( jobKey, 0 ) >= maxPerJob )
+            {
+                throw new ConflictException( "Too many notification streams open for job: " + jobId );
+            }
+            if ( streamsByUser.getOrDefault( username, 0 ) >= maxPerUser )
+            {
+                throw new ConflictException( "Too many notification streams open for user: " + username );
+            }
+            streamsByJob.merge( jobKey, 1, Integer::sum );
+            streamsByUser.merge( username, 1, Integer::sum );
+        }
+        return new TaskNotificationStream( notifier, scheduler, sendThreadPool, jobType, jobId, afterSeq,
+            () -> closed( jobKey, username ) ).start();
+    }
+
+    private synchronized void closed( String jobKey, String username )
+    {
+        streamsByJob.computeIfPresent( jobKey, ( key, count ) -> count > 1 ? count - 1 : null );
+        streamsByUser.computeIfPresent( username, ( key, count ) -> count > 1 ? count - 1 : null );
+    }
+
+    @PreDestroy
+    public void shutdown()
+    {
+        sendThreadPool.shutdown();
+    }
+}
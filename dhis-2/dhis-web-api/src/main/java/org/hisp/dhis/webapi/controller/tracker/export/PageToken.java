@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.webapi.controller.tracker.export;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.List;
+
+import org.hisp.dhis.common.IdentifiableObject;
+import org.hisp.dhis.common.Pager;
+import org.hisp.dhis.common.SlimPager;
+import org.hisp.dhis.feedback.BadRequestException;
+import org.hisp.dhis.webapi.controller.event.webrequest.OrderCriteria;
+
+/**
+ * PageToken encodes and decodes the opaque cursor used by keyset paginated
+ * tracker exports. The token carries the primary key of the last item of the
+ * previous page, the next page continues with items of a greater key.
+ */
+public class PageToken
+{
+    private PageToken()
+    {
+        throw new IllegalStateException( "Utility class" );
+    }
+
+    /**
+     * Returns whether keyset paging is requested, either explicitly or by
+     * passing a page token.
+     *
+     * @throws BadRequestException if keyset paging is combined with an order
+     */
+    public static boolean isKeysetPaging( boolean keysetPaging, String pageToken, List<OrderCriteria> order )
+        throws BadRequestException
+    {
+        boolean keyset = keysetPaging || (pageToken != null && !pageToken.isBlank());
+
+        if ( keyset && order != null && !order.isEmpty() )
+        {
+            throw new BadRequestException( "Parameter order cannot be combined with keysetPaging or pageToken" );
+        }
+
+        return keyset;
+    }
+
+    public static String encode( long lastId )
+    {
+        return Base64.getUrlEncoder().withoutPadding()
+            .encodeToString( Long.toString( lastId ).getBytes( StandardCharsets.UTF_8 ) );
+    }
+
+    /**
+     * Decodes the given page token into the primary key to continue after.
+     *
+     * @param pageToken the token, can be null
+     * @return the primary key or null if no token is given
+     * @throws BadRequestException if the token is malformed
+     */
+    public static Long decode( String pageToken )
+        throws BadRequestException
+    {
+        if ( pageToken == null || pageToken.isBlank() )
+        {
+            return null;
+        }
+
+        try
+        {
+            return Long.parseLong(
+                new String( Base64.getUrlDecoder().decode( pageToken ), StandardCharsets.UTF_8 ) );
+        }
+        catch ( IllegalArgumentException e )
+        {
+            throw new BadRequestException( "Invalid pageToken: " + pageToken );
+        }
+    }
+
+    /**
+     * Returns the token for the page continuing after the given primary key or
+     * null if there is no next page.
+     *
+     * @param nextPageAfterId the primary key of the last row fetched for the
+     *        current page, or null if no page follows
+     */
+    public static String nextPageToken( Long nextPageAfterId )
+    {
+        return nextPageAfterId == null ? null : encode( nextPageAfterId );
+    }
+
+    /**
+     * Returns whether a page follows the page described by the given pager.
+     */
+    public static boolean hasNextPage( Pager pager )
+    {
+        if ( pager instanceof SlimPager slimPager )
+        {
+            return !Boolean.TRUE.equals( slimPager.isLastPage() );
+        }
+
+        return pager.getPage() < pager.getPageCount();
+    }
+
+    /**
+     * Returns the token for the page following the given items or null if
+     * there is no next page.
+     *
+     * @param hasNextPage whether another page follows
+     * @param items the items of the current page
+     */
+    public static String nextPageToken( boolean hasNextPage, Collection<? extends IdentifiableObject> items )
+    {
+        if ( !hasNextPage || items.isEmpty() )
+        {
+            return null;
+        }
+
+        return encode( items.stream().mapToLong( IdentifiableObject::getId ).max().getAsLong() );
+    }
+}
@@ -35,8 +35,10 @@ import java.util.Set;
 
 import lombok.RequiredArgsConstructor;
 
+import org.hisp.dhis.feedback.BadRequestException;
 import org.hisp.dhis.tracker.export.enrollment.EnrollmentOperationParams;
 import org.hisp.dhis.webapi.common.UID;
+import org.hisp.dhis.webapi.controller.tracker.export.PageToken;
 import org.springframework.stereotype.Component;
 
 /**
@@ -51,10 +53,14 @@ class EnrollmentRequestParamsMapper
     private final EnrollmentFieldsParamMapper fieldsParamMapper;
 
     public EnrollmentOperationParams map( RequestParams requestParams )
+        throws BadRequestException
     {
         Set<UID> orgUnits = validateDeprecatedUidsParameter( "orgUnit", requestParams.getOrgUnit(), "orgUnits",
             requestParams.getOrgUnits() );
 
+        boolean keysetPaging = PageToken.isKeysetPaging( requestParams.isKeysetPaging(),
+            requestParams.getPageToken(), requestParams.getOrder() );
+
         return EnrollmentOperationParams.builder()
             .programUid( requestParams.getProgram() != null ? requestParams.getProgram().getValue() : null )
             .programStatus( requestParams.getProgramStatus() )
@@ -71,8 +77,10 @@ class EnrollmentRequestParamsMapper
             .orgUnitMode( requestParams.getOuMode() )
             .page( requestParams.getPage() )
             .pageSize( requestParams.getPageSize() )
-            .totalPages( requestParams.isTotalPages() )
+            .totalPages( requestParams.isTotalPages() && !keysetPaging )
             .skipPaging( toBooleanDefaultIfNull( requestParams.isSkipPaging(), false ) )
+            .keysetPaging( keysetPaging )
+            .afterId( PageToken.decode( requestParams.getPageToken() ) )
             .includeDeleted( requestParams.isIncludeDeleted() )
             .order( toOrderParams( requestParams.getOrder() ) )
             .enrollmentParams( fieldsParamMapper.map( requestParams.getFields() ) )
@@ -53,6 +53,7 @@ import org.hisp.dhis.tracker.export.enrollment.Enrollments;
 import org.hisp.dhis.webapi.common.UID;
 import org.hisp.dhis.webapi.controller.event.webrequest.PagingWrapper;
 import org.hisp.dhis.webapi.controller.tracker.export.OpenApiExport;
+import org.hisp.dhis.webapi.controller.tracker.export.PageToken;
 import org.hisp.dhis.webapi.controller.tracker.view.Enrollment;
 import org.hisp.dhis.webapi.mvc.annotation.ApiVersion;
 import org.mapstruct.factory.Mappers;
@@ -107,8 +108,14 @@ class EnrollmentsExportController
 
             if ( requestParams.isPagingRequest() )
             {
-                pagingWrapper = pagingWrapper.withPager(
-                    PagingWrapper.Pager.fromLegacy( requestParams, enrollments.getPager() ) );
+                PagingWrapper.Pager pager = PagingWrapper.Pager.fromLegacy( requestParams, enrollments.getPager() );
+
+                if ( operationParams.isKeysetPaging() )
+                {
+                    pager.setNextPageToken( PageToken.nextPageToken( enrollments.getNextPageAfterId() ) );
+                }
+
+                pagingWrapper = pagingWrapper.withPager( pager );
             }
 
             enrollmentList = enrollments.getEnrollments();
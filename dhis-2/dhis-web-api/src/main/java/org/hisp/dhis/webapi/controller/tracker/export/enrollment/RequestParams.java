@@ -110,6 +110,18 @@ class RequestParams extends PagingAndSortingCriteriaAdapter
 
     private boolean includeDeleted;
 
+    /**
+     * Indicates whether to page by a keyset cursor instead of an offset. Pages
+     * are ordered by creation and no totals are returned.
+     */
+    private boolean keysetPaging;
+
+    /**
+     * Opaque cursor returned as nextPageToken by the previous keyset page.
+     * Implies keyset paging.
+     */
+    private String pageToken;
+
     @OpenApi.Property( value = String[].class )
     private List<FieldPath> fields = FieldFilterParser.parse( DEFAULT_FIELDS_PARAM );
 }
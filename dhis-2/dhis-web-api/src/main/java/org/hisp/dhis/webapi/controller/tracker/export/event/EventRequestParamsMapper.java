@@ -74,6 +74,7 @@ import org.hisp.dhis.webapi.controller.event.mapper.OrderParam;
 import org.hisp.dhis.webapi.controller.event.mapper.OrderParamsHelper;
 import org.hisp.dhis.webapi.controller.event.mapper.SortDirection;
 import org.hisp.dhis.webapi.controller.event.webrequest.OrderCriteria;
+import org.hisp.dhis.webapi.controller.tracker.export.PageToken;
 import org.springframework.stereotype.Component;
 
 /**
@@ -163,6 +164,9 @@ class EventRequestParamsMapper
             filters.add( parseQueryItem( eventCriteria, this::dataElementToQueryItem ) );
         }
 
+        boolean keysetPaging = PageToken.isKeysetPaging( requestParams.isKeysetPaging(),
+            requestParams.getPageToken(), requestParams.getOrder() );
+
         EventSearchParams params = new EventSearchParams();
 
         return params.setProgram( program ).setProgramStage( programStage ).setOrgUnit( orgUnit )
@@ -183,8 +187,10 @@ class EventRequestParamsMapper
             .setEventStatus( requestParams.getStatus() )
             .setCategoryOptionCombo( attributeOptionCombo ).setIdSchemes( requestParams.getIdSchemes() )
             .setPage( requestParams.getPage() )
-            .setPageSize( requestParams.getPageSize() ).setTotalPages( requestParams.isTotalPages() )
+            .setPageSize( requestParams.getPageSize() )
+            .setTotalPages( requestParams.isTotalPages() && !keysetPaging )
             .setSkipPaging( toBooleanDefaultIfNull( requestParams.isSkipPaging(), false ) )
+            .setKeysetPaging( keysetPaging ).setAfterId( PageToken.decode( requestParams.getPageToken() ) )
             .setSkipEventId( requestParams.getSkipEventId() ).setIncludeAttributes( false )
             .setIncludeAllDataElements( false ).addDataElements( dataElements )
             .addFilters( filters ).addFilterAttributes( filterAttributes )
@@ -62,6 +62,7 @@ import org.hisp.dhis.webapi.common.UID;
 import org.hisp.dhis.webapi.controller.event.webrequest.PagingWrapper;
 import org.hisp.dhis.webapi.controller.tracker.export.CsvService;
 import org.hisp.dhis.webapi.controller.tracker.export.OpenApiExport;
+import org.hisp.dhis.webapi.controller.tracker.export.PageToken;
 import org.hisp.dhis.webapi.controller.tracker.view.Event;
 import org.hisp.dhis.webapi.mvc.annotation.ApiVersion;
 import org.hisp.dhis.webapi.utils.ContextUtils;
@@ -121,8 +122,15 @@ class EventsExportController
 
         if ( requestParams.isPagingRequest() )
         {
-            pagingWrapper = pagingWrapper.withPager(
-                PagingWrapper.Pager.fromLegacy( requestParams, events.getPager() ) );
+            PagingWrapper.Pager pager = PagingWrapper.Pager.fromLegacy( requestParams, events.getPager() );
+
+            if ( eventSearchParams.isKeysetPaging() )
+            {
+                pager.setNextPageToken( PageToken.nextPageToken( PageToken.hasNextPage( events.getPager() ),
+                    events.getEvents() ) );
+            }
+
+            pagingWrapper = pagingWrapper.withPager( pager );
         }
 
         List<ObjectNode> objectNodes = fieldFilterService
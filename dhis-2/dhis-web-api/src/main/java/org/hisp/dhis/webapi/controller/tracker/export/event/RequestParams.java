@@ -177,6 +177,18 @@ class RequestParams extends PagingAndSortingCriteriaAdapter
 
     private IdSchemes idSchemes = new IdSchemes();
 
+    /**
+     * Indicates whether to page by a keyset cursor instead of an offset. Pages
+     * are ordered by the internal ID of the events and no totals are returned.
+     */
+    private boolean keysetPaging;
+
+    /**
+     * Opaque cursor returned as nextPageToken by the previous keyset page.
+     * Implies keyset paging.
+     */
+    private String pageToken;
+
     @OpenApi.Property( value = String[].class )
     private List<FieldPath> fields = FieldFilterParser.parse( DEFAULT_FIELDS_PARAM );
 }
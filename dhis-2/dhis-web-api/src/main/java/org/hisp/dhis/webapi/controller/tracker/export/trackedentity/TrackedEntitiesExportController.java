@@ -59,12 +59,14 @@ import org.hisp.dhis.fieldfiltering.FieldFilterService;
 import org.hisp.dhis.fieldfiltering.FieldPath;
 import org.hisp.dhis.program.Program;
 import org.hisp.dhis.trackedentity.TrackedEntityQueryParams;
+import org.hisp.dhis.tracker.export.trackedentity.TrackedEntities;
 import org.hisp.dhis.tracker.export.trackedentity.TrackedEntityParams;
 import org.hisp.dhis.tracker.export.trackedentity.TrackedEntityService;
 import org.hisp.dhis.webapi.common.UID;
 import org.hisp.dhis.webapi.controller.event.webrequest.PagingWrapper;
 import org.hisp.dhis.webapi.controller.tracker.export.CsvService;
 import org.hisp.dhis.webapi.controller.tracker.export.OpenApiExport;
+import org.hisp.dhis.webapi.controller.tracker.export.PageToken;
 import org.hisp.dhis.webapi.controller.tracker.view.TrackedEntity;
 import org.hisp.dhis.webapi.mvc.annotation.ApiVersion;
 import org.hisp.dhis.webapi.utils.ContextUtils;
@@ -128,15 +130,18 @@ class TrackedEntitiesExportController
         TrackedEntityParams trackedEntityParams = fieldsMapper.map( requestParams.getFields(),
             requestParams.isIncludeDeleted() );
 
+        TrackedEntities trackedEntityPage = trackedEntityService.getTrackedEntityPage( queryParams,
+            trackedEntityParams );
         List<TrackedEntity> trackedEntities = TRACKED_ENTITY_MAPPER
-            .fromCollection( trackedEntityService.getTrackedEntities( queryParams, trackedEntityParams ) );
+            .fromCollection( trackedEntityPage.getTrackedEntities() );
 
         PagingWrapper<ObjectNode> pagingWrapper = new PagingWrapper<>();
 
         if ( requestParams.isPagingRequest() )
         {
+            String nextPageToken = PageToken.nextPageToken( trackedEntityPage.getNextPageAfterId() );
 
-            Long count = requestParams.isTotalPages()
+            Long count = queryParams.isTotalPages()
                 ? (long) trackedEntityService.getTrackedEntityCount( queryParams, true, true )
                 : null;
 
@@ -145,6 +150,7 @@ class TrackedEntitiesExportController
                     .page( queryParams.getPageWithDefault() )
                     .total( count )
                     .pageSize( queryParams.getPageSizeWithDefault() )
+                    .nextPageToken( nextPageToken )
                     .build() );
         }
 
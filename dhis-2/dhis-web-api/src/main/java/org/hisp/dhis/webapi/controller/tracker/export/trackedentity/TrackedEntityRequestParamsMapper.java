@@ -69,6 +69,7 @@ import org.hisp.dhis.user.CurrentUserService;
 import org.hisp.dhis.user.User;
 import org.hisp.dhis.webapi.common.UID;
 import org.hisp.dhis.webapi.controller.event.mapper.OrderParam;
+import org.hisp.dhis.webapi.controller.tracker.export.PageToken;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -141,6 +142,9 @@ class TrackedEntityRequestParamsMapper
             "trackedEntities",
             requestParams.getTrackedEntities() );
 
+        boolean keysetPaging = PageToken.isKeysetPaging( requestParams.isKeysetPaging(),
+            requestParams.getPageToken(), requestParams.getOrder() );
+
         TrackedEntityQueryParams params = new TrackedEntityQueryParams();
         params.setQuery( queryFilter )
             .setProgram( program )
@@ -167,8 +171,10 @@ class TrackedEntityRequestParamsMapper
             .setSkipMeta( requestParams.isSkipMeta() )
             .setPage( requestParams.getPage() )
             .setPageSize( requestParams.getPageSize() )
-            .setTotalPages( requestParams.isTotalPages() )
+            .setTotalPages( requestParams.isTotalPages() && !keysetPaging )
             .setSkipPaging( toBooleanDefaultIfNull( requestParams.isSkipPaging(), false ) )
+            .setKeysetPaging( keysetPaging )
+            .setAfterId( PageToken.decode( requestParams.getPageToken() ) )
             .setIncludeDeleted( requestParams.isIncludeDeleted() )
             .setIncludeAllAttributes( requestParams.isIncludeAllAttributes() )
             .setPotentialDuplicate( requestParams.getPotentialDuplicate() )
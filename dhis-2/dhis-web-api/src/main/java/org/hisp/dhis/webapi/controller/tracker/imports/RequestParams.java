@@ -86,6 +86,14 @@ class RequestParams
     @Builder.Default
     private ValidationMode validationMode = ValidationMode.FULL;
 
+    /**
+     * Should independent tracked entity trees be validated in parallel,
+     * default is not.
+     */
+    @JsonProperty
+    @Builder.Default
+    private boolean parallelValidation = false;
+
     /**
      * Should text pattern validation be skipped or not, default is not.
      */
@@ -67,6 +67,7 @@ public class TrackerImportParamsMapper
         TrackerImportParams.TrackerImportParamsBuilder paramsBuilder = TrackerImportParams
             .builder()
             .validationMode( request.getValidationMode() )
+            .parallelValidation( request.isParallelValidation() )
             .importMode( request.getImportMode() )
             .idSchemes( idSchemeParams )
             .importStrategy( request.getImportStrategy() )
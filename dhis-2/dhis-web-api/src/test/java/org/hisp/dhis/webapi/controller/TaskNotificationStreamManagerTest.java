@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.webapi.controller;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.concurrent.ScheduledFuture;
+
+import org.hisp.dhis.feedback.ConflictException;
+import org.hisp.dhis.scheduling.JobType;
+import org.hisp.dhis.system.notification.Notifier;
+import org.hisp.dhis.system.thread.BoundedExecutor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.TaskScheduler;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Tests the limits of the {@link TaskNotificationStreamManager}.
+ */
+class TaskNotificationStreamManagerTest
+{
+    private TaskNotificationStreamManager manager;
+
+    @BeforeEach
+    void setUp()
+    {
+        Notifier notifier = mock( Notifier.class );
+        when( notifier.subscribe( any(), any(), any() ) ).thenReturn( () -> {
+        } );
+        when( notifier.getNotificationsByJobId( any(), any(), anyLong() ) ).thenReturn( new ArrayDeque<>() );
+        TaskScheduler scheduler = mock( TaskScheduler.class );
+        when( scheduler.scheduleAtFixedRate( any( Runnable.class ), any( Duration.class ) ) )
+            .then( invocation -> mock( ScheduledFuture.class ) );
+        manager = new TaskNotificationStreamManager( notifier, scheduler,
+            new BoundedExecutor( "notification.stream", 1, new SimpleMeterRegistry() ), 2, 3 );
+    }
+
+    @AfterEach
+    void tearDown()
+    {
+        manager.shutdown();
+    }
+
+    @Test
+    void testOpen_TooManyStreamsForJob()
+    {
+        assertDoesNotThrow( () -> manager.open( JobType.DATA_INTEGRITY, "job1", 0L, "alice" ) );
+        assertDoesNotThrow( () -> manager.open( JobType.DATA_INTEGRITY, "job1", 0L, "bob" ) );
+
+        assertThrows( ConflictException.class,
+            () -> manager.open( JobType.DATA_INTEGRITY, "job1", 0L, "carol" ) );
+        assertDoesNotThrow( () -> manager.open( JobType.DATA_INTEGRITY, "job2", 0L, "carol" ) );
+    }
+
+    @Test
+    void testOpen_TooManyStreamsForUser()
+    {
+        assertDoesNotThrow( () -> manager.open( JobType.DATA_INTEGRITY, "job1", 0L, "alice" ) );
+        assertDoesNotThrow( () -> manager.open( JobType.DATA_INTEGRITY, "job2", 0L, "alice" ) );
+        assertDoesNotThrow( () -> manager.open( JobType.DATA_INTEGRITY, "job3", 0L, "alice" ) );
+
+        assertThrows( ConflictException.class,
+            () -> manager.open( JobType.DATA_INTEGRITY, "job4", 0L, "alice" ) );
+        assertDoesNotThrow( () -> manager.open( JobType.DATA_INTEGRITY, "job4", 0L, "bob" ) );
+    }
+}
@@ -0,0 +1,300 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.webapi.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import org.hisp.dhis.scheduling.JobType;
+import org.hisp.dhis.system.notification.Notification;
+import org.hisp.dhis.system.notification.Notifier;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Tests the {@link TaskNotificationStream}.
+ */
+@ExtendWith( MockitoExtension.class )
+class TaskNotificationStreamTest
+{
+    private static final String JOB_ID = "job1";
+
+    @Mock
+    private Notifier notifier;
+
+    @Mock
+    private TaskScheduler scheduler;
+
+    @Mock
+    private Runnable unsubscribe;
+
+    @Mock
+    private ScheduledFuture<?> heartbeat;
+
+    @Captor
+    private ArgumentCaptor<Consumer<Notification>> listener;
+
+    @Captor
+    private ArgumentCaptor<Runnable> heartbeatTask;
+
+    private final List<Runnable> sends = new ArrayList<>();
+
+    private final AtomicInteger closed = new AtomicInteger();
+
+    private final RecordingEmitter emitter = new RecordingEmitter();
+
+    @BeforeEach
+    void setUp()
+    {
+        when( notifier.subscribe( eq( JobType.DATA_INTEGRITY ), eq( JOB_ID ), listener.capture() ) )
+            .thenReturn( unsubscribe );
+        when( scheduler.scheduleAtFixedRate( heartbeatTask.capture(), any( Duration.class ) ) )
+            .then( invocation -> heartbeat );
+    }
+
+    @Test
+    void testSendsNotificationsOldestFirstOnSender()
+    {
+        when( notifier.getNotificationsByJobId( JobType.DATA_INTEGRITY, JOB_ID, 0L ) )
+            .thenReturn( newestFirst( notification( 1, false ), notification( 2, false ) ) );
+
+        start( sends::add );
+
+        assertEquals( List.of(), emitter.events, "nothing must be sent on the calling thread" );
+        runSends();
+        assertEquals( List.of( "1", "2" ), emitter.events );
+        assertFalse( emitter.completed );
+        assertEquals( 0, closed.get() );
+    }
+
+    @Test
+    void testSendsOnlyNotificationsNotSentBefore()
+    {
+        when( notifier.getNotificationsByJobId( JobType.DATA_INTEGRITY, JOB_ID, 0L ) )
+            .thenReturn( newestFirst( notification( 1, false ) ) );
+        when( notifier.getNotificationsByJobId( JobType.DATA_INTEGRITY, JOB_ID, 1L ) )
+            .thenReturn( newestFirst( notification( 2, false ) ) );
+
+        start( sends::add );
+        runSends();
+        listener.getValue().accept( notification( 2, false ) );
+        runSends();
+
+        assertEquals( List.of( "1", "2" ), emitter.events );
+    }
+
+    @Test
+    void testBurstOfNotificationsIsCoalesced()
+    {
+        when( notifier.getNotificationsByJobId( JobType.DATA_INTEGRITY, JOB_ID, 0L ) )
+            .thenReturn( newestFirst( notification( 1, false ), notification( 2, false ),
+                notification( 3, false ) ) );
+
+        start( sends::add );
+        listener.getValue().accept( notification( 1, false ) );
+        listener.getValue().accept( notification( 2, false ) );
+        listener.getValue().accept( notification( 3, false ) );
+
+        assertEquals( 1, sends.size(), "only one send should wait for the sender" );
+        runSends();
+        assertEquals( List.of( "1", "2", "3" ), emitter.events );
+    }
+
+    @Test
+    void testCompletesAfterCompletedNotification()
+    {
+        when( notifier.getNotificationsByJobId( JobType.DATA_INTEGRITY, JOB_ID, 0L ) )
+            .thenReturn( newestFirst( notification( 1, false ), notification( 2, true ) ) );
+
+        start( sends::add );
+        runSends();
+
+        assertEquals( List.of( "1", "2" ), emitter.events );
+        assertTrue( emitter.completed );
+        assertEquals( 1, closed.get() );
+        verify( unsubscribe ).run();
+        verify( heartbeat ).cancel( false );
+    }
+
+    @Test
+    void testHeartbeatIsSentOnSender()
+    {
+        when( notifier.getNotificationsByJobId( eq( JobType.DATA_INTEGRITY ), eq( JOB_ID ), anyLong() ) )
+            .thenReturn( new ArrayDeque<>() );
+
+        start( sends::add );
+        runSends();
+        heartbeatTask.getValue().run();
+
+        assertEquals( List.of(), emitter.events, "heartbeat must not be sent on the scheduler" );
+        runSends();
+        assertEquals( List.of( "heartbeat" ), emitter.events );
+    }
+
+    @Test
+    void testRejectedSendClosesStream()
+    {
+        start( task -> {
+            throw new RejectedExecutionException();
+        } );
+
+        assertInstanceOf( RejectedExecutionException.class, emitter.error );
+        assertEquals( 1, closed.get() );
+        verify( unsubscribe ).run();
+    }
+
+    @Test
+    void testSendRunOnCallingThreadIsLeftToHeartbeat()
+    {
+        when( notifier.getNotificationsByJobId( JobType.DATA_INTEGRITY, JOB_ID, 0L ) )
+            .thenReturn( newestFirst( notification( 1, false ) ) );
+        AtomicBoolean busy = new AtomicBoolean( true );
+
+        start( task -> {
+            if ( busy.get() )
+            {
+                task.run();
+            }
+            else
+            {
+                sends.add( task );
+            }
+        } );
+
+        assertEquals( List.of(), emitter.events, "nothing must be sent on the calling thread" );
+        busy.set( false );
+        heartbeatTask.getValue().run();
+        runSends();
+        assertEquals( List.of( "1" ), emitter.events );
+        assertEquals( 0, closed.get() );
+    }
+
+    private void start( Executor sender )
+    {
+        new TaskNotificationStream( notifier, scheduler, sender, JobType.DATA_INTEGRITY, JOB_ID, 0L,
+            closed::incrementAndGet, emitter ).start();
+    }
+
+    /**
+     * Runs the waiting sends like a sender does, on a thread other than the one
+     * which scheduled them.
+     */
+    private void runSends()
+    {
+        while ( !sends.isEmpty() )
+        {
+            Thread sender = new Thread( sends.remove( 0 ) );
+            sender.start();
+            try
+            {
+                sender.join();
+            }
+            catch ( InterruptedException ex )
+            {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException( ex );
+            }
+        }
+    }
+
+    private static Notification notification( long seq, boolean completed )
+    {
+        Notification notification = new Notification();
+        notification.setSeq( seq );
+        notification.setCompleted( completed );
+        return notification;
+    }
+
+    private static Deque<Notification> newestFirst( Notification... oldestFirst )
+    {
+        Deque<Notification> notifications = new ArrayDeque<>();
+        for ( Notification notification : oldestFirst )
+        {
+            notifications.addFirst( notification );
+        }
+        return notifications;
+    }
+
+    /**
+     * Records the IDs of sent events, or "heartbeat" for comments, instead of
+     * writing them to a response.
+     */
+    private static final class RecordingEmitter extends SseEmitter
+    {
+        final List<String> events = new ArrayList<>();
+
+        boolean completed;
+
+        Throwable error;
+
+        @Override
+        public void send( SseEventBuilder builder )
+        {
+            String event = builder.build().iterator().next().getData().toString();
+            events.add( event.startsWith( "id:" ) ? event.substring( 3, event.indexOf( '\n' ) ) : "heartbeat" );
+        }
+
+        @Override
+        public synchronized void complete()
+        {
+            completed = true;
+        }
+
+        @Override
+        public synchronized void completeWithError( Throwable ex )
+        {
+            error = ex;
+        }
+    }
+}
@@ -31,6 +31,9 @@ import static org.hisp.dhis.utils.Assertions.assertContainsOnly;
 import static org.hisp.dhis.utils.Assertions.assertIsEmpty;
 import static org.hisp.dhis.webapi.controller.tracker.export.enrollment.RequestParams.DEFAULT_FIELDS_PARAM;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -39,6 +42,7 @@ import static org.mockito.Mockito.when;
 import java.util.List;
 import java.util.Set;
 
+import org.hisp.dhis.feedback.BadRequestException;
 import org.hisp.dhis.fieldfiltering.FieldFilterParser;
 import org.hisp.dhis.tracker.export.enrollment.EnrollmentOperationParams;
 import org.hisp.dhis.tracker.export.enrollment.EnrollmentParams;
@@ -46,6 +50,7 @@ import org.hisp.dhis.webapi.common.UID;
 import org.hisp.dhis.webapi.controller.event.mapper.OrderParam;
 import org.hisp.dhis.webapi.controller.event.mapper.SortDirection;
 import org.hisp.dhis.webapi.controller.event.webrequest.OrderCriteria;
+import org.hisp.dhis.webapi.controller.tracker.export.PageToken;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -84,6 +89,7 @@ class EnrollmentRequestParamsMapperTest
 
     @Test
     void testMappingDoesNotFetchOptionalEmptyQueryParametersFromDB()
+        throws BadRequestException
     {
         RequestParams requestParams = new RequestParams();
 
@@ -94,6 +100,7 @@ class EnrollmentRequestParamsMapperTest
 
     @Test
     void testMappingOrgUnit()
+        throws BadRequestException
     {
         RequestParams requestParams = new RequestParams();
         requestParams.setOrgUnit( ORG_UNIT_1_UID + ";" + ORG_UNIT_2_UID );
@@ -106,6 +113,7 @@ class EnrollmentRequestParamsMapperTest
 
     @Test
     void testMappingOrgUnits()
+        throws BadRequestException
     {
         RequestParams requestParams = new RequestParams();
         requestParams.setOrgUnits( Set.of( UID.of( ORG_UNIT_1_UID ), UID.of( ORG_UNIT_2_UID ) ) );
@@ -118,6 +126,7 @@ class EnrollmentRequestParamsMapperTest
 
     @Test
     void testMappingProgram()
+        throws BadRequestException
     {
         RequestParams requestParams = new RequestParams();
         requestParams.setProgram( UID.of( PROGRAM_UID ) );
@@ -129,6 +138,7 @@ class EnrollmentRequestParamsMapperTest
 
     @Test
     void testMappingTrackedEntityType()
+        throws BadRequestException
     {
         RequestParams requestParams = new RequestParams();
         requestParams.setTrackedEntityType( UID.of( TRACKED_ENTITY_TYPE_UID ) );
@@ -140,6 +150,7 @@ class EnrollmentRequestParamsMapperTest
 
     @Test
     void testMappingTrackedEntity()
+        throws BadRequestException
     {
         RequestParams requestParams = new RequestParams();
         requestParams.setTrackedEntity( UID.of( TRACKED_ENTITY_UID ) );
@@ -151,6 +162,7 @@ class EnrollmentRequestParamsMapperTest
 
     @Test
     void testMappingOrderParams()
+        throws BadRequestException
     {
         RequestParams requestParams = new RequestParams();
         OrderCriteria order1 = OrderCriteria.of( "field1", SortDirection.ASC );
@@ -166,6 +178,7 @@ class EnrollmentRequestParamsMapperTest
 
     @Test
     void testMappingOrderParamsNoOrder()
+        throws BadRequestException
     {
         RequestParams requestParams = new RequestParams();
 
@@ -173,4 +186,38 @@ class EnrollmentRequestParamsMapperTest
 
         assertIsEmpty( params.getOrder() );
     }
+
+    @Test
+    void testMappingPageTokenEnablesKeysetPaging()
+        throws BadRequestException
+    {
+        RequestParams requestParams = new RequestParams();
+        requestParams.setPageToken( PageToken.encode( 42L ) );
+        requestParams.setTotalPages( true );
+
+        EnrollmentOperationParams params = mapper.map( requestParams );
+
+        assertTrue( params.isKeysetPaging() );
+        assertEquals( 42L, params.getAfterId() );
+        assertFalse( params.isTotalPages() );
+    }
+
+    @Test
+    void testMappingKeysetPagingWithOrderFails()
+    {
+        RequestParams requestParams = new RequestParams();
+        requestParams.setKeysetPaging( true );
+        requestParams.setOrder( List.of( OrderCriteria.of( "field1", SortDirection.ASC ) ) );
+
+        assertThrows( BadRequestException.class, () -> mapper.map( requestParams ) );
+    }
+
+    @Test
+    void testMappingInvalidPageTokenFails()
+    {
+        RequestParams requestParams = new RequestParams();
+        requestParams.setPageToken( "not a token" );
+
+        assertThrows( BadRequestException.class, () -> mapper.map( requestParams ) );
+    }
 }